@@ -157,6 +157,75 @@ public final class CConfiguration
                 {{
                     // sleep time of the thread
                     put( "threadsleeptime", 25 );
+                    // real-time factor (simulated time / wall-clock time), zero uses the thread sleep time
+                    put( "realtimefactor", 0 );
+                    put(
+                            // scheduler of the main loop
+                            "scheduler", new CNameHashMap.CImmutable()
+                            {{
+                                // current scheduler
+                                put( "current", "InvokeAll" );
+                                // independent layers are run concurrently on the invoke-all scheduler
+                                put( "concurrentlayer", false );
+                                // number of steps, which the evaluation layers can run behind the simulation, zero evaluates within the step
+                                put( "pipelinelag", 0 );
+                                // number of steps between two rebalances of the cost-aware object partitions on the invoke-all scheduler, zero creates a task for each object
+                                put( "rebalance", 10 );
+                                // step time budget of the layer objects on the invoke-all scheduler in milliseconds, objects on the budget end are quarantined, zero disables the budget
+                                put( "deadline", 0 );
+                                // cars and waypoints are moved by timestamped events instead of the fixed time step
+                                put( "eventdriven", false );
+                                put(
+                                        // allowed scheduler names
+                                        "allow", new ArrayList<String>()
+                                        {{
+                                            add( "InvokeAll" );
+                                            add( "Phase" );
+                                        }}
+                                );
+                            }}
+                    );
+                    put(
+                            // execution backend of the agent layers
+                            "agentexecutor", new CNameHashMap.CImmutable()
+                            {{
+                                // current backend
+                                put( "current", "Shared" );
+                                put(
+                                        // allowed backend names
+                                        "allow", new ArrayList<String>()
+                                        {{
+                                            add( "Shared" );
+                                            add( "Dedicated" );
+                                            add( "Virtual" );
+                                        }}
+                                );
+                            }}
+                    );
+                    put(
+                            // distributed simulation with a coordinator and worker processes on the local host
+                            "distributed", new CNameHashMap.CImmutable()
+                            {{
+                                // port of the coordinator
+                                put( "port", 9877 );
+                                put(
+                                        // partitioning of the world between the workers
+                                        "partition", new CNameHashMap.CImmutable()
+                                        {{
+                                            // current partitioning
+                                            put( "current", "Region" );
+                                            put(
+                                                    // allowed partitioning names
+                                                    "allow", new ArrayList<String>()
+                                                    {{
+                                                        add( "Region" );
+                                                        add( "Population" );
+                                                    }}
+                                            );
+                                        }}
+                                );
+                            }}
+                    );
 
                     put(
                             // traffic simulation components - accessible within the UI
@@ -168,11 +237,25 @@ public final class CConfiguration
                                 // time sampling in seconds - each simulation step is equal to this time
                                 // the traffic simualtion defines 300s as minimum for smoothing stochastical distortions
                                 put( "timesampling", 300 );
+                                // number of graph regions for the domain decomposition of the car layer, each region
+                                // is stepped by one worker, values less than two disable the decomposition
+                                put( "regions", 0 );
+                                // double-buffered edge cells, cars read the state of the previous step and moves are committed between the steps
+                                put( "doublebuffer", false );
                                 put(
                                         "routing", new CNameHashMap.CImmutable()
                                         {{
                                             // current routing algorithms
                                             put( "algorithm", "astarbi" );
+                                            // maximum number of cached routes between two nodes, zero disables the cache
+                                            put( "cache", 4096 );
+                                            // number of steps of a traffic epoch, cached routes of the traffic jam weighting are valid
+                                            // within one epoch, zero disables the cache of the traffic jam weighting
+                                            put( "cacheepoch", 10 );
+                                            // contraction hierarchies of the default weighting, dynamic weightings are routed on the base graph
+                                            put( "contractionhierarchies", true );
+                                            // number of landmarks of the dynamic weightings, zero disables the landmarks
+                                            put( "landmarks", 8 );
                                             put(
                                                     // allowed strings of the routing algoritm
                                                     "allow", new ArrayList<String>()
@@ -308,6 +391,74 @@ public final class CConfiguration
                     add( new CInRange( 1, 1500 ) );
                 }}
         );
+        put(
+                "simulation/realtimefactor", new LinkedList<ICheck>()
+                {{
+                    add( new CClassType( Number.class ) );
+                    add( new CInRange( 0, 10000 ) );
+                }}
+        );
+        put(
+                "simulation/scheduler/current", new LinkedList<ICheck>()
+                {{
+                    add( new CClassType( String.class ) );
+                    add( new CContains<String>( m_configuration.<List<String>>get( "simulation/scheduler/allow" ) ) );
+                }}
+        );
+        put(
+                "simulation/scheduler/concurrentlayer", new LinkedList<ICheck>()
+                {{
+                    add( new CClassType( Boolean.class ) );
+                }}
+        );
+        put(
+                "simulation/scheduler/pipelinelag", new LinkedList<ICheck>()
+                {{
+                    add( new CClassType( Number.class ) );
+                    add( new CInRange( 0, 1000 ) );
+                }}
+        );
+        put(
+                "simulation/scheduler/rebalance", new LinkedList<ICheck>()
+                {{
+                    add( new CClassType( Number.class ) );
+                    add( new CInRange( 0, 10000 ) );
+                }}
+        );
+        put(
+                "simulation/scheduler/deadline", new LinkedList<ICheck>()
+                {{
+                    add( new CClassType( Number.class ) );
+                    add( new CInRange( 0, 3600000 ) );
+                }}
+        );
+        put(
+                "simulation/scheduler/eventdriven", new LinkedList<ICheck>()
+                {{
+                    add( new CClassType( Boolean.class ) );
+                }}
+        );
+        put(
+                "simulation/agentexecutor/current", new LinkedList<ICheck>()
+                {{
+                    add( new CClassType( String.class ) );
+                    add( new CContains<String>( m_configuration.<List<String>>get( "simulation/agentexecutor/allow" ) ) );
+                }}
+        );
+        put(
+                "simulation/distributed/port", new LinkedList<ICheck>()
+                {{
+                    add( new CClassType( Number.class ) );
+                    add( new CGreater( 1024 ) );
+                }}
+        );
+        put(
+                "simulation/distributed/partition/current", new LinkedList<ICheck>()
+                {{
+                    add( new CClassType( String.class ) );
+                    add( new CContains<String>( m_configuration.<List<String>>get( "simulation/distributed/partition/allow" ) ) );
+                }}
+        );
 
         put(
                 "simulation/traffic/cellsampling", new LinkedList<ICheck>()
@@ -323,6 +474,19 @@ public final class CConfiguration
                     add( new CInRange( 1, 360 ) );
                 }}
         );
+        put(
+                "simulation/traffic/doublebuffer", new LinkedList<ICheck>()
+                {{
+                    add( new CClassType( Boolean.class ) );
+                }}
+        );
+        put(
+                "simulation/traffic/regions", new LinkedList<ICheck>()
+                {{
+                    add( new CClassType( Number.class ) );
+                    add( new CInRange( 0, 4096 ) );
+                }}
+        );
 
         put(
                 "simulation/traffic/routing/algorithm", new LinkedList<ICheck>()
@@ -331,6 +495,33 @@ public final class CConfiguration
                     add( new CContains<String>( m_configuration.<List<String>>get( "simulation/traffic/routing/allow" ) ) );
                 }}
         );
+        put(
+                "simulation/traffic/routing/cache", new LinkedList<ICheck>()
+                {{
+                    add( new CClassType( Number.class ) );
+                    add( new CInRange( 0, 1048576 ) );
+                }}
+        );
+        put(
+                "simulation/traffic/routing/cacheepoch", new LinkedList<ICheck>()
+                {{
+                    add( new CClassType( Number.class ) );
+                    add( new CInRange( 0, 1048576 ) );
+                }}
+        );
+        put(
+                "simulation/traffic/routing/contractionhierarchies", new LinkedList<ICheck>()
+                {{
+                    add( new CClassType( Boolean.class ) );
+                }}
+        );
+        put(
+                "simulation/traffic/routing/landmarks", new LinkedList<ICheck>()
+                {{
+                    add( new CClassType( Number.class ) );
+                    add( new CInRange( 0, 32 ) );
+                }}
+        );
 
         put(
                 "simulation/traffic/map/reimport", new LinkedList<ICheck>()
@@ -25,13 +25,20 @@
 package de.tu_clausthal.in.mec;
 
 import de.tu_clausthal.in.mec.common.CCommon;
+import de.tu_clausthal.in.mec.runtime.CSeed;
 import de.tu_clausthal.in.mec.runtime.CSimulation;
 import de.tu_clausthal.in.mec.runtime.benchmark.CSummary;
+import de.tu_clausthal.in.mec.runtime.distributed.CCoordinator;
+import de.tu_clausthal.in.mec.runtime.distributed.CWorker;
+import de.tu_clausthal.in.mec.runtime.distributed.EPartition;
+import de.tu_clausthal.in.mec.runtime.sweep.CSweep;
 import de.tu_clausthal.in.mec.ui.CUI;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.DefaultParser;
 import org.apache.commons.cli.HelpFormatter;
 import org.apache.commons.cli.Options;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
 import org.pmw.tinylog.Level;
 
 import java.io.File;
@@ -68,7 +75,12 @@ public final class CMain
         l_clioptions.addOption( "uibindport", true, CCommon.getResourceString( CMain.class, "uibindport" ) );
         l_clioptions.addOption( "uibindhost", true, CCommon.getResourceString( CMain.class, "uibindhost" ) );
         l_clioptions.addOption( "step", true, CCommon.getResourceString( CMain.class, "step" ) );
+        l_clioptions.addOption( "batch", false, CCommon.getResourceString( CMain.class, "batch" ) );
+        l_clioptions.addOption( "seed", true, CCommon.getResourceString( CMain.class, "seed" ) );
+        l_clioptions.addOption( "coordinator", true, CCommon.getResourceString( CMain.class, "coordinator" ) );
+        l_clioptions.addOption( "worker", false, CCommon.getResourceString( CMain.class, "worker" ) );
         l_clioptions.addOption( "benchmark", true, CCommon.getResourceString( CMain.class, "benchmark" ) );
+        l_clioptions.addOption( "sweep", true, CCommon.getResourceString( CMain.class, "sweep" ) );
         l_clioptions.addOption( "loglevel", true, CCommon.getResourceString( CMain.class, "loglevel" ) );
         l_clioptions.addOption( "logfile", true, CCommon.getResourceString( CMain.class, "logfile" ) );
 
@@ -106,6 +118,19 @@ public final class CMain
         CLogger.create( l_loglevel, l_logfile );
 
 
+        // set master seed before the simulation is initialized
+        try
+        {
+            if ( l_cli.hasOption( "seed" ) )
+                CSeed.getInstance().setSeed( Long.parseLong( l_cli.getOptionValue( "seed" ) ) );
+        }
+        catch ( final NumberFormatException l_exception )
+        {
+            System.err.println( CCommon.getResourceString( CMain.class, "parseerror", l_exception.getLocalizedMessage() ) );
+            System.exit( -1 );
+        }
+
+
         // read the configuration directory (default ~/.mecsim)
         File l_defaultconfig = CConfiguration.getInstance().getLocation( "root" );
         if ( l_cli.hasOption( "configuration" ) )
@@ -152,8 +177,71 @@ public final class CMain
 
 
         // performtemplate application
-        if ( !l_cli.hasOption( "nogui" ) )
+        if ( l_cli.hasOption( "coordinator" ) )
+        {
+            try
+            {
+                if ( ( !l_cli.hasOption( "step" ) ) )
+                    throw new IllegalAccessException( CCommon.getResourceString( CMain.class, "stepnotset" ) );
+
+                new CCoordinator(
+                        CConfiguration.getInstance().get().<Number>get( "simulation/distributed/port" ).intValue(),
+                        Integer.parseInt( l_cli.getOptionValue( "coordinator" ) ),
+                        EPartition.valueOf( CConfiguration.getInstance().get().<String>get( "simulation/distributed/partition/current" ) )
+                ).run( Integer.parseInt( l_cli.getOptionValue( "step" ) ) );
+            }
+            catch ( final Exception l_exception )
+            {
+                CLogger.error( l_exception );
+                CLogger.out( CCommon.getResourceString( CMain.class, "loadingerror" ) );
+                System.exit( -1 );
+            }
+        }
+        else if ( !l_cli.hasOption( "nogui" ) )
             CUI.main( null );
+        else if ( l_cli.hasOption( "sweep" ) )
+        {
+            try
+            {
+                if ( ( !l_cli.hasOption( "step" ) ) )
+                    throw new IllegalAccessException( CCommon.getResourceString( CMain.class, "stepnotset" ) );
+
+                final File l_grid = new File( l_cli.getOptionValue( "sweep" ) );
+                final File l_result = new File( l_grid.getAbsoluteFile().getParentFile(), FilenameUtils.getBaseName( l_grid.getName() ) + "-result.json" );
+
+                CSweep.store(
+                        l_result, new CSweep(
+                                new File( l_cli.getOptionValue( "nogui" ) ),
+                                Integer.parseInt( l_cli.getOptionValue( "step" ) ),
+                                CCommon.fromJson( FileUtils.readFileToString( l_grid, "UTF-8" ) )
+                        ).run( Runtime.getRuntime().availableProcessors() )
+                );
+                CLogger.out( CCommon.getResourceString( CMain.class, "sweepresult", l_result ) );
+                CBootstrap.onApplicationClose();
+            }
+            catch ( final Exception l_exception )
+            {
+                CLogger.error( l_exception );
+                CLogger.out( CCommon.getResourceString( CMain.class, "loadingerror" ) );
+                System.exit( -1 );
+            }
+        }
+        else if ( l_cli.hasOption( "worker" ) )
+        {
+            try
+            {
+                CSimulation.getInstance().load( new File( l_cli.getOptionValue( "nogui" ) ) );
+                CSimulation.getInstance().setBatch( true );
+                new CWorker( CConfiguration.getInstance().get().<Number>get( "simulation/distributed/port" ).intValue() ).run();
+                CBootstrap.onApplicationClose();
+            }
+            catch ( final Exception l_exception )
+            {
+                CLogger.error( l_exception );
+                CLogger.out( CCommon.getResourceString( CMain.class, "loadingerror" ) );
+                System.exit( -1 );
+            }
+        }
         else
         {
             try
@@ -161,8 +249,20 @@ public final class CMain
                 if ( ( !l_cli.hasOption( "step" ) ) )
                     throw new IllegalAccessException( CCommon.getResourceString( CMain.class, "stepnotset" ) );
 
+                final int l_steps = Integer.parseInt( l_cli.getOptionValue( "step" ) );
                 CSimulation.getInstance().load( new File( l_cli.getOptionValue( "nogui" ) ) );
-                CSimulation.getInstance().start( Integer.parseInt( l_cli.getOptionValue( "step" ) ) );
+                CSimulation.getInstance().setBatch( l_cli.hasOption( "batch" ) );
+
+                final long l_start = System.nanoTime();
+                CSimulation.getInstance().start( l_steps );
+                final double l_time = ( System.nanoTime() - l_start ) * 1e-9;
+
+                if ( CSimulation.getInstance().isBatch() )
+                    CLogger.out(
+                            CCommon.getResourceString(
+                                    CMain.class, "batchresult", l_steps, l_time, l_steps / l_time, CSeed.getInstance().getSeed()
+                            )
+                    );
                 CBootstrap.onApplicationClose();
 
             }
@@ -24,6 +24,7 @@
 
 package de.tu_clausthal.in.mec.common;
 
+import de.tu_clausthal.in.mec.runtime.CSimulation;
 import org.apache.commons.math3.distribution.AbstractRealDistribution;
 import org.apache.commons.math3.distribution.BetaDistribution;
 import org.apache.commons.math3.distribution.ExponentialDistribution;
@@ -108,7 +109,7 @@ public enum EDistribution
     }
 
     /**
-     * returns a distribution object
+     * returns a distribution object, which is seeded by the master seed
      *
      * @param p_firstmomentum lower / first momentum
      * @param p_secondmomentum higher / second momentum
@@ -119,16 +120,16 @@ public enum EDistribution
         switch ( this )
         {
             case Uniform:
-                return new UniformRealDistribution( p_firstmomentum, p_secondmomentum );
+                return new UniformRealDistribution( CSimulation.getInstance().getSeed().getRandomGenerator(), p_firstmomentum, p_secondmomentum );
 
             case Normal:
-                return new NormalDistribution( p_firstmomentum, p_secondmomentum );
+                return new NormalDistribution( CSimulation.getInstance().getSeed().getRandomGenerator(), p_firstmomentum, p_secondmomentum );
 
             case Exponential:
-                return new ExponentialDistribution( p_firstmomentum );
+                return new ExponentialDistribution( CSimulation.getInstance().getSeed().getRandomGenerator(), p_firstmomentum );
 
             case Beta:
-                return new BetaDistribution( p_firstmomentum, p_secondmomentum );
+                return new BetaDistribution( CSimulation.getInstance().getSeed().getRandomGenerator(), p_firstmomentum, p_secondmomentum );
 
             default:
                 throw new IllegalStateException( CCommon.getResourceString( EDistribution.class, "unknowndistribution" ) );
@@ -0,0 +1,60 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.object;
+
+/**
+ * resources which are read or written by the objects of a layer, the main loop
+ * runs layers concurrently if they have no read-write or write-write conflict
+ *
+ * @note objects which are added to a layer via its concurrent collection (e.g. new cars
+ * or agents) are a source, so they can be seen by a concurrent layer within the same step
+ */
+public enum EResource
+{
+    /**
+     * state of the cars and the edge occupancy
+     */
+    Cars,
+    /**
+     * new cars and agents, which are created by the sources
+     */
+    CarSources,
+    /**
+     * agent population and beliefs
+     */
+    Agents,
+    /**
+     * message system
+     */
+    Messages,
+    /**
+     * inconsistency values of the agents
+     */
+    Inconsistency,
+    /**
+     * evaluation data within the database
+     */
+    Database;
+}
@@ -26,6 +26,8 @@ package de.tu_clausthal.in.mec.object;
 
 import de.tu_clausthal.in.mec.runtime.ISteppable;
 
+import java.util.Set;
+
 
 /**
  * interface of the layer
@@ -40,6 +42,21 @@ public interface ILayer extends ISteppable
      */
     int getCalculationIndex();
 
+    /**
+     * returns the resources, which are read by the layer objects
+     *
+     * @return set of resources
+     */
+    Set<EResource> getReadResources();
+
+    /**
+     * returns the resources, which are written by the layer objects
+     *
+     * @return set of resources
+     * @note a layer without any declaration should return all resources, so it is run in order
+     */
+    Set<EResource> getWriteResources();
+
     /**
      * checks activity of the layer
      *
@@ -54,6 +71,28 @@ public interface ILayer extends ISteppable
      */
     void setActive( final boolean p_active );
 
+    /**
+     * returns the number of steps between two steps of the layer
+     *
+     * @return period
+     */
+    int getStepPeriod();
+
+    /**
+     * returns the step offset within the period
+     *
+     * @return phase
+     */
+    int getStepPhase();
+
+    /**
+     * sets the stepping of the layer, the layer is run on each step with ( step - phase ) % period == 0
+     *
+     * @param p_period number of steps between two steps of the layer
+     * @param p_phase step offset within the period
+     */
+    void setStepPeriod( final int p_period, final int p_phase );
+
     /**
      * is called on simulation start
      */
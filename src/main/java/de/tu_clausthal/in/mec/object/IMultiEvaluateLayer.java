@@ -24,12 +24,15 @@
 
 package de.tu_clausthal.in.mec.object;
 
+import de.tu_clausthal.in.mec.common.CCommon;
 import de.tu_clausthal.in.mec.runtime.ISteppable;
 import de.tu_clausthal.in.mec.runtime.IVoidSteppable;
 
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 
@@ -42,6 +45,14 @@ public abstract class IMultiEvaluateLayer<T extends ISteppable> implements ILaye
      * flag for activity
      */
     protected boolean m_active = true;
+    /**
+     * number of steps between two steps of the layer
+     */
+    protected int m_stepperiod = 1;
+    /**
+     * step offset within the period
+     */
+    protected int m_stepphase;
     /**
      * list of data items
      */
@@ -53,6 +64,18 @@ public abstract class IMultiEvaluateLayer<T extends ISteppable> implements ILaye
         return Integer.MAX_VALUE;
     }
 
+    @Override
+    public Set<EResource> getReadResources()
+    {
+        return EnumSet.allOf( EResource.class );
+    }
+
+    @Override
+    public Set<EResource> getWriteResources()
+    {
+        return EnumSet.allOf( EResource.class );
+    }
+
     @Override
     public final boolean isActive()
     {
@@ -65,6 +88,28 @@ public abstract class IMultiEvaluateLayer<T extends ISteppable> implements ILaye
         m_active = p_active;
     }
 
+    @Override
+    public final int getStepPeriod()
+    {
+        return m_stepperiod;
+    }
+
+    @Override
+    public final int getStepPhase()
+    {
+        return m_stepphase;
+    }
+
+    @Override
+    public final void setStepPeriod( final int p_period, final int p_phase )
+    {
+        if ( ( p_period < 1 ) || ( p_phase < 0 ) || ( p_phase >= p_period ) )
+            throw new IllegalArgumentException( CCommon.getResourceString( ILayer.class, "stepperiod" ) );
+
+        m_stepperiod = p_period;
+        m_stepphase = p_phase;
+    }
+
     @Override
     public void onSimulationStart()
     {
@@ -24,6 +24,7 @@
 
 package de.tu_clausthal.in.mec.object;
 
+import de.tu_clausthal.in.mec.common.CCommon;
 import de.tu_clausthal.in.mec.runtime.CSimulation;
 import de.tu_clausthal.in.mec.runtime.ISteppable;
 import de.tu_clausthal.in.mec.runtime.IVoidSteppable;
@@ -34,10 +35,19 @@ import de.tu_clausthal.in.mec.ui.IViewableLayer;
 import org.jxmapviewer.painter.Painter;
 
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
@@ -51,10 +61,43 @@ public abstract class IMultiLayer<T extends ISteppable & Painter> implements Pai
      * flag for activity
      */
     protected boolean m_active = true;
+    /**
+     * number of steps between two steps of the layer
+     */
+    protected int m_stepperiod = 1;
+    /**
+     * step offset within the period
+     */
+    protected int m_stepphase;
     /**
      * list of data items
      */
     protected final Queue<T> m_data = new ConcurrentLinkedDeque<>();
+    /**
+     * insertion number of each item, which defines the order of the awake items
+     */
+    private final Map<T, Long> m_sequence = new ConcurrentHashMap<>();
+    /**
+     * counter of the insertion numbers
+     */
+    private final AtomicLong m_counter = new AtomicLong();
+    /**
+     * items, which are stepped, if idle items exist, ordered by the insertion number,
+     * so the order does not depend on the hash values of the items
+     */
+    private final NavigableMap<Long, T> m_awake = new ConcurrentSkipListMap<>();
+    /**
+     * idle items, which wait for a wake-up call
+     */
+    private final Set<T> m_idle = ConcurrentHashMap.newKeySet();
+    /**
+     * idle items with their wake-up step
+     */
+    private final Map<T, Integer> m_timed = new ConcurrentHashMap<>();
+    /**
+     * idle items ordered by their wake-up step, items which are removed or woken up before are skipped
+     */
+    private final NavigableMap<Integer, Queue<T>> m_timer = new ConcurrentSkipListMap<>();
     /**
      * flag for visibility
      */
@@ -77,12 +120,171 @@ public abstract class IMultiLayer<T extends ISteppable & Painter> implements Pai
      */
     public abstract void beforeStepObject( final int p_currentstep, final T p_object );
 
+    /**
+     * sets an item idle, so it is not stepped until the wake-up method is called,
+     * the item is not tested on the steps, so the state change, which the item waits for,
+     * must call the wake-up method (e.g. with an event of the changed object)
+     *
+     * @param p_object item
+     */
+    public final void sleep( final T p_object )
+    {
+        this.doze( p_object );
+        m_timed.remove( p_object );
+        m_idle.add( p_object );
+    }
+
+    /**
+     * sets an item idle until a step, the item is not tested before
+     *
+     * @param p_object item
+     * @param p_step wake-up step
+     */
+    public final void sleep( final T p_object, final int p_step )
+    {
+        this.doze( p_object );
+        m_idle.remove( p_object );
+        m_timed.put( p_object, p_step );
+        m_timer.computeIfAbsent( p_step, i -> new ConcurrentLinkedQueue<>() ).add( p_object );
+    }
+
+    /**
+     * wakes up an idle item, so it is stepped on the next step
+     *
+     * @param p_object item
+     */
+    public final void wakeup( final T p_object )
+    {
+        final boolean l_idle = m_idle.remove( p_object );
+        if ( ( m_timed.remove( p_object ) != null ) || ( l_idle ) )
+            this.awake( p_object );
+    }
+
+    /**
+     * checks if an item is stepped, an idle item is woken up if its wake-up step is reached
+     *
+     * @param p_currentstep current step
+     * @param p_object item
+     * @return awake flag
+     */
+    public final boolean isAwake( final int p_currentstep, final T p_object )
+    {
+        if ( m_idle.contains( p_object ) )
+            return false;
+
+        final Integer l_step = m_timed.get( p_object );
+        if ( ( l_step != null ) && ( l_step > p_currentstep ) )
+            return false;
+
+        this.wakeup( p_object );
+        return true;
+    }
+
+    /**
+     * returns the items, which are stepped on the current step, in insertion order,
+     * the items of the reached wake-up steps are woken up before and idle items without
+     * a wake-up step are not tested, so the cost depends on the number of awake items
+     * and not on the number of all items
+     *
+     * @param p_currentstep current step
+     * @return active items
+     */
+    public final Collection<T> getActive( final int p_currentstep )
+    {
+        if ( ( m_idle.isEmpty() ) && ( m_timed.isEmpty() ) )
+            return this;
+
+        for ( final Iterator<Map.Entry<Integer, Queue<T>>> l_iterator = m_timer.headMap( p_currentstep, true ).entrySet().iterator();
+              l_iterator.hasNext(); )
+        {
+            final Map.Entry<Integer, Queue<T>> l_entry = l_iterator.next();
+            l_iterator.remove();
+            for ( final T l_item : l_entry.getValue() )
+                if ( m_timed.remove( l_item, l_entry.getKey() ) )
+                    this.awake( l_item );
+        }
+
+        return new ArrayList<>( m_awake.values() );
+    }
+
+    /**
+     * returns the number of idle items
+     *
+     * @return number of idle items
+     */
+    public final int getIdleCount()
+    {
+        return m_idle.size() + m_timed.size();
+    }
+
+    /**
+     * adds an item to the awake items
+     *
+     * @param p_object item
+     */
+    private void awake( final T p_object )
+    {
+        final Long l_sequence = m_sequence.get( p_object );
+        if ( l_sequence != null )
+            m_awake.put( l_sequence, p_object );
+    }
+
+    /**
+     * removes an item from the awake items
+     *
+     * @param p_object item
+     */
+    private void doze( final Object p_object )
+    {
+        final Long l_sequence = m_sequence.get( p_object );
+        if ( l_sequence != null )
+            m_awake.remove( l_sequence );
+    }
+
+    /**
+     * adds an item with a new insertion number to the awake items
+     *
+     * @param p_object item
+     */
+    private void insert( final T p_object )
+    {
+        final long l_sequence = m_counter.getAndIncrement();
+        m_sequence.put( p_object, l_sequence );
+        m_awake.put( l_sequence, p_object );
+    }
+
+    /**
+     * removes an item from the awake and idle items
+     *
+     * @param p_object item
+     */
+    private void discard( final Object p_object )
+    {
+        final Long l_sequence = m_sequence.remove( p_object );
+        if ( l_sequence != null )
+            m_awake.remove( l_sequence );
+        m_idle.remove( p_object );
+        m_timed.remove( p_object );
+    }
+
     @Override
     public int getCalculationIndex()
     {
         return 0;
     }
 
+    @Override
+    public Set<EResource> getReadResources()
+    {
+        return EnumSet.allOf( EResource.class );
+    }
+
+    @Override
+    public Set<EResource> getWriteResources()
+    {
+        return EnumSet.allOf( EResource.class );
+    }
+
     @Override
     public final boolean isActive()
     {
@@ -95,6 +297,28 @@ public abstract class IMultiLayer<T extends ISteppable & Painter> implements Pai
         m_active = p_active;
     }
 
+    @Override
+    public final int getStepPeriod()
+    {
+        return m_stepperiod;
+    }
+
+    @Override
+    public final int getStepPhase()
+    {
+        return m_stepphase;
+    }
+
+    @Override
+    public final void setStepPeriod( final int p_period, final int p_phase )
+    {
+        if ( ( p_period < 1 ) || ( p_phase < 0 ) || ( p_phase >= p_period ) )
+            throw new IllegalArgumentException( CCommon.getResourceString( ILayer.class, "stepperiod" ) );
+
+        m_stepperiod = p_period;
+        m_stepphase = p_phase;
+    }
+
     @Override
     public void onSimulationStart()
     {
@@ -184,6 +408,7 @@ public abstract class IMultiLayer<T extends ISteppable & Painter> implements Pai
     public boolean add( final T p_value )
     {
         final boolean l_return = m_data.add( p_value );
+        this.insert( p_value );
 
         this.repaint();
         return l_return;
@@ -193,6 +418,7 @@ public abstract class IMultiLayer<T extends ISteppable & Painter> implements Pai
     public boolean remove( final Object p_object )
     {
         final boolean l_result = m_data.remove( p_object );
+        this.discard( p_object );
 
         this.repaint();
         return l_result;
@@ -213,6 +439,7 @@ public abstract class IMultiLayer<T extends ISteppable & Painter> implements Pai
     public final boolean addAll( final Collection<? extends T> p_collection )
     {
         final boolean l_return = m_data.addAll( p_collection );
+        p_collection.forEach( this::insert );
         this.repaint();
         return l_return;
     }
@@ -222,6 +449,7 @@ public abstract class IMultiLayer<T extends ISteppable & Painter> implements Pai
     {
         for ( final Object l_item : p_collection )
         {
+            this.discard( l_item );
             if ( m_data.remove( l_item ) )
                 continue;
 
@@ -235,6 +463,7 @@ public abstract class IMultiLayer<T extends ISteppable & Painter> implements Pai
     @Override
     public final boolean retainAll( final Collection<?> p_collection )
     {
+        m_sequence.keySet().stream().filter( i -> !p_collection.contains( i ) ).forEach( this::discard );
         return m_data.retainAll( p_collection );
     }
 
@@ -242,6 +471,11 @@ public abstract class IMultiLayer<T extends ISteppable & Painter> implements Pai
     public final void clear()
     {
         m_data.clear();
+        m_sequence.clear();
+        m_awake.clear();
+        m_idle.clear();
+        m_timed.clear();
+        m_timer.clear();
         this.repaint();
     }
 
@@ -253,7 +487,7 @@ public abstract class IMultiLayer<T extends ISteppable & Painter> implements Pai
      */
     protected final void repaint()
     {
-        if ( CSimulation.getInstance().getStorage().exists() )
+        if ( ( !CSimulation.getInstance().isBatch() ) && ( CSimulation.getInstance().getStorage().exists() ) )
             CSimulation.getInstance().getStorage().<CUI>get( "ui" ).<CSwingWrapper<COSMViewer>>get( "OSM" ).getComponent().repaint();
     }
 }
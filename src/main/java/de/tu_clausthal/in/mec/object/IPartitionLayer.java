@@ -0,0 +1,61 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.object;
+
+import de.tu_clausthal.in.mec.runtime.IVoidSteppable;
+
+import java.util.Collection;
+
+
+/**
+ * interface of a layer, which splits its objects into partitions,
+ * each partition is stepped by one worker and steps its objects sequentially
+ */
+public interface IPartitionLayer extends ILayer
+{
+
+    /**
+     * checks if the layer is partitioned
+     *
+     * @return partition flag
+     */
+    boolean isPartitioned();
+
+    /**
+     * returns the partitions
+     *
+     * @return collection of partitions
+     */
+    Collection<? extends IVoidSteppable> getPartitions();
+
+    /**
+     * exchanges the objects between the partitions, is
+     * called by the main loop before the partitions are stepped
+     *
+     * @param p_currentstep current step
+     */
+    void synchronize( final int p_currentstep );
+
+}
@@ -0,0 +1,46 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.object;
+
+
+/**
+ * interface of a layer, which can be evaluated pipelined, the layer
+ * reads an immutable snapshot at the end of a step and evaluates it
+ * while the next steps are simulated
+ */
+public interface IPipelineLayer extends ILayer
+{
+
+    /**
+     * creates the snapshot of the data, which is read by the layer, is
+     * called by the main loop after all objects of the step are finished
+     *
+     * @param p_currentstep current step
+     * @return task, which evaluates the snapshot
+     * @note the task must not read any simulation data
+     */
+    Runnable snapshot( final int p_currentstep );
+
+}
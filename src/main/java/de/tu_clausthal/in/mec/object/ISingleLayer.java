@@ -24,6 +24,7 @@
 
 package de.tu_clausthal.in.mec.object;
 
+import de.tu_clausthal.in.mec.common.CCommon;
 import de.tu_clausthal.in.mec.runtime.CSimulation;
 import de.tu_clausthal.in.mec.runtime.IVoidSteppable;
 import de.tu_clausthal.in.mec.ui.COSMViewer;
@@ -33,6 +34,8 @@ import de.tu_clausthal.in.mec.ui.IViewableLayer;
 import org.jxmapviewer.painter.Painter;
 
 import java.awt.*;
+import java.util.EnumSet;
+import java.util.Set;
 
 
 /**
@@ -46,6 +49,14 @@ public abstract class ISingleLayer implements Painter<COSMViewer>, IViewableLaye
      * flag for activity
      */
     protected boolean m_active = true;
+    /**
+     * number of steps between two steps of the layer
+     */
+    protected int m_stepperiod = 1;
+    /**
+     * step offset within the period
+     */
+    protected int m_stepphase;
     /**
      * flag for visibility
      */
@@ -57,6 +68,18 @@ public abstract class ISingleLayer implements Painter<COSMViewer>, IViewableLaye
         return 0;
     }
 
+    @Override
+    public Set<EResource> getReadResources()
+    {
+        return EnumSet.allOf( EResource.class );
+    }
+
+    @Override
+    public Set<EResource> getWriteResources()
+    {
+        return EnumSet.allOf( EResource.class );
+    }
+
     @Override
     public final boolean isActive()
     {
@@ -69,6 +92,28 @@ public abstract class ISingleLayer implements Painter<COSMViewer>, IViewableLaye
         m_active = p_active;
     }
 
+    @Override
+    public final int getStepPeriod()
+    {
+        return m_stepperiod;
+    }
+
+    @Override
+    public final int getStepPhase()
+    {
+        return m_stepphase;
+    }
+
+    @Override
+    public final void setStepPeriod( final int p_period, final int p_phase )
+    {
+        if ( ( p_period < 1 ) || ( p_phase < 0 ) || ( p_phase >= p_period ) )
+            throw new IllegalArgumentException( CCommon.getResourceString( ILayer.class, "stepperiod" ) );
+
+        m_stepperiod = p_period;
+        m_stepphase = p_phase;
+    }
+
     @Override
     public void onSimulationStart()
     {
@@ -83,7 +128,7 @@ public abstract class ISingleLayer implements Painter<COSMViewer>, IViewableLaye
     public void onSimulationReset()
     {
         this.release();
-        if ( CSimulation.getInstance().getStorage().exists() )
+        if ( ( !CSimulation.getInstance().isBatch() ) && ( CSimulation.getInstance().getStorage().exists() ) )
             CSimulation.getInstance().getStorage().<CUI>get( "ui" ).<CSwingWrapper<COSMViewer>>get( "OSM" ).getComponent().repaint();
 
     }
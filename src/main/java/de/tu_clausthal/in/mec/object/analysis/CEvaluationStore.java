@@ -28,7 +28,6 @@ import de.tu_clausthal.in.mec.CConfiguration;
 import de.tu_clausthal.in.mec.CLogger;
 import de.tu_clausthal.in.mec.common.CCommon;
 import de.tu_clausthal.in.mec.common.CReflection;
-import de.tu_clausthal.in.mec.object.ILayer;
 import de.tu_clausthal.in.mec.object.car.CCarJasonAgentLayer;
 import de.tu_clausthal.in.mec.object.car.CCarLayer;
 import de.tu_clausthal.in.mec.object.mas.IAgent;
@@ -43,9 +42,12 @@ import java.sql.SQLException;
 import java.sql.Types;
 import java.text.MessageFormat;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 
 /**
@@ -203,30 +205,73 @@ public final class CEvaluationStore extends IDatabase
      * updates the current statement
      *
      * @param p_statement statement
-     * @param p_currentstep current step
+     * @param p_run run of the data
+     * @param p_currentstep step of the data
      * @throws SQLException is thrown on error
      * @note the second two fields are updates with the step definitions
      */
-    private final void updateInsertStatement( final PreparedStatement p_statement, final int p_currentstep ) throws SQLException
+    private final void updateInsertStatement( final PreparedStatement p_statement, final int p_run, final int p_currentstep ) throws SQLException
     {
-        p_statement.setInt( 3, CSimulation.getInstance().getNumberOfRuns() );
+        p_statement.setInt( 3, p_run );
         p_statement.setInt( 4, p_currentstep );
     }
 
 
+    /**
+     * collector, which inserts the rows into a table
+     */
+    protected abstract class ICollector extends IDatabase.CWorker
+    {
+        /**
+         * prepare statement
+         **/
+        private final PreparedStatement m_statement;
+
+
+        /**
+         * ctor
+         *
+         * @param p_tablename table name
+         * @param p_fieldnumber number of fields
+         * @throws SQLException preparing throws exceptions
+         */
+        protected ICollector( final String p_tablename, final int p_fieldnumber ) throws SQLException
+        {
+            m_statement = CEvaluationStore.this.createInsertStatement( p_tablename, p_fieldnumber );
+        }
+
+        /**
+         * @note the statement is shared, so the rows are written sequentially
+         */
+        @Override
+        protected final void write( final int p_run, final int p_currentstep, final List<Object[]> p_rows ) throws SQLException
+        {
+            CEvaluationStore.this.updateInsertStatement( m_statement, p_run, p_currentstep );
+
+            for ( final Object[] l_row : p_rows )
+                try
+                {
+                    for ( int i = 0; i < l_row.length; i++ )
+                        m_statement.setObject( i + 5, l_row[i] );
+                    m_statement.execute();
+                }
+                catch ( final SQLException l_exception )
+                {
+                    CLogger.error( l_exception );
+                }
+        }
+    }
+
+
     /**
      * worker to collect inconsistency via reflection
      */
-    protected class CCollectorInconsistency extends IDatabase.CWorker
+    protected class CCollectorInconsistency extends ICollector
     {
         /**
          * access to the field of the inconsistency layer
          **/
         private final CReflection.CGetSet m_access = CReflection.getClassField( CInconsistencyLayer.class, "m_data" );
-        /**
-         * prepare statement
-         **/
-        private final PreparedStatement m_statement = CEvaluationStore.this.createInsertStatement( c_tableinconsistency, 6 );
 
 
         /**
@@ -236,39 +281,29 @@ public final class CEvaluationStore extends IDatabase
          */
         public CCollectorInconsistency() throws SQLException
         {
+            super( c_tableinconsistency, 6 );
         }
 
         @Override
         @SuppressWarnings( "unchecked" )
-        public void step( final int p_currentstep, final ILayer p_layer ) throws Exception
+        protected List<Object[]> read()
         {
-            CEvaluationStore.this.updateInsertStatement( m_statement, p_currentstep );
-
             try
             {
                 // get data via reflection and iterate over dataset
-                ( ( (Map<IAgent<?>, Double>) m_access.getGetter().invoke(
+                final Map<IAgent<?>, Double> l_inconsistency = (Map<IAgent<?>, Double>) m_access.getGetter().invoke(
                         CSimulation.getInstance().getWorld().<CInconsistencyLayer>getTyped( "Jason Car Inconsistency" )
-                ) ).entrySet() ).parallelStream().forEach(
-                        ( l_item ) ->
-                        {
-                            try
-                            {
-                                m_statement.setInt( 5, l_item.getKey().hashCode() );
-                                m_statement.setDouble( 6, l_item.getValue() );
-                                m_statement.execute();
-                            }
-                            catch ( final SQLException l_exception )
-                            {
-                                CLogger.error( l_exception );
-                            }
-                        }
                 );
-
+                return CSimulation.getInstance().parallel(
+                        () -> l_inconsistency.entrySet().parallelStream().map( i -> new Object[]{i.getKey().hashCode(), i.getValue()} ).collect(
+                                Collectors.toList()
+                        )
+                );
             }
             catch ( final Throwable p_throwable )
             {
                 CLogger.error( p_throwable );
+                return Collections.emptyList();
             }
         }
     }
@@ -277,12 +312,8 @@ public final class CEvaluationStore extends IDatabase
     /**
      * worker to get beliefs of the agents
      */
-    protected class CCollectorBelief extends IDatabase.CWorker
+    protected class CCollectorBelief extends ICollector
     {
-        /**
-         * prepare statement
-         **/
-        private final PreparedStatement m_statement = CEvaluationStore.this.createInsertStatement( c_tablebeliefbase, 7 );
 
         /**
          * ctor
@@ -291,34 +322,26 @@ public final class CEvaluationStore extends IDatabase
          */
         public CCollectorBelief() throws SQLException
         {
+            super( c_tablebeliefbase, 7 );
         }
 
         @Override
-        public void step( final int p_currentstep, final ILayer p_layer ) throws Exception
+        protected List<Object[]> read()
         {
-            CEvaluationStore.this.updateInsertStatement( m_statement, p_currentstep );
-
-            CSimulation.getInstance().getWorld().<CCarJasonAgentLayer>getTyped( "Jason Car Agents" ).parallelStream().forEach(
-                    ( l_agent ) ->
-                    {
-                        try
-                        {
-                            m_statement.setInt( 5, l_agent.hashCode() );
-
-                            for ( final Iterator<? extends ILiteral<?>> l_iterator = l_agent.getBeliefBase().iteratorLiteral(); l_iterator.hasNext(); )
+            final CCarJasonAgentLayer l_agents = CSimulation.getInstance().getWorld().<CCarJasonAgentLayer>getTyped( "Jason Car Agents" );
+            return CSimulation.getInstance().parallel(
+                    () -> l_agents.parallelStream().flatMap(
+                            ( l_agent ) ->
                             {
-                                final ILiteral<?> l_literal = l_iterator.next();
-
-                                m_statement.setInt( 6, l_literal.hashCode() );
-                                m_statement.setString( 7, l_literal.toString() );
-                                m_statement.execute();
+                                final List<Object[]> l_rows = new LinkedList<>();
+                                for ( final Iterator<? extends ILiteral<?>> l_iterator = l_agent.getBeliefBase().iteratorLiteral(); l_iterator.hasNext(); )
+                                {
+                                    final ILiteral<?> l_literal = l_iterator.next();
+                                    l_rows.add( new Object[]{l_agent.hashCode(), l_literal.hashCode(), l_literal.toString()} );
+                                }
+                                return l_rows.stream();
                             }
-                        }
-                        catch ( final SQLException l_exception )
-                        {
-                            CLogger.error( l_exception );
-                        }
-                    }
+                    ).collect( Collectors.toList() )
             );
         }
     }
@@ -327,12 +350,8 @@ public final class CEvaluationStore extends IDatabase
     /**
      * worker to get beliefs of the agents
      */
-    protected class CCollectorAgent extends IDatabase.CWorker
+    protected class CCollectorAgent extends ICollector
     {
-        /**
-         * prepare statement
-         **/
-        private final PreparedStatement m_statement = CEvaluationStore.this.createInsertStatement( c_tableagent, 8 );
 
         /**
          * ctor
@@ -341,32 +360,18 @@ public final class CEvaluationStore extends IDatabase
          */
         public CCollectorAgent() throws SQLException
         {
+            super( c_tableagent, 8 );
         }
 
         @Override
-        public void step( final int p_currentstep, final ILayer p_layer ) throws Exception
+        protected List<Object[]> read()
         {
-            CEvaluationStore.this.updateInsertStatement( m_statement, p_currentstep );
-
-            CSimulation.getInstance().getWorld().<CCarJasonAgentLayer>getTyped( "Jason Car Agents" ).parallelStream().forEach(
-                    ( l_agent ) -> {
-                        try
-                        {
-                            m_statement.setInt( 5, l_agent.hashCode() );
-
-                            m_statement.setString( 6, l_agent.getSource() );
-                            m_statement.setString( 7, l_agent.getName() );
-                            m_statement.setInt( 8, l_agent.getCycle() );
-                            m_statement.execute();
-
-                        }
-                        catch ( final SQLException l_exception )
-                        {
-                            CLogger.error( l_exception );
-                        }
-                    }
+            final CCarJasonAgentLayer l_agents = CSimulation.getInstance().getWorld().<CCarJasonAgentLayer>getTyped( "Jason Car Agents" );
+            return CSimulation.getInstance().parallel(
+                    () -> l_agents.parallelStream().map( i -> new Object[]{i.hashCode(), i.getSource(), i.getName(), i.getCycle()} ).collect(
+                            Collectors.toList()
+                    )
             );
-
         }
     }
 
@@ -374,13 +379,8 @@ public final class CEvaluationStore extends IDatabase
     /**
      * worker to get data for fundamental diagram
      */
-    protected class CCollectorFundamentalDiagram extends IDatabase.CWorker
+    protected class CCollectorFundamentalDiagram extends ICollector
     {
-        /**
-         * prepare statement
-         **/
-        private final PreparedStatement m_statement = CEvaluationStore.this.createInsertStatement( c_fundamentaldata, 9 );
-
 
         /**
          * ctor
@@ -389,47 +389,40 @@ public final class CEvaluationStore extends IDatabase
          */
         public CCollectorFundamentalDiagram() throws SQLException
         {
+            super( c_fundamentaldata, 9 );
         }
 
         @Override
-        public void step( final int p_currentstep, final ILayer p_layer ) throws Exception
+        protected List<Object[]> read()
         {
-            CEvaluationStore.this.updateInsertStatement( m_statement, p_currentstep );
             final CCarLayer l_cars = CSimulation.getInstance().getWorld().<CCarLayer>getTyped( "Cars" );
 
-            l_cars.getGraph().getEdgeCollection().parallelStream().filter( i -> i.getNumberOfObjects() > 0 ).forEach(
-                    ( l_edge ) ->
-                    {
-                        final double l_carcount = l_edge.getNumberOfObjects();
-
-                        // calculate sum over all speeds for averages
-                        final double l_speedsum = l_edge.getCellList().stream().filter( i -> i != null ).mapToDouble( i -> i.getCurrentSpeed() ).sum();
-                        final double l_speedsuminvert = l_edge.getCellList().stream().filter( i -> i != null ).mapToDouble( i -> 1.0 / i.getCurrentSpeed() )
-                                                              .sum();
-
-                        try
-                        {
-                            m_statement.setObject( 5, l_edge.getEdgeID(), Types.BIGINT );
-
-                            // traffic power = cars / time (in seconds)
-                            m_statement.setDouble( 6, l_carcount / l_cars.getUnitConvert().getTime() );
-                            // traffic density = cars / distance (in meter)
-                            m_statement.setDouble( 7, l_carcount / l_edge.getDistance() );
-
-                            // harmonic mean speed = sum car speed / sum ( 1 / car speed )
-                            m_statement.setDouble( 8, l_speedsum / l_speedsuminvert );
-                            // average speed
-                            m_statement.setDouble( 9, l_speedsum / l_carcount );
-
-                            m_statement.execute();
-
-                        }
-                        catch ( final SQLException l_exception )
-                        {
-                            CLogger.error( l_exception );
-                        }
-
-                    }
+            return CSimulation.getInstance().parallel(
+                    () -> l_cars.getGraph().getEdgeCollection().parallelStream().filter( i -> i.getNumberOfObjects() > 0 ).map(
+                            ( l_edge ) ->
+                            {
+                                final double l_carcount = l_edge.getNumberOfObjects();
+
+                                // calculate sum over all speeds for averages
+                                final double l_speedsum = l_edge.getCellList().stream().filter( i -> i != null ).mapToDouble( i -> i.getCurrentSpeed() ).sum();
+                                final double l_speedsuminvert = l_edge.getCellList().stream().filter( i -> i != null ).mapToDouble( i -> 1.0 / i.getCurrentSpeed() )
+                                                                      .sum();
+
+                                return new Object[]{
+                                        (long) l_edge.getEdgeID(),
+
+                                        // traffic power = cars / time (in seconds)
+                                        l_carcount / l_cars.getUnitConvert().getTime(),
+                                        // traffic density = cars / distance (in meter)
+                                        l_carcount / l_edge.getDistance(),
+
+                                        // harmonic mean speed = sum car speed / sum ( 1 / car speed )
+                                        l_speedsum / l_speedsuminvert,
+                                        // average speed
+                                        l_speedsum / l_carcount
+                                };
+                            }
+                    ).collect( Collectors.toList() )
             );
         }
     }
@@ -27,14 +27,22 @@ package de.tu_clausthal.in.mec.object.analysis;
 
 import de.tu_clausthal.in.mec.CConfiguration;
 import de.tu_clausthal.in.mec.CLogger;
+import de.tu_clausthal.in.mec.object.EResource;
+import de.tu_clausthal.in.mec.object.ILayer;
 import de.tu_clausthal.in.mec.object.IMultiEvaluateLayer;
+import de.tu_clausthal.in.mec.object.IPipelineLayer;
+import de.tu_clausthal.in.mec.runtime.CSimulation;
 import de.tu_clausthal.in.mec.runtime.IVoidSteppable;
 import org.apache.commons.dbcp2.BasicDataSource;
 
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.text.MessageFormat;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 
 /**
@@ -43,7 +51,7 @@ import java.util.Optional;
  * @note JDBC driver is needed
  * @see http://commons.apache.org/proper/commons-dbcp/
  */
-public abstract class IDatabase extends IMultiEvaluateLayer<IDatabase.CWorker>
+public abstract class IDatabase extends IMultiEvaluateLayer<IDatabase.CWorker> implements IPipelineLayer
 {
     /**
      * datasource connection pool (static context)
@@ -82,6 +90,29 @@ public abstract class IDatabase extends IMultiEvaluateLayer<IDatabase.CWorker>
         return Integer.MAX_VALUE;
     }
 
+    @Override
+    public final Set<EResource> getReadResources()
+    {
+        return EnumSet.of( EResource.Cars, EResource.Agents, EResource.Inconsistency );
+    }
+
+    @Override
+    public final Set<EResource> getWriteResources()
+    {
+        return EnumSet.of( EResource.Database );
+    }
+
+    @Override
+    public final Runnable snapshot( final int p_currentstep )
+    {
+        final int l_run = CSimulation.getInstance().getRunKey();
+        final List<Runnable> l_writer = CSimulation.getInstance().parallel(
+                () -> m_data.parallelStream().map( i -> i.snapshot( l_run, p_currentstep ) ).collect( Collectors.toList() )
+        );
+
+        return () -> l_writer.forEach( Runnable::run );
+    }
+
     /**
      * check if database is connectable
      *
@@ -160,14 +191,60 @@ public abstract class IDatabase extends IMultiEvaluateLayer<IDatabase.CWorker>
     }
 
     /**
-     * worker class to push data to the database *
+     * worker class to push data to the database, the data is read
+     * into immutable rows first, so the rows can be written later
      */
     protected abstract static class CWorker implements IVoidSteppable
     {
+        @Override
+        public final void step( final int p_currentstep, final ILayer p_layer ) throws Exception
+        {
+            this.write( CSimulation.getInstance().getRunKey(), p_currentstep, this.read() );
+        }
+
         @Override
         public final void release()
         {
         }
+
+        /**
+         * reads the rows and returns the task, which writes them
+         *
+         * @param p_run current run
+         * @param p_currentstep current step
+         * @return writing task
+         */
+        private Runnable snapshot( final int p_run, final int p_currentstep )
+        {
+            final List<Object[]> l_rows = this.read();
+            return () -> {
+                try
+                {
+                    this.write( p_run, p_currentstep, l_rows );
+                }
+                catch ( final Exception l_exception )
+                {
+                    CLogger.error( l_exception );
+                }
+            };
+        }
+
+        /**
+         * reads the current simulation data
+         *
+         * @return list of rows, the rows must not be changed after reading
+         */
+        protected abstract List<Object[]> read();
+
+        /**
+         * writes the rows
+         *
+         * @param p_run run of the rows
+         * @param p_currentstep step of the rows
+         * @param p_rows list of rows
+         * @throws Exception is thrown on error
+         */
+        protected abstract void write( final int p_run, final int p_currentstep, final List<Object[]> p_rows ) throws Exception;
     }
 
 }
@@ -25,10 +25,10 @@
 package de.tu_clausthal.in.mec.object.car;
 
 
-import com.graphhopper.util.EdgeIteratorState;
 import de.tu_clausthal.in.mec.common.CCommon;
 import de.tu_clausthal.in.mec.common.CPath;
 import de.tu_clausthal.in.mec.object.ILayer;
+import de.tu_clausthal.in.mec.object.car.graph.CRoute;
 import de.tu_clausthal.in.mec.object.mas.CFieldFilter;
 import de.tu_clausthal.in.mec.object.mas.CMethodFilter;
 import de.tu_clausthal.in.mec.object.mas.generic.IBeliefBase;
@@ -43,9 +43,8 @@ import de.tu_clausthal.in.mec.runtime.message.IMessage;
 import de.tu_clausthal.in.mec.runtime.message.IReceiver;
 import jason.JasonException;
 import jason.asSyntax.Literal;
-import org.apache.commons.lang3.tuple.Pair;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -66,6 +65,26 @@ import java.util.Set;
  */
 public class CCarJasonAgent extends CDefaultCar implements IReceiver
 {
+    /**
+     * maximum speed definition in km/h
+     */
+    private final int m_maxspeed = CCarJasonAgent.super.getMaximumSpeed();
+    /**
+     * current speed in km/h (use boxed-type because MAS can modify value)
+     */
+    private Integer m_speed = CCarJasonAgent.super.getCurrentSpeed();
+    /**
+     * individual acceleration in m/sec^2
+     */
+    private final int m_acceleration = CCarJasonAgent.super.getAcceleration();
+    /**
+     * individual deceleration in m/sec^2
+     */
+    private final int m_deceleration = CCarJasonAgent.super.getDeceleration();
+    /**
+     * linger probability value
+     */
+    private final double m_lingerprobability = CCarJasonAgent.super.getLingerProbability();
     /**
      * number of predecessors that can be seen by the agents
      */
@@ -112,7 +131,7 @@ public class CCarJasonAgent extends CDefaultCar implements IReceiver
      * @param p_agent ASL / agent name     *
      * @throws JasonException throws on Jason error
      */
-    public CCarJasonAgent( final ArrayList<Pair<EdgeIteratorState, Integer>> p_route, final int p_speed, final int p_maxspeed, final int p_acceleration,
+    public CCarJasonAgent( final CRoute p_route, final int p_speed, final int p_maxspeed, final int p_acceleration,
             final int p_deceleration, final double p_lingerprobability, final String p_objectname, final String p_agent
     ) throws Exception
 
@@ -137,7 +156,7 @@ public class CCarJasonAgent extends CDefaultCar implements IReceiver
      * @param p_agent set with ASL / agent name
      * @throws JasonException throws on Jason error
      */
-    public CCarJasonAgent( final ArrayList<Pair<EdgeIteratorState, Integer>> p_route, final int p_speed, final int p_maxspeed, final int p_acceleration,
+    public CCarJasonAgent( final CRoute p_route, final int p_speed, final int p_maxspeed, final int p_acceleration,
             final int p_deceleration, final double p_lingerprobability, final String p_objectname, final Set<String> p_agent
     ) throws Exception
     {
@@ -147,6 +166,83 @@ public class CCarJasonAgent extends CDefaultCar implements IReceiver
             this.bind( l_item );
     }
 
+    /**
+     * ctor to create an agent car, which is placed on a position of the route
+     *
+     * @param p_route driving route
+     * @param p_routeindex current position on the route
+     * @param p_speed initial speed
+     * @param p_maxspeed maximum speed
+     * @param p_acceleration acceleration
+     * @param p_deceleration decceleration
+     * @param p_lingerprobability linger probability
+     * @param p_objectname name of the object within the simulation
+     * @param p_agent set with ASL / agent name
+     * @throws JasonException throws on Jason error
+     */
+    public CCarJasonAgent( final CRoute p_route, final int p_routeindex, final int p_speed, final int p_maxspeed,
+            final int p_acceleration, final int p_deceleration, final double p_lingerprobability, final String p_objectname, final Set<String> p_agent
+    ) throws Exception
+    {
+        super( p_route, p_routeindex, p_speed, p_maxspeed, p_acceleration, p_deceleration, p_lingerprobability );
+        m_objectpath = new CPath( "traffic", "car", CSimulation.getInstance().generateObjectName( p_objectname, this ) );
+        for ( final String l_item : p_agent )
+            this.bind( l_item );
+    }
+
+    /**
+     * returns the agents of the car
+     *
+     * @return unmodifiable set of agents
+     */
+    @CMethodFilter.CAgent( bind = false )
+    public final Set<de.tu_clausthal.in.mec.object.mas.jason.CAgent> getAgents()
+    {
+        return Collections.unmodifiableSet( m_agents );
+    }
+
+    @Override
+    @CMethodFilter.CAgent( bind = false )
+    public final int getAcceleration()
+    {
+        return m_acceleration;
+    }
+
+    @Override
+    @CMethodFilter.CAgent( bind = false )
+    public final int getCurrentSpeed()
+    {
+        return m_speed;
+    }
+
+    @Override
+    @CMethodFilter.CAgent( bind = false )
+    public final void setCurrentSpeed( final int p_speed )
+    {
+        m_speed = p_speed;
+    }
+
+    @Override
+    @CMethodFilter.CAgent( bind = false )
+    public final int getDeceleration()
+    {
+        return m_deceleration;
+    }
+
+    @Override
+    @CMethodFilter.CAgent( bind = false )
+    public final double getLingerProbability()
+    {
+        return m_lingerprobability;
+    }
+
+    @Override
+    @CMethodFilter.CAgent( bind = false )
+    public final int getMaximumSpeed()
+    {
+        return m_maxspeed;
+    }
+
     @Override
     public CPath getReceiverPath()
     {
@@ -156,6 +252,10 @@ public class CCarJasonAgent extends CDefaultCar implements IReceiver
     @Override
     public void receiveMessage( final Set<IMessage> p_messages )
     {
+        // a message of an agent wakes up the idle car and its agents, so the agents can react on the next step
+        m_layer.wakeup( this );
+        for ( final de.tu_clausthal.in.mec.object.mas.jason.CAgent l_agent : m_agents )
+            m_agentlayer.wakeup( l_agent );
     }
 
     @Override
@@ -317,7 +417,7 @@ public class CCarJasonAgent extends CDefaultCar implements IReceiver
             // start- / end-position
             this.add( m_startposition );
             this.add(
-                    this.getLiteralGeoposition( c_label_endposition, m_route.size() - 1 ).addAnnots(
+                    this.getLiteralGeoposition( c_label_endposition, CCarJasonAgent.this.getRoute().size() - 1 ).addAnnots(
                             de.tu_clausthal.in.mec.object.mas.jason.CCommon.DEFAULTANNOTATION
                     )
             );
@@ -338,8 +438,8 @@ public class CCarJasonAgent extends CDefaultCar implements IReceiver
                             CCarJasonAgent.this.getEdge(),
                             de.tu_clausthal.in.mec.object.mas.jason.CCommon.getLiteral(
                                     c_label_route,
-                                    de.tu_clausthal.in.mec.object.mas.jason.CCommon.getLiteral( c_label_routeindex, CCarJasonAgent.this.m_routeindex ),
-                                    de.tu_clausthal.in.mec.object.mas.jason.CCommon.getLiteral( c_label_routesize, CCarJasonAgent.this.m_route.size() )
+                                    de.tu_clausthal.in.mec.object.mas.jason.CCommon.getLiteral( c_label_routeindex, CCarJasonAgent.this.getRouteIndex() ),
+                                    de.tu_clausthal.in.mec.object.mas.jason.CCommon.getLiteral( c_label_routesize, CCarJasonAgent.this.getRoute().size() )
                             )
                     )
             ).addAnnot( de.tu_clausthal.in.mec.object.mas.jason.CCommon.DEFAULTANNOTATION );
@@ -350,7 +450,7 @@ public class CCarJasonAgent extends CDefaultCar implements IReceiver
                             c_label_drivedhistory,
                             de.tu_clausthal.in.mec.object.mas.jason.CCommon.getLiteral(
                                     c_label_driveddistance,
-                                    CCarJasonAgent.this.m_layer.getUnitConvert().getCellToKiloMeter( CCarJasonAgent.this.m_routeindex )
+                                    CCarJasonAgent.this.m_layer.getUnitConvert().getCellToKiloMeter( CCarJasonAgent.this.getRouteIndex() )
                             ),
                             de.tu_clausthal.in.mec.object.mas.jason.CCommon.getLiteral(
                                     c_label_drivedtime,
@@ -384,9 +484,9 @@ public class CCarJasonAgent extends CDefaultCar implements IReceiver
          */
         private Literal getLiteralGeoposition( final String p_name, final int p_routeindex )
         {
-            final Pair<EdgeIteratorState, Integer> l_cell = CCarJasonAgent.this.m_route.get( p_routeindex );
+            final CRoute l_route = CCarJasonAgent.this.getRoute();
             return de.tu_clausthal.in.mec.object.mas.jason.CCommon.getLiteral(
-                    p_name, CCarJasonAgent.this.m_layer.getGraph().getEdge( l_cell.getLeft() ).getGeoPositions( l_cell.getRight() )
+                    p_name, CCarJasonAgent.this.m_layer.getGraph().getEdge( l_route.getEdgeID( p_routeindex ) ).getGeoPositions( l_route.getPosition( p_routeindex ) )
             );
         }
 
@@ -26,11 +26,15 @@ package de.tu_clausthal.in.mec.object.car;
 
 
 import de.tu_clausthal.in.mec.common.CCommon;
+import de.tu_clausthal.in.mec.object.EResource;
 import de.tu_clausthal.in.mec.object.mas.IAgent;
 import de.tu_clausthal.in.mec.object.mas.inconsistency.CInconsistencyLayer;
 import de.tu_clausthal.in.mec.object.mas.jason.CAgent;
 import de.tu_clausthal.in.mec.object.mas.jason.IEnvironment;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 
 /**
  * layer for car agents
@@ -72,6 +76,18 @@ public final class CCarJasonAgentLayer extends IEnvironment<CDefaultCar>
         return 100;
     }
 
+    @Override
+    public Set<EResource> getReadResources()
+    {
+        return EnumSet.of( EResource.Agents, EResource.Cars, EResource.CarSources, EResource.Messages );
+    }
+
+    @Override
+    public Set<EResource> getWriteResources()
+    {
+        return EnumSet.of( EResource.Agents, EResource.Cars, EResource.Messages );
+    }
+
     @Override
     public boolean add( final CAgent<CDefaultCar> p_value )
     {
@@ -24,25 +24,46 @@
 
 package de.tu_clausthal.in.mec.object.car;
 
+import de.tu_clausthal.in.mec.CConfiguration;
 import de.tu_clausthal.in.mec.common.CCommon;
+import de.tu_clausthal.in.mec.object.EResource;
+import de.tu_clausthal.in.mec.object.ICommitLayer;
 import de.tu_clausthal.in.mec.object.ILayer;
 import de.tu_clausthal.in.mec.object.IMultiLayer;
+import de.tu_clausthal.in.mec.object.IPartitionLayer;
 import de.tu_clausthal.in.mec.object.car.drivemodel.CAgentNagelSchreckenberg;
 import de.tu_clausthal.in.mec.object.car.drivemodel.CNagelSchreckenberg;
 import de.tu_clausthal.in.mec.object.car.drivemodel.IDriveModel;
 import de.tu_clausthal.in.mec.object.car.graph.CGraphHopper;
+import de.tu_clausthal.in.mec.object.car.graph.CGraphPartition;
+import de.tu_clausthal.in.mec.runtime.CSimulation;
 import de.tu_clausthal.in.mec.runtime.IReturnSteppableTarget;
+import de.tu_clausthal.in.mec.runtime.IVoidSteppable;
+import de.tu_clausthal.in.mec.runtime.core.CVoidSteppable;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
 
 
 /**
  * defines the layer for cars
  */
-public final class CCarLayer extends IMultiLayer<ICar> implements IReturnSteppableTarget<ICar>
+public final class CCarLayer extends IMultiLayer<ICar> implements IReturnSteppableTarget<ICar>, IPartitionLayer, ICommitLayer
 {
+    /**
+     * number of slots, which are updated by one task of the drive model loop
+     */
+    private static final int c_driveblock = 1024;
     /**
      * data structure
      */
@@ -55,10 +76,57 @@ public final class CCarLayer extends IMultiLayer<ICar> implements IReturnSteppab
      * unit converting for traffic structure
      **/
     private final transient CUnitConvert m_unit = new CUnitConvert();
+    /**
+     * column store of the car values
+     */
+    private final transient CCarStore m_store = new CCarStore();
     /**
      * graph
      */
     private transient CGraphHopper m_graph = new CGraphHopper( m_unit.getCellSize() );
+    /**
+     * spatial partition of the graph or null if the layer is not partitioned
+     */
+    private final transient CGraphPartition m_partition;
+    /**
+     * regions of the partition
+     */
+    private final transient List<CRegion> m_regions;
+    /**
+     * cars, which are added but not assigned to a region
+     */
+    private final transient Queue<ICar> m_unassigned = new ConcurrentLinkedQueue<>();
+    /**
+     * regions, which are stepped by this process, null if all regions are owned
+     */
+    private transient volatile BitSet m_owned;
+    /**
+     * cars, which have left the owned regions
+     */
+    private final transient Queue<ICar> m_emigrants = new ConcurrentLinkedQueue<>();
+
+
+    /**
+     * ctor
+     *
+     * @note the number of regions is read from the configuration, values less than two disable the partitioning
+     */
+    public CCarLayer()
+    {
+        final int l_regions = CConfiguration.getInstance().get().<Number>get( "simulation/traffic/regions" ).intValue();
+        if ( l_regions < 2 )
+        {
+            m_partition = null;
+            m_regions = Collections.<CRegion>emptyList();
+            return;
+        }
+
+        m_partition = new CGraphPartition( m_graph, l_regions );
+        final CRegion[] l_list = new CRegion[m_partition.getNumberOfRegions()];
+        for ( int i = 0; i < l_list.length; i++ )
+            l_list[i] = new CRegion();
+        m_regions = Collections.unmodifiableList( Arrays.asList( l_list ) );
+    }
 
     @Override
     public final void afterStepObject( final int p_currentstep, final ICar p_object )
@@ -77,7 +145,9 @@ public final class CCarLayer extends IMultiLayer<ICar> implements IReturnSteppab
     @Override
     public final void beforeStepObject( final int p_currentstep, final ICar p_object )
     {
-        m_drivemodel.getModel().update( p_currentstep, this, p_object );
+        // default cars are updated by the slot loop of the layer step
+        if ( !CDefaultCar.class.equals( p_object.getClass() ) )
+            m_drivemodel.getModel().update( p_currentstep, this, p_object );
     }
 
     @Override
@@ -86,17 +156,123 @@ public final class CCarLayer extends IMultiLayer<ICar> implements IReturnSteppab
         return 200;
     }
 
+    @Override
+    public final Set<EResource> getReadResources()
+    {
+        return EnumSet.of( EResource.Cars, EResource.CarSources );
+    }
+
+    @Override
+    public final Set<EResource> getWriteResources()
+    {
+        // cars with an agent release the agent at the end of their route, which unregisters it from the message system
+        return EnumSet.of( EResource.Cars, EResource.Agents, EResource.Messages );
+    }
+
     @Override
     public final void release()
     {
         super.clear();
+        m_unassigned.clear();
+        m_emigrants.clear();
+        m_regions.forEach( i -> i.clear() );
         m_graph.clear();
+        m_store.clear();
+    }
+
+    /**
+     * returns the graph partition
+     *
+     * @return partition or null if the layer is not partitioned
+     */
+    public final CGraphPartition getPartition()
+    {
+        return m_partition;
+    }
+
+    /**
+     * sets the regions, which are stepped by this process, default cars, which
+     * move into another region, are removed from the layer and are stored as emigrants
+     *
+     * @param p_owned set of region indices or null if all regions are owned
+     */
+    public final void setOwnedRegions( final BitSet p_owned )
+    {
+        if ( ( p_owned != null ) && ( m_partition == null ) )
+            throw new IllegalStateException( CCommon.getResourceString( this, "notpartitioned" ) );
+
+        m_owned = p_owned == null ? null : (BitSet) p_owned.clone();
+    }
+
+    /**
+     * checks if an edge is stepped by this process
+     *
+     * @param p_edge edge ID
+     * @return owned flag
+     */
+    public final boolean isOwned( final int p_edge )
+    {
+        final BitSet l_owned = m_owned;
+        return ( l_owned == null ) || ( m_partition == null ) || ( l_owned.get( m_partition.getRegion( p_edge ) ) );
+    }
+
+    /**
+     * moves all emigrated cars into a collection
+     *
+     * @param p_target target collection
+     * @return target collection
+     */
+    public final <T extends Collection<ICar>> T pollEmigrants( final T p_target )
+    {
+        for ( ICar l_car = m_emigrants.poll(); l_car != null; l_car = m_emigrants.poll() )
+            p_target.add( l_car );
+        return p_target;
     }
 
     @Override
-    public final void step( final int p_currentstep, final ILayer p_layer )
+    public final boolean isPartitioned()
     {
+        return m_partition != null;
+    }
 
+    @Override
+    public final Collection<? extends IVoidSteppable> getPartitions()
+    {
+        return m_regions;
+    }
+
+    @Override
+    public final void synchronize( final int p_currentstep )
+    {
+        if ( m_partition == null )
+            return;
+
+        for ( ICar l_car = m_unassigned.poll(); l_car != null; l_car = m_unassigned.poll() )
+            m_regions.get( m_partition.getRegion( l_car.getEdge() ) ).m_cars.add( l_car );
+        m_regions.forEach( i -> i.synchronize() );
+    }
+
+    @Override
+    public final void commit( final int p_currentstep )
+    {
+        // the claims are committed by a parallel stream, which calls the edge listener, so it runs on the thread-pool of the simulation
+        CSimulation.getInstance().parallel( m_graph::swap );
+        m_graph.setTrafficEpoch( p_currentstep );
+        m_store.reserve();
+    }
+
+    @Override
+    public final void step( final int p_currentstep, final ILayer p_layer )
+    {
+        // the speed of the default cars is updated by a loop over the store slots before the cars are stepped,
+        // the blocks of slots are forked into the thread-pool of the simulation
+        final IDriveModel l_model = m_drivemodel.getModel();
+        final int l_size = m_store.size();
+        CSimulation.getInstance().parallel(
+                () -> IntStream.range( 0, ( l_size + c_driveblock - 1 ) / c_driveblock ).parallel().forEach(
+                        i -> l_model.update( p_currentstep, this, m_store, i * c_driveblock, Math.min( l_size, ( i + 1 ) * c_driveblock ) )
+                )
+        );
     }
 
     /**
@@ -120,6 +296,16 @@ public final class CCarLayer extends IMultiLayer<ICar> implements IReturnSteppab
     }
 
 
+    /**
+     * returns the column store of the car values
+     *
+     * @return car store
+     */
+    public final CCarStore getStore()
+    {
+        return m_store;
+    }
+
     /**
      * returns the unit converting object
      *
@@ -135,6 +321,17 @@ public final class CCarLayer extends IMultiLayer<ICar> implements IReturnSteppab
     public final void push( final Collection<ICar> p_data )
     {
         super.addAll( p_data );
+        if ( m_partition != null )
+            m_unassigned.addAll( p_data );
+    }
+
+    @Override
+    public final boolean add( final ICar p_value )
+    {
+        final boolean l_return = super.add( p_value );
+        if ( ( l_return ) && ( m_partition != null ) )
+            m_unassigned.add( p_value );
+        return l_return;
     }
 
     /**
@@ -154,6 +351,103 @@ public final class CCarLayer extends IMultiLayer<ICar> implements IReturnSteppab
     }
 
 
+    /**
+     * region of the graph partition, the cars of a region are
+     * stepped sequentially by one worker, cars which leave the
+     * region are handed off to the target region at the next step
+     */
+    private final class CRegion implements IVoidSteppable
+    {
+        /**
+         * cars of the region
+         */
+        private final List<ICar> m_cars = new ArrayList<>();
+        /**
+         * cars, which are handed off from other regions
+         */
+        private final Queue<ICar> m_incoming = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public final void step( final int p_currentstep, final ILayer p_layer )
+        {
+            int l_keep = 0;
+            for ( int i = 0; i < m_cars.size(); i++ )
+            {
+                final ICar l_car = m_cars.get( i );
+                if ( !CCarLayer.this.isAwake( p_currentstep, l_car ) )
+                {
+                    m_cars.set( l_keep++, l_car );
+                    continue;
+                }
+
+                CVoidSteppable.process( p_currentstep, l_car, CCarLayer.this );
+                if ( l_car.hasEndReached() )
+                    continue;
+
+                final int l_region = m_partition.getRegion( l_car.getEdge() );
+                if ( this.emigrate( l_region, l_car ) )
+                    continue;
+
+                final CRegion l_target = m_regions.get( l_region );
+                if ( l_target != this )
+                {
+                    l_target.m_incoming.add( l_car );
+                    continue;
+                }
+
+                m_cars.set( l_keep++, l_car );
+            }
+
+            // compact the list in-place and release the references of the removed cars
+            m_cars.subList( l_keep, m_cars.size() ).clear();
+        }
+
+        @Override
+        public final void release()
+        {
+        }
+
+        /**
+         * removes a default car from the layer, if it moves into a region of another process
+         *
+         * @param p_region region of the car
+         * @param p_car car
+         * @return boolean if the car is removed
+         *
+         * @note agent cars cannot be moved, so they are stepped by the process, which has created them
+         */
+        private boolean emigrate( final int p_region, final ICar p_car )
+        {
+            final BitSet l_owned = m_owned;
+            if ( ( l_owned == null ) || ( l_owned.get( p_region ) ) || ( !CDefaultCar.class.equals( p_car.getClass() ) ) )
+                return false;
+
+            CCarLayer.this.remove( p_car );
+            if ( p_car.getEdge() != null )
+                m_graph.getEdge( p_car.getEdge() ).removeObject( p_car );
+            m_emigrants.add( p_car );
+            return true;
+        }
+
+        /**
+         * moves the handed off cars into the region
+         */
+        private void synchronize()
+        {
+            for ( ICar l_car = m_incoming.poll(); l_car != null; l_car = m_incoming.poll() )
+                m_cars.add( l_car );
+        }
+
+        /**
+         * removes all cars of the region
+         */
+        private void clear()
+        {
+            m_cars.clear();
+            m_incoming.clear();
+        }
+    }
+
     /**
      * enum for representating a driving model
      */
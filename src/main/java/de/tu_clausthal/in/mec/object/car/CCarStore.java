@@ -0,0 +1,542 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.object.car;
+
+import de.tu_clausthal.in.mec.object.car.graph.CRoute;
+import de.tu_clausthal.in.mec.runtime.CSimulation;
+
+import java.util.Arrays;
+
+
+/**
+ * column store of the car values, each car gets a slot and the values of a slot
+ * are stored in primitive arrays, so the drive model updates a slot without the
+ * car object and the car objects are only thin views of a slot
+ *
+ * @note the columns are split into segments with a fixed number of slots, a segment is
+ * never copied, so the store grows by a new segment and a write of a car task to an
+ * existing slot is not lost, the segments are reserved between the steps, so an
+ * allocation within a step only adds a segment on a burst, the values of a slot are
+ * written only by the owner of the slot, the segment list is published with a volatile
+ * reference, so a reader of another thread (e.g. the painting) gets a complete allocation
+ */
+public final class CCarStore
+{
+    /**
+     * number of bits of the slot index within a segment
+     */
+    private static final int c_segmentbits = 10;
+    /**
+     * number of slots of a segment
+     */
+    private static final int c_segmentsize = 1 << c_segmentbits;
+    /**
+     * mask of the slot index within a segment
+     */
+    private static final int c_segmentmask = c_segmentsize - 1;
+    /**
+     * flag of a used slot
+     */
+    private static final byte c_used = 1;
+    /**
+     * flag of a car, which has reached its end
+     */
+    private static final byte c_endreached = 2;
+    /**
+     * flag of a car, which is updated by its own object
+     */
+    private static final byte c_external = 4;
+    /**
+     * flag of a car, which is set on a cell of the graph
+     */
+    private static final byte c_placed = 8;
+    /**
+     * flag of a car, which is idle and not updated by the drive model
+     */
+    private static final byte c_idle = 16;
+    /**
+     * increment of the random sequences (golden ratio)
+     */
+    private static final long c_gamma = 0x9E3779B97F4A7C15L;
+    /**
+     * segments of the columns, the array is replaced on growing, the segments are kept
+     */
+    private volatile CColumns[] m_segments = {new CColumns()};
+    /**
+     * state of the sequence, which seeds the random sequences of the slots
+     */
+    private long m_seed = CSimulation.getInstance().getSeed().getRandom().nextLong();
+    /**
+     * free slots
+     */
+    private int[] m_freeslots = new int[c_segmentsize];
+    /**
+     * number of free slots
+     */
+    private int m_freeslotcount;
+    /**
+     * number of slots, which have been used
+     */
+    private int m_size;
+
+
+    /**
+     * allocates a slot
+     *
+     * @param p_route route
+     * @param p_routeindex route index
+     * @param p_speed speed
+     * @param p_maxspeed maximum speed
+     * @param p_acceleration acceleration
+     * @param p_deceleration deceleration
+     * @param p_lingerprobability linger probability
+     * @param p_external flag that the values are updated by the car object and not by the drive model loop
+     * @return slot
+     */
+    public final synchronized int allocate( final CRoute p_route, final int p_routeindex, final int p_speed,
+            final int p_maxspeed, final int p_acceleration, final int p_deceleration, final double p_lingerprobability, final boolean p_external
+    )
+    {
+        final int l_slot = m_freeslotcount > 0 ? m_freeslots[--m_freeslotcount] : m_size++;
+        final CColumns[] l_segments = ( l_slot >>> c_segmentbits ) < m_segments.length ? m_segments : this.grow( 1 );
+        final CColumns l_columns = l_segments[l_slot >>> c_segmentbits];
+        final int l_index = l_slot & c_segmentmask;
+
+        l_columns.m_speed[l_index] = p_speed;
+        l_columns.m_maxspeed[l_index] = p_maxspeed;
+        l_columns.m_acceleration[l_index] = p_acceleration;
+        l_columns.m_deceleration[l_index] = p_deceleration;
+        l_columns.m_lingerprobability[l_index] = (float) p_lingerprobability;
+        l_columns.m_route[l_index] = p_route;
+        l_columns.m_routeindex[l_index] = p_routeindex;
+        l_columns.m_random[l_index] = mix( m_seed += c_gamma );
+        l_columns.m_flag[l_index] = p_external ? (byte) ( c_used | c_external ) : c_used;
+
+        // the volatile write publishes the values of the slot
+        m_segments = l_segments;
+        return l_slot;
+    }
+
+    /**
+     * reserves a free segment, so the allocations of the next step do not grow
+     * the store, must be called between two steps
+     */
+    public final synchronized void reserve()
+    {
+        if ( m_size > ( m_segments.length - 1 ) * c_segmentsize )
+            m_segments = this.grow( 1 );
+    }
+
+    /**
+     * frees a slot
+     *
+     * @param p_slot slot
+     */
+    public final synchronized void free( final int p_slot )
+    {
+        final CColumns l_columns = this.segment( p_slot );
+        final int l_index = p_slot & c_segmentmask;
+        if ( ( l_columns.m_flag[l_index] & c_used ) == 0 )
+            return;
+
+        l_columns.m_flag[l_index] = 0;
+        l_columns.m_route[l_index] = null;
+        if ( m_freeslotcount == m_freeslots.length )
+            m_freeslots = Arrays.copyOf( m_freeslots, m_freeslots.length * 2 );
+        m_freeslots[m_freeslotcount++] = p_slot;
+    }
+
+    /**
+     * frees all slots
+     */
+    public final synchronized void clear()
+    {
+        m_segments = new CColumns[]{new CColumns()};
+        m_freeslotcount = 0;
+        m_size = 0;
+    }
+
+    /**
+     * returns the number of slots, which have been used, the
+     * slots of the store are in the range [0, size)
+     *
+     * @return number of slots
+     */
+    public final synchronized int size()
+    {
+        return m_size;
+    }
+
+    /**
+     * returns the number of used slots
+     *
+     * @return number of cars
+     */
+    public final synchronized int getNumberOfCars()
+    {
+        return m_size - m_freeslotcount;
+    }
+
+    /**
+     * checks if a slot is updated by the drive model
+     *
+     * @param p_slot slot
+     * @return boolean flag, that the slot is used by a car, which is not external, not idle and has not reached its end
+     */
+    public final boolean isDriven( final int p_slot )
+    {
+        return ( this.segment( p_slot ).m_flag[p_slot & c_segmentmask] & ( c_used | c_endreached | c_external | c_idle ) ) == c_used;
+    }
+
+    /**
+     * checks if a slot is used
+     *
+     * @param p_slot slot
+     * @return used flag
+     */
+    public final boolean isUsed( final int p_slot )
+    {
+        return ( this.segment( p_slot ).m_flag[p_slot & c_segmentmask] & c_used ) != 0;
+    }
+
+    /**
+     * returns the end-reached flag
+     *
+     * @param p_slot slot
+     * @return end-reached flag
+     */
+    public final boolean hasEndReached( final int p_slot )
+    {
+        return ( this.segment( p_slot ).m_flag[p_slot & c_segmentmask] & c_endreached ) != 0;
+    }
+
+    /**
+     * sets the end-reached flag
+     *
+     * @param p_slot slot
+     */
+    public final void setEndReached( final int p_slot )
+    {
+        this.segment( p_slot ).m_flag[p_slot & c_segmentmask] |= c_endreached;
+    }
+
+    /**
+     * returns the placed flag
+     *
+     * @param p_slot slot
+     * @return flag, that the car is set on a cell of the graph
+     */
+    public final boolean isPlaced( final int p_slot )
+    {
+        return ( this.segment( p_slot ).m_flag[p_slot & c_segmentmask] & c_placed ) != 0;
+    }
+
+    /**
+     * sets the placed flag
+     *
+     * @param p_slot slot
+     */
+    public final void setPlaced( final int p_slot )
+    {
+        this.segment( p_slot ).m_flag[p_slot & c_segmentmask] |= c_placed;
+    }
+
+    /**
+     * sets or clears the idle flag, an idle car is not updated by the drive model
+     *
+     * @param p_slot slot
+     * @param p_idle idle flag
+     */
+    public final void setIdle( final int p_slot, final boolean p_idle )
+    {
+        final CColumns l_columns = this.segment( p_slot );
+        final int l_index = p_slot & c_segmentmask;
+        l_columns.m_flag[l_index] = (byte) ( p_idle ? l_columns.m_flag[l_index] | c_idle : l_columns.m_flag[l_index] & ~c_idle );
+    }
+
+    /**
+     * returns the current speed
+     *
+     * @param p_slot slot
+     * @return speed in km/h
+     */
+    public final int getSpeed( final int p_slot )
+    {
+        return this.segment( p_slot ).m_speed[p_slot & c_segmentmask];
+    }
+
+    /**
+     * sets the current speed
+     *
+     * @param p_slot slot
+     * @param p_speed speed in km/h
+     */
+    public final void setSpeed( final int p_slot, final int p_speed )
+    {
+        this.segment( p_slot ).m_speed[p_slot & c_segmentmask] = p_speed;
+    }
+
+    /**
+     * returns the maximum speed
+     *
+     * @param p_slot slot
+     * @return speed in km/h
+     */
+    public final int getMaximumSpeed( final int p_slot )
+    {
+        return this.segment( p_slot ).m_maxspeed[p_slot & c_segmentmask];
+    }
+
+    /**
+     * returns the acceleration
+     *
+     * @param p_slot slot
+     * @return acceleration in m/sec^2
+     */
+    public final int getAcceleration( final int p_slot )
+    {
+        return this.segment( p_slot ).m_acceleration[p_slot & c_segmentmask];
+    }
+
+    /**
+     * returns the deceleration
+     *
+     * @param p_slot slot
+     * @return deceleration in m/sec^2
+     */
+    public final int getDeceleration( final int p_slot )
+    {
+        return this.segment( p_slot ).m_deceleration[p_slot & c_segmentmask];
+    }
+
+    /**
+     * returns the linger probability
+     *
+     * @param p_slot slot
+     * @return probability
+     */
+    public final double getLingerProbability( final int p_slot )
+    {
+        return this.segment( p_slot ).m_lingerprobability[p_slot & c_segmentmask];
+    }
+
+    /**
+     * returns the next value of the random sequence of a slot, each slot has got an own
+     * sequence, so the values do not depend on the order in which the slots are updated
+     *
+     * @param p_slot slot
+     * @return random value in [0, 1)
+     */
+    public final double nextRandom( final int p_slot )
+    {
+        return ( mix( this.segment( p_slot ).m_random[p_slot & c_segmentmask] += c_gamma ) >>> 11 ) * 0x1.0p-53;
+    }
+
+    /**
+     * returns the state of the random sequence of a slot
+     *
+     * @param p_slot slot
+     * @return state
+     */
+    public final long getRandomState( final int p_slot )
+    {
+        return this.segment( p_slot ).m_random[p_slot & c_segmentmask];
+    }
+
+    /**
+     * sets the state of the random sequence of a slot, e.g. on restoring a checkpoint
+     *
+     * @param p_slot slot
+     * @param p_state state
+     */
+    public final void setRandomState( final int p_slot, final long p_state )
+    {
+        this.segment( p_slot ).m_random[p_slot & c_segmentmask] = p_state;
+    }
+
+    /**
+     * returns the state of the sequence, which seeds the slots
+     *
+     * @return state
+     */
+    public final synchronized long getSeedState()
+    {
+        return m_seed;
+    }
+
+    /**
+     * sets the state of the sequence, which seeds the slots, e.g. on restoring a checkpoint
+     *
+     * @param p_state state
+     */
+    public final synchronized void setSeedState( final long p_state )
+    {
+        m_seed = p_state;
+    }
+
+    /**
+     * mixes a value of the sequence
+     *
+     * @param p_value value
+     * @return mixed value
+     * @see http://xorshift.di.unimi.it/splitmix64.c
+     */
+    private static long mix( final long p_value )
+    {
+        long l_value = ( p_value ^ ( p_value >>> 30 ) ) * 0xBF58476D1CE4E5B9L;
+        l_value = ( l_value ^ ( l_value >>> 27 ) ) * 0x94D049BB133111EBL;
+        return l_value ^ ( l_value >>> 31 );
+    }
+
+    /**
+     * returns the route index
+     *
+     * @param p_slot slot
+     * @return route index
+     */
+    public final int getRouteIndex( final int p_slot )
+    {
+        return this.segment( p_slot ).m_routeindex[p_slot & c_segmentmask];
+    }
+
+    /**
+     * sets the route index
+     *
+     * @param p_slot slot
+     * @param p_routeindex route index
+     */
+    public final void setRouteIndex( final int p_slot, final int p_routeindex )
+    {
+        this.segment( p_slot ).m_routeindex[p_slot & c_segmentmask] = p_routeindex;
+    }
+
+    /**
+     * returns the route
+     *
+     * @param p_slot slot
+     * @return route
+     */
+    public final CRoute getRoute( final int p_slot )
+    {
+        return this.segment( p_slot ).m_route[p_slot & c_segmentmask];
+    }
+
+    /**
+     * replaces the route
+     *
+     * @param p_slot slot
+     * @param p_route route
+     */
+    public final void setRoute( final int p_slot, final CRoute p_route )
+    {
+        this.segment( p_slot ).m_route[p_slot & c_segmentmask] = p_route;
+    }
+
+    /**
+     * returns the segment of a slot
+     *
+     * @param p_slot slot
+     * @return segment
+     */
+    private CColumns segment( final int p_slot )
+    {
+        return m_segments[p_slot >>> c_segmentbits];
+    }
+
+    /**
+     * creates a segment list with new segments, the existing segments are kept
+     *
+     * @param p_count number of new segments
+     * @return segment list
+     */
+    private CColumns[] grow( final int p_count )
+    {
+        final CColumns[] l_segments = Arrays.copyOf( m_segments, m_segments.length + p_count );
+        for ( int i = m_segments.length; i < l_segments.length; i++ )
+            l_segments[i] = new CColumns();
+        return l_segments;
+    }
+
+
+    /**
+     * columns of a segment of the store
+     */
+    private static final class CColumns
+    {
+        /**
+         * current speed in km/h
+         */
+        private final int[] m_speed;
+        /**
+         * maximum speed in km/h
+         */
+        private final int[] m_maxspeed;
+        /**
+         * acceleration in m/sec^2
+         */
+        private final int[] m_acceleration;
+        /**
+         * deceleration in m/sec^2
+         */
+        private final int[] m_deceleration;
+        /**
+         * linger probability
+         */
+        private final float[] m_lingerprobability;
+        /**
+         * route, the routes are immutable, so cars with the same route share the route object
+         */
+        private final CRoute[] m_route;
+        /**
+         * route index
+         */
+        private final int[] m_routeindex;
+        /**
+         * flags of the slot
+         */
+        private final byte[] m_flag;
+        /**
+         * state of the random sequence of the slot
+         */
+        private final long[] m_random;
+
+        /**
+         * ctor
+         */
+        public CColumns()
+        {
+            m_speed = new int[c_segmentsize];
+            m_maxspeed = new int[c_segmentsize];
+            m_acceleration = new int[c_segmentsize];
+            m_deceleration = new int[c_segmentsize];
+            m_lingerprobability = new float[c_segmentsize];
+            m_route = new CRoute[c_segmentsize];
+            m_routeindex = new int[c_segmentsize];
+            m_flag = new byte[c_segmentsize];
+            m_random = new long[c_segmentsize];
+        }
+    }
+
+}
@@ -29,6 +29,7 @@ import de.tu_clausthal.in.mec.common.CCommon;
 import de.tu_clausthal.in.mec.object.ILayer;
 import de.tu_clausthal.in.mec.object.car.graph.CEdge;
 import de.tu_clausthal.in.mec.object.car.graph.CGraphHopper;
+import de.tu_clausthal.in.mec.object.car.graph.CRoute;
 import de.tu_clausthal.in.mec.object.mas.CFieldFilter;
 import de.tu_clausthal.in.mec.object.mas.CMethodFilter;
 import de.tu_clausthal.in.mec.runtime.CSimulation;
@@ -49,7 +50,6 @@ import java.awt.*;
 import java.awt.event.MouseEvent;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.Point2D;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -70,48 +70,10 @@ public class CDefaultCar extends IInspectorDefault implements ICar
     @CFieldFilter.CAgent( bind = false )
     protected final CCarLayer m_layer = CSimulation.getInstance().getWorld().<CCarLayer>getTyped( "Cars" );
     /**
-     * maximum speed definition in km/h
-     */
-    protected final int m_maxspeed;
-    /**
-     * current speed in km/h (use boxed-type because MAS can modify value)
-     */
-    protected Integer m_speed;
-    /**
-     * cell structure of the route
-     */
-    @CFieldFilter.CAgent( bind = false )
-    protected final ArrayList<Pair<EdgeIteratorState, Integer>> m_route;
-    /**
-     * current position on the route
-     */
-    @CFieldFilter.CAgent( bind = false )
-    protected int m_routeindex;
-    /**
-     * individual acceleration in m/sec^2
-     */
-    private final int m_acceleration;
-    /**
-     * individual deceleration in m/sec^2
-     */
-    private final int m_deceleration;
-    /**
-     * boolean flag for end reached
+     * slot of the car within the car store, the slot is negative after the release
      */
     @CFieldFilter.CAgent( bind = false )
-    private boolean m_endreached;
-    /**
-     * inspector map
-     */
-    @CFieldFilter.CAgent( bind = false )
-    private final Map<String, Object> m_inspect = new HashMap<String, Object>()
-    {{
-        putAll( CDefaultCar.super.inspect() );
-    }};
-    /**
-     * linger probability value
-     */
-    private double m_lingerprobability;
+    private int m_slot;
 
     /**
      * ctor to create the initial values
@@ -124,92 +86,217 @@ public class CDefaultCar extends IInspectorDefault implements ICar
      * @param p_lingerprobability linger probability
      * @see https://en.wikipedia.org/wiki/Orders_of_magnitude_(acceleration)
      */
-    public CDefaultCar( final ArrayList<Pair<EdgeIteratorState, Integer>> p_route, final int p_speed, final int p_maxspeed, final int p_acceleration,
+    public CDefaultCar( final CRoute p_route, final int p_speed, final int p_maxspeed, final int p_acceleration,
             final int p_deceleration, final double p_lingerprobability
     ) throws IllegalArgumentException
     {
-        m_route = p_route;
-        m_speed = p_speed;
-        m_maxspeed = p_maxspeed;
-        m_acceleration = p_acceleration;
-        m_deceleration = p_deceleration;
-        m_lingerprobability = p_lingerprobability;
-
+        this( p_route, 0, p_speed, p_maxspeed, p_acceleration, p_deceleration, p_lingerprobability );
+    }
 
-        if ( ( m_route == null ) || ( m_route.isEmpty() ) )
+    /**
+     * ctor to create a car, which is placed on a position of the route
+     *
+     * @param p_route driving route
+     * @param p_routeindex current position on the route
+     * @param p_speed initial speed
+     * @param p_maxspeed maximum speed
+     * @param p_acceleration acceleration
+     * @param p_deceleration decceleration
+     * @param p_lingerprobability linger probability
+     * @note the values of a default car are updated by the drive model loop of the layer, the
+     * values of a derived car can be overridden, so they are updated with the car object
+     */
+    public CDefaultCar( final CRoute p_route, final int p_routeindex, final int p_speed, final int p_maxspeed,
+            final int p_acceleration, final int p_deceleration, final double p_lingerprobability
+    ) throws IllegalArgumentException
+    {
+        if ( ( p_route == null ) || ( p_route.isEmpty() ) )
             throw new IllegalArgumentException( CCommon.getResourceString( CDefaultCar.class, "routeempty" ) );
-        if ( m_speed < 1 )
+        if ( p_speed < 1 )
             throw new IllegalArgumentException( CCommon.getResourceString( CDefaultCar.class, "speedtolow" ) );
-        if ( m_maxspeed > 350 )
+        if ( p_maxspeed > 350 )
             throw new IllegalArgumentException( CCommon.getResourceString( CDefaultCar.class, "maxspeedtohigh" ) );
-        if ( ( m_acceleration < 1 ) || ( m_acceleration > 20 ) )
+        if ( ( p_acceleration < 1 ) || ( p_acceleration > 20 ) )
             throw new IllegalArgumentException( CCommon.getResourceString( CDefaultCar.class, "accelerationincorrect" ) );
-        if ( ( m_deceleration < 1 ) || ( m_deceleration > 20 ) )
+        if ( ( p_deceleration < 1 ) || ( p_deceleration > 20 ) )
             throw new IllegalArgumentException( CCommon.getResourceString( CDefaultCar.class, "decelerationincorrect" ) );
-        if ( ( m_lingerprobability < 0 ) || ( m_lingerprobability > 1 ) )
+        if ( ( p_lingerprobability < 0 ) || ( p_lingerprobability > 1 ) )
             throw new IllegalArgumentException( CCommon.getResourceString( CDefaultCar.class, "lingerprobabilityincorrect" ) );
+        if ( ( p_routeindex < 0 ) || ( p_routeindex >= p_route.size() ) )
+            throw new IllegalArgumentException( CCommon.getResourceString( CDefaultCar.class, "routeindexincorrect" ) );
 
-        m_inspect.put( CCommon.getResourceString( CDefaultCar.class, "maximumspeed" ), m_maxspeed );
-        m_inspect.put( CCommon.getResourceString( CDefaultCar.class, "acceleration" ), m_acceleration );
-        m_inspect.put( CCommon.getResourceString( CDefaultCar.class, "deceleration" ), m_deceleration );
+        m_slot = m_layer.getStore().allocate(
+                p_route, p_routeindex, p_speed, p_maxspeed, p_acceleration, p_deceleration, p_lingerprobability,
+                !CDefaultCar.class.equals( this.getClass() )
+        );
     }
 
     @Override
     @CMethodFilter.CAgent( bind = false )
-    public final int getAcceleration()
+    public int getAcceleration()
     {
-        return m_acceleration;
+        return m_layer.getStore().getAcceleration( m_slot );
     }
 
     @Override
     @CMethodFilter.CAgent( bind = false )
-    public final int getCurrentSpeed()
+    public int getCurrentSpeed()
     {
-        return m_speed;
+        return m_layer.getStore().getSpeed( m_slot );
     }
 
     @Override
     @CMethodFilter.CAgent( bind = false )
-    public final void setCurrentSpeed( final int p_speed )
+    public void setCurrentSpeed( final int p_speed )
     {
-        m_speed = p_speed;
+        m_layer.getStore().setSpeed( m_slot, p_speed );
     }
 
     @Override
     @CMethodFilter.CAgent( bind = false )
-    public final int getDeceleration()
+    public int getDeceleration()
     {
-        return m_deceleration;
+        return m_layer.getStore().getDeceleration( m_slot );
     }
 
     @Override
     public final EdgeIteratorState getEdge()
     {
-        return this.getEdge( m_routeindex );
+        return this.getEdge( this.getRouteIndex() );
     }
 
     @Override
     @CMethodFilter.CAgent( bind = false )
     public final GeoPosition getGeoposition()
     {
-        if ( m_routeindex >= m_route.size() )
+        final CRoute l_route = this.route();
+        final int l_routeindex = this.getRouteIndex();
+        if ( l_routeindex >= l_route.size() )
             return null;
-        final Pair<EdgeIteratorState, Integer> l_cell = m_route.get( m_routeindex );
-        return m_layer.getGraph().getEdge( l_cell.getLeft() ).getGeoPositions( l_cell.getRight() );
+        return m_layer.getGraph().getEdge( l_route.getEdgeID( l_routeindex ) ).getGeoPositions( l_route.getPosition( l_routeindex ) );
     }
 
     @Override
     @CMethodFilter.CAgent( bind = false )
-    public final double getLingerProbability()
+    public double getLingerProbability()
     {
-        return m_lingerprobability;
+        return m_layer.getStore().getLingerProbability( m_slot );
+    }
+
+    /**
+     * returns the cell structure of the route
+     *
+     * @return immutable route
+     */
+    @CMethodFilter.CAgent( bind = false )
+    public final CRoute getRoute()
+    {
+        return this.route();
+    }
+
+    /**
+     * returns the slot of the car within the car store
+     *
+     * @return slot
+     */
+    @CMethodFilter.CAgent( bind = false )
+    public final int getSlot()
+    {
+        return m_slot;
+    }
+
+    /**
+     * returns the current position on the route
+     *
+     * @return route index
+     */
+    @CMethodFilter.CAgent( bind = false )
+    public final int getRouteIndex()
+    {
+        return m_layer.getStore().getRouteIndex( m_slot );
+    }
+
+    /**
+     * returns the placed flag
+     *
+     * @return flag, that the car is set on a cell of the graph
+     */
+    @CMethodFilter.CAgent( bind = false )
+    public final boolean isPlaced()
+    {
+        return m_layer.getStore().isPlaced( m_slot );
+    }
+
+    /**
+     * places the car on the cell of its route index
+     *
+     * @throws IllegalAccessException is thrown if the cell is occupied
+     */
+    @CMethodFilter.CAgent( bind = false )
+    public final void place() throws IllegalAccessException
+    {
+        final CRoute l_route = this.route();
+        final int l_routeindex = this.getRouteIndex();
+        m_layer.getGraph().getEdge( l_route.getEdgeID( l_routeindex ) ).setObject( this, l_route.getPosition( l_routeindex ) );
+        m_layer.getStore().setPlaced( m_slot );
+    }
+
+    /**
+     * returns the route index of the first cell of the next edge
+     *
+     * @return route index or the route size if the car is on the last edge
+     */
+    @CMethodFilter.CAgent( bind = false )
+    public final int getNextEdgeIndex()
+    {
+        final CRoute l_route = this.route();
+        return l_route.getOffset( l_route.getEdgeIndex( this.getRouteIndex() ) + 1 );
+    }
+
+    /**
+     * moves the car to a route cell without passing the cells between, which is used by
+     * the event engine, an index behind the route removes the car and marks the end
+     *
+     * @param p_routeindex route index
+     * @return false if the cell is occupied
+     * @note a placed car, which jumps to its current cell, keeps its cell and an unplaced car is set on the cell
+     */
+    @CMethodFilter.CAgent( bind = false )
+    public final boolean jump( final int p_routeindex )
+    {
+        final CRoute l_route = this.route();
+        final boolean l_placed = this.isPlaced();
+        final CEdge<ICar, ?> l_from = m_layer.getGraph().getEdge( l_route.getEdgeID( this.getRouteIndex() ) );
+        final int l_fromposition = l_route.getPosition( this.getRouteIndex() );
+        if ( p_routeindex >= l_route.size() )
+        {
+            if ( l_placed )
+                l_from.removeObject( this, l_fromposition );
+            m_layer.getStore().setEndReached( m_slot );
+            return true;
+        }
+
+        if ( !m_layer.getGraph().getEdge( l_route.getEdgeID( p_routeindex ) ).move(
+                this, l_route.getPosition( p_routeindex ), l_placed ? l_from : null, l_fromposition
+        ) )
+            return false;
+
+        this.setPosition( p_routeindex );
+        return true;
     }
 
     @Override
     @CMethodFilter.CAgent( bind = false )
-    public final int getMaximumSpeed()
+    public final double getRandom()
     {
-        return m_maxspeed;
+        return m_layer.getStore().nextRandom( m_slot );
+    }
+
+    @Override
+    @CMethodFilter.CAgent( bind = false )
+    public int getMaximumSpeed()
+    {
+        return m_layer.getStore().getMaximumSpeed( m_slot );
     }
 
     @Override
@@ -227,15 +314,17 @@ public class CDefaultCar extends IInspectorDefault implements ICar
     public final Map<Double, ICar> getPredecessor( final int p_count )
     {
         final Map<Double, ICar> l_predecessordistance = new HashMap<>();
+        final CRoute l_route = this.route();
+        final int l_routeindex = this.getRouteIndex();
 
-        // we get the nearest predecessor within the speed range (performance boost)
-        for ( int i = m_routeindex + 1; ( i <= m_routeindex + m_layer.getUnitConvert().getSpeedToCell( m_speed ) ) && ( i < m_route.size() ) &&
-                                        ( l_predecessordistance.size() < p_count ); i++
-                )
+        // we get the nearest predecessor within the speed range (performance boost), empty cells are skipped by the occupancy bits
+        final int l_end = Math.min( l_routeindex + m_layer.getUnitConvert().getSpeedToCell( this.getCurrentSpeed() ), l_route.size() - 1 );
+        for ( int l_cell = m_layer.getGraph().getNextObjectCell( l_route, l_routeindex + 1, l_end );
+              ( l_cell >= 0 ) && ( l_predecessordistance.size() < p_count ); l_cell = m_layer.getGraph().getNextObjectCell( l_route, l_cell + 1, l_end ) )
         {
-            final ICar l_object = m_layer.getGraph().getEdge( m_route.get( i ).getLeft() ).getObject( m_route.get( i ).getRight() );
+            final ICar l_object = m_layer.getGraph().getEdge( l_route.getEdgeID( l_cell ) ).getObject( l_route.getPosition( l_cell ) );
             if ( l_object != null )
-                l_predecessordistance.put( m_layer.getUnitConvert().getCellToMeter( i - m_routeindex ), l_object );
+                l_predecessordistance.put( m_layer.getUnitConvert().getCellToMeter( l_cell - l_routeindex ), l_object );
         }
 
         return l_predecessordistance;
@@ -245,17 +334,22 @@ public class CDefaultCar extends IInspectorDefault implements ICar
     @CMethodFilter.CAgent( bind = false )
     public final boolean hasEndReached()
     {
-        return m_endreached;
+        return ( m_slot < 0 ) || ( m_layer.getStore().hasEndReached( m_slot ) );
     }
 
     @Override
     @CMethodFilter.CAgent( bind = false )
     public Map<String, Object> inspect()
     {
-        m_inspect.put( CCommon.getResourceString( CDefaultCar.class, "currentspeed" ), m_speed );
-        m_inspect.put( CCommon.getResourceString( CDefaultCar.class, "streetname" ), m_route.get( m_routeindex ).getLeft().getName() );
-        m_inspect.put( CCommon.getResourceString( CDefaultCar.class, "currentgeoposition" ), this.getGeoposition() );
-        return m_inspect;
+        // the map is created on demand, so a car does not hold the strings of the inspector
+        final Map<String, Object> l_inspect = new HashMap<>( super.inspect() );
+        l_inspect.put( CCommon.getResourceString( CDefaultCar.class, "maximumspeed" ), this.getMaximumSpeed() );
+        l_inspect.put( CCommon.getResourceString( CDefaultCar.class, "acceleration" ), this.getAcceleration() );
+        l_inspect.put( CCommon.getResourceString( CDefaultCar.class, "deceleration" ), this.getDeceleration() );
+        l_inspect.put( CCommon.getResourceString( CDefaultCar.class, "currentspeed" ), this.getCurrentSpeed() );
+        l_inspect.put( CCommon.getResourceString( CDefaultCar.class, "streetname" ), this.getEdge().getName() );
+        l_inspect.put( CCommon.getResourceString( CDefaultCar.class, "currentgeoposition" ), this.getGeoposition() );
+        return l_inspect;
     }
 
     @Override
@@ -280,8 +374,8 @@ public class CDefaultCar extends IInspectorDefault implements ICar
 
             final Stroke l_stroke = new BasicStroke( 2, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND, 1, new float[]{1}, 0 );
             final List<Triple<Pair<GeoPosition, GeoPosition>, Color, Stroke>> l_route = new LinkedList<>();
-            l_route.addAll( this.getRouteLine( 0, m_routeindex, Color.GREEN, l_stroke ) );
-            l_route.addAll( this.getRouteLine( m_routeindex, m_route.size(), Color.CYAN, l_stroke ) );
+            l_route.addAll( this.getRouteLine( 0, this.getRouteIndex(), Color.GREEN, l_stroke ) );
+            l_route.addAll( this.getRouteLine( this.getRouteIndex(), this.getRoute().size(), Color.CYAN, l_stroke ) );
             CSimulation.getInstance().getStorage().<CUI>get( "ui" ).<CSwingWrapper<COSMViewer>>get( "OSM" ).getComponent().paintFadeLine( l_route );
         }
     }
@@ -291,9 +385,15 @@ public class CDefaultCar extends IInspectorDefault implements ICar
     public void release()
     {
         super.release();
+        if ( m_slot < 0 )
+            return;
+
         final CEdge l_edge = m_layer.getGraph().getEdge( this.getEdge() );
         if ( l_edge != null )
-            l_edge.removeObject( this );
+            l_edge.removeObject( this, this.route().getPosition( this.getRouteIndex() ) );
+
+        m_layer.getStore().free( m_slot );
+        m_slot = -1;
     }
 
     @Override
@@ -308,16 +408,17 @@ public class CDefaultCar extends IInspectorDefault implements ICar
         final Point2D l_point = p_viewer.getTileFactory().geoToPixel( l_position, p_viewer.getZoom() );
 
         // speed limit color defined with http://wiki.openstreetmap.org/wiki/File:Speed_limit_Germany.png
+        final int l_speed = this.getCurrentSpeed();
         p_graphic.setColor( Color.DARK_GRAY );
-        if ( m_speed >= 50 )
+        if ( l_speed >= 50 )
             p_graphic.setColor( Color.MAGENTA );
-        if ( m_speed >= 60 )
+        if ( l_speed >= 60 )
             p_graphic.setColor( Color.PINK );
-        if ( m_speed >= 80 )
+        if ( l_speed >= 80 )
             p_graphic.setColor( Color.BLUE );
-        if ( m_speed >= 100 )
+        if ( l_speed >= 100 )
             p_graphic.setColor( Color.CYAN );
-        if ( m_speed >= 130 )
+        if ( l_speed >= 130 )
             p_graphic.setColor( Color.RED );
 
         p_graphic.fillOval( (int) l_point.getX(), (int) l_point.getY(), l_zoom, l_zoom );
@@ -333,51 +434,101 @@ public class CDefaultCar extends IInspectorDefault implements ICar
         if ( this.hasEndReached() )
             return;
 
+        // a car, which has been idle, is updated by the drive model again
+        m_layer.getStore().setIdle( m_slot, false );
+
         // if the car reaches the end
+        final CRoute l_route = this.route();
+        final int l_routeindex = this.getRouteIndex();
         int l_speed = m_layer.getUnitConvert().getSpeedToCell( this.getCurrentSpeed() );
-        if ( m_routeindex + l_speed >= m_route.size() )
+        if ( l_routeindex + l_speed >= l_route.size() )
         {
-            m_endreached = true;
-            l_speed = m_route.size() - m_routeindex - 1;
+            m_layer.getStore().setEndReached( m_slot );
+            l_speed = l_route.size() - l_routeindex - 1;
         }
 
-        // if the route index equal to zero, push it car on the first item or wait until it is free
-        if ( m_routeindex == 0 )
+        // on double-buffered cells the move is claimed and committed between the steps
+        if ( m_layer.getGraph().isDoubleBuffered() )
         {
+            this.claim( l_speed );
+            return;
+        }
 
-            if ( !m_layer.getGraph().getEdge( m_route.get( l_speed ).getLeft() ).isEmpty( m_route.get( l_speed ).getRight().intValue() ) )
+        // if the car is not placed, push it on the entry cell or wait until it is free
+        if ( !this.isPlaced() )
+        {
+
+            // a blocked car is idle until its entry cell is cleared, the edge wakes up the car,
+            // so the cell is not tested on each step, the cell is checked again on wake-up
+            final int l_entry = l_routeindex + l_speed;
+            final CEdge<ICar, ?> l_edge = m_layer.getGraph().getEdge( l_route.getEdgeID( l_entry ) );
+            if ( !l_edge.isEmpty( l_route.getPosition( l_entry ) ) )
+            {
+                m_layer.getStore().setIdle( m_slot, true );
+                m_layer.sleep( this );
+                l_edge.await( l_route.getPosition( l_entry ), () -> m_layer.wakeup( this ) );
                 return;
+            }
 
             try
             {
-                m_layer.getGraph().getEdge( m_route.get( l_speed ).getLeft() ).setObject( this, m_route.get( l_speed ).getRight().intValue() );
-                m_routeindex += l_speed;
+                m_layer.getGraph().getEdge( l_route.getEdgeID( l_entry ) ).setObject( this, l_route.getPosition( l_entry ) );
+                this.setPosition( l_entry );
             }
             catch ( final IllegalAccessException l_exception )
             {
             }
 
         }
-        else
+        else if ( l_speed > 0 )
         {
 
-            try
-            {
-                m_layer.getGraph().getEdge( m_route.get( m_routeindex ).getLeft() ).removeObject( this );
-                m_layer.getGraph().getEdge( m_route.get( m_routeindex + l_speed ).getLeft() ).setObject(
-                        this, m_route.get( m_routeindex + l_speed ).getRight()
-                );
-                m_routeindex += l_speed;
-            }
-            catch ( final IllegalAccessException l_exception )
-            {
-                m_layer.getGraph().getEdge( m_route.get( m_routeindex ).getLeft() ).removeObject( this );
-            }
+            // the target cell is claimed with compare-and-set before the current cell is released,
+            // so on a conflict the car, which sets the cell first, wins and the other car keeps its cell
+            if ( m_layer.getGraph().getEdge( l_route.getEdgeID( l_routeindex + l_speed ) ).move(
+                    this, l_route.getPosition( l_routeindex + l_speed ), m_layer.getGraph().getEdge( l_route.getEdgeID( l_routeindex ) ),
+                    l_route.getPosition( l_routeindex )
+            ) )
+                this.setRouteIndex( l_routeindex + l_speed );
 
         }
 
     }
 
+    /**
+     * claims the target cell on double-buffered cells, on a conflict the car further ahead
+     * (with the lower number of cells to the target) wins and the edge ID decides between cars
+     * with the same distance on different edges, so the result does not depend on the thread
+     * order, cars on the graph have got priority before cars which enter the graph
+     *
+     * @param p_speed number of cells
+     */
+    @CMethodFilter.CAgent( bind = false )
+    private void claim( final int p_speed )
+    {
+        // a car at the end leaves the graph on its release
+        if ( this.hasEndReached() )
+            return;
+
+        final CRoute l_route = this.route();
+        final int l_position = l_route.getPosition( this.getRouteIndex() );
+        final CEdge<ICar, ?> l_from = m_layer.getGraph().getEdge( l_route.getEdgeID( this.getRouteIndex() ) );
+        final boolean l_placed = this.isPlaced();
+        if ( ( l_placed ) && ( p_speed == 0 ) )
+            return;
+
+        final int l_index = this.getRouteIndex() + p_speed;
+        m_layer.getGraph().getEdge( l_route.getEdgeID( l_index ) ).claim(
+                this,
+                l_route.getPosition( l_index ),
+                l_placed ? ( (long) p_speed << 32 ) | l_from.getEdgeID() : Long.MAX_VALUE,
+                m_slot,
+                l_placed ? l_from : null,
+                l_position,
+                () -> this.setPosition( l_index )
+        );
+    }
+
     /**
      * returns a triple of the current edge id, cell position and geoposition
      *
@@ -386,12 +537,14 @@ public class CDefaultCar extends IInspectorDefault implements ICar
     @CMethodFilter.CAgent( bind = false )
     protected final Triple<EdgeIteratorState, Integer, GeoPosition> getCurrentPosition()
     {
-        if ( ( m_route == null ) || ( m_routeindex >= m_route.size() ) )
+        final CRoute l_route = this.route();
+        final int l_routeindex = this.getRouteIndex();
+        if ( l_routeindex >= l_route.size() )
             return new ImmutableTriple<>( null, null, this.getGeoposition() );
 
         return new ImmutableTriple<>(
-                m_route.get( m_routeindex ).getLeft(),
-                m_route.get( m_routeindex ).getRight(),
+                m_layer.getGraph().getEdge( l_route.getEdgeID( l_routeindex ) ).getEdgeState(),
+                l_route.getPosition( l_routeindex ),
                 this.getGeoposition()
         );
     }
@@ -425,10 +578,42 @@ public class CDefaultCar extends IInspectorDefault implements ICar
     @CMethodFilter.CAgent( bind = false )
     private final EdgeIteratorState getEdge( final int p_index )
     {
-        if ( m_route == null )
-            return null;
+        final CRoute l_route = this.route();
+        return p_index < l_route.size() ? m_layer.getGraph().getEdge( l_route.getEdgeID( p_index ) ).getEdgeState() : null;
+    }
 
-        return p_index < m_route.size() ? m_route.get( p_index ).getLeft() : null;
+    /**
+     * returns the route of the car store
+     *
+     * @return route
+     */
+    @CMethodFilter.CAgent( bind = false )
+    private CRoute route()
+    {
+        return m_layer.getStore().getRoute( m_slot );
+    }
+
+    /**
+     * sets the route index within the car store
+     *
+     * @param p_routeindex route index
+     */
+    @CMethodFilter.CAgent( bind = false )
+    private void setRouteIndex( final int p_routeindex )
+    {
+        m_layer.getStore().setRouteIndex( m_slot, p_routeindex );
+    }
+
+    /**
+     * sets the route index of a cell, on which the car is set
+     *
+     * @param p_routeindex route index
+     */
+    @CMethodFilter.CAgent( bind = false )
+    private void setPosition( final int p_routeindex )
+    {
+        m_layer.getStore().setRouteIndex( m_slot, p_routeindex );
+        m_layer.getStore().setPlaced( m_slot );
     }
 
     /**
@@ -447,11 +632,12 @@ public class CDefaultCar extends IInspectorDefault implements ICar
     {
         final List<Triple<Pair<GeoPosition, GeoPosition>, Color, Stroke>> l_list = new LinkedList<>();
 
-        GeoPosition l_start = m_layer.getGraph().getEdge( m_route.get( p_start ).getLeft() ).getGeoPositions( m_route.get( p_start ).getRight().intValue() );
+        final CRoute.CCursor l_cursor = this.route().cursor( p_start );
+        GeoPosition l_start = m_layer.getGraph().getEdge( l_cursor.getEdgeID() ).getGeoPositions( l_cursor.getPosition() );
         GeoPosition l_end;
-        for ( int i = p_start + 1; i < p_end; ++i )
+        for ( l_cursor.next(); l_cursor.getCell() < p_end; l_cursor.next() )
         {
-            l_end = m_layer.getGraph().getEdge( m_route.get( i ).getLeft() ).getGeoPositions( m_route.get( i ).getRight().intValue() );
+            l_end = m_layer.getGraph().getEdge( l_cursor.getEdgeID() ).getGeoPositions( l_cursor.getPosition() );
             if ( l_start.equals( l_end ) )
                 continue;
 
@@ -470,15 +656,15 @@ public class CDefaultCar extends IInspectorDefault implements ICar
      */
     private void reroute( final GeoPosition p_position, final CGraphHopper.EWeight p_weight )
     {
-        if ( m_routeindex >= m_route.size() - 1 )
+        final CRoute l_cells = this.route();
+        if ( this.getRouteIndex() >= l_cells.size() - 1 )
             return;
 
         final List<List<EdgeIteratorState>> l_route = m_layer.getGraph().getRoutes( this.getGeoposition(), p_position, p_weight, 1 );
         if ( l_route.size() == 0 )
             return;
 
-        m_route.subList( m_routeindex + 1, m_route.size() );
-        m_route.addAll( m_layer.getGraph().getRouteCells( l_route.get( 0 ) ) );
+        m_layer.getStore().setRoute( m_slot, l_cells.replace( this.getRouteIndex(), m_layer.getGraph().getRouteCells( l_route.get( 0 ) ) ) );
     }
 
     /**
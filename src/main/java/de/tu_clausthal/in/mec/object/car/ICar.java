@@ -90,6 +90,14 @@ public interface ICar extends Painter<COSMViewer>, IVoidSteppable
      */
     double getLingerProbability();
 
+    /**
+     * returns the next value of the random sequence of the car, so the
+     * values do not depend on the order in which the cars are updated
+     *
+     * @return random value in [0, 1)
+     */
+    double getRandom();
+
     /**
      * returns the maximum speed of the car
      *
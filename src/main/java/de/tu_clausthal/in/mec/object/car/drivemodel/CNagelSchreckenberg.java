@@ -25,14 +25,18 @@
 package de.tu_clausthal.in.mec.object.car.drivemodel;
 
 import de.tu_clausthal.in.mec.object.car.CCarLayer;
+import de.tu_clausthal.in.mec.object.car.CCarStore;
+import de.tu_clausthal.in.mec.object.car.CUnitConvert;
 import de.tu_clausthal.in.mec.object.car.ICar;
+import de.tu_clausthal.in.mec.object.car.graph.CRoute;
 
 import java.util.Map;
-import java.util.Random;
 
 
 /**
- * class of the Nagel-Schreckenberg drive model
+ * class of the Nagel-Schreckenberg drive model, the model is shared by all simulations,
+ * so the linger probability is checked with the random sequence of the car, the cars
+ * of the car store are updated with a loop over the slots
  *
  * @see http://en.wikipedia.org/wiki/Nagel%E2%80%93Schreckenberg_model
  */
@@ -43,10 +47,6 @@ public class CNagelSchreckenberg implements IDriveModel
      * defines the minimal speed in km/h
      */
     private static final int c_minimalspeed = 15;
-    /**
-     * random object for linger probability *
-     */
-    private final Random m_random = new Random();
 
     @Override
     public void update( final int p_currentstep, final CCarLayer p_layer, final ICar p_car )
@@ -56,6 +56,55 @@ public class CNagelSchreckenberg implements IDriveModel
         this.checkLinger( p_layer, p_car );
     }
 
+    @Override
+    public void update( final int p_currentstep, final CCarLayer p_layer, final CCarStore p_store, final int p_start, final int p_end )
+    {
+        final CUnitConvert l_unit = p_layer.getUnitConvert();
+        for ( int i = p_start; i < p_end; i++ )
+            if ( p_store.isDriven( i ) )
+                this.update( p_layer, l_unit, p_store, i );
+    }
+
+    /**
+     * updates a slot of the car store
+     *
+     * @param p_layer car layer
+     * @param p_unit unit converting
+     * @param p_store car store
+     * @param p_slot slot
+     */
+    private void update( final CCarLayer p_layer, final CUnitConvert p_unit, final CCarStore p_store, final int p_slot )
+    {
+        final CRoute l_route = p_store.getRoute( p_slot );
+        final int l_routeindex = p_store.getRouteIndex( p_slot );
+
+        // acceleration with the edge speed
+        int l_speed = Math.min(
+                Math.min(
+                        p_store.getMaximumSpeed( p_slot ),
+                        (int) p_layer.getGraph().getEdgeSpeed( p_layer.getGraph().getEdge( l_route.getEdgeID( l_routeindex ) ).getEdgeState() )
+                ),
+                p_store.getSpeed( p_slot ) + (int) p_unit.getAccelerationToSpeed( p_store.getAcceleration( p_slot ) )
+        );
+
+        // collision with the nearest predecessor within the speed range
+        final int l_end = Math.min( l_routeindex + p_unit.getSpeedToCell( l_speed ), l_route.size() - 1 );
+        final int l_predecessor = p_layer.getGraph().getNextObjectCell( l_route, l_routeindex + 1, l_end );
+        if ( l_predecessor >= 0 )
+        {
+            final double l_speeddistance = p_unit.getSpeedToDistance( l_speed );
+            final double l_distance = p_unit.getCellToMeter( l_predecessor - l_routeindex );
+            if ( l_distance < l_speeddistance )
+                l_speed = Math.max( 0, p_unit.getSpeedOfDistance( l_speeddistance - l_distance ) );
+        }
+
+        // linger
+        if ( ( l_speed > 0 ) && ( p_store.nextRandom( p_slot ) <= p_store.getLingerProbability( p_slot ) ) )
+            l_speed = Math.max( c_minimalspeed, l_speed - (int) p_unit.getAccelerationToSpeed( p_store.getDeceleration( p_slot ) ) );
+
+        p_store.setSpeed( p_slot, l_speed );
+    }
+
     /**
      * checks the acceleration and increment the speed
      *
@@ -100,7 +149,7 @@ public class CNagelSchreckenberg implements IDriveModel
      */
     protected final void checkLinger( final CCarLayer p_layer, final ICar p_car )
     {
-        if ( ( p_car.getCurrentSpeed() > 0 ) && ( m_random.nextDouble() <= p_car.getLingerProbability() ) )
+        if ( ( p_car.getCurrentSpeed() > 0 ) && ( p_car.getRandom() <= p_car.getLingerProbability() ) )
             p_car.setCurrentSpeed(
                     Math.max(
                             c_minimalspeed, p_car.getCurrentSpeed() - (int) p_layer.getUnitConvert().getAccelerationToSpeed(
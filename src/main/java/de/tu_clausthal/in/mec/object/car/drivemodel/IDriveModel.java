@@ -25,6 +25,7 @@
 package de.tu_clausthal.in.mec.object.car.drivemodel;
 
 import de.tu_clausthal.in.mec.object.car.CCarLayer;
+import de.tu_clausthal.in.mec.object.car.CCarStore;
 import de.tu_clausthal.in.mec.object.car.ICar;
 
 
@@ -43,4 +44,15 @@ public interface IDriveModel
      */
     void update( final int p_currentstep, final CCarLayer p_layer, final ICar p_car );
 
+    /**
+     * updates the cars of a slot range of the car store, which are not updated with their car object
+     *
+     * @param p_currentstep current step number
+     * @param p_layer car layer
+     * @param p_store car store
+     * @param p_start first slot
+     * @param p_end slot behind the last slot
+     */
+    void update( final int p_currentstep, final CCarLayer p_layer, final CCarStore p_store, final int p_start, final int p_end );
+
 }
@@ -27,6 +27,8 @@ package de.tu_clausthal.in.mec.object.car.graph;
 import com.graphhopper.util.EdgeIteratorState;
 import com.graphhopper.util.PointList;
 import de.tu_clausthal.in.mec.common.CCommon;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.math3.analysis.UnivariateFunction;
 import org.apache.commons.math3.analysis.interpolation.LinearInterpolator;
 import org.apache.commons.math3.analysis.interpolation.SplineInterpolator;
@@ -35,13 +37,18 @@ import org.apache.commons.math3.exception.NonMonotonicSequenceException;
 import org.jxmapviewer.viewer.GeoPosition;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 
 /**
@@ -57,21 +64,35 @@ public final class CEdge<N, T> implements Comparable<CEdge>
      */
     private static final double c_epsilon = 0.001;
     /**
-     * array with additional information
+     * array with additional information, which is created on the first write
      */
-    private final T[] m_additionalinformation;
+    private volatile T[] m_additionalinformation;
     /**
      * array with geopositions of the cell
      */
     private final GeoPosition[] m_cellgeoposition;
     /**
-     * array with cells of the forward direction
+     * array with cells of the forward direction, the cell index is the slot handle of an object,
+     * so objects which know their cell are removed without a lookup, a cell is set and cleared
+     * with compare-and-set, so the first object, which sets an empty cell, wins
      */
-    private final N[] m_cells;
+    private final AtomicReferenceArray<N> m_cells;
+    /**
+     * bitset of the occupied cells
+     */
+    private final AtomicLongArray m_occupied;
+    /**
+     * number of objects
+     */
+    private final AtomicInteger m_count = new AtomicInteger();
     /**
      * edge ID
      */
     private final int m_edgeid;
+    /**
+     * edge state of the graph
+     */
+    private final EdgeIteratorState m_edgestate;
     /**
      * length of the edge (distance)
      */
@@ -81,9 +102,37 @@ public final class CEdge<N, T> implements Comparable<CEdge>
      */
     private final Set<IAction<N, T>> m_listener = new HashSet<>();
     /**
-     * map with object-2-position in forward direction
+     * double buffer of the graph or null
+     */
+    private final CBuffer<N> m_buffer;
+    /**
+     * claims of the cells for the next step on double-buffering
+     */
+    private final AtomicReferenceArray<CClaim<N>> m_claims;
+    /**
+     * objects, which leave the edge on the next swap
      */
-    private final Map<N, Integer> m_objects = new ConcurrentHashMap<>();
+    private final Queue<N> m_departures = new ConcurrentLinkedQueue<>();
+    /**
+     * flag that the edge is registered within the dirty list of the buffer
+     */
+    private final AtomicBoolean m_dirty = new AtomicBoolean();
+    /**
+     * notifier of the listener or null for calling the listener on each set
+     */
+    private final CNotifier<N> m_notifier;
+    /**
+     * set actions, which are not passed to the listener
+     */
+    private final Queue<Pair<Integer, N>> m_actions = new ConcurrentLinkedQueue<>();
+    /**
+     * flag that the edge is registered within the notifier
+     */
+    private final AtomicBoolean m_notify = new AtomicBoolean();
+    /**
+     * calls of each cell, which are run once if the cell is cleared
+     */
+    private final Map<Integer, Queue<Runnable>> m_waiting = new ConcurrentHashMap<>();
 
     /**
      * ctor create the samples
@@ -93,19 +142,30 @@ public final class CEdge<N, T> implements Comparable<CEdge>
      */
     public CEdge( final EdgeIteratorState p_edgestate, final int p_cellsize )
     {
+        this( p_edgestate, p_cellsize, null, null );
+    }
+
+    /**
+     * ctor create the samples
+     *
+     * @param p_edgestate edge
+     * @param p_cellsize samplling size of a cell
+     * @param p_buffer double buffer of the graph or null for direct cell writing
+     * @param p_notifier notifier of the graph, which calls the listener after the step, or null for calling the listener on each set
+     */
+    public CEdge( final EdgeIteratorState p_edgestate, final int p_cellsize, final CBuffer<N> p_buffer, final CNotifier<N> p_notifier )
+    {
+        m_buffer = p_buffer;
+        m_notifier = p_notifier;
         m_edgeid = p_edgestate.getEdge();
+        m_edgestate = p_edgestate;
         m_edgedistance = p_edgestate.getDistance();
 
 
-        final ArrayList<N> l_initlist = new ArrayList<>();
-        for ( int i = 0; i < (int) Math.ceil(
-                m_edgedistance / p_cellsize
-        ); i++
-                )
-            l_initlist.add( null );
-        m_cells = (N[]) l_initlist.toArray();
-        m_additionalinformation = (T[]) l_initlist.toArray();
-        m_cellgeoposition = new GeoPosition[m_cells.length];
+        m_cells = new AtomicReferenceArray<>( (int) Math.ceil( m_edgedistance / p_cellsize ) );
+        m_occupied = new AtomicLongArray( ( m_cells.length() + 63 ) >>> 6 );
+        m_claims = m_buffer == null ? null : new AtomicReferenceArray<>( m_cells.length() );
+        m_cellgeoposition = new GeoPosition[m_cells.length()];
 
         // create a spline interpolation for cell sampling of the geoposition
         // get edge geoposition and convert data in arrays, performtemplate spline interpolation
@@ -117,17 +177,17 @@ public final class CEdge<N, T> implements Comparable<CEdge>
 
             final UnivariateInterpolator l_interpolator = l_list.size() < 3 ? new LinearInterpolator() : new SplineInterpolator();
             final UnivariateFunction l_function = l_interpolator.interpolate( l_list.getX(), l_list.getY() );
-            final double l_increment = ( l_list.getX( l_list.size() - 1 ) - l_list.getX( 0 ) ) / m_cells.length;
-            for ( int i = 0; i < m_cells.length; i++ )
+            final double l_increment = ( l_list.getX( l_list.size() - 1 ) - l_list.getX( 0 ) ) / m_cells.length();
+            for ( int i = 0; i < m_cells.length(); i++ )
                 m_cellgeoposition[i] = new GeoPosition( l_list.getX( 0 ) + i * l_increment, l_function.value( l_list.getX( 0 ) + i * l_increment ) );
 
         }
         catch ( final NonMonotonicSequenceException l_exception )
         {
 
-            final double l_xincrement = ( l_list.getX( l_list.size() - 1 ) - l_list.getX( 0 ) ) / m_cells.length;
-            final double l_yincrement = ( l_list.getY( l_list.size() - 1 ) - l_list.getY( 0 ) ) / m_cells.length;
-            for ( int i = 0; i < m_cells.length; i++ )
+            final double l_xincrement = ( l_list.getX( l_list.size() - 1 ) - l_list.getX( 0 ) ) / m_cells.length();
+            final double l_yincrement = ( l_list.getY( l_list.size() - 1 ) - l_list.getY( 0 ) ) / m_cells.length();
+            for ( int i = 0; i < m_cells.length(); i++ )
                 m_cellgeoposition[i] = new GeoPosition( l_list.getX( 0 ) + i * l_xincrement, l_list.getY( 0 ) + i * l_yincrement );
         }
     }
@@ -171,12 +231,68 @@ public final class CEdge<N, T> implements Comparable<CEdge>
      */
     public final void clear()
     {
-        m_objects.clear();
-        synchronized ( m_cells )
-        {
-            for ( int i = 0; i < m_cells.length; i++ )
-                m_cells[i] = null;
-        }
+        for ( int i = 0; i < m_cells.length(); i++ )
+            m_cells.set( i, null );
+        for ( int i = 0; i < m_occupied.length(); i++ )
+            m_occupied.set( i, 0 );
+        m_count.set( 0 );
+        m_actions.clear();
+        m_notify.set( false );
+        m_waiting.clear();
+
+        if ( m_claims == null )
+            return;
+        for ( int i = 0; i < m_claims.length(); i++ )
+            m_claims.set( i, null );
+        m_departures.clear();
+        m_dirty.set( false );
+    }
+
+    /**
+     * claims a cell for the next step on double-buffering, the cell must be empty within the current
+     * state, if more objects claim the same cell the claim with the lowest priority value wins,
+     * the claim is committed on the next swap, so the result does not depend on the thread order
+     *
+     * @param p_object object
+     * @param p_position position index
+     * @param p_priority priority value of the claim (lower value wins)
+     * @param p_order order value of the object, which decides on equal priority values (lower value wins),
+     * so it must be unique and must not depend on the thread order (e.g. the store slot)
+     * @param p_from edge of the current object position or null if the object is not placed
+     * @param p_fromposition current position index of the object
+     * @param p_commit call, which is run if the claim wins
+     * @return boolean if the cell is claimed, the claim can be lost against a later claim with a lower value
+     */
+    public final boolean claim( final N p_object, final int p_position, final long p_priority, final long p_order, final CEdge<N, ?> p_from,
+            final int p_fromposition, final Runnable p_commit
+    )
+    {
+        if ( m_claims == null )
+            throw new IllegalStateException( CCommon.getResourceString( this, "notbuffered" ) );
+        if ( !this.isEmpty( p_position ) )
+            return false;
+
+        final CClaim<N> l_claim = new CClaim<>( p_object, p_priority, p_order, p_from, p_fromposition, p_commit );
+        for ( CClaim<N> l_current = m_claims.get( p_position ); ( l_current == null ) || ( l_claim.precedes( l_current ) );
+              l_current = m_claims.get( p_position ) )
+            if ( m_claims.compareAndSet( p_position, l_current, l_claim ) )
+            {
+                m_buffer.m_pending.put( p_object, l_claim );
+                this.setDirty();
+                return true;
+            }
+
+        return false;
+    }
+
+    /**
+     * checks if the edge uses double-buffering
+     *
+     * @return buffer flag
+     */
+    public final boolean isBuffered()
+    {
+        return m_buffer != null;
     }
 
     @Override
@@ -195,21 +311,35 @@ public final class CEdge<N, T> implements Comparable<CEdge>
      *
      * @param p_object object
      * @return contains boolean
+     *
+     * @note the occupied cells are searched, objects which know their cell should use contains( object, position )
      */
-
     public final boolean contains( final N p_object )
     {
-        return m_objects.containsKey( p_object );
+        return this.position( p_object ) >= 0;
+    }
+
+    /**
+     * checks if an object is on a cell of the edge
+     *
+     * @param p_object object
+     * @param p_position position index
+     * @return contains boolean
+     */
+    public final boolean contains( final N p_object, final int p_position )
+    {
+        return m_cells.get( p_position ) == p_object;
     }
 
     /**
      * retuns an element of the additional array
      *
-     * @return data element
+     * @return data element or null
      */
     public final T getAdditionalInformation( final int p_position )
     {
-        return m_additionalinformation[p_position];
+        final T[] l_information = m_additionalinformation;
+        return l_information == null ? null : l_information[p_position];
     }
 
     /**
@@ -219,7 +349,7 @@ public final class CEdge<N, T> implements Comparable<CEdge>
      */
     public final int getEdgeCells()
     {
-        return m_cells.length;
+        return m_cells.length();
     }
 
     /**
@@ -232,6 +362,16 @@ public final class CEdge<N, T> implements Comparable<CEdge>
         return m_edgeid;
     }
 
+    /**
+     * returns the edge state of the graph
+     *
+     * @return edge state
+     */
+    public final EdgeIteratorState getEdgeState()
+    {
+        return m_edgestate;
+    }
+
     /**
      * returns the list of geopositions on all cells
      */
@@ -259,11 +399,8 @@ public final class CEdge<N, T> implements Comparable<CEdge>
      */
     public final GeoPosition getGeoposition( final N p_object )
     {
-        final Integer l_position = m_objects.get( p_object );
-        if ( l_position == null )
-            return null;
-
-        return m_cellgeoposition[l_position.intValue()];
+        final int l_position = this.position( p_object );
+        return l_position < 0 ? null : m_cellgeoposition[l_position];
     }
 
     /**
@@ -273,7 +410,7 @@ public final class CEdge<N, T> implements Comparable<CEdge>
      */
     public final int getNumberOfObjects()
     {
-        return m_objects.size();
+        return m_count.get();
     }
 
     /**
@@ -284,18 +421,42 @@ public final class CEdge<N, T> implements Comparable<CEdge>
      */
     public final N getObject( final int p_position )
     {
-        return m_cells[p_position];
+        return m_cells.get( p_position );
+    }
+
+    /**
+     * returns the position of the next object
+     *
+     * @param p_position first position index, which is checked
+     * @return position index of the next object or -1 if no object exists at or behind the position
+     */
+    public final int getNextObjectPosition( final int p_position )
+    {
+        if ( p_position >= m_cells.length() )
+            return -1;
+
+        int l_word = p_position >>> 6;
+        long l_bits = m_occupied.get( l_word ) & ( -1L << p_position );
+        while ( l_bits == 0 )
+        {
+            if ( ++l_word == m_occupied.length() )
+                return -1;
+            l_bits = m_occupied.get( l_word );
+        }
+
+        return ( l_word << 6 ) + Long.numberOfTrailingZeros( l_bits );
     }
 
     /**
      * returns the position of an object
      *
      * @param p_object object
-     * @return position
+     * @return position or null
      */
     public final Integer getPosition( final N p_object )
     {
-        return m_objects.get( p_object );
+        final int l_position = this.position( p_object );
+        return l_position < 0 ? null : l_position;
     }
 
     @Override
@@ -313,6 +474,26 @@ public final class CEdge<N, T> implements Comparable<CEdge>
         return false;
     }
 
+    /**
+     * registers a call, which is run once if a cell is cleared, so an object can wait for
+     * a cell without testing it on each step, on an empty cell the call is run directly
+     *
+     * @param p_position position index
+     * @param p_call call
+     */
+    public final void await( final int p_position, final Runnable p_call )
+    {
+        m_waiting.compute( p_position, ( i, j ) -> {
+            final Queue<Runnable> l_calls = j == null ? new ConcurrentLinkedQueue<>() : j;
+            l_calls.add( p_call );
+            return l_calls;
+        } );
+
+        // the cell can be cleared before the call is registered
+        if ( this.isEmpty( p_position ) )
+            this.release( p_position );
+    }
+
     /**
      * check if the edge is empty
      *
@@ -320,7 +501,7 @@ public final class CEdge<N, T> implements Comparable<CEdge>
      */
     public final boolean isEmpty()
     {
-        return m_objects.isEmpty();
+        return m_count.get() == 0;
     }
 
     /**
@@ -331,7 +512,7 @@ public final class CEdge<N, T> implements Comparable<CEdge>
      */
     public final boolean isEmpty( final int p_position )
     {
-        return m_cells[p_position] == null;
+        return m_cells.get( p_position ) == null;
     }
 
     /**
@@ -360,16 +541,31 @@ public final class CEdge<N, T> implements Comparable<CEdge>
      * removes an object of the edge
      *
      * @param p_object object
+     *
+     * @note the occupied cells are searched, objects which know their cell should use removeObject( object, position )
      */
     public final void removeObject( final N p_object )
     {
-        if ( !m_objects.containsKey( p_object ) )
+        if ( this.depart( p_object ) )
             return;
 
-        synchronized ( m_cells )
-        {
-            m_cells[m_objects.remove( p_object )] = null;
-        }
+        final int l_position = this.position( p_object );
+        if ( l_position >= 0 )
+            this.vacate( p_object, l_position );
+    }
+
+    /**
+     * removes an object of a cell, the call is ignored if the object is not on the cell
+     *
+     * @param p_object object
+     * @param p_position position index of the object
+     */
+    public final void removeObject( final N p_object, final int p_position )
+    {
+        if ( this.depart( p_object ) )
+            return;
+
+        this.vacate( p_object, p_position );
     }
 
     /**
@@ -378,8 +574,16 @@ public final class CEdge<N, T> implements Comparable<CEdge>
      * @param p_position position
      * @param p_object object
      */
+    @SuppressWarnings( "unchecked" )
     public final void setAdditionalInformation( final int p_position, final T p_object )
     {
+        if ( m_additionalinformation == null )
+            synchronized ( m_occupied )
+            {
+                if ( m_additionalinformation == null )
+                    m_additionalinformation = (T[]) new Object[m_cells.length()];
+            }
+
         m_additionalinformation[p_position] = p_object;
     }
 
@@ -389,25 +593,43 @@ public final class CEdge<N, T> implements Comparable<CEdge>
      * @param p_object object
      * @param p_position position index
      * @throws IllegalAccessException throws exception on emptyness
+     *
+     * @note the object is not removed from its previous cell, so a move sets the new cell first and
+     * removes the object from its previous cell afterwards, if two objects set the same cell the first
+     * one wins and the other one keeps its cell, so without double-buffering the result depends on the
+     * thread order and is only reproducible with one thread
      */
     public final void setObject( final N p_object, final int p_position ) throws IllegalAccessException
     {
-        if ( !this.isEmpty( p_position ) )
+        if ( !this.set( p_object, p_position ) )
             throw new IllegalAccessException( CCommon.getResourceString( this, "emptyposition" ) );
+    }
 
-        // if the object exists on the edge, it will be moved
-        synchronized ( m_cells )
-        {
-            if ( m_objects.containsKey( p_object ) )
-                m_cells[m_objects.get( p_object )] = null;
+    /**
+     * moves an object to a cell of the edge, the target cell is set before the current cell is released,
+     * so an object, which cannot set the target cell, keeps its cell
+     *
+     * @param p_object object
+     * @param p_position target position index
+     * @param p_from edge of the current cell or null if the object is not placed
+     * @param p_fromposition current position index
+     * @return boolean if the object is on the target cell
+     *
+     * @note a move of a placed object to its current cell is done without a change, so the object keeps its cell,
+     * without double-buffering the first object, which sets an empty cell with compare-and-set, wins, so the
+     * result depends on the thread order, a reproducible order is given by the claims of a buffered edge
+     */
+    public final boolean move( final N p_object, final int p_position, final CEdge<N, ?> p_from, final int p_fromposition )
+    {
+        if ( ( p_from == this ) && ( p_fromposition == p_position ) )
+            return m_cells.get( p_position ) == p_object;
 
-            m_cells[p_position] = p_object;
-        }
-        m_objects.put( p_object, p_position );
+        if ( !this.set( p_object, p_position ) )
+            return false;
 
-        // call listener
-        for ( final IAction l_action : m_listener )
-            l_action.actionPerformed( this, p_position, p_object );
+        if ( p_from != null )
+            p_from.removeObject( p_object, p_fromposition );
+        return true;
     }
 
     /**
@@ -417,7 +639,222 @@ public final class CEdge<N, T> implements Comparable<CEdge>
      */
     public final List<N> getCellList()
     {
-        return Arrays.asList( m_cells );
+        final List<N> l_cells = new ArrayList<>( m_cells.length() );
+        for ( int i = 0; i < m_cells.length(); i++ )
+            l_cells.add( m_cells.get( i ) );
+        return l_cells;
+    }
+
+    /**
+     * returns the position of an object by searching the occupied cells
+     *
+     * @param p_object object
+     * @return position index or -1
+     */
+    private int position( final N p_object )
+    {
+        for ( int i = this.getNextObjectPosition( 0 ); i >= 0; i = this.getNextObjectPosition( i + 1 ) )
+            if ( m_cells.get( i ) == p_object )
+                return i;
+        return -1;
+    }
+
+    /**
+     * sets an object into an empty cell with compare-and-set
+     *
+     * @param p_object object
+     * @param p_position position index
+     * @return boolean if the cell is set
+     */
+    private boolean set( final N p_object, final int p_position )
+    {
+        if ( !m_cells.compareAndSet( p_position, null, p_object ) )
+            return false;
+
+        this.setBit( p_position );
+        m_count.incrementAndGet();
+        this.addAction( p_position, p_object );
+        return true;
+    }
+
+    /**
+     * sets an object into a cell on a committed claim
+     *
+     * @param p_position position index
+     * @param p_object object
+     */
+    private void occupy( final int p_position, final N p_object )
+    {
+        // a committed claim can replace an object, which departs on the same swap
+        if ( m_cells.getAndSet( p_position, p_object ) == null )
+            m_count.incrementAndGet();
+        this.setBit( p_position );
+    }
+
+    /**
+     * clears a cell, if the object is on the cell
+     *
+     * @param p_object object
+     * @param p_position position index
+     */
+    private void vacate( final N p_object, final int p_position )
+    {
+        if ( !m_cells.compareAndSet( p_position, p_object, null ) )
+            return;
+
+        m_count.decrementAndGet();
+
+        // an object can set the cell between the compare-and-set and the bit update, so the bit is set again
+        this.clearBit( p_position );
+        if ( m_cells.get( p_position ) != null )
+            this.setBit( p_position );
+
+        this.release( p_position );
+    }
+
+    /**
+     * runs the waiting calls of a cell
+     *
+     * @param p_position position index
+     */
+    private void release( final int p_position )
+    {
+        if ( m_waiting.isEmpty() )
+            return;
+
+        final Queue<Runnable> l_calls = m_waiting.remove( p_position );
+        if ( l_calls != null )
+            l_calls.forEach( Runnable::run );
+    }
+
+    /**
+     * sets the occupied bit of a cell
+     *
+     * @param p_position position index
+     */
+    private void setBit( final int p_position )
+    {
+        final int l_word = p_position >>> 6;
+        final long l_mask = 1L << p_position;
+        for ( long l_bits = m_occupied.get( l_word ); ( l_bits & l_mask ) == 0; l_bits = m_occupied.get( l_word ) )
+            if ( m_occupied.compareAndSet( l_word, l_bits, l_bits | l_mask ) )
+                return;
+    }
+
+    /**
+     * clears the occupied bit of a cell
+     *
+     * @param p_position position index
+     */
+    private void clearBit( final int p_position )
+    {
+        final int l_word = p_position >>> 6;
+        final long l_mask = 1L << p_position;
+        for ( long l_bits = m_occupied.get( l_word ); ( l_bits & l_mask ) != 0; l_bits = m_occupied.get( l_word ) )
+            if ( m_occupied.compareAndSet( l_word, l_bits, l_bits & ~l_mask ) )
+                return;
+    }
+
+    /**
+     * passes a set action to the listener, with a notifier the action is stored and
+     * the listener are called after the step
+     *
+     * @param p_position position index
+     * @param p_object object
+     */
+    @SuppressWarnings( "unchecked" )
+    private void addAction( final int p_position, final N p_object )
+    {
+        if ( m_listener.isEmpty() )
+            return;
+
+        if ( m_notifier == null )
+        {
+            for ( final IAction l_action : m_listener )
+                l_action.actionPerformed( this, p_position, p_object );
+            return;
+        }
+
+        m_actions.add( new ImmutablePair<>( p_position, p_object ) );
+        if ( m_notify.compareAndSet( false, true ) )
+            m_notifier.m_edges.add( this );
+    }
+
+    /**
+     * calls the listener with the stored set actions
+     */
+    @SuppressWarnings( "unchecked" )
+    private void notifyListener()
+    {
+        m_notify.set( false );
+        for ( Pair<Integer, N> l_item = m_actions.poll(); l_item != null; l_item = m_actions.poll() )
+            for ( final IAction l_action : m_listener )
+                l_action.actionPerformed( this, l_item.getLeft(), l_item.getRight() );
+    }
+
+    /**
+     * on double-buffering the object leaves the edge on the next swap and a pending claim is dropped
+     *
+     * @param p_object object
+     * @return boolean if the edge is double-buffered
+     */
+    private boolean depart( final N p_object )
+    {
+        if ( m_buffer == null )
+            return false;
+
+        final CClaim<N> l_claim = m_buffer.m_pending.remove( p_object );
+        if ( l_claim != null )
+            l_claim.m_cancelled = true;
+
+        m_departures.add( p_object );
+        this.setDirty();
+        return true;
+    }
+
+    /**
+     * registers the edge within the dirty list of the buffer
+     */
+    private void setDirty()
+    {
+        if ( m_dirty.compareAndSet( false, true ) )
+            m_buffer.m_dirty.add( this );
+    }
+
+    /**
+     * moves the winners of the claims into the cells
+     *
+     * @note claimed cells are empty within the current state and the previous cells of the
+     * winners are occupied, so the writes of concurrent edges do not overlap
+     */
+    private void commitClaims()
+    {
+        for ( int i = 0; i < m_cells.length(); i++ )
+        {
+            final CClaim<N> l_claim = m_claims.getAndSet( i, null );
+            if ( ( l_claim == null ) || ( l_claim.m_cancelled ) )
+                continue;
+
+            this.occupy( i, l_claim.m_object );
+            if ( l_claim.m_from != null )
+                l_claim.m_from.vacate( l_claim.m_object, l_claim.m_fromposition );
+            l_claim.m_commit.run();
+            this.addAction( i, l_claim.m_object );
+        }
+    }
+
+    /**
+     * removes the objects, which have left the edge
+     */
+    private void commitDepartures()
+    {
+        for ( N l_object = m_departures.poll(); l_object != null; l_object = m_departures.poll() )
+        {
+            final int l_position = this.position( l_object );
+            if ( l_position >= 0 )
+                this.vacate( l_object, l_position );
+        }
+        m_dirty.set( false );
     }
 
     /**
@@ -547,4 +984,152 @@ public final class CEdge<N, T> implements Comparable<CEdge>
 
     }
 
+
+    /**
+     * double buffer of all edges of a graph, during a step all reads see the cell state of
+     * the previous step and all moves are stored as claims, which are committed on the swap
+     *
+     * @tparam N type of the cell-object
+     */
+    public static final class CBuffer<N>
+    {
+        /**
+         * edges with claims or departures
+         */
+        private final Queue<CEdge<N, ?>> m_dirty = new ConcurrentLinkedQueue<>();
+        /**
+         * pending claim of each object
+         */
+        private final Map<N, CClaim<N>> m_pending = new ConcurrentHashMap<>();
+
+        /**
+         * commits all claims and departures, must be called between two steps
+         */
+        public final void swap()
+        {
+            final List<CEdge<N, ?>> l_edges = new ArrayList<>( m_dirty );
+            m_dirty.clear();
+
+            l_edges.parallelStream().forEach( CEdge::commitClaims );
+            l_edges.parallelStream().forEach( CEdge::commitDepartures );
+            m_pending.clear();
+        }
+
+        /**
+         * removes all pending data
+         */
+        public final void clear()
+        {
+            m_dirty.clear();
+            m_pending.clear();
+        }
+    }
+
+
+    /**
+     * notifier of all edges of a graph, which calls the listener of the set actions after the step,
+     * so the listener are not called within the concurrent moves
+     *
+     * @tparam N type of the cell-object
+     */
+    public static final class CNotifier<N>
+    {
+        /**
+         * edges with stored set actions
+         */
+        private final Queue<CEdge<N, ?>> m_edges = new ConcurrentLinkedQueue<>();
+
+        /**
+         * calls the listener of all stored set actions, must be called between two steps
+         */
+        public final void notifyListener()
+        {
+            for ( CEdge<N, ?> l_edge = m_edges.poll(); l_edge != null; l_edge = m_edges.poll() )
+                l_edge.notifyListener();
+        }
+
+        /**
+         * removes all stored set actions
+         */
+        public final void clear()
+        {
+            m_edges.clear();
+        }
+    }
+
+
+    /**
+     * claim of a cell
+     *
+     * @tparam N type of the cell-object
+     */
+    private static final class CClaim<N>
+    {
+        /**
+         * object
+         */
+        private final N m_object;
+        /**
+         * priority value
+         */
+        private final long m_priority;
+        /**
+         * order value on equal priority values
+         */
+        private final long m_order;
+        /**
+         * edge of the previous position or null
+         */
+        private final CEdge<N, ?> m_from;
+        /**
+         * previous position
+         */
+        private final int m_fromposition;
+        /**
+         * commit call
+         */
+        private final Runnable m_commit;
+        /**
+         * flag that the claim is dropped
+         */
+        private volatile boolean m_cancelled;
+
+        /**
+         * ctor
+         *
+         * @param p_object object
+         * @param p_priority priority value
+         * @param p_order order value on equal priority values
+         * @param p_from edge of the previous position or null
+         * @param p_fromposition previous position
+         * @param p_commit commit call
+         */
+        CClaim( final N p_object, final long p_priority, final long p_order, final CEdge<N, ?> p_from, final int p_fromposition,
+                final Runnable p_commit
+        )
+        {
+            m_object = p_object;
+            m_priority = p_priority;
+            m_order = p_order;
+            m_from = p_from;
+            m_fromposition = p_fromposition;
+            m_commit = p_commit;
+        }
+
+        /**
+         * checks if the claim wins against another claim
+         *
+         * @param p_claim other claim
+         * @return boolean if the claim has got a lower priority value
+         * @note on equal priority values the lower order value wins, so the result does not depend on the thread order
+         */
+        public final boolean precedes( final CClaim<N> p_claim )
+        {
+            if ( m_priority != p_claim.m_priority )
+                return m_priority < p_claim.m_priority;
+
+            return m_order < p_claim.m_order;
+        }
+    }
+
 }
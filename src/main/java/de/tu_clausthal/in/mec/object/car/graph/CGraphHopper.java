@@ -27,12 +27,22 @@ package de.tu_clausthal.in.mec.object.car.graph;
 import com.graphhopper.GHRequest;
 import com.graphhopper.GHResponse;
 import com.graphhopper.GraphHopper;
+import com.graphhopper.routing.AStar;
+import com.graphhopper.routing.AStarBidirection;
+import com.graphhopper.routing.AlgorithmOptions;
 import com.graphhopper.routing.Path;
+import com.graphhopper.routing.QueryGraph;
+import com.graphhopper.routing.RoutingAlgorithm;
+import com.graphhopper.routing.RoutingAlgorithmFactory;
+import com.graphhopper.routing.RoutingAlgorithmFactorySimple;
+import com.graphhopper.routing.util.DefaultEdgeFilter;
 import com.graphhopper.routing.util.EdgeFilter;
 import com.graphhopper.routing.util.EncodingManager;
 import com.graphhopper.routing.util.FlagEncoder;
 import com.graphhopper.routing.util.Weighting;
 import com.graphhopper.routing.util.WeightingMap;
+import com.graphhopper.storage.GraphHopperStorage;
+import com.graphhopper.storage.index.LocationIndex;
 import com.graphhopper.storage.index.QueryResult;
 import com.graphhopper.util.EdgeIteratorState;
 import de.tu_clausthal.in.mec.CConfiguration;
@@ -42,7 +52,6 @@ import de.tu_clausthal.in.mec.object.car.ICar;
 import de.tu_clausthal.in.mec.object.car.graph.weights.CForbiddenEdge;
 import de.tu_clausthal.in.mec.object.car.graph.weights.CTrafficJam;
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.jxmapviewer.viewer.GeoPosition;
 
@@ -53,12 +62,16 @@ import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 
 /**
@@ -70,6 +83,14 @@ import java.util.concurrent.ConcurrentHashMap;
 public final class CGraphHopper extends GraphHopper
 {
     private static final String c_defaultflagencoding = "CAR";
+    /**
+     * name of the GraphHopper weighting of the default weighting
+     */
+    private static final String c_defaultweighting = "fastest";
+    /**
+     * loaded graph storages with their location index and contraction hierarchies, which are shared between the simulations
+     */
+    private static final Map<String, CShared> c_shared = new HashMap<>();
     /**
      * cell size for sampling
      */
@@ -88,6 +109,38 @@ public final class CGraphHopper extends GraphHopper
      * @note alle names must be in lower-case
      */
     private final Map<EWeight, Weighting> m_weights = new HashMap<>();
+    /**
+     * landmarks of the dynamic weightings or null
+     */
+    private final CLandmarks m_landmarks;
+    /**
+     * cache of the routes between two nodes
+     */
+    private final CRouteCache m_routecache = new CRouteCache(
+            CConfiguration.getInstance().get().<Number>get( "simulation/traffic/routing/cache" ).intValue()
+    );
+    /**
+     * number of steps of a traffic epoch, zero disables the cache of the traffic jam weighting
+     */
+    private final int m_epochlength = CConfiguration.getInstance().get().<Number>get( "simulation/traffic/routing/cacheepoch" ).intValue();
+    /**
+     * current traffic epoch
+     */
+    private volatile long m_epoch;
+    /**
+     * statistic of the batched route calculation
+     */
+    private final CRouteBatchStatistic m_batchstatistic = new CRouteBatchStatistic();
+    /**
+     * double buffer of the edge cells or null
+     */
+    private final CEdge.CBuffer<ICar> m_buffer = CConfiguration.getInstance().get().<Boolean>get( "simulation/traffic/doublebuffer" )
+                                                 ? new CEdge.CBuffer<>()
+                                                 : null;
+    /**
+     * notifier of the edge listener
+     */
+    private final CEdge.CNotifier<ICar> m_notifier = new CEdge.CNotifier<>();
 
 
     /**
@@ -117,31 +170,72 @@ public final class CGraphHopper extends GraphHopper
         final File l_graphlocation = getGraphLocation( l_currentgraphurl );
         CLogger.out( CCommon.getResourceString( this, "path", l_graphlocation.getAbsolutePath() ) );
 
-        // if reimported is set, delete graph directory
-        if ( CConfiguration.getInstance().get().<Boolean>get( "simulation/traffic/map/reimport" ) )
-            FileUtils.deleteQuietly( l_graphlocation );
-
-        // convert OSM or load the graph
-        CConfiguration.getInstance().get().set( "simulation/traffic/map/reimport", false );
-
-
-        // initialize graph (CH must be disable on dynamic routing)
-        this.setCHEnable( false );
+        // graph storage is loaded once and shared read-only between all simulations of the process,
+        // edge cells and weights are created for each simulation
+        final boolean l_contractionhierarchies = CConfiguration.getInstance().get().<Boolean>get(
+                "simulation/traffic/routing/contractionhierarchies"
+        );
+        final int l_landmarks = CConfiguration.getInstance().get().<Number>get( "simulation/traffic/routing/landmarks" ).intValue();
+        final String l_key = l_graphlocation.getAbsolutePath() + File.pathSeparator + p_encoding + File.pathSeparator + l_contractionhierarchies +
+                             File.pathSeparator + l_landmarks;
+
+        // initialize graph, the contraction hierarchies are prepared for the static default weighting only and
+        // stored within the graph directory, dynamic weightings are routed on the base graph
+        this.setCHEnable( l_contractionhierarchies );
+        this.setCHWeighting( c_defaultweighting );
         this.setStoreOnFlush( true );
-        this.setEncodingManager( new EncodingManager( p_encoding ) );
 
-        try
+        final CShared l_shared;
+        synchronized ( c_shared )
         {
-            if ( !this.load( l_graphlocation.getAbsolutePath() ) )
-                this.downloadGraphAndLoad( l_currentgraphurl, l_graphlocation );
-        }
-        catch ( final IllegalStateException l_exception )
-        {
-            CLogger.error( CCommon.getResourceString( this, "initializeerror", l_exception ) );
+            // if reimported is set, delete graph directory
+            if ( CConfiguration.getInstance().get().<Boolean>get( "simulation/traffic/map/reimport" ) )
+            {
+                c_shared.remove( l_key );
+                FileUtils.deleteQuietly( l_graphlocation );
+            }
+
+            // convert OSM or load the graph
+            CConfiguration.getInstance().get().set( "simulation/traffic/map/reimport", false );
 
-            FileUtils.deleteQuietly( l_graphlocation );
-            this.downloadGraphAndLoad( l_currentgraphurl, l_graphlocation );
+            final CShared l_loaded = c_shared.get( l_key );
+            if ( l_loaded != null )
+            {
+                l_shared = l_loaded;
+                this.setEncodingManager( l_shared.m_encoding );
+                this.setGraphHopperStorage( l_shared.m_storage );
+                this.setLocationIndex( l_shared.m_index );
+                l_shared.m_algorithms.forEach( this::putAlgorithmFactory );
+            }
+            else
+            {
+                this.setEncodingManager( new EncodingManager( p_encoding ) );
+
+                try
+                {
+                    if ( !this.load( l_graphlocation.getAbsolutePath() ) )
+                        this.downloadGraphAndLoad( l_currentgraphurl, l_graphlocation );
+                }
+                catch ( final IllegalStateException l_exception )
+                {
+                    CLogger.error( CCommon.getResourceString( this, "initializeerror", l_exception ) );
+
+                    FileUtils.deleteQuietly( l_graphlocation );
+                    this.downloadGraphAndLoad( l_currentgraphurl, l_graphlocation );
+                }
+
+                // landmarks are created on the base graph, which is not changed by the contraction hierarchies
+                l_shared = new CShared(
+                        this,
+                        CLandmarks.get(
+                                l_graphlocation, this.getGraphHopperStorage().getBaseGraph(), l_landmarks,
+                                this.getEncodingManager().getEncoder( p_encoding ).getMaxSpeed()
+                        )
+                );
+                c_shared.put( l_key, l_shared );
+            }
         }
+        m_landmarks = l_shared.m_landmarks;
 
 
         // define weights
@@ -170,6 +264,32 @@ public final class CGraphHopper extends GraphHopper
     {
         for ( final Map.Entry<Integer, CEdge<ICar, ?>> l_item : m_edgecell.entrySet() )
             l_item.getValue().clear();
+        if ( m_buffer != null )
+            m_buffer.clear();
+        m_notifier.clear();
+        m_routecache.clear();
+        m_epoch = 0;
+    }
+
+    /**
+     * checks if the edge cells are double-buffered
+     *
+     * @return buffer flag
+     */
+    public final boolean isDoubleBuffered()
+    {
+        return m_buffer != null;
+    }
+
+    /**
+     * commits the cell claims of the current step on double-buffering and calls
+     * the edge listener of the cells, which are set within the step
+     */
+    public final void swap()
+    {
+        if ( m_buffer != null )
+            m_buffer.swap();
+        m_notifier.notifyListener();
     }
 
     @Override
@@ -248,12 +368,58 @@ public final class CGraphHopper extends GraphHopper
      */
     public final CEdge<ICar, ?> getEdge( final EdgeIteratorState p_edgestate )
     {
-        CEdge<ICar, ?> l_edge = m_edgecell.get( p_edgestate.getEdge() );
-        if ( l_edge != null )
-            return l_edge;
+        final CEdge<ICar, ?> l_edge = m_edgecell.get( p_edgestate.getEdge() );
+        return l_edge == null ? this.createEdge( p_edgestate ) : l_edge;
+    }
+
+    /**
+     * returns the linkage between edge and car
+     *
+     * @param p_edgeid edge ID
+     * @return linkage object
+     */
+    public final CEdge<ICar, ?> getEdge( final int p_edgeid )
+    {
+        final CEdge<ICar, ?> l_edge = m_edgecell.get( p_edgeid );
+        return l_edge == null ? this.createEdge( this.getEdgeIterator( p_edgeid ) ) : l_edge;
+    }
+
+    /**
+     * returns the next occupied cell of a route, the cells are searched with the occupancy of the edges
+     *
+     * @param p_route route
+     * @param p_start first cell index, which is checked
+     * @param p_end last cell index, which is checked
+     * @return cell index or -1 if all cells are empty
+     */
+    public final int getNextObjectCell( final CRoute p_route, final int p_start, final int p_end )
+    {
+        if ( p_start > p_end )
+            return -1;
 
+        for ( int i = p_route.getEdgeIndex( p_start ); ( i < p_route.getNumberOfEdges() ) && ( p_route.getOffset( i ) <= p_end ); i++ )
+        {
+            final int l_offset = p_route.getOffset( i );
+            final int l_position = this.getEdge( p_route.getEdgeIDOfIndex( i ) ).getNextObjectPosition( Math.max( 0, p_start - l_offset ) );
+            if ( ( l_position >= 0 ) && ( l_offset + l_position < p_route.getOffset( i + 1 ) ) )
+                return l_offset + l_position <= p_end ? l_offset + l_position : -1;
+        }
+
+        return -1;
+    }
+
+    /**
+     * creates the linkage of an edge
+     *
+     * @param p_edgestate edge object
+     * @return linkage object
+     *
+     * @note listener object will be set at the edge instantiation process
+     */
+    private CEdge<ICar, ?> createEdge( final EdgeIteratorState p_edgestate )
+    {
         // create a new edge and add it to the edge list, if one exists return the existing object
-        l_edge = new CEdge( p_edgestate, m_cellsize ).addListener( m_edgelister );
+        final CEdge<ICar, ?> l_edge = new CEdge( p_edgestate, m_cellsize, m_buffer, m_notifier ).addListener( m_edgelister );
         final CEdge<ICar, ?> l_return = m_edgecell.putIfAbsent( l_edge.getEdgeID(), l_edge );
         return l_return == null ? l_edge : l_return;
     }
@@ -294,22 +460,136 @@ public final class CGraphHopper extends GraphHopper
     }
 
     /**
-     * creates the full path of cells with the edge value
+     * creates the route of cells
      *
      * @param p_route edge list
-     * @return list with pair of edge and cell position
+     * @return route
      */
-    public final ArrayList<Pair<EdgeIteratorState, Integer>> getRouteCells( final List<EdgeIteratorState> p_route )
+    public final CRoute getRouteCells( final List<EdgeIteratorState> p_route )
     {
-        final ArrayList<Pair<EdgeIteratorState, Integer>> l_list = new ArrayList<>();
-        if ( p_route.isEmpty() )
-            return l_list;
-
+        final int[] l_edges = new int[p_route.size()];
+        final int[] l_cells = new int[l_edges.length];
+        int i = 0;
         for ( final EdgeIteratorState l_edge : p_route )
-            for ( int i = 0; i < this.getEdge( l_edge ).getEdgeCells(); i++ )
-                l_list.add( new ImmutablePair<>( l_edge, i ) );
+        {
+            l_edges[i] = l_edge.getEdge();
+            l_cells[i++] = this.getEdge( l_edge ).getEdgeCells();
+        }
+
+        return new CRoute( l_edges, l_cells );
+    }
+
+    /**
+     * sets the traffic epoch of a simulation step, cached routes of the
+     * traffic jam weighting are invalid after the epoch changes
+     *
+     * @param p_currentstep current step
+     */
+    public final void setTrafficEpoch( final int p_currentstep )
+    {
+        if ( m_epochlength > 0 )
+            m_epoch = p_currentstep / m_epochlength;
+    }
+
+    /**
+     * returns the current traffic epoch
+     *
+     * @return epoch
+     */
+    public final long getTrafficEpoch()
+    {
+        return m_epoch;
+    }
+
+    /**
+     * returns the route cache
+     *
+     * @return cache
+     */
+    public final CRouteCache getRouteCache()
+    {
+        return m_routecache;
+    }
+
+    /**
+     * returns the landmarks of the dynamic weightings
+     *
+     * @return landmarks or null
+     */
+    public final CLandmarks getLandmarks()
+    {
+        return m_landmarks;
+    }
+
+    /**
+     * returns the statistic of the batched route calculation
+     *
+     * @return statistic
+     */
+    public final CRouteBatchStatistic getRouteBatchStatistic()
+    {
+        return m_batchstatistic;
+    }
+
+    /**
+     * returns the best routes of a batch of geoposition pairs, equal pairs are calculated once
+     * and the distinct pairs are calculated in parallel, each query creates its own routing
+     * algorithm instance on the worker thread, so the read-only graph storage is the only shared
+     * state
+     *
+     * @param p_requests list of start / end geoposition pairs
+     * @param p_weighting weighting
+     * @return list of routes in the order of the requests, a route is empty if no route exists
+     */
+    public final List<CRoute> getRoutes( final List<Pair<GeoPosition, GeoPosition>> p_requests, final EWeight p_weighting )
+    {
+        final long l_time = System.nanoTime();
+
+        final Map<Pair<GeoPosition, GeoPosition>, Integer> l_distinct = new LinkedHashMap<>();
+        final int[] l_index = new int[p_requests.size()];
+        for ( int i = 0; i < l_index.length; i++ )
+            l_index[i] = l_distinct.computeIfAbsent( p_requests.get( i ), j -> l_distinct.size() );
+
+        final List<Pair<GeoPosition, GeoPosition>> l_queries = new ArrayList<>( l_distinct.keySet() );
+        final CRoute[] l_routes = new CRoute[l_queries.size()];
+        final IntStream l_stream = IntStream.range( 0, l_routes.length );
+        ( l_routes.length < 2 ? l_stream : l_stream.parallel() ).forEach(
+                i -> l_routes[i] = this.getRoute( l_queries.get( i ).getLeft(), l_queries.get( i ).getRight(), p_weighting )
+        );
+
+        final List<CRoute> l_result = new ArrayList<>( l_index.length );
+        for ( final int l_item : l_index )
+            l_result.add( l_routes[l_item] );
+
+        m_batchstatistic.add( l_routes.length, System.nanoTime() - l_time );
+        return l_result;
+    }
 
-        return l_list;
+    /**
+     * returns the best route between two geopositions, the route is cached
+     * with the closest nodes of the positions and the weighting, routes of the
+     * traffic jam weighting are cached within the current traffic epoch only
+     *
+     * @param p_start start geoposition
+     * @param p_end end geoposition
+     * @param p_weighting weighting
+     * @return route, which is empty if no route exists
+     */
+    public final CRoute getRoute( final GeoPosition p_start, final GeoPosition p_end, final EWeight p_weighting )
+    {
+        final EWeight l_weighting = p_weighting == null ? EWeight.Default : p_weighting;
+        final Supplier<CRoute> l_route = () -> {
+            final List<List<EdgeIteratorState>> l_routes = this.getRoutes( p_start, p_end, l_weighting, 1 );
+            return this.getRouteCells( l_routes.isEmpty() ? Collections.<EdgeIteratorState>emptyList() : l_routes.get( 0 ) );
+        };
+
+        if ( EWeight.TrafficJam.equals( l_weighting ) && m_epochlength == 0 )
+            return l_route.get();
+
+        return m_routecache.get(
+                this.getClosestNode( p_start ), this.getClosestNode( p_end ), l_weighting,
+                EWeight.TrafficJam.equals( l_weighting ) ? m_epoch : 0, l_route
+        );
     }
 
     /**
@@ -362,23 +642,14 @@ public final class CGraphHopper extends GraphHopper
     public final List<List<EdgeIteratorState>> getRoutes( final GeoPosition p_start, final GeoPosition p_end, final EWeight p_weighting, final int p_maxroutes )
     {
         // calculate routes
-        final GHRequest l_request = new GHRequest( p_start.getLatitude(), p_start.getLongitude(), p_end.getLatitude(), p_end.getLongitude() );
-        l_request.setAlgorithm( CConfiguration.getInstance().get().<String>get( "simulation/traffic/routing/algorithm" ) );
-
-        if ( ( p_weighting != null ) && ( !p_weighting.equals( EWeight.Default ) ) )
-            l_request.setWeighting( p_weighting.name() );
+        final String l_algorithm = CConfiguration.getInstance().get().<String>get( "simulation/traffic/routing/algorithm" );
+        final boolean l_default = ( p_weighting == null ) || ( p_weighting.equals( EWeight.Default ) );
+        final List<Path> l_routes = ( !l_default ) && ( ( this.isCHEnabled() ) || ( m_landmarks != null ) )
+                                    ? this.getFlexiblePaths( p_start, p_end, m_weights.get( p_weighting ), l_algorithm )
+                                    : this.getPaths( p_start, p_end, l_default ? null : p_weighting, l_algorithm );
 
-        final GHResponse l_result = this.route( l_request );
-        if ( !l_result.getErrors().isEmpty() )
-        {
-            for ( final Throwable l_msg : l_result.getErrors() )
-                CLogger.error( l_msg.getMessage() );
-            throw new IllegalArgumentException( CCommon.getResourceString( this, "grapherror" ) );
-        }
-
-        // get all paths and create routes
+        // create routes of the paths
         final List<List<EdgeIteratorState>> l_paths = new ArrayList<>();
-        final List<Path> l_routes = this.getPaths( l_request, l_result );
         if ( l_routes.size() == 0 )
             return l_paths;
 
@@ -401,6 +672,78 @@ public final class CGraphHopper extends GraphHopper
         return l_paths;
     }
 
+    /**
+     * calculates the paths with the GraphHopper routing, on enabled contraction hierarchies the
+     * default weighting uses the prepared hierarchies with a bidirectional algorithm
+     *
+     * @param p_start start geoposition
+     * @param p_end end geoposition
+     * @param p_weighting weighting or null for the default weighting
+     * @param p_algorithm name of the routing algorithm
+     * @return list of paths
+     */
+    private List<Path> getPaths( final GeoPosition p_start, final GeoPosition p_end, final EWeight p_weighting, final String p_algorithm )
+    {
+        final GHRequest l_request = new GHRequest( p_start.getLatitude(), p_start.getLongitude(), p_end.getLatitude(), p_end.getLongitude() );
+        l_request.setWeighting( p_weighting == null ? c_defaultweighting : p_weighting.name() );
+        l_request.setAlgorithm(
+                ( !this.isCHEnabled() ) || ( AlgorithmOptions.ASTAR_BI.equals( p_algorithm ) ) ? p_algorithm : AlgorithmOptions.DIJKSTRA_BI
+        );
+
+        // the paths are calculated once without merging them into a response, the
+        // query graph and the routing algorithm are created for each call
+        final GHResponse l_result = new GHResponse();
+        final List<Path> l_paths = this.getPaths( l_request, l_result );
+        if ( !l_result.getErrors().isEmpty() )
+        {
+            for ( final Throwable l_msg : l_result.getErrors() )
+                CLogger.error( l_msg.getMessage() );
+            throw new IllegalArgumentException( CCommon.getResourceString( this, "grapherror" ) );
+        }
+
+        return l_paths;
+    }
+
+    /**
+     * calculates the path on the base graph, so dynamic weightings can be used next
+     * to the contraction hierarchies of the default weighting, the landmarks are used
+     * as lower bound of the A* search
+     *
+     * @param p_start start geoposition
+     * @param p_end end geoposition
+     * @param p_weighting weighting object
+     * @param p_algorithm name of the routing algorithm
+     * @return list of paths
+     */
+    private List<Path> getFlexiblePaths( final GeoPosition p_start, final GeoPosition p_end, final Weighting p_weighting, final String p_algorithm )
+    {
+        final EdgeFilter l_filter = new DefaultEdgeFilter( p_weighting.getFlagEncoder() );
+        final QueryResult l_start = this.getLocationIndex().findClosest( p_start.getLatitude(), p_start.getLongitude(), l_filter );
+        final QueryResult l_end = this.getLocationIndex().findClosest( p_end.getLatitude(), p_end.getLongitude(), l_filter );
+        if ( ( !l_start.isValid() ) || ( !l_end.isValid() ) )
+            throw new IllegalArgumentException( CCommon.getResourceString( this, "grapherror" ) );
+
+        final QueryGraph l_graph = new QueryGraph( this.getGraphHopperStorage() );
+        l_graph.lookup( l_start, l_end );
+
+        // on existing landmarks the A* algorithms use the landmark lower bounds instead of the beeline
+        final AlgorithmOptions l_options = AlgorithmOptions.start().algorithm( p_algorithm ).traversalMode( this.getTraversalMode() )
+                                                            .flagEncoder( p_weighting.getFlagEncoder() ).weighting( p_weighting ).build();
+        final RoutingAlgorithm l_routing;
+        if ( m_landmarks == null )
+            l_routing = new RoutingAlgorithmFactorySimple().createAlgo( l_graph, l_options );
+        else if ( ( AlgorithmOptions.ASTAR_BI.equals( p_algorithm ) ) || ( AlgorithmOptions.DIJKSTRA_BI.equals( p_algorithm ) ) )
+            l_routing = new AStarBidirection( l_graph, l_options.getFlagEncoder(), p_weighting, l_options.getTraversalMode() ).setApproximation(
+                    m_landmarks.getApproximator( l_graph )
+            );
+        else
+            l_routing = new AStar( l_graph, l_options.getFlagEncoder(), p_weighting, l_options.getTraversalMode() ).setApproximation(
+                    m_landmarks.getApproximator( l_graph )
+            );
+
+        return Collections.singletonList( l_routing.calcPath( l_start.getClosestNode(), l_end.getClosestNode() ) );
+    }
+
     /**
      * deletes a graph by URL
      *
@@ -408,6 +751,10 @@ public final class CGraphHopper extends GraphHopper
      */
     public static void deleteGraph( final String p_url )
     {
+        synchronized ( c_shared )
+        {
+            c_shared.keySet().removeIf( i -> i.startsWith( getGraphLocation( p_url ).getAbsolutePath() + File.pathSeparator ) );
+        }
         FileUtils.deleteQuietly( getGraphLocation( p_url ) );
     }
 
@@ -489,6 +836,50 @@ public final class CGraphHopper extends GraphHopper
     }
 
 
+    /**
+     * graph data, which is shared between the simulations
+     */
+    private static final class CShared
+    {
+        /**
+         * encoding manager
+         */
+        private final EncodingManager m_encoding;
+        /**
+         * graph storage
+         */
+        private final GraphHopperStorage m_storage;
+        /**
+         * location index
+         */
+        private final LocationIndex m_index;
+        /**
+         * landmarks or null
+         */
+        private final CLandmarks m_landmarks;
+        /**
+         * routing algorithm factories of the contraction hierarchies
+         */
+        private final Map<Weighting, RoutingAlgorithmFactory> m_algorithms = new HashMap<>();
+
+        /**
+         * ctor
+         *
+         * @param p_graph loaded graph
+         * @param p_landmarks landmarks or null
+         */
+        private CShared( final GraphHopper p_graph, final CLandmarks p_landmarks )
+        {
+            m_landmarks = p_landmarks;
+            m_encoding = p_graph.getEncodingManager();
+            m_storage = p_graph.getGraphHopperStorage();
+            m_index = p_graph.getLocationIndex();
+            if ( p_graph.isCHEnabled() )
+                for ( final Weighting l_weighting : m_storage.getCHWeightings() )
+                    m_algorithms.put( l_weighting, p_graph.getAlgorithmFactory( l_weighting ) );
+        }
+    }
+
     /**
      * enum with weighting
      */
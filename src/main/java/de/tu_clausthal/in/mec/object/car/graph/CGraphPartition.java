@@ -0,0 +1,181 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.object.car.graph;
+
+import com.graphhopper.routing.util.AllEdgesIterator;
+import com.graphhopper.storage.GraphHopperStorage;
+import com.graphhopper.storage.NodeAccess;
+import com.graphhopper.util.EdgeIteratorState;
+import de.tu_clausthal.in.mec.common.CCommon;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+
+/**
+ * spatial partition of the graph edges into regions, the edges are split with a
+ * recursive coordinate bisection on the edge centers, so each region contains
+ * nearly the same number of edges and the regions are compact
+ */
+public final class CGraphPartition
+{
+    /**
+     * map of edge ID to region index
+     */
+    private final int[] m_region;
+    /**
+     * number of regions
+     */
+    private final int m_regions;
+
+    /**
+     * ctor
+     *
+     * @param p_graph graph
+     * @param p_regions number of regions
+     */
+    public CGraphPartition( final CGraphHopper p_graph, final int p_regions )
+    {
+        if ( p_regions < 1 )
+            throw new IllegalArgumentException( CCommon.getResourceString( this, "regionnumber" ) );
+
+        final GraphHopperStorage l_storage = p_graph.getGraphHopperStorage();
+        final NodeAccess l_nodes = l_storage.getNodeAccess();
+        final AllEdgesIterator l_iterator = l_storage.getAllEdges();
+
+        m_region = new int[l_iterator.getMaxId()];
+        final double[] l_latitude = new double[m_region.length];
+        final double[] l_longitude = new double[m_region.length];
+        final int[] l_edges = new int[m_region.length];
+
+        int l_count = 0;
+        while ( l_iterator.next() )
+        {
+            final int l_edge = l_iterator.getEdge();
+            l_latitude[l_edge] = ( l_nodes.getLatitude( l_iterator.getBaseNode() ) + l_nodes.getLatitude( l_iterator.getAdjNode() ) ) / 2;
+            l_longitude[l_edge] = ( l_nodes.getLongitude( l_iterator.getBaseNode() ) + l_nodes.getLongitude( l_iterator.getAdjNode() ) ) / 2;
+            l_edges[l_count++] = l_edge;
+        }
+
+        m_regions = Math.max( 1, Math.min( p_regions, l_count ) );
+        this.bisect( l_edges, 0, l_count, 0, m_regions, l_latitude, l_longitude );
+    }
+
+    /**
+     * returns the number of regions
+     *
+     * @return number of regions
+     */
+    public final int getNumberOfRegions()
+    {
+        return m_regions;
+    }
+
+    /**
+     * returns the region of an edge
+     *
+     * @param p_edge edge ID
+     * @return region index
+     *
+     * @note virtual edges of a query graph are mapped to the first region
+     */
+    public final int getRegion( final int p_edge )
+    {
+        return ( p_edge < 0 ) || ( p_edge >= m_region.length ) ? 0 : m_region[p_edge];
+    }
+
+    /**
+     * returns the region of an edge
+     *
+     * @param p_edge edge
+     * @return region index
+     */
+    public final int getRegion( final EdgeIteratorState p_edge )
+    {
+        return p_edge == null ? 0 : this.getRegion( p_edge.getEdge() );
+    }
+
+    /**
+     * splits a range of edges along the axis with the largest extent
+     *
+     * @param p_edges edge IDs
+     * @param p_start start index (inclusive)
+     * @param p_end end index (exclusive)
+     * @param p_firstregion first region index of the range
+     * @param p_regions number of regions of the range
+     * @param p_latitude latitude of the edge centers
+     * @param p_longitude longitude of the edge centers
+     */
+    private void bisect( final int[] p_edges, final int p_start, final int p_end, final int p_firstregion, final int p_regions, final double[] p_latitude,
+            final double[] p_longitude
+    )
+    {
+        if ( ( p_regions < 2 ) || ( p_end - p_start < 2 ) )
+        {
+            for ( int i = p_start; i < p_end; i++ )
+                m_region[p_edges[i]] = p_firstregion;
+            return;
+        }
+
+        final double[] l_axis = this.extent( p_edges, p_start, p_end, p_latitude ) > this.extent( p_edges, p_start, p_end, p_longitude )
+                                ? p_latitude : p_longitude;
+        final int[] l_sorted = IntStream.of( Arrays.copyOfRange( p_edges, p_start, p_end ) )
+                                        .boxed()
+                                        .sorted( Comparator.comparingDouble( i -> l_axis[i] ) )
+                                        .mapToInt( Integer::intValue )
+                                        .toArray();
+        System.arraycopy( l_sorted, 0, p_edges, p_start, l_sorted.length );
+
+        // the split position is weighted by the number of regions on each side
+        final int l_left = p_regions / 2;
+        final int l_split = p_start + (int) ( (long) ( p_end - p_start ) * l_left / p_regions );
+
+        this.bisect( p_edges, p_start, l_split, p_firstregion, l_left, p_latitude, p_longitude );
+        this.bisect( p_edges, l_split, p_end, p_firstregion + l_left, p_regions - l_left, p_latitude, p_longitude );
+    }
+
+    /**
+     * returns the extent of a range of edges on an axis
+     *
+     * @param p_edges edge IDs
+     * @param p_start start index (inclusive)
+     * @param p_end end index (exclusive)
+     * @param p_axis coordinates of the axis
+     * @return extent
+     */
+    private double extent( final int[] p_edges, final int p_start, final int p_end, final double[] p_axis )
+    {
+        double l_min = Double.POSITIVE_INFINITY;
+        double l_max = Double.NEGATIVE_INFINITY;
+        for ( int i = p_start; i < p_end; i++ )
+        {
+            l_min = Math.min( l_min, p_axis[p_edges[i]] );
+            l_max = Math.max( l_max, p_axis[p_edges[i]] );
+        }
+        return l_max - l_min;
+    }
+
+}
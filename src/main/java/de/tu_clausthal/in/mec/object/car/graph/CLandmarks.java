@@ -0,0 +1,523 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.object.car.graph;
+
+import com.graphhopper.coll.IntDoubleBinHeap;
+import com.graphhopper.routing.util.EdgeFilter;
+import com.graphhopper.routing.util.WeightApproximator;
+import com.graphhopper.storage.Graph;
+import com.graphhopper.util.EdgeExplorer;
+import com.graphhopper.util.EdgeIterator;
+import de.tu_clausthal.in.mec.CLogger;
+import de.tu_clausthal.in.mec.common.CCommon;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+
+/**
+ * landmark preprocessing of the road graph for the A* search with landmarks and triangle inequality (ALT),
+ * the distances are calculated with the free-flow travel time (distance / maximum speed) on the undirected
+ * graph, so they are a lower bound of all weightings, which never undercut the free-flow travel time, the
+ * distances are stored quantized within the graph directory
+ *
+ * @see http://research.microsoft.com/pubs/154937/soda05.pdf
+ */
+public final class CLandmarks
+{
+    /**
+     * filename within the graph directory
+     */
+    private static final String c_filename = "landmarks";
+    /**
+     * version of the file format
+     */
+    private static final int c_version = 1;
+    /**
+     * quantized value of an unreachable node
+     */
+    private static final char c_unreachable = Character.MAX_VALUE;
+    /**
+     * number of tries to find a start node within the large component
+     */
+    private static final int c_tries = 10;
+    /**
+     * number of nodes
+     */
+    private final int m_nodes;
+    /**
+     * maximum speed of the free-flow travel time
+     */
+    private final double m_maxspeed;
+    /**
+     * landmark nodes
+     */
+    private final int[] m_landmarks;
+    /**
+     * quantization factor of each landmark
+     */
+    private final double[] m_factor;
+    /**
+     * quantized distances in node-major order
+     */
+    private final char[] m_distance;
+
+
+    /**
+     * ctor
+     *
+     * @param p_nodes number of nodes
+     * @param p_maxspeed maximum speed
+     * @param p_landmarks landmark nodes
+     * @param p_factor quantization factors
+     * @param p_distance quantized distances
+     */
+    private CLandmarks( final int p_nodes, final double p_maxspeed, final int[] p_landmarks, final double[] p_factor, final char[] p_distance )
+    {
+        m_nodes = p_nodes;
+        m_maxspeed = p_maxspeed;
+        m_landmarks = p_landmarks;
+        m_factor = p_factor;
+        m_distance = p_distance;
+    }
+
+    /**
+     * loads the landmarks of the graph directory or creates and stores them
+     *
+     * @param p_directory graph directory
+     * @param p_graph base graph
+     * @param p_count number of landmarks
+     * @param p_maxspeed maximum speed of the flag encoder
+     * @return landmarks or null if the number of landmarks is zero
+     */
+    public static CLandmarks get( final File p_directory, final Graph p_graph, final int p_count, final double p_maxspeed )
+    {
+        if ( ( p_count < 1 ) || ( p_graph.getNodes() == 0 ) )
+            return null;
+
+        final File l_file = new File( p_directory, c_filename );
+        final CLandmarks l_loaded = load( l_file, p_graph.getNodes(), p_count, p_maxspeed );
+        if ( l_loaded != null )
+        {
+            CLogger.out( CCommon.getResourceString( CLandmarks.class, "loaded", l_loaded.m_landmarks.length ) );
+            return l_loaded;
+        }
+
+        final CLandmarks l_landmarks = create( p_graph, p_count, p_maxspeed );
+        l_landmarks.store( l_file );
+        CLogger.out( CCommon.getResourceString( CLandmarks.class, "created", l_landmarks.m_landmarks.length ) );
+        return l_landmarks;
+    }
+
+    /**
+     * returns the number of landmarks
+     *
+     * @return number of landmarks
+     */
+    public final int size()
+    {
+        return m_landmarks.length;
+    }
+
+    /**
+     * creates the weight approximator of a query
+     *
+     * @param p_graph query graph, which can contain virtual nodes
+     * @return approximator
+     */
+    public final WeightApproximator getApproximator( final Graph p_graph )
+    {
+        return new CApproximator( p_graph );
+    }
+
+    /**
+     * selects the landmarks with the farthest heuristic and calculates the distances
+     *
+     * @param p_graph base graph
+     * @param p_count number of landmarks
+     * @param p_maxspeed maximum speed
+     * @return landmarks
+     */
+    private static CLandmarks create( final Graph p_graph, final int p_count, final double p_maxspeed )
+    {
+        final int l_nodes = p_graph.getNodes();
+        final EdgeExplorer l_explorer = p_graph.createEdgeExplorer( EdgeFilter.ALL_EDGES );
+        final double[] l_distance = new double[l_nodes];
+
+        // the start node is taken from the large component, small components (e.g. islands) get no landmark
+        final Random l_random = new Random( l_nodes );
+        int l_farthest = l_random.nextInt( l_nodes );
+        int l_reached = 0;
+        for ( int i = 0; ( i < c_tries ) && ( l_reached < l_nodes / 2 ); i++ )
+        {
+            final int l_start = l_random.nextInt( l_nodes );
+            final int l_count = dijkstra( l_explorer, l_start, p_maxspeed, l_distance );
+            if ( l_count > l_reached )
+            {
+                l_reached = l_count;
+                l_farthest = farthest( l_distance );
+            }
+        }
+
+        // each next landmark is the node with the largest distance to all selected landmarks
+        final double[] l_minimum = new double[l_nodes];
+        Arrays.fill( l_minimum, Double.POSITIVE_INFINITY );
+
+        final int[] l_landmarks = new int[Math.min( p_count, l_nodes )];
+        final double[] l_factor = new double[l_landmarks.length];
+        final char[] l_quantized = new char[l_nodes * l_landmarks.length];
+        for ( int i = 0; i < l_landmarks.length; i++ )
+        {
+            l_landmarks[i] = l_farthest;
+            dijkstra( l_explorer, l_farthest, p_maxspeed, l_distance );
+
+            double l_max = 0;
+            for ( int j = 0; j < l_nodes; j++ )
+                if ( !Double.isInfinite( l_distance[j] ) )
+                {
+                    l_max = Math.max( l_max, l_distance[j] );
+                    l_minimum[j] = Math.min( l_minimum[j], l_distance[j] );
+                }
+
+            // the quantized value is rounded down, so the stored interval contains the exact distance
+            l_factor[i] = Math.max( l_max / ( c_unreachable - 1 ), Double.MIN_NORMAL );
+            for ( int j = 0; j < l_nodes; j++ )
+                l_quantized[j * l_landmarks.length + i] = Double.isInfinite( l_distance[j] )
+                                                          ? c_unreachable
+                                                          : (char) Math.min( c_unreachable - 1, (int) ( l_distance[j] / l_factor[i] ) );
+
+            l_farthest = farthest( l_minimum );
+        }
+
+        return new CLandmarks( l_nodes, p_maxspeed, l_landmarks, l_factor, l_quantized );
+    }
+
+    /**
+     * calculates the free-flow travel time of all nodes on the undirected graph
+     *
+     * @param p_explorer edge explorer of all edges
+     * @param p_start start node
+     * @param p_maxspeed maximum speed
+     * @param p_distance distance array, which is filled
+     * @return number of reached nodes
+     */
+    private static int dijkstra( final EdgeExplorer p_explorer, final int p_start, final double p_maxspeed, final double[] p_distance )
+    {
+        Arrays.fill( p_distance, Double.POSITIVE_INFINITY );
+        p_distance[p_start] = 0;
+
+        // the heap stores outdated entries, which are skipped on polling, the keys of
+        // the heap are stored with float precision, so the distance is read from the array
+        final IntDoubleBinHeap l_heap = new IntDoubleBinHeap( 1024 );
+        final BitSet l_settled = new BitSet( p_distance.length );
+        l_heap.insert_( 0, p_start );
+
+        int l_reached = 0;
+        while ( !l_heap.isEmpty() )
+        {
+            final int l_node = l_heap.poll_element();
+            if ( l_settled.get( l_node ) )
+                continue;
+
+            l_settled.set( l_node );
+            l_reached++;
+
+            final double l_weight = p_distance[l_node];
+            final EdgeIterator l_edge = p_explorer.setBaseNode( l_node );
+            while ( l_edge.next() )
+            {
+                final int l_adjacent = l_edge.getAdjNode();
+                final double l_distance = l_weight + l_edge.getDistance() / p_maxspeed;
+                if ( l_distance >= p_distance[l_adjacent] )
+                    continue;
+
+                p_distance[l_adjacent] = l_distance;
+                l_heap.insert_( l_distance, l_adjacent );
+            }
+        }
+
+        return l_reached;
+    }
+
+    /**
+     * returns the reachable node with the largest value
+     *
+     * @param p_distance distance array
+     * @return node
+     */
+    private static int farthest( final double[] p_distance )
+    {
+        int l_node = 0;
+        for ( int i = 1; i < p_distance.length; i++ )
+            if ( ( !Double.isInfinite( p_distance[i] ) ) && ( ( Double.isInfinite( p_distance[l_node] ) ) || ( p_distance[i] > p_distance[l_node] ) ) )
+                l_node = i;
+        return l_node;
+    }
+
+    /**
+     * loads the landmarks
+     *
+     * @param p_file file
+     * @param p_nodes number of nodes of the graph
+     * @param p_count number of landmarks
+     * @param p_maxspeed maximum speed
+     * @return landmarks or null if the file does not exist or does not match the graph
+     */
+    private static CLandmarks load( final File p_file, final int p_nodes, final int p_count, final double p_maxspeed )
+    {
+        if ( !p_file.isFile() )
+            return null;
+
+        try (
+                final RandomAccessFile l_file = new RandomAccessFile( p_file, "r" );
+                final FileChannel l_channel = l_file.getChannel();
+        )
+        {
+            // the file is read into the heap, so the file is not locked by a mapping on a reimport
+            final ByteBuffer l_buffer = ByteBuffer.allocate( (int) l_channel.size() );
+            while ( l_buffer.hasRemaining() && ( l_channel.read( l_buffer ) >= 0 ) )
+                ;
+            l_buffer.flip();
+
+            if ( ( l_buffer.getInt() != c_version ) || ( l_buffer.getInt() != p_nodes ) || ( l_buffer.getDouble() != p_maxspeed ) )
+                return null;
+
+            final int l_count = l_buffer.getInt();
+            if ( l_count != Math.min( p_count, p_nodes ) )
+                return null;
+
+            final int[] l_landmarks = new int[l_count];
+            final double[] l_factor = new double[l_count];
+            for ( int i = 0; i < l_count; i++ )
+            {
+                l_landmarks[i] = l_buffer.getInt();
+                l_factor[i] = l_buffer.getDouble();
+            }
+
+            final char[] l_distance = new char[p_nodes * l_count];
+            l_buffer.asCharBuffer().get( l_distance );
+            return new CLandmarks( p_nodes, p_maxspeed, l_landmarks, l_factor, l_distance );
+        }
+        catch ( final IOException | RuntimeException l_exception )
+        {
+            CLogger.error( l_exception );
+            return null;
+        }
+    }
+
+    /**
+     * stores the landmarks
+     *
+     * @param p_file file
+     */
+    private void store( final File p_file )
+    {
+        final ByteBuffer l_buffer = ByteBuffer.allocate( 20 + m_landmarks.length * 12 + m_distance.length * 2 );
+        l_buffer.putInt( c_version ).putInt( m_nodes ).putDouble( m_maxspeed ).putInt( m_landmarks.length );
+        for ( int i = 0; i < m_landmarks.length; i++ )
+            l_buffer.putInt( m_landmarks[i] ).putDouble( m_factor[i] );
+        l_buffer.asCharBuffer().put( m_distance );
+        l_buffer.position( l_buffer.capacity() );
+        l_buffer.flip();
+
+        try (
+                final RandomAccessFile l_file = new RandomAccessFile( p_file, "rw" );
+                final FileChannel l_channel = l_file.getChannel();
+        )
+        {
+            l_channel.truncate( 0 );
+            while ( l_buffer.hasRemaining() )
+                l_channel.write( l_buffer );
+        }
+        catch ( final IOException l_exception )
+        {
+            CLogger.error( l_exception );
+        }
+    }
+
+
+    /**
+     * weight approximator of a query, the lower bound of the distance between a node and the goal is the
+     * maximum difference of their landmark distances, the quantization is handled by distance intervals,
+     * the intervals of virtual nodes are derived from the adjacent nodes of the query graph
+     */
+    private final class CApproximator implements WeightApproximator
+    {
+        /**
+         * query graph
+         */
+        private final Graph m_graph;
+        /**
+         * lower bounds of the goal distances
+         */
+        private final double[] m_goallower = new double[m_landmarks.length];
+        /**
+         * upper bounds of the goal distances
+         */
+        private final double[] m_goalupper = new double[m_landmarks.length];
+        /**
+         * intervals of the virtual nodes
+         */
+        private final Map<Integer, double[][]> m_virtual = new HashMap<>();
+        /**
+         * goal is reachable by the landmarks
+         */
+        private boolean m_goal;
+
+        /**
+         * ctor
+         *
+         * @param p_graph query graph
+         */
+        private CApproximator( final Graph p_graph )
+        {
+            m_graph = p_graph;
+        }
+
+        @Override
+        public final double approximate( final int p_node )
+        {
+            if ( !m_goal )
+                return 0;
+
+            double l_bound = 0;
+            if ( p_node < m_nodes )
+            {
+                final int l_offset = p_node * m_landmarks.length;
+                for ( int i = 0; i < m_landmarks.length; i++ )
+                {
+                    final char l_value = m_distance[l_offset + i];
+                    if ( ( l_value == c_unreachable ) || ( Double.isInfinite( m_goallower[i] ) ) )
+                        continue;
+
+                    final double l_lower = l_value * m_factor[i];
+                    l_bound = Math.max( l_bound, Math.max( m_goallower[i] - l_lower - m_factor[i], l_lower - m_goalupper[i] ) );
+                }
+                return l_bound;
+            }
+
+            final double[][] l_interval = this.virtual( p_node );
+            for ( int i = 0; i < m_landmarks.length; i++ )
+                if ( ( !Double.isInfinite( l_interval[0][i] ) ) && ( !Double.isInfinite( m_goallower[i] ) ) )
+                    l_bound = Math.max( l_bound, Math.max( m_goallower[i] - l_interval[1][i], l_interval[0][i] - m_goalupper[i] ) );
+            return l_bound;
+        }
+
+        @Override
+        public final void setGoalNode( final int p_node )
+        {
+            if ( p_node < m_nodes )
+                for ( int i = 0; i < m_landmarks.length; i++ )
+                {
+                    final char l_value = m_distance[p_node * m_landmarks.length + i];
+                    m_goallower[i] = l_value == c_unreachable ? Double.POSITIVE_INFINITY : l_value * m_factor[i];
+                    m_goalupper[i] = l_value == c_unreachable ? Double.POSITIVE_INFINITY : ( l_value + 1 ) * m_factor[i];
+                }
+            else
+            {
+                final double[][] l_interval = this.virtual( p_node );
+                System.arraycopy( l_interval[0], 0, m_goallower, 0, m_landmarks.length );
+                System.arraycopy( l_interval[1], 0, m_goalupper, 0, m_landmarks.length );
+            }
+
+            m_goal = false;
+            for ( final double l_item : m_goallower )
+                m_goal |= !Double.isInfinite( l_item );
+        }
+
+        @Override
+        public final WeightApproximator duplicate()
+        {
+            return new CApproximator( m_graph );
+        }
+
+        /**
+         * returns the distance intervals of a virtual node, the node is connected along
+         * virtual edges to the nodes of the base graph
+         *
+         * @param p_node virtual node
+         * @return array with lower and upper bounds
+         */
+        private double[][] virtual( final int p_node )
+        {
+            final double[][] l_cached = m_virtual.get( p_node );
+            if ( l_cached != null )
+                return l_cached;
+
+            final double[][] l_interval = new double[2][m_landmarks.length];
+            Arrays.fill( l_interval[0], Double.POSITIVE_INFINITY );
+            Arrays.fill( l_interval[1], Double.POSITIVE_INFINITY );
+
+            final Map<Integer, Double> l_distance = new HashMap<>();
+            final Deque<Integer> l_queue = new ArrayDeque<>();
+            final EdgeExplorer l_explorer = m_graph.createEdgeExplorer( EdgeFilter.ALL_EDGES );
+            l_distance.put( p_node, 0.0 );
+            l_queue.add( p_node );
+            while ( !l_queue.isEmpty() )
+            {
+                final int l_node = l_queue.poll();
+                final EdgeIterator l_edge = l_explorer.setBaseNode( l_node );
+                while ( l_edge.next() )
+                {
+                    final int l_adjacent = l_edge.getAdjNode();
+                    final double l_weight = l_distance.get( l_node ) + l_edge.getDistance() / m_maxspeed;
+                    if ( l_adjacent >= m_nodes )
+                    {
+                        if ( l_weight < l_distance.getOrDefault( l_adjacent, Double.POSITIVE_INFINITY ) )
+                        {
+                            l_distance.put( l_adjacent, l_weight );
+                            l_queue.add( l_adjacent );
+                        }
+                        continue;
+                    }
+
+                    for ( int i = 0; i < m_landmarks.length; i++ )
+                    {
+                        final char l_value = m_distance[l_adjacent * m_landmarks.length + i];
+                        if ( l_value == c_unreachable )
+                            continue;
+
+                        l_interval[0][i] = Math.min( l_interval[0][i], l_value * m_factor[i] + l_weight );
+                        l_interval[1][i] = Math.min( l_interval[1][i], ( l_value + 1 ) * m_factor[i] + l_weight );
+                    }
+                }
+            }
+
+            m_virtual.put( p_node, l_interval );
+            return l_interval;
+        }
+    }
+
+}
@@ -0,0 +1,316 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.object.car.graph;
+
+import de.tu_clausthal.in.mec.common.CCommon;
+
+import java.util.Arrays;
+
+
+/**
+ * immutable route of cells, the route stores only the edge IDs and the
+ * cumulative cell offsets of the edges, so a cell is defined by its index
+ * and the edge of a cell is found with a binary search
+ */
+public final class CRoute
+{
+    /**
+     * edge IDs
+     */
+    private final int[] m_edges;
+    /**
+     * cumulative cell offsets, the offset of an edge is the index of its first cell,
+     * the last value is the number of cells
+     */
+    private final int[] m_offsets;
+
+
+    /**
+     * ctor
+     *
+     * @param p_edges edge IDs
+     * @param p_cells number of cells of each edge, edges without cells are skipped
+     */
+    public CRoute( final int[] p_edges, final int[] p_cells )
+    {
+        if ( p_edges.length != p_cells.length )
+            throw new IllegalArgumentException( CCommon.getResourceString( this, "size" ) );
+
+        int l_count = 0;
+        for ( final int l_cells : p_cells )
+            if ( l_cells > 0 )
+                l_count++;
+
+        m_edges = new int[l_count];
+        m_offsets = new int[l_count + 1];
+        for ( int i = 0, j = 0; i < p_edges.length; i++ )
+            if ( p_cells[i] > 0 )
+            {
+                m_edges[j] = p_edges[i];
+                m_offsets[j + 1] = m_offsets[j] + p_cells[i];
+                j++;
+            }
+    }
+
+    /**
+     * returns the number of cells
+     *
+     * @return number of cells
+     */
+    public final int size()
+    {
+        return m_offsets[m_edges.length];
+    }
+
+    /**
+     * checks if the route is empty
+     *
+     * @return empty flag
+     */
+    public final boolean isEmpty()
+    {
+        return m_edges.length == 0;
+    }
+
+    /**
+     * returns the number of edges
+     *
+     * @return number of edges
+     */
+    public final int getNumberOfEdges()
+    {
+        return m_edges.length;
+    }
+
+    /**
+     * returns the edge index of a cell
+     *
+     * @param p_cell cell index
+     * @return edge index
+     */
+    public final int getEdgeIndex( final int p_cell )
+    {
+        if ( ( p_cell < 0 ) || ( p_cell >= this.size() ) )
+            throw new IndexOutOfBoundsException( String.valueOf( p_cell ) );
+
+        final int l_index = Arrays.binarySearch( m_offsets, 0, m_edges.length, p_cell );
+        return l_index < 0 ? -l_index - 2 : l_index;
+    }
+
+    /**
+     * returns the edge ID of a cell
+     *
+     * @param p_cell cell index
+     * @return edge ID
+     */
+    public final int getEdgeID( final int p_cell )
+    {
+        return m_edges[this.getEdgeIndex( p_cell )];
+    }
+
+    /**
+     * returns the position of a cell within its edge
+     *
+     * @param p_cell cell index
+     * @return position on the edge
+     */
+    public final int getPosition( final int p_cell )
+    {
+        return p_cell - m_offsets[this.getEdgeIndex( p_cell )];
+    }
+
+    /**
+     * returns the edge ID of an edge index
+     *
+     * @param p_index edge index
+     * @return edge ID
+     */
+    public final int getEdgeIDOfIndex( final int p_index )
+    {
+        return m_edges[p_index];
+    }
+
+    /**
+     * returns the index of the first cell of an edge index
+     *
+     * @param p_index edge index, the number of edges returns the number of cells
+     * @return cell index
+     */
+    public final int getOffset( final int p_index )
+    {
+        return m_offsets[p_index];
+    }
+
+    /**
+     * returns a route, which contains the edges of this route followed by the edges of another route
+     *
+     * @param p_route route, which is appended
+     * @return new route
+     */
+    public final CRoute append( final CRoute p_route )
+    {
+        return this.concat( m_edges.length, p_route );
+    }
+
+    /**
+     * returns a route, which contains the edges up to the edge of a cell, followed by the edges of another route
+     *
+     * @param p_cell cell index
+     * @param p_route route, which is appended
+     * @return new route
+     */
+    public final CRoute replace( final int p_cell, final CRoute p_route )
+    {
+        return this.concat( this.getEdgeIndex( p_cell ) + 1, p_route );
+    }
+
+    /**
+     * concatenates the first edges of this route with another route
+     *
+     * @param p_head number of edges of this route
+     * @param p_route route, which is appended
+     * @return new route
+     */
+    private CRoute concat( final int p_head, final CRoute p_route )
+    {
+        final int[] l_edges = new int[p_head + p_route.m_edges.length];
+        final int[] l_cells = new int[l_edges.length];
+        for ( int i = 0; i < l_edges.length; i++ )
+        {
+            final CRoute l_route = i < p_head ? this : p_route;
+            final int l_index = i < p_head ? i : i - p_head;
+            l_edges[i] = l_route.m_edges[l_index];
+            l_cells[i] = l_route.m_offsets[l_index + 1] - l_route.m_offsets[l_index];
+        }
+
+        return new CRoute( l_edges, l_cells );
+    }
+
+    /**
+     * returns a cursor to iterate over the cells
+     *
+     * @param p_cell start cell index
+     * @return cursor
+     */
+    public final CCursor cursor( final int p_cell )
+    {
+        return new CCursor( p_cell );
+    }
+
+    @Override
+    public final int hashCode()
+    {
+        return 31 * Arrays.hashCode( m_edges ) + Arrays.hashCode( m_offsets );
+    }
+
+    @Override
+    public final boolean equals( final Object p_object )
+    {
+        return ( p_object instanceof CRoute ) && ( Arrays.equals( m_edges, ( (CRoute) p_object ).m_edges ) ) &&
+               ( Arrays.equals( m_offsets, ( (CRoute) p_object ).m_offsets ) );
+    }
+
+
+    /**
+     * cursor over the cells of the route, the edge is moved forward
+     * without a search, so iterating the cells costs constant time
+     */
+    public final class CCursor
+    {
+        /**
+         * cell index
+         */
+        private int m_cell;
+        /**
+         * edge index
+         */
+        private int m_edge;
+
+        /**
+         * ctor
+         *
+         * @param p_cell start cell index
+         */
+        private CCursor( final int p_cell )
+        {
+            m_cell = p_cell;
+            m_edge = p_cell < CRoute.this.size() ? CRoute.this.getEdgeIndex( p_cell ) : m_edges.length;
+        }
+
+        /**
+         * checks if the cursor is on a cell
+         *
+         * @return boolean flag
+         */
+        public final boolean isValid()
+        {
+            return m_cell < CRoute.this.size();
+        }
+
+        /**
+         * returns the cell index
+         *
+         * @return cell index
+         */
+        public final int getCell()
+        {
+            return m_cell;
+        }
+
+        /**
+         * returns the edge ID of the cell
+         *
+         * @return edge ID
+         */
+        public final int getEdgeID()
+        {
+            return m_edges[m_edge];
+        }
+
+        /**
+         * returns the position of the cell within its edge
+         *
+         * @return position on the edge
+         */
+        public final int getPosition()
+        {
+            return m_cell - m_offsets[m_edge];
+        }
+
+        /**
+         * moves the cursor to the next cell
+         *
+         * @return cursor
+         */
+        public final CCursor next()
+        {
+            m_cell++;
+            while ( ( m_edge < m_edges.length ) && ( m_cell >= m_offsets[m_edge + 1] ) )
+                m_edge++;
+            return this;
+        }
+    }
+
+}
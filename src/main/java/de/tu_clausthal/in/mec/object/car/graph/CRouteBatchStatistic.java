@@ -0,0 +1,136 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.object.car.graph;
+
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * statistic of the batched route calculation, stores the number of
+ * batches and queries and the latency of the batches
+ */
+public final class CRouteBatchStatistic
+{
+    /**
+     * number of batches
+     */
+    private final LongAdder m_batches = new LongAdder();
+    /**
+     * number of queries
+     */
+    private final LongAdder m_queries = new LongAdder();
+    /**
+     * sum of the batch latencies in nanoseconds
+     */
+    private final LongAdder m_time = new LongAdder();
+    /**
+     * latency of the last batch in nanoseconds
+     */
+    private volatile long m_lasttime;
+    /**
+     * number of queries of the last batch
+     */
+    private volatile int m_lastqueries;
+
+
+    /**
+     * adds a batch
+     *
+     * @param p_queries number of queries
+     * @param p_time latency in nanoseconds
+     */
+    public final void add( final int p_queries, final long p_time )
+    {
+        m_batches.increment();
+        m_queries.add( p_queries );
+        m_time.add( p_time );
+        m_lastqueries = p_queries;
+        m_lasttime = p_time;
+    }
+
+    /**
+     * returns the number of batches
+     *
+     * @return batches
+     */
+    public final long getBatches()
+    {
+        return m_batches.sum();
+    }
+
+    /**
+     * returns the number of queries
+     *
+     * @return queries
+     */
+    public final long getQueries()
+    {
+        return m_queries.sum();
+    }
+
+    /**
+     * returns the mean latency of a batch
+     *
+     * @return latency in milliseconds
+     */
+    public final double getMeanLatency()
+    {
+        final long l_batches = m_batches.sum();
+        return l_batches == 0 ? 0 : m_time.sum() / 1000000.0 / l_batches;
+    }
+
+    /**
+     * returns the latency of the last batch
+     *
+     * @return latency in milliseconds
+     */
+    public final double getLastLatency()
+    {
+        return m_lasttime / 1000000.0;
+    }
+
+    /**
+     * returns the number of queries per second over all batches
+     *
+     * @return queries per second
+     */
+    public final double getQueriesPerSecond()
+    {
+        final long l_time = m_time.sum();
+        return l_time == 0 ? 0 : m_queries.sum() * 1000000000.0 / l_time;
+    }
+
+    /**
+     * returns the number of queries per second of the last batch
+     *
+     * @return queries per second
+     */
+    public final double getLastQueriesPerSecond()
+    {
+        final long l_time = m_lasttime;
+        return l_time == 0 ? 0 : m_lastqueries * 1000000000.0 / l_time;
+    }
+
+}
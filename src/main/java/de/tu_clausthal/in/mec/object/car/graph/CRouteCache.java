@@ -0,0 +1,311 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.object.car.graph;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+
+/**
+ * bounded LRU cache of routes, the key is defined by the snapped start and end node
+ * and the weighting, each entry stores the state value of the weighting at the calculation,
+ * so entries of dynamic weightings are invalidated if the state changes
+ */
+public final class CRouteCache
+{
+    /**
+     * maximum number of entries
+     */
+    private final int m_capacity;
+    /**
+     * entries in access order
+     */
+    private final Map<CKey, CEntry> m_entries;
+    /**
+     * number of hits
+     */
+    private final LongAdder m_hits = new LongAdder();
+    /**
+     * number of misses
+     */
+    private final LongAdder m_misses = new LongAdder();
+    /**
+     * number of evicted entries
+     */
+    private final LongAdder m_evictions = new LongAdder();
+    /**
+     * number of invalidated entries
+     */
+    private final LongAdder m_invalidations = new LongAdder();
+
+
+    /**
+     * ctor
+     *
+     * @param p_capacity maximum number of entries, zero disables the cache
+     */
+    public CRouteCache( final int p_capacity )
+    {
+        m_capacity = Math.max( 0, p_capacity );
+        m_entries = new LinkedHashMap<CKey, CEntry>( 16, 0.75f, true )
+        {
+            @Override
+            protected final boolean removeEldestEntry( final Map.Entry<CKey, CEntry> p_eldest )
+            {
+                if ( this.size() <= m_capacity )
+                    return false;
+
+                m_evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * returns a route
+     *
+     * @param p_start start node
+     * @param p_end end node
+     * @param p_weight weighting
+     * @param p_state current state of the weighting
+     * @param p_route supplier to calculate the route on a miss
+     * @return route
+     *
+     * @note the route is calculated without holding the lock, so concurrent misses of the same key calculate the route more than once
+     */
+    public final CRoute get( final int p_start, final int p_end, final CGraphHopper.EWeight p_weight, final long p_state,
+            final Supplier<CRoute> p_route
+    )
+    {
+        final CKey l_key = new CKey( p_start, p_end, p_weight );
+        final CEntry l_entry;
+        synchronized ( m_entries )
+        {
+            l_entry = m_entries.get( l_key );
+        }
+
+        if ( l_entry != null )
+        {
+            if ( l_entry.m_state == p_state )
+            {
+                m_hits.increment();
+                return l_entry.m_route;
+            }
+
+            m_invalidations.increment();
+        }
+
+        m_misses.increment();
+        final CRoute l_route = p_route.get();
+        if ( m_capacity > 0 )
+            synchronized ( m_entries )
+            {
+                m_entries.put( l_key, new CEntry( l_route, p_state ) );
+            }
+
+        return l_route;
+    }
+
+    /**
+     * removes all entries of a weighting
+     *
+     * @param p_weight weighting
+     */
+    public final void invalidate( final CGraphHopper.EWeight p_weight )
+    {
+        synchronized ( m_entries )
+        {
+            final int l_size = m_entries.size();
+            m_entries.keySet().removeIf( i -> i.m_weight.equals( p_weight ) );
+            m_invalidations.add( l_size - m_entries.size() );
+        }
+    }
+
+    /**
+     * removes all entries
+     */
+    public final void clear()
+    {
+        synchronized ( m_entries )
+        {
+            m_entries.clear();
+        }
+    }
+
+    /**
+     * returns the number of entries
+     *
+     * @return number of entries
+     */
+    public final int size()
+    {
+        synchronized ( m_entries )
+        {
+            return m_entries.size();
+        }
+    }
+
+    /**
+     * returns the maximum number of entries
+     *
+     * @return capacity
+     */
+    public final int getCapacity()
+    {
+        return m_capacity;
+    }
+
+    /**
+     * returns the number of hits
+     *
+     * @return hits
+     */
+    public final long getHits()
+    {
+        return m_hits.sum();
+    }
+
+    /**
+     * returns the number of misses
+     *
+     * @return misses
+     */
+    public final long getMisses()
+    {
+        return m_misses.sum();
+    }
+
+    /**
+     * returns the number of evicted entries
+     *
+     * @return evictions
+     */
+    public final long getEvictions()
+    {
+        return m_evictions.sum();
+    }
+
+    /**
+     * returns the number of invalidated entries
+     *
+     * @return invalidations
+     */
+    public final long getInvalidations()
+    {
+        return m_invalidations.sum();
+    }
+
+    /**
+     * returns the hit ratio
+     *
+     * @return ratio in [0,1]
+     */
+    public final double getHitRatio()
+    {
+        final long l_hits = m_hits.sum();
+        final long l_count = l_hits + m_misses.sum();
+        return l_count == 0 ? 0 : (double) l_hits / l_count;
+    }
+
+
+    /**
+     * key of an entry
+     */
+    private static final class CKey
+    {
+        /**
+         * start node
+         */
+        private final int m_start;
+        /**
+         * end node
+         */
+        private final int m_end;
+        /**
+         * weighting
+         */
+        private final CGraphHopper.EWeight m_weight;
+
+        /**
+         * ctor
+         *
+         * @param p_start start node
+         * @param p_end end node
+         * @param p_weight weighting
+         */
+        private CKey( final int p_start, final int p_end, final CGraphHopper.EWeight p_weight )
+        {
+            m_start = p_start;
+            m_end = p_end;
+            m_weight = p_weight;
+        }
+
+        @Override
+        public final int hashCode()
+        {
+            return ( 31 * m_start + m_end ) * 31 + m_weight.ordinal();
+        }
+
+        @Override
+        public final boolean equals( final Object p_object )
+        {
+            if ( !( p_object instanceof CKey ) )
+                return false;
+
+            final CKey l_key = (CKey) p_object;
+            return ( m_start == l_key.m_start ) && ( m_end == l_key.m_end ) && ( m_weight.equals( l_key.m_weight ) );
+        }
+    }
+
+    /**
+     * cached route with the state of the weighting
+     */
+    private static final class CEntry
+    {
+        /**
+         * route
+         */
+        private final CRoute m_route;
+        /**
+         * state of the weighting at the calculation
+         */
+        private final long m_state;
+
+        /**
+         * ctor
+         *
+         * @param p_route route
+         * @param p_state state
+         */
+        private CEntry( final CRoute p_route, final long p_state )
+        {
+            m_route = p_route;
+            m_state = p_state;
+        }
+    }
+
+}
@@ -81,6 +81,31 @@ public final class CForbiddenEdge extends HashSet<Integer> implements Weighting,
         m_maxspeed = p_encoder.getMaxSpeed();
     }
 
+    @Override
+    public final boolean add( final Integer p_edge )
+    {
+        final boolean l_return = super.add( p_edge );
+        if ( l_return )
+            m_graph.getRouteCache().invalidate( CGraphHopper.EWeight.ForbiddenEdge );
+        return l_return;
+    }
+
+    @Override
+    public final boolean remove( final Object p_edge )
+    {
+        final boolean l_return = super.remove( p_edge );
+        if ( l_return )
+            m_graph.getRouteCache().invalidate( CGraphHopper.EWeight.ForbiddenEdge );
+        return l_return;
+    }
+
+    @Override
+    public final void clear()
+    {
+        super.clear();
+        m_graph.getRouteCache().invalidate( CGraphHopper.EWeight.ForbiddenEdge );
+    }
+
     /**
      * adds the reserved edge to the list
      */
@@ -25,7 +25,6 @@
 package de.tu_clausthal.in.mec.object.mas.inconsistency;
 
 import cern.colt.function.DoubleFunction;
-import cern.colt.matrix.DoubleFactory1D;
 import cern.colt.matrix.DoubleMatrix1D;
 import cern.colt.matrix.DoubleMatrix2D;
 import cern.colt.matrix.impl.DenseDoubleMatrix1D;
@@ -35,13 +34,18 @@ import cern.colt.matrix.linalg.EigenvalueDecomposition;
 import cern.jet.math.Mult;
 import de.tu_clausthal.in.mec.common.CCommon;
 import de.tu_clausthal.in.mec.common.CPath;
+import de.tu_clausthal.in.mec.object.EResource;
 import de.tu_clausthal.in.mec.object.ILayer;
 import de.tu_clausthal.in.mec.object.ISingleEvaluateLayer;
 import de.tu_clausthal.in.mec.object.mas.IAgent;
+import de.tu_clausthal.in.mec.runtime.CSimulation;
 import de.tu_clausthal.in.mec.runtime.benchmark.IBenchmark;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.Map;
+import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 
@@ -81,9 +85,9 @@ public final class CInconsistencyLayer<T extends IAgent> extends ISingleEvaluate
      */
     private final String m_name;
     /**
-     * update of the metric values
+     * random object of the start vector of the stochastic algorithm
      */
-    private final int m_updatestep;
+    private final Random m_random = CSimulation.getInstance().getSeed().getRandom();
 
     /**
      * ctor - use numeric algorithm
@@ -98,7 +102,6 @@ public final class CInconsistencyLayer<T extends IAgent> extends ISingleEvaluate
         m_algorithm = EAlgorithm.Numeric;
         m_iteration = 0;
         m_epsilon = 0.001;
-        m_updatestep = 1;
     }
 
     /**
@@ -118,7 +121,6 @@ public final class CInconsistencyLayer<T extends IAgent> extends ISingleEvaluate
         m_algorithm = EAlgorithm.Iteration;
         m_iteration = p_iteration;
         m_epsilon = p_epsilon;
-        m_updatestep = 1;
     }
 
     public Double getInconsistencyValue( final T p_object )
@@ -147,6 +149,18 @@ public final class CInconsistencyLayer<T extends IAgent> extends ISingleEvaluate
         return 500;
     }
 
+    @Override
+    public Set<EResource> getReadResources()
+    {
+        return EnumSet.of( EResource.Agents );
+    }
+
+    @Override
+    public Set<EResource> getWriteResources()
+    {
+        return EnumSet.of( EResource.Inconsistency );
+    }
+
     /**
      * @bug run it parallel stream
      */
@@ -154,7 +168,8 @@ public final class CInconsistencyLayer<T extends IAgent> extends ISingleEvaluate
     @IBenchmark
     public final void step( final int p_currentstep, final ILayer p_layer )
     {
-        if ( ( m_data.size() < 2 ) || ( p_currentstep % m_updatestep != 0 ) )
+        // the update rate of the metric values is defined by the step period of the layer
+        if ( m_data.size() < 2 )
             return;
 
         // get key list of map for addressing elements in the correct order
@@ -257,13 +272,15 @@ public final class CInconsistencyLayer<T extends IAgent> extends ISingleEvaluate
      *
      * @param p_matrix matrix
      * @param p_iteration number of iterations
+     * @param p_random random object of the start vector
      * @return largest eigenvector (not normalized)
      *
+     * @note the random start vector of colt is seeded by the time, so the start vector is created with the seeded random object
      * @see http://en.wikipedia.org/wiki/Perron%E2%80%93Frobenius_theorem
      */
-    private static DoubleMatrix1D getLargestEigenvector( final DoubleMatrix2D p_matrix, final int p_iteration )
+    private static DoubleMatrix1D getLargestEigenvector( final DoubleMatrix2D p_matrix, final int p_iteration, final Random p_random )
     {
-        DoubleMatrix1D l_probability = DoubleFactory1D.dense.random( p_matrix.rows() );
+        DoubleMatrix1D l_probability = new DenseDoubleMatrix1D( p_matrix.rows() ).assign( i -> p_random.nextDouble() );
         for ( int i = 0; i < p_iteration; ++i )
         {
             l_probability = c_algebra.mult( p_matrix, l_probability );
@@ -306,7 +323,7 @@ public final class CInconsistencyLayer<T extends IAgent> extends ISingleEvaluate
         switch ( m_algorithm )
         {
             case Iteration:
-                l_eigenvector = getLargestEigenvector( p_matrix, m_iteration );
+                l_eigenvector = getLargestEigenvector( p_matrix, m_iteration, m_random );
                 break;
 
             case Numeric:
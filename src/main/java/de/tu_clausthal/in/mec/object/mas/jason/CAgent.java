@@ -36,7 +36,9 @@ import de.tu_clausthal.in.mec.object.mas.jason.belief.CTreeBeliefBase;
 import de.tu_clausthal.in.mec.runtime.benchmark.IBenchmark;
 import de.tu_clausthal.in.mec.runtime.message.CParticipant;
 import de.tu_clausthal.in.mec.runtime.message.IMessage;
+import de.tu_clausthal.in.mec.runtime.message.IReceiver;
 import jason.JasonException;
+import jason.RevisionFailedException;
 import jason.architecture.AgArch;
 import jason.architecture.MindInspectorWeb;
 import jason.asSemantics.ActionExec;
@@ -49,7 +51,9 @@ import jason.asSyntax.PlanBody;
 
 import java.awt.*;
 import java.io.File;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -114,6 +118,10 @@ public final class CAgent<T> implements IVoidAgent<Literal>, IAgentTemplateFacto
      * beliefbase
      */
     private final CTreeBeliefBase m_beliefbase;
+    /**
+     * object, which is bind with the agent, or null
+     */
+    private final T m_bind;
 
 
     /**
@@ -190,6 +198,7 @@ public final class CAgent<T> implements IVoidAgent<Literal>, IAgentTemplateFacto
         }
 
 
+        m_bind = p_bind;
         MindInspectorWeb.get().registerAg( m_agent );
     }
 
@@ -212,6 +221,35 @@ public final class CAgent<T> implements IVoidAgent<Literal>, IAgentTemplateFacto
     }
 
 
+    /**
+     * returns the beliefs with a source annotation, so beliefs
+     * of bind objects and beliefbase masks are not returned
+     *
+     * @return list with literal strings
+     */
+    public final List<String> getBeliefs()
+    {
+        final List<String> l_beliefs = new LinkedList<>();
+        for ( final Literal l_literal : m_agent.getBB() )
+            if ( l_literal.hasSource() )
+                l_beliefs.add( l_literal.toString() );
+        return l_beliefs;
+    }
+
+
+    /**
+     * adds beliefs to the agent
+     *
+     * @param p_beliefs collection with literal strings
+     * @throws RevisionFailedException thrown on belief revision error
+     */
+    public final void addBeliefs( final Collection<String> p_beliefs ) throws RevisionFailedException
+    {
+        for ( final String l_belief : p_beliefs )
+            m_agent.addBel( Literal.parseLiteral( l_belief ) );
+    }
+
+
     @Override
     public final int getCycle()
     {
@@ -280,7 +318,8 @@ public final class CAgent<T> implements IVoidAgent<Literal>, IAgentTemplateFacto
 
 
     /**
-     * pass messages to message containing beliefbase
+     * pass messages to message containing beliefbase, a bind receiver gets
+     * the messages also, so it can wake up an idle object of the agent
      *
      * @param p_messages set of messages
      */
@@ -288,6 +327,8 @@ public final class CAgent<T> implements IVoidAgent<Literal>, IAgentTemplateFacto
     public final void receiveMessage( final Set<IMessage> p_messages )
     {
         m_beliefbase.setMessages( p_messages );
+        if ( m_bind instanceof IReceiver )
+            ( (IReceiver) m_bind ).receiveMessage( p_messages );
     }
 
 
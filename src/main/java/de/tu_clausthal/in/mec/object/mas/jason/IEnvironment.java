@@ -202,7 +202,7 @@ public abstract class IEnvironment<T> extends IMultiLayer<CAgent<T>>
     {
         for ( final IAgent l_agent : m_data )
             l_agent.release();
-        m_data.clear();
+        this.clear();
     }
 
     @Override
@@ -25,11 +25,18 @@
 package de.tu_clausthal.in.mec.object.waypoint;
 
 import de.tu_clausthal.in.mec.common.CCommon;
+import de.tu_clausthal.in.mec.object.EResource;
 import de.tu_clausthal.in.mec.object.ILayer;
 import de.tu_clausthal.in.mec.object.IMultiLayer;
 import de.tu_clausthal.in.mec.object.car.ICar;
 import de.tu_clausthal.in.mec.object.waypoint.point.IWayPoint;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
 
 /**
  * layer with all sources
@@ -37,6 +44,42 @@ import de.tu_clausthal.in.mec.object.waypoint.point.IWayPoint;
 @SuppressWarnings( "serial" )
 public final class CCarWayPointLayer extends IMultiLayer<IWayPoint<ICar>>
 {
+    /**
+     * UI data of the waypoints, which are created by the UI
+     */
+    private final transient Map<IWayPoint<ICar>, Map<String, Object>> m_settings = Collections.synchronizedMap( new IdentityHashMap<>() );
+
+    /**
+     * adds a waypoint with the UI data, which has created the waypoint
+     *
+     * @param p_waypoint waypoint
+     * @param p_settings UI data
+     * @return boolean if the waypoint is added
+     */
+    public final boolean add( final IWayPoint<ICar> p_waypoint, final Map<String, Object> p_settings )
+    {
+        if ( p_settings != null )
+            m_settings.put( p_waypoint, p_settings );
+        return this.add( p_waypoint );
+    }
+
+    /**
+     * returns the UI data of a waypoint
+     *
+     * @param p_waypoint waypoint
+     * @return UI data or null if the waypoint is not created by the UI
+     */
+    public final Map<String, Object> getSettings( final IWayPoint<ICar> p_waypoint )
+    {
+        return m_settings.get( p_waypoint );
+    }
+
+    @Override
+    public final boolean remove( final Object p_object )
+    {
+        m_settings.remove( p_object );
+        return super.remove( p_object );
+    }
 
     @Override
     public final void afterStepObject( final int p_currentstep, final IWayPoint<ICar> p_object )
@@ -56,6 +99,21 @@ public final class CCarWayPointLayer extends IMultiLayer<IWayPoint<ICar>>
         return 300;
     }
 
+    @Override
+    public final Set<EResource> getReadResources()
+    {
+        // routing of the new cars uses the edge occupancy
+        return EnumSet.of( EResource.Cars );
+    }
+
+    @Override
+    public final Set<EResource> getWriteResources()
+    {
+        // new cars allocate store slots and are added to the car layer, cars with an agent create the agent,
+        // which registers it at the message system
+        return EnumSet.of( EResource.CarSources, EResource.Cars, EResource.Agents, EResource.Messages );
+    }
+
     @Override
     public final void release()
     {
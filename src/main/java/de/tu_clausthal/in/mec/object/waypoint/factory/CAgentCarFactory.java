@@ -24,16 +24,14 @@
 
 package de.tu_clausthal.in.mec.object.waypoint.factory;
 
-import com.graphhopper.util.EdgeIteratorState;
 import de.tu_clausthal.in.mec.CLogger;
 import de.tu_clausthal.in.mec.common.CCommon;
 import de.tu_clausthal.in.mec.object.car.ICar;
 import de.tu_clausthal.in.mec.object.car.graph.CGraphHopper;
+import de.tu_clausthal.in.mec.object.car.graph.CRoute;
 import de.tu_clausthal.in.mec.object.mas.EAgentLanguages;
-import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.math3.distribution.AbstractRealDistribution;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -94,7 +92,7 @@ public final class CAgentCarFactory extends CDefaultCarFactory
     }
 
     @Override
-    protected ICar getCar( final ArrayList<Pair<EdgeIteratorState, Integer>> p_cells )
+    protected ICar getCar( final CRoute p_cells )
     {
         try
         {
@@ -24,15 +24,13 @@
 
 package de.tu_clausthal.in.mec.object.waypoint.factory;
 
-import com.graphhopper.util.EdgeIteratorState;
 import de.tu_clausthal.in.mec.CLogger;
 import de.tu_clausthal.in.mec.common.CCommon;
 import de.tu_clausthal.in.mec.object.car.ICar;
 import de.tu_clausthal.in.mec.object.car.graph.CGraphHopper;
-import org.apache.commons.lang3.tuple.Pair;
+import de.tu_clausthal.in.mec.object.car.graph.CRoute;
 import org.apache.commons.math3.distribution.AbstractRealDistribution;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -112,7 +110,7 @@ public class CDefaultCarFactory extends ICarFactory
     }
 
     @Override
-    protected ICar getCar( final ArrayList<Pair<EdgeIteratorState, Integer>> p_cells )
+    protected ICar getCar( final CRoute p_cells )
     {
         try
         {
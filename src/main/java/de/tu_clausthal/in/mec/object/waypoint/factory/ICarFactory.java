@@ -24,10 +24,10 @@
 
 package de.tu_clausthal.in.mec.object.waypoint.factory;
 
-import com.graphhopper.util.EdgeIteratorState;
 import de.tu_clausthal.in.mec.object.car.CCarLayer;
 import de.tu_clausthal.in.mec.object.car.ICar;
 import de.tu_clausthal.in.mec.object.car.graph.CGraphHopper;
+import de.tu_clausthal.in.mec.object.car.graph.CRoute;
 import de.tu_clausthal.in.mec.runtime.CSimulation;
 import de.tu_clausthal.in.mec.ui.IInspectorDefault;
 import org.apache.commons.lang3.tuple.Pair;
@@ -35,8 +35,7 @@ import org.jxmapviewer.viewer.GeoPosition;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.List;
+import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -78,14 +77,24 @@ public abstract class ICarFactory extends IInspectorDefault implements IFactory<
         m_weight = p_weight;
     }
 
+    /**
+     * @note on a fixed seed the cars are generated sequentially, so the distribution samples are drawn
+     * in a reproducible order, the routing and the parallel stream run on the thread-pool of the simulation,
+     * because the cars resolve their layer with the simulation of the thread
+     */
     @Override
     public Set<ICar> generate( final Collection<Pair<GeoPosition, GeoPosition>> p_waypoints, final int p_count )
     {
-        final ArrayList<Pair<EdgeIteratorState, Integer>> l_cells = this.generateRouteCells( p_waypoints );
-        return IntStream.range( 0, p_count )
-                        .parallel()
-                        .mapToObj( i -> this.getCar( l_cells ) )
-                        .collect( Collectors.toCollection( () -> new HashSet<ICar>() ) );
+        final CSimulation l_simulation = CSimulation.getInstance();
+        return l_simulation.parallel(
+                () -> {
+                    final CRoute l_cells = this.generateRouteCells( p_waypoints );
+                    final IntStream l_stream = IntStream.range( 0, p_count );
+                    return ( l_simulation.getSeed().isFixed() ? l_stream : l_stream.parallel() )
+                            .mapToObj( i -> this.getCar( l_cells ) )
+                            .collect( Collectors.toCollection( () -> new LinkedHashSet<ICar>() ) );
+                }
+        );
     }
 
     /**
@@ -94,19 +103,15 @@ public abstract class ICarFactory extends IInspectorDefault implements IFactory<
      * @param p_waypoints waypoint pair list
      * @return cell list
      *
-     * @bug run in parallel with stream
+     * @note the routes of the waypoint pairs are calculated as one batch in parallel and read from the route cache of the graph
      */
-    protected final ArrayList<Pair<EdgeIteratorState, Integer>> generateRouteCells( final Collection<Pair<GeoPosition, GeoPosition>> p_waypoints )
+    protected final CRoute generateRouteCells( final Collection<Pair<GeoPosition, GeoPosition>> p_waypoints )
     {
-        final ArrayList<Pair<EdgeIteratorState, Integer>> l_cells = new ArrayList<>();
-        for ( final Pair<GeoPosition, GeoPosition> l_point : p_waypoints )
-        {
-            final List<List<EdgeIteratorState>> l_route = m_graph.getRoutes( l_point.getLeft(), l_point.getRight(), m_weight, 1 );
-            if ( l_route.size() > 0 )
-                l_cells.addAll( m_graph.getRouteCells( l_route.get( 0 ) ) );
-        }
+        CRoute l_cells = null;
+        for ( final CRoute l_route : m_graph.getRoutes( new ArrayList<>( p_waypoints ), m_weight ) )
+            l_cells = l_cells == null ? l_route : l_cells.append( l_route );
 
-        return l_cells;
+        return l_cells == null ? new CRoute( new int[0], new int[0] ) : l_cells;
     }
 
     /**
@@ -115,6 +120,6 @@ public abstract class ICarFactory extends IInspectorDefault implements IFactory<
      * @param p_cells cell list
      * @return car object
      */
-    protected abstract ICar getCar( final ArrayList<Pair<EdgeIteratorState, Integer>> p_cells );
+    protected abstract ICar getCar( final CRoute p_cells );
 
 }
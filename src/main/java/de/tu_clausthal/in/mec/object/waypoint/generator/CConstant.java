@@ -92,6 +92,16 @@ public final class CConstant extends IInspectorDefault implements IGenerator
         return 0;
     }
 
+    @Override
+    public int getNextStep( final int p_currentStep )
+    {
+        if ( p_currentStep < m_startstep )
+            return m_startstep;
+        if ( p_currentStep < m_endstep )
+            return p_currentStep + 1;
+        return Integer.MAX_VALUE;
+    }
+
 
     @Override
     public Map<String, Object> inspect()
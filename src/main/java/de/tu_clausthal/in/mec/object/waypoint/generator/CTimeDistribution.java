@@ -77,6 +77,15 @@ public final class CTimeDistribution extends IInspectorDefault implements IGener
         return m_distribution.sample() <= m_distribution.getNumericalMean() ? 0 : m_count;
     }
 
+    /**
+     * @note the distribution is sampled on each step, so the next step cannot be skipped
+     */
+    @Override
+    public int getNextStep( final int p_currentStep )
+    {
+        return m_distribution == null ? Integer.MAX_VALUE : p_currentStep + 1;
+    }
+
     @Override
     public Map<String, Object> inspect()
     {
@@ -69,6 +69,15 @@ public final class CTimeProfile extends IInspectorDefault implements IGenerator
         return m_histogram[p_currentStep % m_histogram.length];
     }
 
+    @Override
+    public int getNextStep( final int p_currentStep )
+    {
+        for ( int i = 1; i <= m_histogram.length; i++ )
+            if ( m_histogram[( p_currentStep + i ) % m_histogram.length] != 0 )
+                return p_currentStep + i;
+        return Integer.MAX_VALUE;
+    }
+
     @Override
     public Map<String, Object> inspect()
     {
@@ -41,4 +41,12 @@ public interface IGenerator extends IInspector
      */
     int getCount( final int p_currentStep );
 
+    /**
+     * returns the next step, on which objects can be generated
+     *
+     * @param p_currentStep current step
+     * @return next step or Integer.MAX_VALUE if no objects will be generated anymore
+     */
+    int getNextStep( final int p_currentStep );
+
 }
@@ -28,6 +28,7 @@ package de.tu_clausthal.in.mec.object.waypoint.point;
 import de.tu_clausthal.in.mec.common.CCommon;
 import de.tu_clausthal.in.mec.object.waypoint.factory.IFactory;
 import de.tu_clausthal.in.mec.object.waypoint.generator.IGenerator;
+import de.tu_clausthal.in.mec.runtime.CSimulation;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.jxmapviewer.viewer.GeoPosition;
@@ -60,7 +61,7 @@ public abstract class IRandomWayPoint<T, P extends IFactory<T>, N extends IGener
     /**
      * random interface
      */
-    private final Random m_random = new Random();
+    private final Random m_random = CSimulation.getInstance().getSeed().getRandom();
 
     /**
      * ctor
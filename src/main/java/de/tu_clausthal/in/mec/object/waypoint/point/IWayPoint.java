@@ -68,6 +68,14 @@ public interface IWayPoint<T> extends IReturnSteppable<T>, Painter<COSMViewer>
      */
     public GeoPosition getPosition();
 
+    /**
+     * returns the next step, on which the waypoint can create objects
+     *
+     * @param p_currentstep current step
+     * @return next step or Integer.MAX_VALUE if no objects will be created anymore
+     */
+    public int getNextStep( final int p_currentstep );
+
     /**
      * checks if a generator and factory exists
      *
@@ -27,6 +27,7 @@ package de.tu_clausthal.in.mec.object.waypoint.point;
 import de.tu_clausthal.in.mec.CLogger;
 import de.tu_clausthal.in.mec.common.CCommon;
 import de.tu_clausthal.in.mec.object.ILayer;
+import de.tu_clausthal.in.mec.object.IMultiLayer;
 import de.tu_clausthal.in.mec.object.waypoint.factory.IFactory;
 import de.tu_clausthal.in.mec.object.waypoint.generator.IGenerator;
 import de.tu_clausthal.in.mec.runtime.CSimulation;
@@ -38,7 +39,6 @@ import org.jxmapviewer.JXMapViewer;
 import org.jxmapviewer.viewer.DefaultWaypointRenderer;
 import org.jxmapviewer.viewer.GeoPosition;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.event.MouseEvent;
 import java.awt.geom.Ellipse2D;
@@ -47,6 +47,7 @@ import java.awt.image.BufferedImage;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import javax.imageio.ImageIO;
 
 
 /**
@@ -229,6 +230,12 @@ public abstract class IWayPointBase<T, P extends IFactory<T>, N extends IGenerat
         p_graphic.drawImage( m_scaledimage, (int) l_point.getX() - m_scaledimage.getWidth() / 2, (int) l_point.getY() - m_scaledimage.getHeight(), null );
     }
 
+    @Override
+    public int getNextStep( final int p_currentstep )
+    {
+        return this.hasFactoryGenerator() ? m_generator.getNextStep( p_currentstep ) : Integer.MAX_VALUE;
+    }
+
     @Override
     @IBenchmark
     public Collection<T> step( final int p_currentstep, final ILayer p_layer ) throws Exception
@@ -236,7 +243,17 @@ public abstract class IWayPointBase<T, P extends IFactory<T>, N extends IGenerat
         if ( !this.hasFactoryGenerator() )
             return null;
 
-        return m_factory.generate( this.getPath(), m_generator.getCount( p_currentstep ) );
+        // a waypoint without objects is idle until the generator creates objects again
+        final int l_count = m_generator.getCount( p_currentstep );
+        if ( l_count == 0 )
+        {
+            final int l_next = this.getNextStep( p_currentstep );
+            if ( ( l_next > p_currentstep + 1 ) && ( p_layer instanceof IMultiLayer ) )
+                ( (IMultiLayer) p_layer ).sleep( this, l_next );
+            return null;
+        }
+
+        return m_factory.generate( this.getPath(), l_count );
     }
 
     /**
@@ -0,0 +1,127 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.object.world;
+
+import de.tu_clausthal.in.mec.object.EResource;
+import de.tu_clausthal.in.mec.object.ILayer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+
+/**
+ * dependency graph (DAG) of the layers, a layer depends on each layer with a lower
+ * calculation index if one of them writes a resource which is read or written by the other,
+ * so the calculation order is kept for all real dependencies
+ */
+public final class CLayerGraph
+{
+    /**
+     * ordered layer
+     */
+    private final List<ILayer> m_layer;
+    /**
+     * indices of the direct predecessors of each layer
+     */
+    private final int[][] m_predecessor;
+
+
+    /**
+     * ctor
+     *
+     * @param p_layer layer list ordered by the calculation index
+     */
+    public CLayerGraph( final List<ILayer> p_layer )
+    {
+        m_layer = Collections.unmodifiableList( new ArrayList<>( p_layer ) );
+        m_predecessor = new int[m_layer.size()][];
+
+        final List<Set<EResource>> l_read = new ArrayList<>( m_layer.size() );
+        final List<Set<EResource>> l_write = new ArrayList<>( m_layer.size() );
+        for ( final ILayer l_layer : m_layer )
+        {
+            l_read.add( l_layer.getReadResources() );
+            l_write.add( l_layer.getWriteResources() );
+        }
+
+        for ( int i = 0; i < m_layer.size(); i++ )
+        {
+            final List<Integer> l_predecessor = new ArrayList<>();
+            for ( int j = 0; j < i; j++ )
+                if ( ( intersects( l_write.get( j ), l_read.get( i ) ) ) || ( intersects( l_write.get( j ), l_write.get( i ) ) ) ||
+                     ( intersects( l_write.get( i ), l_read.get( j ) ) ) )
+                    l_predecessor.add( j );
+
+            m_predecessor[i] = l_predecessor.stream().mapToInt( Integer::intValue ).toArray();
+        }
+    }
+
+    /**
+     * returns the layer
+     *
+     * @param p_index index
+     * @return layer
+     */
+    public final ILayer get( final int p_index )
+    {
+        return m_layer.get( p_index );
+    }
+
+    /**
+     * returns the indices of the layer, which must be finished before the layer is run
+     *
+     * @param p_index index
+     * @return predecessor indices
+     */
+    public final int[] getPredecessors( final int p_index )
+    {
+        return m_predecessor[p_index];
+    }
+
+    /**
+     * returns the number of layer
+     *
+     * @return size
+     */
+    public final int size()
+    {
+        return m_layer.size();
+    }
+
+    /**
+     * checks if two resource sets intersect
+     *
+     * @param p_first first set
+     * @param p_second second set
+     * @return intersection flag
+     */
+    private static boolean intersects( final Set<EResource> p_first, final Set<EResource> p_second )
+    {
+        return !Collections.disjoint( p_first, p_second );
+    }
+
+}
@@ -0,0 +1,756 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.runtime;
+
+import com.graphhopper.storage.GraphHopperStorage;
+import com.graphhopper.util.EdgeIteratorState;
+import de.tu_clausthal.in.mec.CLogger;
+import de.tu_clausthal.in.mec.common.CCommon;
+import de.tu_clausthal.in.mec.common.CPath;
+import de.tu_clausthal.in.mec.object.car.CCarJasonAgent;
+import de.tu_clausthal.in.mec.object.car.CCarLayer;
+import de.tu_clausthal.in.mec.object.car.CDefaultCar;
+import de.tu_clausthal.in.mec.object.car.ICar;
+import de.tu_clausthal.in.mec.object.car.graph.CEdge;
+import de.tu_clausthal.in.mec.object.car.graph.CRoute;
+import de.tu_clausthal.in.mec.object.mas.jason.CAgent;
+import de.tu_clausthal.in.mec.object.waypoint.CCarWayPointLayer;
+import de.tu_clausthal.in.mec.object.waypoint.point.IWayPoint;
+import de.tu_clausthal.in.mec.runtime.message.CMessage;
+import de.tu_clausthal.in.mec.runtime.message.IMessage;
+import de.tu_clausthal.in.mec.ui.CWaypointEnvironment;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.jxmapviewer.viewer.GeoPosition;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * binary checkpoint of the simulation, the file stores the step counter, the cars with their
+ * route, route index, speed, edge occupancy and random sequence, the agent beliefs, the waypoints
+ * and the pending messages, the file is written through a buffered channel and read with
+ * memory-mapped buffers
+ *
+ * @note routes are stored as edge list, because the cells of an edge are always traversed in order
+ */
+public final class CCheckpoint
+{
+    /**
+     * magic number of the file format ("MECS")
+     */
+    private static final int c_magic = 0x4d454353;
+    /**
+     * version of the file format
+     */
+    private static final int c_version = 2;
+    /**
+     * size of a mapped region
+     */
+    private static final int c_mapsize = 64 * 1024 * 1024;
+    /**
+     * size of the write buffer
+     */
+    private static final int c_buffersize = 1024 * 1024;
+    /**
+     * type ID of a default car
+     */
+    private static final byte c_defaultcar = 0;
+    /**
+     * type ID of an agent car
+     */
+    private static final byte c_agentcar = 1;
+    /**
+     * checkpoint file
+     */
+    private final File m_file;
+
+    /**
+     * ctor
+     *
+     * @param p_file checkpoint file
+     */
+    public CCheckpoint( final File p_file )
+    {
+        m_file = p_file;
+    }
+
+    /**
+     * writes the checkpoint
+     *
+     * @param p_step current simulation step
+     * @param p_objectcounter object counter
+     * @throws IOException thrown on writing error
+     */
+    public final void store( final int p_step, final long p_objectcounter ) throws IOException
+    {
+        final CCarLayer l_layer = CSimulation.getInstance().getWorld().<CCarLayer>getTyped( "Cars" );
+
+        try (
+                final CWriter l_output = new CWriter( m_file );
+        )
+        {
+            l_output.putInt( c_magic );
+            l_output.putInt( c_version );
+            l_output.putInt( l_layer.getGraph().getGraphHopperStorage().getAllEdges().getMaxId() );
+            l_output.putInt( p_step );
+            l_output.putLong( p_objectcounter );
+            l_output.putLong( l_layer.getStore().getSeedState() );
+
+            final int l_cars = this.storeCars( l_output, l_layer );
+            final int l_waypoints = this.storeWaypoints( l_output );
+            final int l_messages = this.storeMessages( l_output );
+
+            CLogger.info( CCommon.getResourceString( this, "stored", m_file, l_cars, l_waypoints, l_messages ) );
+        }
+    }
+
+    /**
+     * reads the checkpoint, the simulation must be reset before
+     *
+     * @return pair of simulation step and object counter
+     * @throws IOException thrown on reading error
+     * @throws ClassNotFoundException thrown on deserialization error of message data
+     */
+    public final Pair<Integer, Long> load() throws IOException, ClassNotFoundException
+    {
+        final CCarLayer l_layer = CSimulation.getInstance().getWorld().<CCarLayer>getTyped( "Cars" );
+
+        try (
+                final CReader l_input = new CReader( m_file );
+        )
+        {
+            if ( ( l_input.getInt() != c_magic ) || ( l_input.getInt() != c_version ) )
+                throw new IOException( CCommon.getResourceString( this, "format", m_file ) );
+            if ( l_input.getInt() != l_layer.getGraph().getGraphHopperStorage().getAllEdges().getMaxId() )
+                throw new IOException( CCommon.getResourceString( this, "graph", m_file ) );
+
+            final Pair<Integer, Long> l_state = new ImmutablePair<>( l_input.getInt(), l_input.getLong() );
+            final long l_seed = l_input.getLong();
+
+            // the restored cars draw their seeds from the store, so the seed state is set afterwards
+            final int l_cars = this.loadCars( l_input, l_layer );
+            l_layer.getStore().setSeedState( l_seed );
+            final int l_waypoints = this.loadWaypoints( l_input );
+            final int l_messages = this.loadMessages( l_input );
+
+            CLogger.info( CCommon.getResourceString( this, "loaded", m_file, l_cars, l_waypoints, l_messages ) );
+            return l_state;
+        }
+    }
+
+    /**
+     * writes the cars
+     *
+     * @param p_output output
+     * @param p_layer car layer
+     * @return number of cars
+     * @throws IOException thrown on writing error
+     */
+    private int storeCars( final CWriter p_output, final CCarLayer p_layer ) throws IOException
+    {
+        final List<CDefaultCar> l_cars = new ArrayList<>( p_layer.size() );
+        for ( final ICar l_car : p_layer )
+            if ( ( l_car instanceof CDefaultCar ) && ( !l_car.hasEndReached() ) )
+                l_cars.add( (CDefaultCar) l_car );
+
+        p_output.putInt( l_cars.size() );
+        for ( final CDefaultCar l_car : l_cars )
+        {
+            p_output.putByte( l_car instanceof CCarJasonAgent ? c_agentcar : c_defaultcar );
+
+            // only the edges of the route are stored
+            final CRoute l_route = l_car.getRoute();
+            p_output.putInt( l_route.getNumberOfEdges() );
+            for ( int j = 0; j < l_route.getNumberOfEdges(); j++ )
+            {
+                final EdgeIteratorState l_edge = p_layer.getGraph().getEdge( l_route.getEdgeIDOfIndex( j ) ).getEdgeState();
+                p_output.putInt( l_edge.getEdge() );
+                p_output.putInt( l_edge.getAdjNode() );
+            }
+
+            final CEdge<ICar, ?> l_edge = l_car.getEdge() == null ? null : p_layer.getGraph().getEdge( l_car.getEdge() );
+            p_output.putInt( l_car.getRouteIndex() );
+            p_output.putByte( (byte) ( ( l_edge != null ) && ( l_edge.contains( l_car, l_route.getPosition( l_car.getRouteIndex() ) ) ) ? 1 : 0 ) );
+            p_output.putInt( l_car.getCurrentSpeed() );
+            p_output.putInt( l_car.getMaximumSpeed() );
+            p_output.putInt( l_car.getAcceleration() );
+            p_output.putInt( l_car.getDeceleration() );
+            p_output.putDouble( l_car.getLingerProbability() );
+            p_output.putLong( p_layer.getStore().getRandomState( l_car.getSlot() ) );
+
+            if ( l_car instanceof CCarJasonAgent )
+                this.storeAgents( p_output, (CCarJasonAgent) l_car );
+        }
+
+        return l_cars.size();
+    }
+
+    /**
+     * writes the agents of an agent car
+     *
+     * @param p_output output
+     * @param p_car agent car
+     * @throws IOException thrown on writing error
+     */
+    private void storeAgents( final CWriter p_output, final CCarJasonAgent p_car ) throws IOException
+    {
+        p_output.putString( p_car.getReceiverPath().getSuffix() );
+        p_output.putInt( p_car.getAgents().size() );
+        for ( final CAgent<?> l_agent : p_car.getAgents() )
+        {
+            final List<String> l_beliefs = l_agent.getBeliefs();
+            p_output.putString( l_agent.getSource() );
+            p_output.putInt( l_beliefs.size() );
+            for ( final String l_belief : l_beliefs )
+                p_output.putString( l_belief );
+        }
+    }
+
+    /**
+     * writes the waypoints, which are created by the UI
+     *
+     * @param p_output output
+     * @return number of waypoints
+     * @throws IOException thrown on writing error
+     */
+    private int storeWaypoints( final CWriter p_output ) throws IOException
+    {
+        final CCarWayPointLayer l_layer = CSimulation.getInstance().getWorld().<CCarWayPointLayer>getTyped( "Car WayPoints" );
+        final List<Pair<IWayPoint<ICar>, Map<String, Object>>> l_waypoints = new LinkedList<>();
+        for ( final IWayPoint<ICar> l_waypoint : l_layer )
+        {
+            final Map<String, Object> l_settings = l_layer.getSettings( l_waypoint );
+            if ( l_settings == null )
+                CLogger.warn( CCommon.getResourceString( this, "waypointskipped", l_waypoint.getName() ) );
+            else
+                l_waypoints.add( new ImmutablePair<>( l_waypoint, l_settings ) );
+        }
+
+        p_output.putInt( l_waypoints.size() );
+        for ( final Pair<IWayPoint<ICar>, Map<String, Object>> l_waypoint : l_waypoints )
+        {
+            p_output.putDouble( l_waypoint.getLeft().getPosition().getLatitude() );
+            p_output.putDouble( l_waypoint.getLeft().getPosition().getLongitude() );
+            p_output.putString( CCommon.toJson( l_waypoint.getRight() ) );
+        }
+
+        return l_waypoints.size();
+    }
+
+    /**
+     * writes the pending messages, message data must be serializable
+     *
+     * @param p_output output
+     * @return number of messages
+     * @throws IOException thrown on writing error
+     */
+    private int storeMessages( final CWriter p_output ) throws IOException
+    {
+        final List<Pair<CPath, IMessage<?>>> l_messages = new LinkedList<>();
+        for ( final Pair<CPath, IMessage<?>> l_message : CSimulation.getInstance().getMessageSystem().getPendingMessages() )
+            if ( ( l_message.getRight().getData() == null ) || ( l_message.getRight().getData() instanceof Serializable ) )
+                l_messages.add( l_message );
+            else
+                CLogger.warn( CCommon.getResourceString( this, "messageskipped", l_message.getRight().getTitle(), l_message.getLeft() ) );
+
+        p_output.putInt( l_messages.size() );
+        for ( final Pair<CPath, IMessage<?>> l_message : l_messages )
+        {
+            p_output.putString( l_message.getLeft().getPath() );
+            p_output.putString( l_message.getRight().getSource().getPath() );
+            p_output.putString( l_message.getRight().getTitle() );
+
+            if ( l_message.getRight().getData() == null )
+            {
+                p_output.putInt( -1 );
+                continue;
+            }
+
+            final ByteArrayOutputStream l_data = new ByteArrayOutputStream();
+            try (
+                    final ObjectOutputStream l_stream = new ObjectOutputStream( l_data );
+            )
+            {
+                l_stream.writeObject( l_message.getRight().getData() );
+            }
+            p_output.putBytes( l_data.toByteArray() );
+        }
+
+        return l_messages.size();
+    }
+
+    /**
+     * reads the cars and places them on the edges
+     *
+     * @param p_input input
+     * @param p_layer car layer
+     * @return number of cars
+     * @throws IOException thrown on reading error
+     */
+    private int loadCars( final CReader p_input, final CCarLayer p_layer ) throws IOException
+    {
+        final GraphHopperStorage l_graph = p_layer.getGraph().getGraphHopperStorage();
+        final int l_count = p_input.getInt();
+        final List<ICar> l_cars = new ArrayList<>( l_count );
+
+        for ( int i = 0; i < l_count; i++ )
+        {
+            final byte l_type = p_input.getByte();
+
+            final List<EdgeIteratorState> l_edges = new ArrayList<>();
+            for ( int j = p_input.getInt(); j > 0; j-- )
+            {
+                final int l_edge = p_input.getInt();
+                l_edges.add( l_graph.getEdgeIteratorState( l_edge, p_input.getInt() ) );
+            }
+            final CRoute l_route = p_layer.getGraph().getRouteCells( l_edges );
+
+            final int l_routeindex = p_input.getInt();
+            final boolean l_placed = p_input.getByte() != 0;
+            final int l_speed = p_input.getInt();
+            final int l_maxspeed = p_input.getInt();
+            final int l_acceleration = p_input.getInt();
+            final int l_deceleration = p_input.getInt();
+            final double l_lingerprobability = p_input.getDouble();
+            final long l_random = p_input.getLong();
+
+            final CDefaultCar l_car = c_agentcar == l_type
+                                      ? this.loadAgents(
+                    p_input, l_route, l_routeindex, l_speed, l_maxspeed, l_acceleration, l_deceleration, l_lingerprobability
+            )
+                                      : new CDefaultCar( l_route, l_routeindex, l_speed, l_maxspeed, l_acceleration, l_deceleration, l_lingerprobability );
+            p_layer.getStore().setRandomState( l_car.getSlot(), l_random );
+
+            if ( l_placed )
+                try
+                {
+                    l_car.place();
+                }
+                catch ( final IllegalAccessException l_exception )
+                {
+                    CLogger.warn( l_exception );
+                }
+
+            l_cars.add( l_car );
+        }
+
+        p_layer.push( l_cars );
+        return l_cars.size();
+    }
+
+    /**
+     * reads an agent car and the beliefs of its agents
+     *
+     * @param p_input input
+     * @param p_route route
+     * @param p_routeindex route index
+     * @param p_speed speed
+     * @param p_maxspeed maximum speed
+     * @param p_acceleration acceleration
+     * @param p_deceleration deceleration
+     * @param p_lingerprobability linger probability
+     * @return agent car
+     * @throws IOException thrown on reading or agent error
+     */
+    private CCarJasonAgent loadAgents( final CReader p_input, final CRoute p_route, final int p_routeindex,
+            final int p_speed, final int p_maxspeed, final int p_acceleration, final int p_deceleration, final double p_lingerprobability
+    ) throws IOException
+    {
+        final String l_name = p_input.getString();
+        final Map<String, List<String>> l_beliefs = new HashMap<>();
+        for ( int i = p_input.getInt(); i > 0; i-- )
+        {
+            final String l_source = p_input.getString();
+            final List<String> l_literals = new LinkedList<>();
+            for ( int j = p_input.getInt(); j > 0; j-- )
+                l_literals.add( p_input.getString() );
+            l_beliefs.put( l_source, l_literals );
+        }
+
+        try
+        {
+            final Set<String> l_sources = new HashSet<>( l_beliefs.keySet() );
+            final CCarJasonAgent l_car = new CCarJasonAgent(
+                    p_route, p_routeindex, p_speed, p_maxspeed, p_acceleration, p_deceleration, p_lingerprobability, l_name, l_sources
+            );
+            for ( final CAgent<?> l_agent : l_car.getAgents() )
+                l_agent.addBeliefs( l_beliefs.getOrDefault( l_agent.getSource(), new LinkedList<>() ) );
+            return l_car;
+        }
+        catch ( final Exception l_exception )
+        {
+            throw new IOException( l_exception );
+        }
+    }
+
+    /**
+     * reads the waypoints
+     *
+     * @param p_input input
+     * @return number of waypoints
+     * @throws IOException thrown on reading error
+     */
+    @SuppressWarnings( "unchecked" )
+    private int loadWaypoints( final CReader p_input ) throws IOException
+    {
+        final CCarWayPointLayer l_layer = CSimulation.getInstance().getWorld().<CCarWayPointLayer>getTyped( "Car WayPoints" );
+        final int l_count = p_input.getInt();
+        for ( int i = 0; i < l_count; i++ )
+        {
+            final GeoPosition l_position = new GeoPosition( p_input.getDouble(), p_input.getDouble() );
+            final Map<String, Object> l_settings = CCommon.fromJson( p_input.getString() );
+            l_layer.add( (IWayPoint<ICar>) CWaypointEnvironment.createWaypoint( l_settings, l_position ), l_settings );
+        }
+        return l_count;
+    }
+
+    /**
+     * reads the pending messages and pushs them to the message system
+     *
+     * @param p_input input
+     * @return number of messages
+     * @throws IOException thrown on reading error
+     * @throws ClassNotFoundException thrown on deserialization error of message data
+     */
+    private int loadMessages( final CReader p_input ) throws IOException, ClassNotFoundException
+    {
+        final int l_count = p_input.getInt();
+        for ( int i = 0; i < l_count; i++ )
+        {
+            final CPath l_receiver = CPath.from( p_input.getString() );
+            final CPath l_source = CPath.from( p_input.getString() );
+            final String l_title = p_input.getString();
+            final byte[] l_data = p_input.getBytes();
+
+            Object l_object = null;
+            if ( l_data != null )
+                try (
+                        final ObjectInputStream l_stream = new ObjectInputStream( new ByteArrayInputStream( l_data ) );
+                )
+                {
+                    l_object = l_stream.readObject();
+                }
+
+            CSimulation.getInstance().getMessageSystem().pushMessage( l_receiver, new CMessage<>( l_source, l_title, l_object ) );
+        }
+        return l_count;
+    }
+
+
+    /**
+     * writer of a file, the values are collected within a buffer, which is written through the channel,
+     * so the file is not mapped and its size is not changed while a mapping exists
+     */
+    private static final class CWriter implements Closeable
+    {
+        /**
+         * file channel
+         */
+        private final FileChannel m_channel;
+        /**
+         * write buffer
+         */
+        private final ByteBuffer m_buffer = ByteBuffer.allocateDirect( c_buffersize );
+
+        /**
+         * ctor
+         *
+         * @param p_file file
+         * @throws IOException thrown on file error
+         */
+        public CWriter( final File p_file ) throws IOException
+        {
+            m_channel = FileChannel.open( p_file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING );
+        }
+
+        /**
+         * writes a byte
+         *
+         * @param p_value value
+         * @throws IOException thrown on writing error
+         */
+        public final void putByte( final byte p_value ) throws IOException
+        {
+            this.ensure( Byte.BYTES ).put( p_value );
+        }
+
+        /**
+         * writes an integer
+         *
+         * @param p_value value
+         * @throws IOException thrown on writing error
+         */
+        public final void putInt( final int p_value ) throws IOException
+        {
+            this.ensure( Integer.BYTES ).putInt( p_value );
+        }
+
+        /**
+         * writes a long
+         *
+         * @param p_value value
+         * @throws IOException thrown on writing error
+         */
+        public final void putLong( final long p_value ) throws IOException
+        {
+            this.ensure( Long.BYTES ).putLong( p_value );
+        }
+
+        /**
+         * writes a double
+         *
+         * @param p_value value
+         * @throws IOException thrown on writing error
+         */
+        public final void putDouble( final double p_value ) throws IOException
+        {
+            this.ensure( Double.BYTES ).putDouble( p_value );
+        }
+
+        /**
+         * writes a byte array with its length, an array, which is larger than the buffer, is written directly
+         *
+         * @param p_value value
+         * @throws IOException thrown on writing error
+         */
+        public final void putBytes( final byte[] p_value ) throws IOException
+        {
+            this.putInt( p_value.length );
+            if ( p_value.length <= m_buffer.capacity() )
+            {
+                this.ensure( p_value.length ).put( p_value );
+                return;
+            }
+
+            this.flush();
+            for ( final ByteBuffer l_value = ByteBuffer.wrap( p_value ); l_value.hasRemaining(); )
+                m_channel.write( l_value );
+        }
+
+        /**
+         * writes an UTF-8 string
+         *
+         * @param p_value value
+         * @throws IOException thrown on writing error
+         */
+        public final void putString( final String p_value ) throws IOException
+        {
+            this.putBytes( p_value.getBytes( StandardCharsets.UTF_8 ) );
+        }
+
+        @Override
+        public final void close() throws IOException
+        {
+            try
+            {
+                this.flush();
+                m_channel.force( false );
+            }
+            finally
+            {
+                m_channel.close();
+            }
+        }
+
+        /**
+         * writes the buffer, if it has not enough space
+         *
+         * @param p_size number of bytes
+         * @return buffer
+         * @throws IOException thrown on writing error
+         */
+        private ByteBuffer ensure( final int p_size ) throws IOException
+        {
+            if ( m_buffer.remaining() < p_size )
+                this.flush();
+            return m_buffer;
+        }
+
+        /**
+         * writes the content of the buffer through the channel
+         *
+         * @throws IOException thrown on writing error
+         */
+        private void flush() throws IOException
+        {
+            m_buffer.flip();
+            while ( m_buffer.hasRemaining() )
+                m_channel.write( m_buffer );
+            m_buffer.clear();
+        }
+    }
+
+
+    /**
+     * reader of a memory-mapped file, the file is mapped in regions
+     */
+    private static final class CReader implements Closeable
+    {
+        /**
+         * file channel
+         */
+        private final FileChannel m_channel;
+        /**
+         * current mapped region
+         */
+        private MappedByteBuffer m_buffer;
+        /**
+         * file position of the mapped region
+         */
+        private long m_offset;
+
+        /**
+         * ctor
+         *
+         * @param p_file file
+         * @throws IOException thrown on file error
+         */
+        public CReader( final File p_file ) throws IOException
+        {
+            m_channel = FileChannel.open( p_file.toPath(), StandardOpenOption.READ );
+            m_buffer = m_channel.map( FileChannel.MapMode.READ_ONLY, 0, Math.min( c_mapsize, m_channel.size() ) );
+        }
+
+        /**
+         * reads a byte
+         *
+         * @return value
+         * @throws IOException thrown on mapping error
+         */
+        public final byte getByte() throws IOException
+        {
+            return this.ensure( Byte.BYTES ).get();
+        }
+
+        /**
+         * reads an integer
+         *
+         * @return value
+         * @throws IOException thrown on mapping error
+         */
+        public final int getInt() throws IOException
+        {
+            return this.ensure( Integer.BYTES ).getInt();
+        }
+
+        /**
+         * reads a long
+         *
+         * @return value
+         * @throws IOException thrown on mapping error
+         */
+        public final long getLong() throws IOException
+        {
+            return this.ensure( Long.BYTES ).getLong();
+        }
+
+        /**
+         * reads a double
+         *
+         * @return value
+         * @throws IOException thrown on mapping error
+         */
+        public final double getDouble() throws IOException
+        {
+            return this.ensure( Double.BYTES ).getDouble();
+        }
+
+        /**
+         * reads a byte array
+         *
+         * @return value or null if a negative length is stored
+         * @throws IOException thrown on mapping error
+         */
+        public final byte[] getBytes() throws IOException
+        {
+            final int l_length = this.getInt();
+            if ( l_length < 0 )
+                return null;
+
+            final byte[] l_value = new byte[l_length];
+            this.ensure( l_length ).get( l_value );
+            return l_value;
+        }
+
+        /**
+         * reads an UTF-8 string
+         *
+         * @return value
+         * @throws IOException thrown on mapping error
+         */
+        public final String getString() throws IOException
+        {
+            return new String( this.getBytes(), StandardCharsets.UTF_8 );
+        }
+
+        @Override
+        public final void close() throws IOException
+        {
+            m_buffer = null;
+            m_channel.close();
+        }
+
+        /**
+         * maps the next region, if the current region has not enough data
+         *
+         * @param p_size number of bytes
+         * @return buffer
+         * @throws IOException thrown on mapping or end-of-file error
+         */
+        private MappedByteBuffer ensure( final int p_size ) throws IOException
+        {
+            if ( m_buffer.remaining() >= p_size )
+                return m_buffer;
+
+            m_offset += m_buffer.position();
+            if ( m_offset + p_size > m_channel.size() )
+                throw new IOException( CCommon.getResourceString( CCheckpoint.class, "endoffile" ) );
+
+            m_buffer = m_channel.map( FileChannel.MapMode.READ_ONLY, m_offset, Math.min( Math.max( c_mapsize, p_size ), m_channel.size() - m_offset ) );
+            return m_buffer;
+        }
+    }
+
+}
@@ -0,0 +1,157 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.runtime;
+
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.RandomGeneratorFactory;
+
+import java.util.Random;
+
+
+/**
+ * seed of the random objects, the singleton is the master seed, which is set by the command line,
+ * each simulation gets an own seed of the master seed and all random objects of a simulation
+ * are created by the seed of the simulation, so a fixed seed creates reproducible random sequences
+ *
+ * @note the random objects are seeded in creation order, so a run is reproducible only
+ * if the objects are created and stepped in the same order
+ */
+public final class CSeed
+{
+    /**
+     * singleton instance
+     */
+    private static final CSeed c_instance = new CSeed();
+    /**
+     * random object to create the seeds of the random objects
+     */
+    private final Random m_seeds = new Random();
+    /**
+     * master seed
+     */
+    private long m_seed;
+    /**
+     * flag that the seed is set manually
+     */
+    private boolean m_fixed;
+
+    /**
+     * private ctor
+     */
+    private CSeed()
+    {
+        m_seed = m_seeds.nextLong();
+        m_seeds.setSeed( m_seed );
+    }
+
+    /**
+     * private ctor
+     *
+     * @param p_seed seed
+     * @param p_fixed flag that the seed is set manually
+     */
+    private CSeed( final long p_seed, final boolean p_fixed )
+    {
+        m_seed = p_seed;
+        m_fixed = p_fixed;
+        m_seeds.setSeed( p_seed );
+    }
+
+    /**
+     * returns the singleton instance
+     *
+     * @return seed object
+     */
+    public static CSeed getInstance()
+    {
+        return c_instance;
+    }
+
+    /**
+     * creates the seed of a simulation
+     *
+     * @return seed object, which uses the fixed seed or a seed of the random sequence
+     *
+     * @note on a fixed seed all simulations get the same seed, so a simulation is reproducible
+     * independent of the creation order of the simulations
+     */
+    public final synchronized CSeed create()
+    {
+        return m_fixed ? new CSeed( m_seed, true ) : new CSeed( m_seeds.nextLong(), false );
+    }
+
+    /**
+     * returns the seed
+     *
+     * @return seed
+     */
+    public final synchronized long getSeed()
+    {
+        return m_seed;
+    }
+
+    /**
+     * sets the seed
+     *
+     * @param p_seed seed
+     */
+    public final synchronized void setSeed( final long p_seed )
+    {
+        m_seed = p_seed;
+        m_fixed = true;
+        m_seeds.setSeed( p_seed );
+    }
+
+    /**
+     * checks if the seed is set manually
+     *
+     * @return fixed flag
+     */
+    public final synchronized boolean isFixed()
+    {
+        return m_fixed;
+    }
+
+    /**
+     * creates a new random object
+     *
+     * @return random object, which is seeded by the master seed
+     */
+    public final synchronized Random getRandom()
+    {
+        return new Random( m_seeds.nextLong() );
+    }
+
+    /**
+     * creates a new random generator for distributions
+     *
+     * @return random generator, which is seeded by the master seed
+     */
+    public final RandomGenerator getRandomGenerator()
+    {
+        return RandomGeneratorFactory.createRandomGenerator( this.getRandom() );
+    }
+
+}
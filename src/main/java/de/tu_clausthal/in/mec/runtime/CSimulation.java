@@ -29,33 +29,59 @@ import de.tu_clausthal.in.mec.CConfiguration;
 import de.tu_clausthal.in.mec.CLogger;
 import de.tu_clausthal.in.mec.common.CCommon;
 import de.tu_clausthal.in.mec.object.ILayer;
+import de.tu_clausthal.in.mec.object.car.CCarLayer;
+import de.tu_clausthal.in.mec.object.car.graph.CRouteBatchStatistic;
+import de.tu_clausthal.in.mec.object.car.graph.CRouteCache;
+import de.tu_clausthal.in.mec.object.waypoint.CCarWayPointLayer;
 import de.tu_clausthal.in.mec.object.world.CWorld;
 import de.tu_clausthal.in.mec.runtime.core.CMainLoop;
+import de.tu_clausthal.in.mec.runtime.core.CPipeline;
+import de.tu_clausthal.in.mec.runtime.core.EAgentExecutor;
+import de.tu_clausthal.in.mec.runtime.core.IStepBarrier;
+import de.tu_clausthal.in.mec.runtime.event.CEventEngine;
 import de.tu_clausthal.in.mec.runtime.message.CMessageSystem;
 import de.tu_clausthal.in.mec.ui.IViewableLayer;
+import org.apache.commons.lang3.tuple.Pair;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 
 /**
- * singleton object to performtemplate the simulation
+ * simulation context to performtemplate the simulation, the default simulation is a singleton, further
+ * independent simulations can be created, which share the read-only graph and the agent templates
+ *
+ * @note objects resolve their simulation with getInstance, which returns the simulation bound to the current
+ * thread, the main loop thread and all pool threads of a simulation are bound to it
  */
 public final class CSimulation
 {
 
+    /**
+     * simulation context of the current thread
+     */
+    private static final ThreadLocal<CSimulation> c_context = new InheritableThreadLocal<>();
     /**
      * singleton instance
      */
     private static final CSimulation c_instance = new CSimulation();
     /**
      * main loop
+     *
+     * @note on a fixed seed the main loop uses one worker thread, the shared agent executor and runs the layer in order,
+     * so the objects are stepped in a reproducible order
      */
-    private final CMainLoop m_mainloop = new CMainLoop( CConfiguration.getInstance().get().<Integer>get( "simulation/threadsleeptime" ) );
+    private final CMainLoop m_mainloop;
     /**
      * object of the thread loop *
      */
@@ -68,10 +94,18 @@ public final class CSimulation
      * object increment value - thread-safe
      */
     private final AtomicLong m_objectcounter = new AtomicLong( 0 );
+    /**
+     * counter of the object hash values on a fixed seed
+     */
+    private final AtomicLong m_hashcounter = new AtomicLong( 0 );
+    /**
+     * seed of the random objects of the simulation
+     */
+    private final CSeed m_seed = CSeed.getInstance().create();
     /**
      * random object
      */
-    private final Random m_random = new Random();
+    private final Random m_random = m_seed.getRandom();
     /**
      * global object storage
      */
@@ -80,27 +114,218 @@ public final class CSimulation
      * world of the simulation
      */
     private CWorld m_world = new CWorld();
+    /**
+     * layers with an explicit step phase, which are not moved by the phase spreading
+     */
+    private final Set<ILayer> m_fixedphase = ConcurrentHashMap.newKeySet();
     /**
      * performtemplate count - counts each start call
      */
     private int m_runs = 0;
+    /**
+     * key of the run, which is written with the evaluation data, or a negative value for the number of runs
+     */
+    private int m_runkey = -1;
 
     /**
      * private ctor
      */
     private CSimulation()
     {
-        CBootstrap.afterSimulationInit( this );
+        this( Runtime.getRuntime().availableProcessors() );
+    }
+
+    /**
+     * private ctor
+     *
+     * @param p_parallelism number of worker threads of the main loop
+     * @note the constructing thread is bound during the initialization, so the layers resolve this simulation
+     */
+    private CSimulation( final int p_parallelism )
+    {
+        final CSimulation l_previous = this.bind();
+        try
+        {
+            if ( m_seed.isFixed() )
+                CLogger.warn(
+                        CCommon.getResourceString(
+                                this, "fixedseed", p_parallelism,
+                                CConfiguration.getInstance().get().<String>get( "simulation/agentexecutor/current" ),
+                                CConfiguration.getInstance().get().<Boolean>get( "simulation/scheduler/concurrentlayer" ),
+                                CConfiguration.getInstance().get().<Number>get( "simulation/scheduler/deadline" ).longValue()
+                        )
+                );
+
+            m_mainloop = new CMainLoop(
+                    CConfiguration.getInstance().get().<Integer>get( "simulation/threadsleeptime" ),
+                    CMainLoop.EScheduler.valueOf( CConfiguration.getInstance().get().<String>get( "simulation/scheduler/current" ) ),
+                    m_seed.isFixed()
+                    ? EAgentExecutor.Shared
+                    : EAgentExecutor.valueOf( CConfiguration.getInstance().get().<String>get( "simulation/agentexecutor/current" ) ),
+                    this.getThreadFactory(),
+                    m_seed.isFixed() ? 1 : p_parallelism
+            );
+            m_mainloop.setStepTime( CConfiguration.getInstance().get().<Number>get( "simulation/traffic/timesampling" ).doubleValue() );
+            m_mainloop.setRealTimeFactor( CConfiguration.getInstance().get().<Number>get( "simulation/realtimefactor" ).doubleValue() );
+
+            // concurrent layers, partitions and step deadline are options of the invoke-all scheduler, the phase scheduler runs without them
+            if ( CMainLoop.EScheduler.Phase.equals( m_mainloop.getScheduler() ) )
+            {
+                if ( ( CConfiguration.getInstance().get().<Boolean>get( "simulation/scheduler/concurrentlayer" ) )
+                     || ( CConfiguration.getInstance().get().<Number>get( "simulation/scheduler/rebalance" ).intValue() != 0 )
+                     || ( CConfiguration.getInstance().get().<Number>get( "simulation/scheduler/deadline" ).longValue() != 0 ) )
+                    CLogger.warn(
+                            CCommon.getResourceString(
+                                    this, "phaseoption",
+                                    CConfiguration.getInstance().get().<Boolean>get( "simulation/scheduler/concurrentlayer" ),
+                                    CConfiguration.getInstance().get().<Number>get( "simulation/scheduler/rebalance" ).intValue(),
+                                    CConfiguration.getInstance().get().<Number>get( "simulation/scheduler/deadline" ).longValue()
+                            )
+                    );
+            }
+            else
+            {
+                m_mainloop.setConcurrentLayer(
+                        ( !m_seed.isFixed() ) && ( CConfiguration.getInstance().get().<Boolean>get( "simulation/scheduler/concurrentlayer" ) )
+                );
+                m_mainloop.setRebalance( CConfiguration.getInstance().get().<Number>get( "simulation/scheduler/rebalance" ).intValue() );
+                m_mainloop.setDeadline(
+                        m_seed.isFixed() ? 0 : CConfiguration.getInstance().get().<Number>get( "simulation/scheduler/deadline" ).longValue()
+                );
+            }
+            if ( CConfiguration.getInstance().get().<Number>get( "simulation/scheduler/pipelinelag" ).intValue() > 0 )
+                m_mainloop.setPipeline( new CPipeline( CConfiguration.getInstance().get().<Number>get( "simulation/scheduler/pipelinelag" ).intValue() ) );
+            CBootstrap.afterSimulationInit( this );
+
+            // the event engine moves the cars sequentially, so partitioned or double-buffered cars are stepped
+            if ( CConfiguration.getInstance().get().<Boolean>get( "simulation/scheduler/eventdriven" ) )
+            {
+                final CCarLayer l_cars = m_world.<CCarLayer>getTyped( "Cars" );
+                if ( ( l_cars.isPartitioned() ) || ( l_cars.getGraph().isDoubleBuffered() ) )
+                    CLogger.warn( CCommon.getResourceString( this, "eventdriven" ) );
+                else
+                    m_mainloop.setEventEngine( new CEventEngine( l_cars, m_world.<CCarWayPointLayer>getTyped( "Car WayPoints" ), m_messagesystem ) );
+            }
+        }
+        finally
+        {
+            c_context.set( l_previous );
+        }
     }
 
     /**
-     * returns the singelton instance
+     * returns the simulation of the current thread
      *
-     * @return simulation object
+     * @return simulation object, the default simulation if the thread is not bound
      */
     public static CSimulation getInstance()
     {
-        return c_instance;
+        final CSimulation l_context = c_context.get();
+        return l_context == null ? c_instance : l_context;
+    }
+
+    /**
+     * creates an independent simulation, e.g. for replications of a scenario
+     * within one process, the graph storage and agent templates are shared
+     *
+     * @return new simulation object
+     */
+    public static CSimulation create()
+    {
+        return new CSimulation();
+    }
+
+    /**
+     * creates an independent simulation with a fixed number of worker threads,
+     * e.g. for concurrent runs, which share the cores
+     *
+     * @param p_parallelism number of worker threads of the main loop
+     * @return new simulation object
+     */
+    public static CSimulation create( final int p_parallelism )
+    {
+        return new CSimulation( Math.max( 1, p_parallelism ) );
+    }
+
+    /**
+     * runs a call with the current thread bound to the simulation, so
+     * objects which are created by the call resolve this simulation
+     *
+     * @param p_call call
+     * @return return value of the call
+     *
+     * @throws Exception on call error
+     * @tparam T return type
+     */
+    public final <T> T call( final Callable<T> p_call ) throws Exception
+    {
+        final CSimulation l_previous = this.bind();
+        try
+        {
+            return p_call.call();
+        }
+        finally
+        {
+            c_context.set( l_previous );
+        }
+    }
+
+    /**
+     * binds the current thread to the simulation
+     *
+     * @return previous simulation of the thread or null
+     */
+    private CSimulation bind()
+    {
+        final CSimulation l_previous = c_context.get();
+        c_context.set( this );
+        return l_previous;
+    }
+
+    /**
+     * returns a thread factory for thread-pools, which binds the threads to the simulation
+     *
+     * @return thread factory
+     */
+    public final ForkJoinPool.ForkJoinWorkerThreadFactory getThreadFactory()
+    {
+        return p_pool -> new ForkJoinWorkerThread( p_pool )
+        {
+            @Override
+            protected void onStart()
+            {
+                super.onStart();
+                c_context.set( CSimulation.this );
+            }
+        };
+    }
+
+    /**
+     * runs a call on the thread-pool of the simulation, so parallel streams of the call are
+     * run by threads, which are bound to the simulation, and not by the common pool
+     *
+     * @param p_call call
+     * @return return value of the call
+     *
+     * @tparam T return type
+     */
+    public final <T> T parallel( final Supplier<T> p_call )
+    {
+        return m_mainloop.parallel( p_call );
+    }
+
+    /**
+     * runs a call on the thread-pool of the simulation, so parallel streams of the call are
+     * run by threads, which are bound to the simulation, and not by the common pool
+     *
+     * @param p_call call
+     */
+    public final void parallel( final Runnable p_call )
+    {
+        m_mainloop.parallel( () -> {
+            p_call.run();
+            return null;
+        } );
     }
 
     /**
@@ -110,13 +335,18 @@ public final class CSimulation
      * @param p_object object for object hash
      * @return string with name
      *
-     * @note %hash% with the object hash or 0, %step% with the current simulation step, %rand% with a random integer value, %inc% increment value
+     * @note %hash% with the object hash or 0, %step% with the current simulation step, %rand% with a random integer value, %inc% increment value,
+     * on a fixed seed %hash% is the value of a counter, because the identity hash of an object differs between the runs and a value of
+     * the shared random sequence would shift the sequence of %rand%
      */
     public final String generateObjectName( final String p_input, final Object p_object )
     {
         String l_return = new String( p_input );
 
-        l_return = l_return.replace( "%hash%", new Integer( p_object != null ? p_object.hashCode() : 0 ).toString() );
+        if ( l_return.contains( "%hash%" ) )
+            l_return = l_return.replace(
+                    "%hash%", new Long( p_object == null ? 0 : m_seed.isFixed() ? m_hashcounter.incrementAndGet() : p_object.hashCode() ).toString()
+            );
         l_return = l_return.replace( "%step%", new Integer( m_mainloop.getSimulationstep() ).toString() );
         if ( l_return.contains( "%rand%" ) )
             l_return = l_return.replace( "%rand%", new Integer( m_random.nextInt() ).toString() );
@@ -126,6 +356,16 @@ public final class CSimulation
         return l_return;
     }
 
+    /**
+     * returns the seed of the random objects
+     *
+     * @return seed
+     */
+    public final CSeed getSeed()
+    {
+        return m_seed;
+    }
+
     /**
      * returns event manager
      */
@@ -150,6 +390,47 @@ public final class CSimulation
         return m_world;
     }
 
+    /**
+     * checks if the simulation runs in batch mode
+     *
+     * @return batch flag
+     */
+    public boolean isBatch()
+    {
+        return m_mainloop.isBatch();
+    }
+
+    /**
+     * enables / disables the batch mode, the simulation runs
+     * without thread sleep and without any UI repaint
+     *
+     * @param p_batch batch flag
+     */
+    public void setBatch( final boolean p_batch )
+    {
+        m_mainloop.setBatch( p_batch );
+    }
+
+    /**
+     * sets a barrier, which is passed before each step
+     *
+     * @param p_barrier barrier or null for removing
+     */
+    public void setStepBarrier( final IStepBarrier p_barrier )
+    {
+        m_mainloop.setStepBarrier( p_barrier );
+    }
+
+    /**
+     * returns the event engine
+     *
+     * @return engine or null if all objects are stepped
+     */
+    public CEventEngine getEventEngine()
+    {
+        return m_mainloop.getEventEngine();
+    }
+
     /**
      * checks the running state of the simulation
      *
@@ -166,15 +447,25 @@ public final class CSimulation
      * @param p_input input file
      * @throws IOException throws the exception on file reading error
      * @throws ClassNotFoundException throws the exception on deserialization
-     * @bug incomplete routingmap
      */
     public void load( final File p_input ) throws IOException, ClassNotFoundException
     {
         if ( this.isRunning() )
             throw new IllegalStateException( CCommon.getResourceString( this, "running" ) );
 
-        // reset all layer
-        this.reset();
+        final CSimulation l_previous = this.bind();
+        try
+        {
+            // reset all layer and restore the checkpoint
+            this.reset();
+            final Pair<Integer, Long> l_state = new CCheckpoint( p_input ).load();
+            m_mainloop.setSimulationstep( l_state.getLeft() );
+            m_objectcounter.set( l_state.getRight() );
+        }
+        finally
+        {
+            c_context.set( l_previous );
+        }
 
         CLogger.info( CCommon.getResourceString( this, "load", p_input ) );
     }
@@ -184,13 +475,21 @@ public final class CSimulation
      */
     public void reset()
     {
-        this.threadStartUp();
-        m_mainloop.pause();
-        m_mainloop.reset();
-        m_objectcounter.set( 0 );
-        this.callLayerReset();
+        final CSimulation l_previous = this.bind();
+        try
+        {
+            this.threadStartUp();
+            m_mainloop.pause();
+            m_mainloop.reset();
+            m_objectcounter.set( 0 );
+            this.callLayerReset();
 
-        CBootstrap.onSimulationReset( this );
+            CBootstrap.onSimulationReset( this );
+        }
+        finally
+        {
+            c_context.set( l_previous );
+        }
         CLogger.info( CCommon.getResourceString( this, "reset" ) );
     }
 
@@ -208,11 +507,19 @@ public final class CSimulation
 
         CLogger.info( CCommon.getResourceString( this, "startsteps", p_steps ) );
 
-        // performtemplate thread and wait until thread is finished
-        this.callLayerStart();
-        m_mainloop.resume( p_steps );
-        m_mainloopthread.join();
-        m_mainloop.stop();
+        final CSimulation l_previous = this.bind();
+        try
+        {
+            // performtemplate thread and wait until thread is finished
+            this.callLayerStart();
+            m_mainloop.resume( p_steps );
+            m_mainloopthread.join();
+            m_mainloop.stop();
+        }
+        finally
+        {
+            c_context.set( l_previous );
+        }
 
         m_mainloopthread = null;
         m_runs++;
@@ -229,8 +536,16 @@ public final class CSimulation
 
         CLogger.info( CCommon.getResourceString( this, "start" ) );
 
-        this.callLayerStart();
-        m_mainloop.resume();
+        final CSimulation l_previous = this.bind();
+        try
+        {
+            this.callLayerStart();
+            m_mainloop.resume();
+        }
+        finally
+        {
+            c_context.set( l_previous );
+        }
         m_runs++;
     }
 
@@ -254,6 +569,37 @@ public final class CSimulation
         return m_runs;
     }
 
+    /**
+     * returns the mean step time of the layers
+     *
+     * @return map with layer name and time in milliseconds
+     */
+    public final Map<String, Double> getLayerCost()
+    {
+        return m_mainloop.getLayerCost();
+    }
+
+    /**
+     * returns the key of the run, which is written with the evaluation data
+     *
+     * @return run key, the number of runs if no key is set
+     */
+    public final int getRunKey()
+    {
+        return m_runkey < 0 ? m_runs : m_runkey;
+    }
+
+    /**
+     * sets the key of the run, so simulations, which write into the same database,
+     * e.g. the runs of a parameter sweep, are distinguished by their key
+     *
+     * @param p_key run key or a negative value for the number of runs
+     */
+    public final void setRunKey( final int p_key )
+    {
+        m_runkey = p_key;
+    }
+
     /**
      * stops the current simulation
      */
@@ -262,8 +608,16 @@ public final class CSimulation
         if ( !this.isRunning() )
             throw new IllegalStateException( CCommon.getResourceString( this, "notrunning" ) );
 
-        m_mainloop.pause();
-        this.callLayerStop();
+        final CSimulation l_previous = this.bind();
+        try
+        {
+            m_mainloop.pause();
+            this.callLayerStop();
+        }
+        finally
+        {
+            c_context.set( l_previous );
+        }
         CLogger.info( CCommon.getResourceString( this, "stop" ) );
     }
 
@@ -272,13 +626,21 @@ public final class CSimulation
      *
      * @param p_output output file
      * @throws IOException throws the exception on file writing
-     * @bug incomplete routing map
      */
     public void store( final File p_output ) throws IOException
     {
         if ( this.isRunning() )
             throw new IllegalStateException( CCommon.getResourceString( this, "running" ) );
 
+        final CSimulation l_previous = this.bind();
+        try
+        {
+            new CCheckpoint( p_output ).store( m_mainloop.getSimulationstep(), m_objectcounter.get() );
+        }
+        finally
+        {
+            c_context.set( l_previous );
+        }
         CLogger.info( CCommon.getResourceString( this, "store", p_output ) );
     }
 
@@ -288,6 +650,7 @@ public final class CSimulation
     public final void setConfiguration()
     {
         CConfiguration.getInstance().get().set( "simulation/threadsleeptime", m_mainloop.getSleepTime() );
+        CConfiguration.getInstance().get().set( "simulation/realtimefactor", m_mainloop.getRealTimeFactor() );
     }
 
     /**
@@ -343,7 +706,12 @@ public final class CSimulation
         if ( m_mainloopthread != null )
             return;
 
-        m_mainloopthread = new Thread( m_mainloop );
+        m_mainloopthread = new Thread(
+                () -> {
+                    c_context.set( this );
+                    m_mainloop.run();
+                }
+        );
         m_mainloopthread.setDaemon( true );
         m_mainloopthread.setName( "Simulation Loop" );
         m_mainloopthread.start();
@@ -379,6 +747,31 @@ public final class CSimulation
             ( (IViewableLayer) l_layer ).setVisible( (boolean) p_data.get( "state" ) );
     }
 
+    /**
+     * UI method - sets the step period of a layer, the phases of the multi-rate
+     * layers without an explicit phase are spread over the steps, if no phase is defined
+     *
+     * @param p_data input data
+     */
+    private void web_static_setlayerperiod( final Map<String, Object> p_data )
+    {
+        if ( !p_data.containsKey( "period" ) )
+            throw new IllegalArgumentException( CCommon.getResourceString( this, "period" ) );
+
+        final ILayer l_layer = m_world.get( this.getLayerName( p_data ) );
+        final int l_period = ( (Number) p_data.get( "period" ) ).intValue();
+        if ( p_data.containsKey( "phase" ) )
+        {
+            l_layer.setStepPeriod( l_period, ( (Number) p_data.get( "phase" ) ).intValue() );
+            m_fixedphase.add( l_layer );
+            return;
+        }
+
+        l_layer.setStepPeriod( l_period, 0 );
+        m_fixedphase.remove( l_layer );
+        m_mainloop.spread( m_world.values(), m_fixedphase );
+    }
+
     /**
      * UI method - returns a list with available layers
      *
@@ -387,6 +780,7 @@ public final class CSimulation
     private Map<String, Map<String, Object>> web_static_listlayer()
     {
         final Map<String, Map<String, Object>> l_return = new HashMap<>();
+        final Map<String, Double> l_cost = m_mainloop.getLayerCost();
         for ( final Map.Entry<String, ILayer> l_item : m_world.entrySet() )
             l_return.put(
                     l_item.getValue().toString(), new HashMap<String, Object>()
@@ -395,6 +789,9 @@ public final class CSimulation
                         put( "active", l_item.getValue().isActive() );
                         put( "isviewable", l_item.getValue() instanceof IViewableLayer );
                         put( "visible", l_item.getValue() instanceof IViewableLayer ? ( (IViewableLayer) l_item.getValue() ).isVisible() : false );
+                        put( "period", l_item.getValue().getStepPeriod() );
+                        put( "phase", l_item.getValue().getStepPhase() );
+                        put( "cost", l_cost.getOrDefault( l_item.getValue().toString(), 0.0 ) );
                     }}
             );
 
@@ -446,6 +843,75 @@ public final class CSimulation
         return CCommon.getMap( "time", m_mainloop.getSleepTime() );
     }
 
+    /**
+     * UI method - set real-time factor
+     *
+     * @param p_data input data
+     */
+    private void web_static_setrealtimefactor( final Map<String, Object> p_data )
+    {
+        m_mainloop.setRealTimeFactor( ( (Number) p_data.getOrDefault( "factor", m_mainloop.getRealTimeFactor() ) ).doubleValue() );
+    }
+
+    /**
+     * UI method - get target and achieved real-time factor
+     *
+     * @return data map
+     */
+    private Map<String, Object> web_static_getrealtimefactor()
+    {
+        return CCommon.getMap( "factor", m_mainloop.getRealTimeFactor(), "achieved", m_mainloop.getAchievedRealTimeFactor() );
+    }
+
+    /**
+     * UI method - get load imbalance of the partitioned layers
+     *
+     * @return data map
+     */
+    private Map<String, Double> web_static_getloadimbalance()
+    {
+        return m_mainloop.getLoadImbalance();
+    }
+
+    /**
+     * UI method - get the objects, which have overrun the step time budget
+     *
+     * @return data map
+     */
+    private Map<String, Object> web_static_getstragglers()
+    {
+        return CCommon.getMap( "deadline", m_mainloop.getDeadline(), "objects", m_mainloop.getStragglers() );
+    }
+
+    /**
+     * UI method - get the metrics of the route cache
+     *
+     * @return data map
+     */
+    private Map<String, Object> web_static_getroutecache()
+    {
+        final CRouteCache l_cache = m_world.<CCarLayer>getTyped( "Cars" ).getGraph().getRouteCache();
+        return CCommon.getMap(
+                "size", l_cache.size(), "capacity", l_cache.getCapacity(), "hits", l_cache.getHits(), "misses", l_cache.getMisses(),
+                "evictions", l_cache.getEvictions(), "invalidations", l_cache.getInvalidations(), "ratio", l_cache.getHitRatio()
+        );
+    }
+
+    /**
+     * UI method - get the metrics of the batched route calculation
+     *
+     * @return data map
+     */
+    private Map<String, Object> web_static_getroutebatch()
+    {
+        final CRouteBatchStatistic l_statistic = m_world.<CCarLayer>getTyped( "Cars" ).getGraph().getRouteBatchStatistic();
+        return CCommon.getMap(
+                "batches", l_statistic.getBatches(), "queries", l_statistic.getQueries(), "latency", l_statistic.getMeanLatency(),
+                "lastlatency", l_statistic.getLastLatency(), "queriespersecond", l_statistic.getQueriesPerSecond(),
+                "lastqueriespersecond", l_statistic.getLastQueriesPerSecond()
+        );
+    }
+
     /**
      * peristent storage for any objects
      */
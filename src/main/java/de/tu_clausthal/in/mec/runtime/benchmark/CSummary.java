@@ -86,16 +86,26 @@ public final class CSummary
     }
 
 
+    /**
+     * checks if the benchmark data is stored
+     *
+     * @return boolean flag
+     */
+    public boolean isEnabled()
+    {
+        return ( m_filename != null ) && ( !m_filename.isEmpty() );
+    }
+
+
     /**
      * sets the time value
      *
      * @param p_label full-qualified method name
      * @param p_time elapsed time value
-     * @warning check explict of null value to avoid NPE on initialization call
      */
     public void setTime( final String p_label, final long p_time )
     {
-        m_result.putIfAbsent( p_label, new SynchronizedDescriptiveStatistics() ).addValue( p_time );
+        m_result.computeIfAbsent( p_label, i -> new SynchronizedDescriptiveStatistics() ).addValue( p_time );
     }
 
 
@@ -127,6 +137,7 @@ public final class CSummary
                                                                                                put( "sum", i.getValue().getSum() );
                                                                                                put( "sum square", i.getValue().getSumsq() );
                                                                                                put( "variance", i.getValue().getVariance() );
+                                                                                               put( "calls per second", i.getValue().getN() / ( i.getValue().getSum() * 1e-9 ) );
                                                                                            }} )
                                                                                    )
                                                                      )
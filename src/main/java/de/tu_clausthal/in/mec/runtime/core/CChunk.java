@@ -0,0 +1,211 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.runtime.core;
+
+import de.tu_clausthal.in.mec.common.CCommon;
+import de.tu_clausthal.in.mec.object.ILayer;
+import de.tu_clausthal.in.mec.runtime.IReturnSteppable;
+import de.tu_clausthal.in.mec.runtime.ISteppable;
+import de.tu_clausthal.in.mec.runtime.IVoidSteppable;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ObjLongConsumer;
+
+
+/**
+ * task, which steps a chunk of objects sequentially, measures
+ * the step time of each object and can be expired, so the
+ * objects after the current one are not stepped by the task
+ */
+public final class CChunk implements Callable<Object>
+{
+    /**
+     * iteration value
+     */
+    private final int m_iteration;
+    /**
+     * layer of the objects
+     */
+    private final ILayer m_layer;
+    /**
+     * objects
+     */
+    private final List<ISteppable> m_objects;
+    /**
+     * listener of the step time of each object or null
+     */
+    private final ObjLongConsumer<ISteppable> m_listener;
+    /**
+     * object, which is stepped at the moment, or null
+     */
+    private volatile ISteppable m_current;
+    /**
+     * start flag
+     */
+    private volatile boolean m_started;
+    /**
+     * finish flag
+     */
+    private volatile boolean m_finished;
+    /**
+     * index of the first object, which is not started, an object is started with compare-and-set,
+     * so the expire call and the chunk agree on the objects, which are skipped
+     */
+    private final AtomicInteger m_next = new AtomicInteger();
+    /**
+     * index of the first skipped object of an expired chunk or -1
+     */
+    private volatile int m_remaining = -1;
+    /**
+     * elapsed time of the chunk in nanoseconds
+     */
+    private long m_time;
+
+
+    /**
+     * ctor
+     *
+     * @param p_iteration current iteration value
+     * @param p_layer layer of the objects
+     * @param p_objects objects
+     * @param p_listener listener of the step time in nanoseconds or null
+     */
+    public CChunk( final int p_iteration, final ILayer p_layer, final List<ISteppable> p_objects, final ObjLongConsumer<ISteppable> p_listener )
+    {
+        m_iteration = p_iteration;
+        m_layer = p_layer;
+        m_objects = p_objects;
+        m_listener = p_listener;
+    }
+
+    /**
+     * returns the elapsed time
+     *
+     * @return time in nanoseconds
+     */
+    public final long getTime()
+    {
+        return m_time;
+    }
+
+    /**
+     * returns the object, which is stepped at the moment
+     *
+     * @return object or null
+     */
+    public final ISteppable getCurrent()
+    {
+        return m_current;
+    }
+
+    /**
+     * checks if the chunk is finished
+     *
+     * @return finish flag
+     */
+    public final boolean isFinished()
+    {
+        return m_finished;
+    }
+
+    /**
+     * checks if the chunk is started
+     *
+     * @return start flag
+     */
+    public final boolean isStarted()
+    {
+        return m_started;
+    }
+
+    /**
+     * expires the chunk, the current object is finished and the following objects are skipped
+     *
+     * @return object, which is stepped by the expired chunk at the moment, or null
+     */
+    public final ISteppable expire()
+    {
+        final int l_remaining = Math.min( m_next.getAndSet( m_objects.size() ), m_objects.size() );
+        m_remaining = l_remaining;
+
+        // the object before the first skipped object is running, if the chunk has not finished its step
+        final ISteppable l_current = m_current;
+        return ( l_remaining > 0 ) && ( l_current == m_objects.get( l_remaining - 1 ) ) ? l_current : null;
+    }
+
+    /**
+     * returns a chunk with the objects, which are skipped by an expired chunk
+     *
+     * @return chunk or null if the chunk is not expired or all objects are started
+     */
+    public final CChunk getRemaining()
+    {
+        final int l_remaining = m_remaining;
+        return ( l_remaining < 0 ) || ( l_remaining >= m_objects.size() )
+               ? null
+               : new CChunk( m_iteration, m_layer, m_objects.subList( l_remaining, m_objects.size() ), m_listener );
+    }
+
+    @Override
+    public final Object call() throws Exception
+    {
+        m_started = true;
+        try
+        {
+            for ( int i = m_next.get(); i < m_objects.size(); i = m_next.get() )
+            {
+                // the current object is set before the start, so an expire call sees the object, if the start succeeds
+                final ISteppable l_object = m_objects.get( i );
+                m_current = l_object;
+                if ( !m_next.compareAndSet( i, i + 1 ) )
+                    break;
+
+                final long l_start = System.nanoTime();
+
+                if ( l_object instanceof IVoidSteppable )
+                    CVoidSteppable.process( m_iteration, (IVoidSteppable) l_object, m_layer );
+                else if ( l_object instanceof IReturnSteppable )
+                    CReturnSteppable.process( m_iteration, (IReturnSteppable) l_object, m_layer );
+                else
+                    throw new IllegalArgumentException( CCommon.getResourceString( CMainLoop.class, "notsteppable" ) );
+
+                final long l_time = System.nanoTime() - l_start;
+                m_current = null;
+                m_time += l_time;
+                if ( m_listener != null )
+                    m_listener.accept( l_object, l_time );
+            }
+        }
+        finally
+        {
+            m_current = null;
+            m_finished = true;
+        }
+        return null;
+    }
+
+}
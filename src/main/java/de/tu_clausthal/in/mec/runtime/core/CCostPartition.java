@@ -0,0 +1,229 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.runtime.core;
+
+import de.tu_clausthal.in.mec.common.CCommon;
+import de.tu_clausthal.in.mec.object.ILayer;
+import de.tu_clausthal.in.mec.runtime.ISteppable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * cost-aware partition of the objects of a layer, the step cost of each object
+ * is measured with an exponential moving average, cheap objects are batched
+ * into chunks and expensive objects are run with an own task
+ */
+public final class CCostPartition
+{
+    /**
+     * smoothing factor of the moving average
+     */
+    private static final double c_alpha = 0.2;
+    /**
+     * number of chunks for each thread
+     */
+    private static final int c_chunkfactor = 4;
+    /**
+     * number of threads
+     */
+    private final int m_parallelism;
+    /**
+     * number of steps between two rebalances
+     */
+    private final int m_rebalance;
+    /**
+     * step cost of each object in nanoseconds
+     */
+    private final Map<ISteppable, Double> m_cost = new ConcurrentHashMap<>();
+    /**
+     * mean step cost of each object type in nanoseconds, which is used for unmeasured objects
+     */
+    private Map<Class<?>, Double> m_typecost = Collections.emptyMap();
+    /**
+     * target cost of a chunk in nanoseconds, objects with a larger cost are run with an own task
+     */
+    private double m_chunkcost;
+    /**
+     * load imbalance (moving average)
+     */
+    private volatile double m_imbalance;
+    /**
+     * number of partitioned steps
+     */
+    private int m_steps;
+
+
+    /**
+     * ctor
+     *
+     * @param p_parallelism number of threads
+     * @param p_rebalance number of steps between two rebalances
+     */
+    public CCostPartition( final int p_parallelism, final int p_rebalance )
+    {
+        if ( p_rebalance < 1 )
+            throw new IllegalArgumentException( CCommon.getResourceString( this, "rebalance" ) );
+
+        m_parallelism = Math.max( 1, p_parallelism );
+        m_rebalance = p_rebalance;
+    }
+
+    /**
+     * returns the load imbalance, the ratio of the longest task to
+     * the mean load of a thread, one is a balanced step
+     *
+     * @return imbalance
+     */
+    public final double getImbalance()
+    {
+        return m_imbalance;
+    }
+
+    /**
+     * partitions the objects into chunks
+     *
+     * @param p_iteration current iteration value
+     * @param p_layer layer of the objects
+     * @param p_objects objects
+     * @return list of chunks
+     */
+    public final List<CChunk> partition( final int p_iteration, final ILayer p_layer, final Collection<ISteppable> p_objects )
+    {
+        if ( m_steps++ % m_rebalance == 0 )
+            this.rebalance( p_objects );
+
+        final List<CChunk> l_tasks = new ArrayList<>();
+        List<ISteppable> l_chunk = new ArrayList<>();
+        double l_chunkcost = 0;
+
+        for ( final ISteppable l_object : p_objects )
+        {
+            final double l_cost = this.getCost( l_object );
+            if ( l_cost >= m_chunkcost )
+            {
+                l_tasks.add( new CChunk( p_iteration, p_layer, Collections.singletonList( l_object ), this::measure ) );
+                continue;
+            }
+
+            l_chunk.add( l_object );
+            l_chunkcost += l_cost;
+            if ( l_chunkcost >= m_chunkcost )
+            {
+                l_tasks.add( new CChunk( p_iteration, p_layer, l_chunk, this::measure ) );
+                l_chunk = new ArrayList<>();
+                l_chunkcost = 0;
+            }
+        }
+        if ( !l_chunk.isEmpty() )
+            l_tasks.add( new CChunk( p_iteration, p_layer, l_chunk, this::measure ) );
+
+        return l_tasks;
+    }
+
+    /**
+     * updates the load imbalance with the elapsed times of the finished chunks
+     *
+     * @param p_tasks list of chunks
+     */
+    public final void update( final List<CChunk> p_tasks )
+    {
+        // the mean load of a thread is the sum of all tasks divided by the number of used threads
+        long l_max = 0;
+        long l_sum = 0;
+        for ( final CChunk l_task : p_tasks )
+        {
+            l_max = Math.max( l_max, l_task.getTime() );
+            l_sum += l_task.getTime();
+        }
+        if ( l_sum == 0 )
+            return;
+
+        final double l_imbalance = Math.max( 1, (double) l_max * Math.min( m_parallelism, p_tasks.size() ) / l_sum );
+        m_imbalance = m_imbalance == 0 ? l_imbalance : ( 1 - c_alpha ) * m_imbalance + c_alpha * l_imbalance;
+    }
+
+    /**
+     * returns the cost of an object
+     *
+     * @param p_object object
+     * @return measured cost, the mean cost of the type or zero
+     */
+    private double getCost( final ISteppable p_object )
+    {
+        final Double l_cost = m_cost.get( p_object );
+        if ( l_cost != null )
+            return l_cost;
+
+        return m_typecost.getOrDefault( p_object.getClass(), 0.0 );
+    }
+
+    /**
+     * updates the cost of an object
+     *
+     * @param p_object object
+     * @param p_time step time in nanoseconds
+     */
+    private void measure( final ISteppable p_object, final long p_time )
+    {
+        m_cost.merge( p_object, (double) p_time, ( i, j ) -> ( 1 - c_alpha ) * i + c_alpha * j );
+    }
+
+    /**
+     * removes the costs of objects, which are not part of the layer anymore,
+     * and calculates the type costs and the target chunk cost
+     *
+     * @param p_objects objects of the layer
+     */
+    private void rebalance( final Collection<ISteppable> p_objects )
+    {
+        m_cost.keySet().retainAll( new HashSet<>( p_objects ) );
+
+        final Map<Class<?>, double[]> l_type = new HashMap<>();
+        for ( final Map.Entry<ISteppable, Double> l_item : m_cost.entrySet() )
+        {
+            final double[] l_value = l_type.computeIfAbsent( l_item.getKey().getClass(), i -> new double[2] );
+            l_value[0] += l_item.getValue();
+            l_value[1]++;
+        }
+
+        final Map<Class<?>, Double> l_typecost = new HashMap<>();
+        l_type.forEach( ( i, j ) -> l_typecost.put( i, j[0] / j[1] ) );
+        m_typecost = l_typecost;
+
+        double l_total = 0;
+        for ( final ISteppable l_object : p_objects )
+            l_total += this.getCost( l_object );
+        m_chunkcost = l_total / ( m_parallelism * c_chunkfactor );
+    }
+
+}
@@ -26,23 +26,41 @@ package de.tu_clausthal.in.mec.runtime.core;
 
 import de.tu_clausthal.in.mec.CLogger;
 import de.tu_clausthal.in.mec.common.CCommon;
+import de.tu_clausthal.in.mec.object.ICommitLayer;
 import de.tu_clausthal.in.mec.object.ILayer;
 import de.tu_clausthal.in.mec.object.IMultiEvaluateLayer;
 import de.tu_clausthal.in.mec.object.IMultiLayer;
+import de.tu_clausthal.in.mec.object.IPartitionLayer;
+import de.tu_clausthal.in.mec.object.IPipelineLayer;
 import de.tu_clausthal.in.mec.object.ISingleEvaluateLayer;
 import de.tu_clausthal.in.mec.object.ISingleLayer;
+import de.tu_clausthal.in.mec.object.mas.jason.IEnvironment;
+import de.tu_clausthal.in.mec.object.world.CLayerGraph;
 import de.tu_clausthal.in.mec.runtime.CSimulation;
 import de.tu_clausthal.in.mec.runtime.IReturnSteppable;
 import de.tu_clausthal.in.mec.runtime.ISteppable;
 import de.tu_clausthal.in.mec.runtime.IVoidSteppable;
+import de.tu_clausthal.in.mec.runtime.benchmark.CSummary;
 import de.tu_clausthal.in.mec.runtime.benchmark.IBenchmark;
+import de.tu_clausthal.in.mec.runtime.event.CEventEngine;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 
@@ -51,6 +69,10 @@ import java.util.stream.Collectors;
  */
 public final class CMainLoop implements Runnable
 {
+    /**
+     * maximum number of steps, on which the load of the layer phases is balanced
+     */
+    private static final int c_hyperperiod = 3600;
     /**
      * boolean to pause/resume the thread
      */
@@ -58,7 +80,35 @@ public final class CMainLoop implements Runnable
     /**
      * thread-pool for handling all objects
      */
-    private final ExecutorService m_pool = Executors.newWorkStealingPool();
+    private final ForkJoinPool m_pool;
+    /**
+     * executor of the agent layers, equal to the thread-pool on the shared backend
+     */
+    private final ExecutorService m_agentpool;
+    /**
+     * phase-based scheduler with persistent work lists
+     */
+    private final CPhaseScheduler m_phasescheduler;
+    /**
+     * cost-aware partitions of the layer objects
+     */
+    private final Map<ILayer, CCostPartition> m_partition = new ConcurrentHashMap<>();
+    /**
+     * measured time of the layers within the current step in nanoseconds
+     */
+    private final Map<ILayer, Long> m_layertime = new ConcurrentHashMap<>();
+    /**
+     * exponential moving average of the step time of the layers in nanoseconds
+     */
+    private final Map<ILayer, Double> m_layercost = new ConcurrentHashMap<>();
+    /**
+     * number of worker threads
+     */
+    private final int m_parallelism;
+    /**
+     * scheduler type
+     */
+    private final EScheduler m_scheduler;
     /**
      * number of threads for running *
      */
@@ -71,6 +121,54 @@ public final class CMainLoop implements Runnable
      * thread sleep time
      */
     private volatile int m_sleeptime;
+    /**
+     * batch flag - steps run without thread sleep
+     */
+    private volatile boolean m_batch;
+    /**
+     * barrier, which is passed before each step or null
+     */
+    private volatile IStepBarrier m_barrier;
+    /**
+     * flag to run independent layers concurrently
+     */
+    private volatile boolean m_concurrentlayer;
+    /**
+     * pipeline of the evaluation layers or null
+     */
+    private volatile CPipeline m_pipeline;
+    /**
+     * event engine or null for stepping all objects
+     */
+    private volatile CEventEngine m_engine;
+    /**
+     * number of steps between two rebalances of the cost-aware partitions, zero creates a task for each object
+     */
+    private volatile int m_rebalance;
+    /**
+     * step time budget of the layer objects or null
+     */
+    private volatile CQuarantine m_quarantine;
+    /**
+     * factory of the pool threads
+     */
+    private final ForkJoinPool.ForkJoinWorkerThreadFactory m_threadfactory;
+    /**
+     * target real-time factor, zero uses the fixed thread-sleep time
+     */
+    private volatile double m_realtimefactor;
+    /**
+     * simulated time of one step in seconds
+     */
+    private volatile double m_steptime = 1;
+    /**
+     * achieved real-time factor (exponential moving average)
+     */
+    private volatile double m_achievedfactor;
+    /**
+     * wall-clock deadline of the current step in nanoseconds
+     */
+    private long m_deadline;
 
     /**
      * ctor
@@ -78,8 +176,68 @@ public final class CMainLoop implements Runnable
      * @param p_sleeptime thread-sleep time
      */
     public CMainLoop( final int p_sleeptime )
+    {
+        this( p_sleeptime, EScheduler.InvokeAll, Runtime.getRuntime().availableProcessors() );
+    }
+
+    /**
+     * ctor
+     *
+     * @param p_sleeptime thread-sleep time
+     * @param p_scheduler scheduler type
+     * @param p_parallelism number of worker threads
+     */
+    public CMainLoop( final int p_sleeptime, final EScheduler p_scheduler, final int p_parallelism )
+    {
+        this( p_sleeptime, p_scheduler, EAgentExecutor.Shared, p_parallelism );
+    }
+
+    /**
+     * ctor
+     *
+     * @param p_sleeptime thread-sleep time
+     * @param p_scheduler scheduler type
+     * @param p_agentexecutor execution backend of the agent layers
+     * @param p_parallelism number of worker threads
+     */
+    public CMainLoop( final int p_sleeptime, final EScheduler p_scheduler, final EAgentExecutor p_agentexecutor, final int p_parallelism )
+    {
+        this( p_sleeptime, p_scheduler, p_agentexecutor, ForkJoinPool.defaultForkJoinWorkerThreadFactory, p_parallelism );
+    }
+
+    /**
+     * ctor
+     *
+     * @param p_sleeptime thread-sleep time
+     * @param p_scheduler scheduler type
+     * @param p_agentexecutor execution backend of the agent layers
+     * @param p_threadfactory factory of the pool threads
+     * @param p_parallelism number of worker threads
+     */
+    public CMainLoop( final int p_sleeptime, final EScheduler p_scheduler, final EAgentExecutor p_agentexecutor,
+            final ForkJoinPool.ForkJoinWorkerThreadFactory p_threadfactory, final int p_parallelism
+    )
     {
         this.setSleepTime( p_sleeptime );
+        m_parallelism = Math.max( 1, p_parallelism );
+        m_threadfactory = p_threadfactory;
+        m_scheduler = p_scheduler == null ? EScheduler.InvokeAll : p_scheduler;
+        m_pool = new ForkJoinPool( Math.max( 1, p_parallelism ), p_threadfactory, null, true );
+
+        final ExecutorService l_agentpool = p_agentexecutor == null ? null : p_agentexecutor.create( p_threadfactory, p_parallelism );
+        m_agentpool = l_agentpool == null ? m_pool : l_agentpool;
+
+        m_phasescheduler = new CPhaseScheduler( m_pool, m_agentpool == m_pool ? null : m_agentpool, Math.max( 1, p_parallelism ) );
+    }
+
+    /**
+     * returns the scheduler type
+     *
+     * @return scheduler
+     */
+    public final EScheduler getScheduler()
+    {
+        return m_scheduler;
     }
 
     /**
@@ -102,6 +260,336 @@ public final class CMainLoop implements Runnable
         m_sleeptime = Math.abs( p_sleeptime );
     }
 
+    /**
+     * checks if the batch mode is enabled
+     *
+     * @return batch flag
+     */
+    public final boolean isBatch()
+    {
+        return m_batch;
+    }
+
+    /**
+     * enables / disables the batch mode, steps
+     * are run without any thread sleep
+     *
+     * @param p_batch batch flag
+     */
+    public final void setBatch( final boolean p_batch )
+    {
+        m_batch = p_batch;
+    }
+
+    /**
+     * returns the target real-time factor
+     *
+     * @return factor, zero if the fixed thread-sleep time is used
+     */
+    public final double getRealTimeFactor()
+    {
+        return m_realtimefactor;
+    }
+
+    /**
+     * sets the target real-time factor, the loop sleeps until
+     * step time / factor wall-clock time has passed since the step
+     * start, so one simulated second takes 1 / factor real seconds
+     *
+     * @param p_factor factor, zero uses the fixed thread-sleep time
+     */
+    public final void setRealTimeFactor( final double p_factor )
+    {
+        m_realtimefactor = Math.abs( p_factor );
+        m_deadline = 0;
+    }
+
+    /**
+     * returns the achieved real-time factor
+     *
+     * @return averaged factor of the last steps
+     */
+    public final double getAchievedRealTimeFactor()
+    {
+        return m_achievedfactor;
+    }
+
+    /**
+     * sets the simulated time of one step
+     *
+     * @param p_seconds step time in seconds
+     */
+    public final void setStepTime( final double p_seconds )
+    {
+        if ( p_seconds <= 0 )
+            throw new IllegalArgumentException( CCommon.getResourceString( this, "steptime" ) );
+
+        m_steptime = p_seconds;
+    }
+
+    /**
+     * checks if independent layers are run concurrently
+     *
+     * @return concurrent flag
+     */
+    public final boolean isConcurrentLayer()
+    {
+        return m_concurrentlayer;
+    }
+
+    /**
+     * enables / disables the concurrent execution of independent layers on
+     * the invoke-all scheduler, layers with a dependency are run in order
+     *
+     * @param p_concurrent concurrent flag
+     * @throws IllegalStateException if the flag is set on the phase scheduler
+     */
+    public final void setConcurrentLayer( final boolean p_concurrent )
+    {
+        if ( p_concurrent )
+            this.checkInvokeAll();
+
+        m_concurrentlayer = p_concurrent;
+    }
+
+    /**
+     * returns the number of steps between two rebalances of the cost-aware partitions
+     *
+     * @return number of steps, zero if the partitioning is disabled
+     */
+    public final int getRebalance()
+    {
+        return m_rebalance;
+    }
+
+    /**
+     * enables / disables the cost-aware partitioning on the invoke-all scheduler, the
+     * objects of a layer are batched by their measured step cost into chunks
+     *
+     * @param p_rebalance number of steps between two rebalances, zero creates a task for each object
+     * @throws IllegalStateException if the partitioning is enabled on the phase scheduler
+     */
+    public final void setRebalance( final int p_rebalance )
+    {
+        if ( p_rebalance != 0 )
+            this.checkInvokeAll();
+
+        m_rebalance = Math.abs( p_rebalance );
+        m_partition.clear();
+    }
+
+    /**
+     * returns the load imbalance of the partitioned layers
+     *
+     * @return map with layer name and imbalance
+     */
+    public final Map<String, Double> getLoadImbalance()
+    {
+        final Map<String, Double> l_imbalance = new HashMap<>();
+        m_partition.forEach( ( i, j ) -> l_imbalance.put( i.toString(), j.getImbalance() ) );
+        return l_imbalance;
+    }
+
+    /**
+     * returns the mean step time of the layers, which are run by the invoke-all scheduler
+     *
+     * @return map with layer name and time in milliseconds
+     */
+    public final Map<String, Double> getLayerCost()
+    {
+        final Map<String, Double> l_cost = new HashMap<>();
+        m_layercost.forEach( ( i, j ) -> l_cost.put( i.toString(), j * 1e-6 ) );
+        return l_cost;
+    }
+
+    /**
+     * spreads the phases of the multi-rate layers, so the step time of the layers is
+     * balanced over the steps, the layers are assigned greedily in the order of their
+     * measured cost to the phase with the lowest maximum load, layers with an explicit
+     * phase are not moved
+     *
+     * @param p_layer layers
+     * @param p_fixed layers with an explicit phase, which are kept on their phase and only add their load
+     * @note layers without a measured step time are spread with equal cost
+     */
+    public final void spread( final Collection<ILayer> p_layer, final Collection<ILayer> p_fixed )
+    {
+        final List<ILayer> l_multirate = p_layer.stream().filter( i -> i.getStepPeriod() > 1 ).collect( Collectors.toList() );
+        final List<ILayer> l_layer = l_multirate.stream()
+                                                .filter( i -> !p_fixed.contains( i ) )
+                                                .sorted( ( i, j ) -> Double.compare( m_layercost.getOrDefault( j, 1.0 ), m_layercost.getOrDefault( i, 1.0 ) ) )
+                                                .collect( Collectors.toList() );
+        if ( l_layer.isEmpty() )
+            return;
+
+        // the load is tracked over the common multiple of the periods, which is bounded for large coprime periods
+        long l_hyperperiod = 1;
+        int l_maximum = 1;
+        for ( final ILayer l_item : l_multirate )
+        {
+            l_hyperperiod = Math.min( c_hyperperiod, l_hyperperiod / gcd( l_hyperperiod, l_item.getStepPeriod() ) * l_item.getStepPeriod() );
+            l_maximum = Math.max( l_maximum, l_item.getStepPeriod() );
+        }
+
+        final double[] l_load = new double[Math.max( (int) l_hyperperiod, l_maximum )];
+        for ( final ILayer l_item : l_multirate )
+            if ( p_fixed.contains( l_item ) )
+                for ( int j = l_item.getStepPhase(); j < l_load.length; j += l_item.getStepPeriod() )
+                    l_load[j] += m_layercost.getOrDefault( l_item, 1.0 );
+
+        for ( final ILayer l_item : l_layer )
+        {
+            final int l_period = l_item.getStepPeriod();
+            final double l_cost = m_layercost.getOrDefault( l_item, 1.0 );
+
+            int l_phase = 0;
+            double l_minimum = Double.MAX_VALUE;
+            for ( int i = 0; i < l_period; i++ )
+            {
+                double l_peak = 0;
+                for ( int j = i; j < l_load.length; j += l_period )
+                    l_peak = Math.max( l_peak, l_load[j] );
+
+                if ( l_peak < l_minimum )
+                {
+                    l_minimum = l_peak;
+                    l_phase = i;
+                }
+            }
+
+            for ( int j = l_phase; j < l_load.length; j += l_period )
+                l_load[j] += l_cost;
+            l_item.setStepPeriod( l_period, l_phase );
+        }
+    }
+
+    /**
+     * returns the step time budget of the layer objects
+     *
+     * @return budget in milliseconds, zero if no budget is used
+     */
+    public final long getDeadline()
+    {
+        final CQuarantine l_quarantine = m_quarantine;
+        return l_quarantine == null ? 0 : l_quarantine.getBudget();
+    }
+
+    /**
+     * sets the step time budget of the layer objects on the invoke-all scheduler, objects
+     * which overrun the budget are quarantined and stepped concurrently to the other objects
+     *
+     * @param p_budget budget in milliseconds, zero disables the budget
+     * @throws IllegalStateException if the budget is enabled on the phase scheduler
+     */
+    public final void setDeadline( final long p_budget )
+    {
+        if ( p_budget != 0 )
+            this.checkInvokeAll();
+
+        final CQuarantine l_quarantine = m_quarantine;
+        m_quarantine = p_budget == 0 ? null : new CQuarantine( Math.abs( p_budget ), m_threadfactory, m_parallelism );
+        if ( l_quarantine != null )
+            l_quarantine.shutdown();
+    }
+
+    /**
+     * returns the report of the objects, which have overrun the step time budget
+     *
+     * @return list with a map for each object
+     */
+    public final List<Map<String, Object>> getStragglers()
+    {
+        final CQuarantine l_quarantine = m_quarantine;
+        return l_quarantine == null ? Collections.emptyList() : l_quarantine.getReport();
+    }
+
+    /**
+     * returns the evaluation pipeline
+     *
+     * @return pipeline or null
+     */
+    public final CPipeline getPipeline()
+    {
+        return m_pipeline;
+    }
+
+    /**
+     * sets the evaluation pipeline, pipelined layer are not run within
+     * the step, they evaluate the snapshot of the step on the pipeline
+     *
+     * @param p_pipeline pipeline or null for running all layers within the step
+     */
+    public final void setPipeline( final CPipeline p_pipeline )
+    {
+        if ( !m_pause )
+            throw new IllegalStateException( CCommon.getResourceString( this, "pipelinepause" ) );
+
+        if ( m_pipeline != null )
+            m_pipeline.shutdown();
+        m_pipeline = p_pipeline;
+    }
+
+    /**
+     * returns the event engine
+     *
+     * @return engine or null
+     */
+    public final CEventEngine getEventEngine()
+    {
+        return m_engine;
+    }
+
+    /**
+     * sets the event engine, the objects of event-driven layer are not stepped,
+     * they are moved by the events, which are run before the other layer
+     *
+     * @param p_engine engine or null for stepping all objects
+     */
+    public final void setEventEngine( final CEventEngine p_engine )
+    {
+        if ( !m_pause )
+            throw new IllegalStateException( CCommon.getResourceString( this, "enginepause" ) );
+
+        m_engine = p_engine;
+    }
+
+    /**
+     * sets the barrier, which is passed before each step
+     *
+     * @param p_barrier barrier or null for removing
+     */
+    public final void setStepBarrier( final IStepBarrier p_barrier )
+    {
+        m_barrier = p_barrier;
+    }
+
+    /**
+     * runs a call within the thread-pool, so parallel streams of the call are forked into the pool
+     * and not into the common pool, which threads are not bound to the simulation, a call of a pool
+     * thread and a call after the shutdown of the pool are run on the current thread
+     *
+     * @param p_call call
+     * @return return value of the call
+     *
+     * @tparam T return type
+     */
+    public final <T> T parallel( final Supplier<T> p_call )
+    {
+        final Thread l_thread = Thread.currentThread();
+        if ( ( ( l_thread instanceof ForkJoinWorkerThread ) && ( ( (ForkJoinWorkerThread) l_thread ).getPool() == m_pool ) ) || ( m_pool.isShutdown() ) )
+            return p_call.get();
+
+        final Callable<T> l_call = p_call::get;
+        try
+        {
+            return m_pool.invoke( ForkJoinTask.adapt( l_call ) );
+        }
+        catch ( final RejectedExecutionException l_exception )
+        {
+            return p_call.get();
+        }
+    }
+
     /**
      * returns the simulation step
      *
@@ -112,6 +600,21 @@ public final class CMainLoop implements Runnable
         return m_simulationcount;
     }
 
+    /**
+     * sets the simulation step, e.g. on restoring a checkpoint
+     *
+     * @param p_step step number
+     */
+    public final void setSimulationstep( final int p_step )
+    {
+        if ( !m_pause )
+            throw new IllegalStateException( CCommon.getResourceString( this, "steppause" ) );
+        if ( p_step < 0 )
+            throw new IllegalArgumentException( CCommon.getResourceString( this, "stepnegative" ) );
+
+        m_simulationcount = p_step;
+    }
+
     /**
      * checks if the thread is paused
      *
@@ -139,6 +642,25 @@ public final class CMainLoop implements Runnable
             throw new IllegalStateException( CCommon.getResourceString( this, "pause" ) );
 
         CLogger.info( CCommon.getResourceString( this, "reset" ) );
+        if ( m_pipeline != null )
+            try
+            {
+                m_pipeline.drain();
+            }
+            catch ( final InterruptedException l_exception )
+            {
+                Thread.currentThread().interrupt();
+            }
+
+        if ( m_engine != null )
+            m_engine.clear();
+
+        m_phasescheduler.clear();
+        m_partition.clear();
+        m_layertime.clear();
+        m_layercost.clear();
+        if ( m_quarantine != null )
+            m_quarantine.clear();
         m_simulationcount = 0;
     }
 
@@ -174,6 +696,12 @@ public final class CMainLoop implements Runnable
         final List<ILayer> l_layerorder = CSimulation.getInstance().getWorld().getOrderedLayer();
         CLogger.info( l_layerorder );
 
+        CPipeline l_pipeline = null;
+        CEventEngine l_engine = null;
+        List<ILayer> l_steplayer = l_layerorder;
+        List<IPipelineLayer> l_pipelinelayer = Collections.emptyList();
+        CLayerGraph l_layergraph = new CLayerGraph( l_layerorder );
+
         while ( !Thread.currentThread().isInterrupted() )
         {
 
@@ -190,12 +718,64 @@ public final class CMainLoop implements Runnable
                 if ( m_simulationcount >= m_shutdownstep )
                     break;
 
+                // pipelined and event-driven layer are removed from the step, so the lists are rebuild if the pipeline or the engine is changed
+                if ( ( l_pipeline != m_pipeline ) || ( l_engine != m_engine ) )
+                {
+                    final boolean l_pipelined = m_pipeline != null;
+                    final CEventEngine l_current = m_engine;
+                    l_pipeline = m_pipeline;
+                    l_engine = l_current;
+                    l_steplayer = ( !l_pipelined ) && ( l_current == null )
+                                  ? l_layerorder
+                                  : l_layerorder.stream()
+                                                .filter( i -> ( !l_pipelined ) || ( !( i instanceof IPipelineLayer ) ) )
+                                                .filter( i -> ( l_current == null ) || ( !l_current.isEventDriven( i ) ) )
+                                                .collect( Collectors.toList() );
+                    l_pipelinelayer = l_pipeline == null
+                                      ? Collections.emptyList()
+                                      : l_layerorder.stream().filter( i -> i instanceof IPipelineLayer ).map( i -> (IPipelineLayer) i ).collect(
+                                              Collectors.toList()
+                                      );
+                    l_layergraph = new CLayerGraph( l_steplayer );
+                }
+
+                final long l_start = System.nanoTime();
+
+                // synchronize with other processes
+                if ( m_barrier != null )
+                    m_barrier.await( m_simulationcount );
+
+                // events of the step are run before the stepped objects
+                if ( l_engine != null )
+                    l_engine.process( m_simulationcount );
+
                 // performtemplate simulation objects
-                this.processLayer( l_layerorder );
-                this.processObjects( l_layerorder );
+                if ( EScheduler.Phase.equals( m_scheduler ) )
+                    this.processPhase( l_steplayer );
+                else
+                    this.processInvokeAll( l_steplayer, l_layergraph );
 
-                m_simulationcount++;
-                Thread.sleep( m_sleeptime );
+                // buffered changes are committed at the barrier, so no layer of the step runs concurrently
+                for ( final ILayer l_layer : l_layerorder )
+                    if ( ( l_layer instanceof ICommitLayer ) && ( l_layer.isActive() ) )
+                        ( (ICommitLayer) l_layer ).commit( m_simulationcount );
+
+                // the snapshot is created after all objects are finished, the call blocks if the evaluation is too far behind
+                if ( l_pipeline != null )
+                    l_pipeline.publish(
+                            m_simulationcount, l_pipelinelayer.stream().filter( i -> isScheduled( i, m_simulationcount ) ).collect( Collectors.toList() )
+                    );
+
+                // the measured layer times are added to the mean step time of the layers
+                m_layertime.forEach( ( i, j ) -> m_layercost.merge( i, j.doubleValue(), ( n, m ) -> 0.9 * n + 0.1 * m ) );
+                m_layertime.clear();
+
+                m_simulationcount = l_engine == null ? m_simulationcount + 1 : this.getNextStep( l_engine, l_steplayer );
+                this.pace( l_start );
+
+                // the wall-clock time of the whole step is stored, so the calls per second of the label are the steps per second of the scheduler
+                if ( CSummary.getInstance().isEnabled() )
+                    CSummary.getInstance().setTime( "runtime.core.CMainLoop.step." + m_scheduler, System.nanoTime() - l_start );
             }
             catch ( final InterruptedException l_exception )
             {
@@ -205,9 +785,75 @@ public final class CMainLoop implements Runnable
         }
 
         m_pool.shutdownNow();
+        m_agentpool.shutdownNow();
+        if ( m_pipeline != null )
+            m_pipeline.shutdown();
+        if ( m_quarantine != null )
+            m_quarantine.shutdown();
         CLogger.info( CCommon.getResourceString( this, "stop" ) );
     }
 
+    /**
+     * returns the next step of the event engine, on batch runs the clock advances
+     * directly to the next event if no stepped layer has objects
+     *
+     * @param p_engine event engine
+     * @param p_layer stepped layer
+     * @return next step
+     */
+    private int getNextStep( final CEventEngine p_engine, final List<ILayer> p_layer )
+    {
+        if ( ( !m_batch ) || ( p_layer.stream().anyMatch(
+                i -> ( i.isActive() ) && ( ( i instanceof IMultiLayer ) || ( i instanceof IMultiEvaluateLayer ) ) && ( !( (Collection<?>) i ).isEmpty() )
+        ) ) )
+            return m_simulationcount + 1;
+
+        final int l_next = Math.min( p_engine.getNextStep( m_simulationcount ), m_shutdownstep );
+        return l_next == Integer.MAX_VALUE ? m_simulationcount + 1 : l_next;
+    }
+
+    /**
+     * paces the loop after a step and updates the achieved real-time factor
+     *
+     * @param p_start wall-clock start of the step in nanoseconds
+     * @throws InterruptedException on thread interruption
+     */
+    private void pace( final long p_start ) throws InterruptedException
+    {
+        if ( !m_batch )
+            if ( m_realtimefactor <= 0 )
+                Thread.sleep( m_sleeptime );
+            else
+            {
+                final long l_period = (long) ( m_steptime * 1e9 / m_realtimefactor );
+
+                // the schedule restarts after a pause or if the loop is more than one period behind,
+                // so a slow step is not followed by a burst of catch-up steps
+                if ( ( m_deadline == 0 ) || ( System.nanoTime() - m_deadline > l_period ) )
+                    m_deadline = p_start;
+                m_deadline += l_period;
+
+                final long l_wait = m_deadline - System.nanoTime();
+                if ( l_wait > 0 )
+                    TimeUnit.NANOSECONDS.sleep( l_wait );
+            }
+
+        final double l_factor = m_steptime * 1e9 / Math.max( 1, System.nanoTime() - p_start );
+        m_achievedfactor = m_achievedfactor == 0 ? l_factor : 0.9 * m_achievedfactor + 0.1 * l_factor;
+    }
+
+    /**
+     * checks that the invoke-all scheduler is used, the phase scheduler
+     * runs static ranges without concurrent layers, partitions or budget
+     *
+     * @throws IllegalStateException on the phase scheduler
+     */
+    private void checkInvokeAll()
+    {
+        if ( EScheduler.Phase.equals( m_scheduler ) )
+            throw new IllegalStateException( CCommon.getResourceString( this, "invokeall" ) );
+    }
+
     /**
      * thread is shut down
      */
@@ -225,11 +871,42 @@ public final class CMainLoop implements Runnable
      */
     protected final void invokeTasks( final ILayer p_layer, final Collection<ISteppable> p_tasksource ) throws InterruptedException
     {
-        m_pool.invokeAll(
-                p_tasksource.parallelStream().map(
-                        i -> createTask( m_simulationcount, i, p_layer )
-                ).collect( Collectors.toCollection( () -> new LinkedList<>() ) )
-        );
+        final ExecutorService l_executor = p_layer instanceof IEnvironment<?> ? m_agentpool : m_pool;
+
+        // objects on the thread-pool are batched by their step cost, a dedicated agent executor gets one task for each agent
+        final int l_rebalance = m_rebalance;
+        final CCostPartition l_partition = ( l_rebalance > 0 ) && ( p_layer != null ) && ( l_executor == m_pool )
+                                           ? m_partition.computeIfAbsent( p_layer, i -> new CCostPartition( m_parallelism, l_rebalance ) )
+                                           : null;
+        final CQuarantine l_quarantine = p_layer == null ? null : m_quarantine;
+
+        if ( ( l_partition == null ) && ( l_quarantine == null ) )
+        {
+            l_executor.invokeAll(
+                    p_tasksource.parallelStream().map(
+                            i -> createTask( m_simulationcount, i, p_layer )
+                    ).collect( Collectors.toCollection( () -> new LinkedList<>() ) )
+            );
+            return;
+        }
+
+        // quarantined objects are removed from the tasks and run on the quarantine, they are waited by the invoke call at most one budget
+        final Collection<ISteppable> l_objects = l_quarantine == null ? p_tasksource : l_quarantine.filter( m_simulationcount, p_layer, p_tasksource );
+        final List<CChunk> l_tasks;
+        if ( l_partition != null )
+            l_tasks = l_partition.partition( m_simulationcount, p_layer, l_objects );
+        else
+            l_tasks = l_objects.stream().map( i -> new CChunk( m_simulationcount, p_layer, Collections.singletonList( i ), null ) ).collect(
+                    Collectors.toList()
+            );
+
+        if ( l_quarantine == null )
+            l_executor.invokeAll( l_tasks );
+        else
+            l_quarantine.invoke( l_executor, p_layer, l_tasks );
+
+        if ( l_partition != null )
+            l_partition.update( l_tasks );
     }
 
     /**
@@ -252,6 +929,82 @@ public final class CMainLoop implements Runnable
         throw new IllegalArgumentException( CCommon.getResourceString( CMainLoop.class, "notsteppable" ) );
     }
 
+    /**
+     * checks if a layer is run on a step
+     *
+     * @param p_layer layer
+     * @param p_iteration iteration
+     * @return boolean if the step is a step of the layer
+     */
+    static boolean isScheduled( final ILayer p_layer, final int p_iteration )
+    {
+        return ( p_layer.getStepPeriod() < 2 ) || ( Math.floorMod( p_iteration - p_layer.getStepPhase(), p_layer.getStepPeriod() ) == 0 );
+    }
+
+    /**
+     * returns the greatest common divisor
+     *
+     * @param p_first first value
+     * @param p_second second value
+     * @return divisor
+     */
+    private static long gcd( final long p_first, final long p_second )
+    {
+        return p_second == 0 ? p_first : gcd( p_second, p_first % p_second );
+    }
+
+    /**
+     * adds the time of a task to the step time of the layer
+     *
+     * @param p_layer layer
+     * @param p_task task
+     * @return measured task
+     */
+    private Callable<Object> measure( final ILayer p_layer, final Callable<Object> p_task )
+    {
+        return () -> {
+            final long l_start = System.nanoTime();
+            try
+            {
+                return p_task.call();
+            }
+            finally
+            {
+                m_layertime.merge( p_layer, System.nanoTime() - l_start, Long::sum );
+            }
+        };
+    }
+
+
+    /**
+     * process a simulation step with the invoke-all scheduler
+     *
+     * @param p_layer ordered layer list
+     * @param p_graph dependency graph of the layer
+     * @throws InterruptedException thrown on thread error
+     */
+    @IBenchmark
+    private void processInvokeAll( final List<ILayer> p_layer, final CLayerGraph p_graph ) throws InterruptedException
+    {
+        this.processLayer( p_layer );
+        if ( m_concurrentlayer )
+            this.processConcurrentObjects( p_graph );
+        else
+            this.processObjects( p_layer );
+    }
+
+    /**
+     * process a simulation step with the phase scheduler
+     *
+     * @param p_layer ordered layer list
+     * @throws InterruptedException thrown on thread error
+     */
+    @IBenchmark
+    private void processPhase( final List<ILayer> p_layer ) throws InterruptedException
+    {
+        m_phasescheduler.processLayer( m_simulationcount, CSimulation.getInstance().getMessageSystem(), p_layer );
+        m_phasescheduler.processObjects( m_simulationcount, p_layer );
+    }
 
     /**
      * process layer
@@ -265,7 +1018,10 @@ public final class CMainLoop implements Runnable
         final Collection<Callable<Object>> l_tasks = new LinkedList<>();
 
         l_tasks.add( new CVoidSteppable( m_simulationcount, CSimulation.getInstance().getMessageSystem(), null ) );
-        p_layer.stream().filter( i -> i.isActive() ).map( i -> createTask( m_simulationcount, i, null ) ).forEachOrdered( l_tasks::add );
+        p_layer.stream()
+               .filter( i -> ( i.isActive() ) && ( isScheduled( i, m_simulationcount ) ) )
+               .map( i -> this.measure( i, createTask( m_simulationcount, i, null ) ) )
+               .forEachOrdered( l_tasks::add );
 
         m_pool.invokeAll( l_tasks );
     }
@@ -274,27 +1030,100 @@ public final class CMainLoop implements Runnable
      * process layer object
      *
      * @param p_layer ordered layer list
-     * @note only multi-, evaluate- & network layer can store other objects
      */
     @IBenchmark
-    @SuppressWarnings( "unchecked" )
     private void processObjects( final List<ILayer> p_layer )
     {
-        p_layer.stream().filter( i -> i.isActive() && ( !( i instanceof ISingleLayer ) ) && ( !( i instanceof ISingleEvaluateLayer ) ) ).forEachOrdered( i -> {
+        p_layer.forEach( this::processLayerObjects );
+    }
 
-            try
-            {
-                if ( i instanceof IMultiLayer<?> )
-                    this.invokeTasks( i, (IMultiLayer) i );
+    /**
+     * process layer object, each layer is run as soon as all layers
+     * which it depends on are finished
+     *
+     * @param p_graph dependency graph of the layer
+     * @throws InterruptedException thrown on thread error
+     */
+    @IBenchmark
+    private void processConcurrentObjects( final CLayerGraph p_graph ) throws InterruptedException
+    {
+        final CompletableFuture<?>[] l_layer = new CompletableFuture<?>[p_graph.size()];
+        for ( int i = 0; i < l_layer.length; i++ )
+        {
+            final int[] l_index = p_graph.getPredecessors( i );
+            final CompletableFuture<?>[] l_predecessor = new CompletableFuture<?>[l_index.length];
+            for ( int j = 0; j < l_index.length; j++ )
+                l_predecessor[j] = l_layer[l_index[j]];
 
-                if ( i instanceof IMultiEvaluateLayer<?> )
-                    this.invokeTasks( i, (IMultiEvaluateLayer) i );
-            }
-            catch ( final InterruptedException l_exception )
+            final ILayer l_item = p_graph.get( i );
+            l_layer[i] = CompletableFuture.allOf( l_predecessor ).thenRunAsync( () -> this.processLayerObjects( l_item ), m_pool );
+        }
+
+        try
+        {
+            CompletableFuture.allOf( l_layer ).get();
+        }
+        catch ( final ExecutionException l_exception )
+        {
+            CLogger.error( l_exception );
+        }
+    }
+
+    /**
+     * process the objects of a layer
+     *
+     * @param p_layer layer
+     * @note only multi-, evaluate- & network layer can store other objects, partitioned
+     * layer are stepped with one task for each partition, agent layer run on the agent executor,
+     * idle objects of multi layer are skipped
+     */
+    @SuppressWarnings( "unchecked" )
+    private void processLayerObjects( final ILayer p_layer )
+    {
+        if ( ( !p_layer.isActive() ) || ( !isScheduled( p_layer, m_simulationcount ) ) || ( p_layer instanceof ISingleLayer )
+             || ( p_layer instanceof ISingleEvaluateLayer ) )
+            return;
+
+        final long l_start = System.nanoTime();
+        try
+        {
+            if ( ( p_layer instanceof IPartitionLayer ) && ( ( (IPartitionLayer) p_layer ).isPartitioned() ) )
             {
-                CLogger.error( l_exception );
+                ( (IPartitionLayer) p_layer ).synchronize( m_simulationcount );
+                this.invokeTasks( null, (Collection) ( (IPartitionLayer) p_layer ).getPartitions() );
+                return;
             }
-        } );
+
+            if ( p_layer instanceof IMultiLayer<?> )
+                this.invokeTasks( p_layer, ( (IMultiLayer) p_layer ).getActive( m_simulationcount ) );
+
+            if ( p_layer instanceof IMultiEvaluateLayer<?> )
+                this.invokeTasks( p_layer, (IMultiEvaluateLayer) p_layer );
+        }
+        catch ( final InterruptedException l_exception )
+        {
+            CLogger.error( l_exception );
+        }
+        finally
+        {
+            m_layertime.merge( p_layer, System.nanoTime() - l_start, Long::sum );
+        }
+    }
+
+
+    /**
+     * enum for the scheduler type
+     */
+    public enum EScheduler
+    {
+        /**
+         * creates on each step a task for each object and invokes them
+         */
+        InvokeAll,
+        /**
+         * uses persistent work lists and range tasks with a phaser barrier between the layers
+         */
+        Phase;
     }
 
 }
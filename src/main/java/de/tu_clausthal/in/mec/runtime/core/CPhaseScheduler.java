@@ -0,0 +1,420 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.runtime.core;
+
+import de.tu_clausthal.in.mec.CLogger;
+import de.tu_clausthal.in.mec.common.CCommon;
+import de.tu_clausthal.in.mec.object.ILayer;
+import de.tu_clausthal.in.mec.object.IMultiEvaluateLayer;
+import de.tu_clausthal.in.mec.object.IMultiLayer;
+import de.tu_clausthal.in.mec.object.IPartitionLayer;
+import de.tu_clausthal.in.mec.object.mas.jason.IEnvironment;
+import de.tu_clausthal.in.mec.runtime.IReturnSteppable;
+import de.tu_clausthal.in.mec.runtime.ISteppable;
+import de.tu_clausthal.in.mec.runtime.IVoidSteppable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Phaser;
+
+
+/**
+ * phase-based scheduler, which stores the steppable objects of each layer within reusable
+ * array-based work lists and runs them with persistent range tasks, layers are synchronized
+ * with a phaser barrier, so no task object is created per simulation object
+ */
+public final class CPhaseScheduler
+{
+    /**
+     * number of range tasks for each thread (load balancing on different step costs)
+     */
+    private static final int c_chunkfactor = 4;
+    /**
+     * thread-pool
+     */
+    private final ExecutorService m_pool;
+    /**
+     * executor of the agent layers or null, agents are run with one task each
+     */
+    private final ExecutorService m_agentpool;
+    /**
+     * persistent range tasks
+     */
+    private final CRangeTask[] m_tasks;
+    /**
+     * barrier between the layers, the scheduling thread is always registered
+     */
+    private final Phaser m_phaser = new Phaser( 1 );
+    /**
+     * work list of the layer objects
+     */
+    private final CWorkList m_layerlist = new CWorkList();
+    /**
+     * work lists of the layer elements
+     */
+    private final Map<ILayer, CWorkList> m_objectlist = new HashMap<>();
+
+
+    /**
+     * ctor
+     *
+     * @param p_pool thread-pool which runs the range tasks
+     * @param p_parallelism number of threads within the pool
+     */
+    public CPhaseScheduler( final ExecutorService p_pool, final int p_parallelism )
+    {
+        this( p_pool, null, p_parallelism );
+    }
+
+    /**
+     * ctor
+     *
+     * @param p_pool thread-pool which runs the range tasks
+     * @param p_agentpool executor of the agent layers or null for using the thread-pool
+     * @param p_parallelism number of threads within the pool
+     */
+    public CPhaseScheduler( final ExecutorService p_pool, final ExecutorService p_agentpool, final int p_parallelism )
+    {
+        if ( p_pool == null )
+            throw new IllegalArgumentException( CCommon.getResourceString( IRunnable.class, "notnull" ) );
+
+        m_pool = p_pool;
+        m_agentpool = p_agentpool;
+        m_tasks = new CRangeTask[Math.max( 1, p_parallelism ) * c_chunkfactor];
+        for ( int i = 0; i < m_tasks.length; i++ )
+            m_tasks[i] = new CRangeTask();
+    }
+
+    /**
+     * process the layer and message system
+     *
+     * @param p_iteration current iteration value
+     * @param p_messagesystem message system
+     * @param p_layer ordered layer list
+     * @throws InterruptedException thrown on thread error
+     */
+    public final void processLayer( final int p_iteration, final IVoidSteppable p_messagesystem, final List<ILayer> p_layer ) throws InterruptedException
+    {
+        m_layerlist.clear();
+        m_layerlist.add( p_messagesystem );
+        for ( final ILayer l_layer : p_layer )
+            if ( ( l_layer.isActive() ) && ( CMainLoop.isScheduled( l_layer, p_iteration ) ) )
+                m_layerlist.add( l_layer );
+        m_layerlist.trim();
+
+        this.execute( p_iteration, null, m_layerlist );
+    }
+
+    /**
+     * process the layer objects, each layer is a phase
+     *
+     * @param p_iteration current iteration value
+     * @param p_layer ordered layer list
+     * @throws InterruptedException thrown on thread error
+     * @note only multi- & evaluate layer can store other objects
+     */
+    @SuppressWarnings( "unchecked" )
+    public final void processObjects( final int p_iteration, final List<ILayer> p_layer ) throws InterruptedException
+    {
+        for ( final ILayer l_layer : p_layer )
+        {
+            if ( ( !l_layer.isActive() ) || ( !CMainLoop.isScheduled( l_layer, p_iteration ) ) || ( ( !( l_layer instanceof IMultiLayer ) ) && ( !(
+                    l_layer instanceof IMultiEvaluateLayer ) ) ) )
+                continue;
+
+            CWorkList l_list = m_objectlist.get( l_layer );
+            if ( l_list == null )
+            {
+                l_list = new CWorkList();
+                m_objectlist.put( l_layer, l_list );
+            }
+
+            if ( ( l_layer instanceof IPartitionLayer ) && ( ( (IPartitionLayer) l_layer ).isPartitioned() ) )
+            {
+                ( (IPartitionLayer) l_layer ).synchronize( p_iteration );
+                l_list.fill( ( (IPartitionLayer) l_layer ).getPartitions().iterator() );
+                this.execute( p_iteration, null, l_list );
+                continue;
+            }
+
+            l_list.fill(
+                    l_layer instanceof IMultiLayer
+                    ? ( (IMultiLayer<?>) l_layer ).getActive( p_iteration ).stream().map( i -> (ISteppable) i ).iterator()
+                    : ( (Iterable<ISteppable>) l_layer ).iterator()
+            );
+            if ( ( m_agentpool != null ) && ( l_layer instanceof IEnvironment<?> ) )
+                this.executeEach( p_iteration, l_layer, l_list );
+            else
+                this.execute( p_iteration, l_layer, l_list );
+        }
+    }
+
+    /**
+     * releases all references of the work lists
+     */
+    public final void clear()
+    {
+        m_layerlist.clear();
+        m_layerlist.trim();
+        m_objectlist.clear();
+    }
+
+    /**
+     * runs a phase, the work list is split into ranges and the call
+     * blocks until all ranges are finished
+     *
+     * @param p_iteration current iteration value
+     * @param p_layer layer of the objects or null
+     * @param p_list work list
+     * @throws InterruptedException thrown on thread error
+     */
+    private void execute( final int p_iteration, final ILayer p_layer, final CWorkList p_list ) throws InterruptedException
+    {
+        final int l_size = p_list.size();
+        if ( l_size == 0 )
+            return;
+
+        final int l_tasks = Math.min( l_size, m_tasks.length );
+        m_phaser.bulkRegister( l_tasks );
+        for ( int i = 0; i < l_tasks; i++ )
+            m_pool.execute(
+                    m_tasks[i].set(
+                            p_iteration, p_layer, p_list, (int) ( (long) i * l_size / l_tasks ), (int) ( (long) ( i + 1 ) * l_size / l_tasks )
+                    )
+            );
+
+        m_phaser.awaitAdvanceInterruptibly( m_phaser.arrive() );
+    }
+
+    /**
+     * runs a phase on the agent executor with one task for each object, so
+     * a blocking agent does not delay the other agents of its range
+     *
+     * @param p_iteration current iteration value
+     * @param p_layer layer of the objects
+     * @param p_list work list
+     * @throws InterruptedException thrown on thread error
+     */
+    private void executeEach( final int p_iteration, final ILayer p_layer, final CWorkList p_list ) throws InterruptedException
+    {
+        final List<Callable<Object>> l_tasks = new ArrayList<>( p_list.size() );
+        for ( int i = 0; i < p_list.size(); i++ )
+        {
+            final ISteppable l_object = p_list.get( i );
+            l_tasks.add(
+                    () -> {
+                        perform( p_iteration, l_object, p_layer );
+                        return null;
+                    }
+            );
+        }
+
+        m_agentpool.invokeAll( l_tasks );
+    }
+
+    /**
+     * runs a single object
+     *
+     * @param p_iteration current iteration value
+     * @param p_object steppable object
+     * @param p_layer layer of the object or null
+     */
+    private static void perform( final int p_iteration, final ISteppable p_object, final ILayer p_layer )
+    {
+        if ( p_object instanceof IVoidSteppable )
+        {
+            CVoidSteppable.process( p_iteration, (IVoidSteppable) p_object, p_layer );
+            return;
+        }
+
+        if ( p_object instanceof IReturnSteppable )
+        {
+            CReturnSteppable.process( p_iteration, (IReturnSteppable) p_object, p_layer );
+            return;
+        }
+
+        CLogger.error( CCommon.getResourceString( CMainLoop.class, "notsteppable" ) );
+    }
+
+
+    /**
+     * array-based list, which is reused on each step
+     */
+    private static final class CWorkList
+    {
+        /**
+         * initial capacity
+         */
+        private static final int c_capacity = 64;
+        /**
+         * elements
+         */
+        private ISteppable[] m_elements = new ISteppable[c_capacity];
+        /**
+         * number of elements
+         */
+        private int m_size;
+        /**
+         * number of elements of the previous fill
+         */
+        private int m_previoussize;
+
+        /**
+         * adds an element
+         *
+         * @param p_element element
+         */
+        public final void add( final ISteppable p_element )
+        {
+            if ( m_size == m_elements.length )
+                m_elements = Arrays.copyOf( m_elements, m_elements.length << 1 );
+
+            m_elements[m_size++] = p_element;
+        }
+
+        /**
+         * resets the size, references are kept until trim is called
+         */
+        public final void clear()
+        {
+            m_previoussize = Math.max( m_previoussize, m_size );
+            m_size = 0;
+        }
+
+        /**
+         * refills the list with the iterator elements
+         *
+         * @param p_iterator iterator
+         */
+        public final void fill( final Iterator<? extends ISteppable> p_iterator )
+        {
+            this.clear();
+            while ( p_iterator.hasNext() )
+                this.add( p_iterator.next() );
+            this.trim();
+        }
+
+        /**
+         * returns an element
+         *
+         * @param p_index index
+         * @return element
+         */
+        public final ISteppable get( final int p_index )
+        {
+            return m_elements[p_index];
+        }
+
+        /**
+         * returns the number of elements
+         *
+         * @return size
+         */
+        public final int size()
+        {
+            return m_size;
+        }
+
+        /**
+         * removes the references of the previous fill, so removed
+         * objects are not kept alive by the list
+         */
+        public final void trim()
+        {
+            if ( m_previoussize > m_size )
+                Arrays.fill( m_elements, m_size, m_previoussize, null );
+            m_previoussize = m_size;
+        }
+    }
+
+
+    /**
+     * persistent range task, which runs a part of a work list
+     */
+    private final class CRangeTask implements Runnable
+    {
+        /**
+         * current iteration value
+         */
+        private int m_iteration;
+        /**
+         * layer or null
+         */
+        private ILayer m_layer;
+        /**
+         * work list
+         */
+        private CWorkList m_list;
+        /**
+         * start index (inclusive)
+         */
+        private int m_start;
+        /**
+         * end index (exclusive)
+         */
+        private int m_end;
+
+        /**
+         * sets the range of the next phase
+         *
+         * @param p_iteration current iteration value
+         * @param p_layer layer or null
+         * @param p_list work list
+         * @param p_start start index (inclusive)
+         * @param p_end end index (exclusive)
+         * @return self reference
+         */
+        public final CRangeTask set( final int p_iteration, final ILayer p_layer, final CWorkList p_list, final int p_start, final int p_end )
+        {
+            m_iteration = p_iteration;
+            m_layer = p_layer;
+            m_list = p_list;
+            m_start = p_start;
+            m_end = p_end;
+            return this;
+        }
+
+        @Override
+        public final void run()
+        {
+            try
+            {
+                for ( int i = m_start; i < m_end; i++ )
+                    perform( m_iteration, m_list.get( i ), m_layer );
+            }
+            finally
+            {
+                m_phaser.arriveAndDeregister();
+            }
+        }
+    }
+
+}
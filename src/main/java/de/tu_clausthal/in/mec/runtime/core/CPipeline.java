@@ -0,0 +1,158 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.runtime.core;
+
+import de.tu_clausthal.in.mec.CLogger;
+import de.tu_clausthal.in.mec.common.CCommon;
+import de.tu_clausthal.in.mec.object.IPipelineLayer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+
+/**
+ * evaluation pipeline, the snapshots of a step are evaluated on an own
+ * thread while the next steps are simulated, the number of steps which
+ * are not evaluated is bounded, so the main loop blocks if the evaluation
+ * falls behind
+ */
+public final class CPipeline
+{
+    /**
+     * executor of the evaluation, the snapshots are evaluated in step order
+     */
+    private final ExecutorService m_executor = Executors.newSingleThreadExecutor();
+    /**
+     * one permit for each step, which can be evaluated behind the simulation
+     */
+    private final Semaphore m_permits;
+    /**
+     * maximum number of steps, which are not evaluated
+     */
+    private final int m_lag;
+
+
+    /**
+     * ctor
+     *
+     * @param p_lag maximum number of steps, which are not evaluated
+     */
+    public CPipeline( final int p_lag )
+    {
+        if ( p_lag < 1 )
+            throw new IllegalArgumentException( CCommon.getResourceString( this, "lag" ) );
+
+        m_lag = p_lag;
+        m_permits = new Semaphore( p_lag );
+    }
+
+    /**
+     * returns the maximum lag
+     *
+     * @return number of steps
+     */
+    public final int getLag()
+    {
+        return m_lag;
+    }
+
+    /**
+     * returns the number of steps, which are not evaluated yet
+     *
+     * @return number of steps
+     */
+    public final int getBacklog()
+    {
+        return m_lag - m_permits.availablePermits();
+    }
+
+    /**
+     * creates the snapshots of the active layers and passes them to the
+     * evaluation, blocks while the evaluation is lag steps behind
+     *
+     * @param p_currentstep current step
+     * @param p_layer pipelined layer
+     * @throws InterruptedException thrown on thread error
+     */
+    public final void publish( final int p_currentstep, final Collection<IPipelineLayer> p_layer ) throws InterruptedException
+    {
+        if ( p_layer.isEmpty() )
+            return;
+
+        m_permits.acquire();
+
+        final List<Runnable> l_tasks;
+        try
+        {
+            l_tasks = p_layer.stream().filter( i -> i.isActive() ).map( i -> i.snapshot( p_currentstep ) ).collect( Collectors.toList() );
+        }
+        catch ( final RuntimeException l_exception )
+        {
+            m_permits.release();
+            throw l_exception;
+        }
+
+        m_executor.execute(
+                () -> {
+                    try
+                    {
+                        l_tasks.forEach( Runnable::run );
+                    }
+                    catch ( final RuntimeException l_exception )
+                    {
+                        CLogger.error( l_exception );
+                    }
+                    finally
+                    {
+                        m_permits.release();
+                    }
+                }
+        );
+    }
+
+    /**
+     * blocks until all published snapshots are evaluated
+     *
+     * @throws InterruptedException thrown on thread error
+     */
+    public final void drain() throws InterruptedException
+    {
+        m_permits.acquire( m_lag );
+        m_permits.release( m_lag );
+    }
+
+    /**
+     * shuts down the evaluation, published snapshots are evaluated
+     */
+    public final void shutdown()
+    {
+        m_executor.shutdown();
+    }
+
+}
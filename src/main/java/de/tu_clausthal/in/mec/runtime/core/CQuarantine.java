@@ -0,0 +1,338 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.runtime.core;
+
+import de.tu_clausthal.in.mec.CLogger;
+import de.tu_clausthal.in.mec.common.CCommon;
+import de.tu_clausthal.in.mec.object.ILayer;
+import de.tu_clausthal.in.mec.runtime.ISteppable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+
+/**
+ * step time budget of the layer objects, objects which are running on the
+ * budget end are moved into the quarantine and the following objects of their
+ * task are stepped by a new task, quarantined objects are stepped on an own
+ * thread-pool concurrently to the layer, the layer waits for them at most one
+ * budget, so a blocking object does not block the step, an object which is
+ * still running is detached and skipped on the following steps until it is
+ * finished, an object which overruns its budget is deferred on its next step
+ */
+public final class CQuarantine
+{
+    /**
+     * number of steps within the budget, after which an object leaves the quarantine
+     */
+    private static final int c_parole = 10;
+    /**
+     * step time budget of a layer in milliseconds
+     */
+    private final long m_budget;
+    /**
+     * thread-pool of the quarantined objects
+     */
+    private final ExecutorService m_pool;
+    /**
+     * quarantined objects
+     */
+    private final Map<ISteppable, CEntry> m_entries = new ConcurrentHashMap<>();
+
+
+    /**
+     * ctor
+     *
+     * @param p_budget step time budget of a layer in milliseconds
+     * @param p_threadfactory factory of the pool threads
+     * @param p_parallelism number of threads of the quarantine
+     */
+    public CQuarantine( final long p_budget, final ForkJoinPool.ForkJoinWorkerThreadFactory p_threadfactory, final int p_parallelism )
+    {
+        if ( p_budget < 1 )
+            throw new IllegalArgumentException( CCommon.getResourceString( this, "budget" ) );
+
+        m_budget = p_budget;
+        m_pool = new ForkJoinPool( Math.max( 1, p_parallelism ), p_threadfactory, null, true );
+    }
+
+    /**
+     * returns the step time budget
+     *
+     * @return budget in milliseconds
+     */
+    public final long getBudget()
+    {
+        return m_budget;
+    }
+
+    /**
+     * removes the quarantined objects from the objects of a layer and starts them on
+     * the quarantine thread-pool, the tasks are waited by the invoke call of the layer,
+     * an object which is still running or which has overrun its budget on the last step is deferred
+     *
+     * @param p_iteration current iteration value
+     * @param p_layer layer of the objects
+     * @param p_objects objects
+     * @return objects, which are not quarantined
+     */
+    public final Collection<ISteppable> filter( final int p_iteration, final ILayer p_layer, final Collection<ISteppable> p_objects )
+    {
+        if ( m_entries.isEmpty() )
+            return p_objects;
+
+        final List<ISteppable> l_objects = new ArrayList<>( p_objects.size() );
+        for ( final ISteppable l_object : p_objects )
+        {
+            final CEntry l_entry = m_entries.get( l_object );
+            if ( l_entry == null )
+            {
+                l_objects.add( l_object );
+                continue;
+            }
+
+            // a detached object is skipped until its step is finished
+            final CChunk l_running = l_entry.m_chunk;
+            if ( ( l_running != null ) && ( !l_running.isFinished() ) )
+            {
+                l_entry.m_deferred++;
+                l_entry.m_lastdeferred = p_iteration;
+                continue;
+            }
+
+            if ( l_entry.m_overrun )
+            {
+                l_entry.m_overrun = false;
+                l_entry.m_deferred++;
+                l_entry.m_lastdeferred = p_iteration;
+                CLogger.warn( CCommon.getResourceString( this, "deferred", l_object, p_layer, p_iteration ) );
+                continue;
+            }
+
+            if ( l_entry.m_parole >= c_parole )
+            {
+                m_entries.remove( l_object );
+                l_objects.add( l_object );
+                continue;
+            }
+
+            l_entry.m_chunk = new CChunk( p_iteration, p_layer, Collections.singletonList( l_object ), ( i, j ) -> l_entry.measure( j ) );
+            l_entry.m_task = m_pool.submit( l_entry.m_chunk );
+        }
+        return l_objects;
+    }
+
+    /**
+     * invokes the tasks with the budget, on the budget end the objects of the running tasks
+     * are quarantined and detached and the tasks are expired, the skipped objects of the
+     * expired tasks are stepped by new tasks with the budget, the quarantined objects of
+     * the layer are waited at most one budget, a quarantined object, which is not finished,
+     * is detached, so its result is deferred to a following step
+     *
+     * @param p_executor executor
+     * @param p_layer layer of the objects
+     * @param p_tasks list of tasks
+     * @throws InterruptedException thrown on thread error
+     */
+    public final void invoke( final ExecutorService p_executor, final ILayer p_layer, final List<CChunk> p_tasks ) throws InterruptedException
+    {
+        for ( List<CChunk> l_tasks = p_tasks; !l_tasks.isEmpty(); )
+        {
+            final List<Future<Object>> l_futures = p_executor.invokeAll( l_tasks, m_budget, TimeUnit.MILLISECONDS );
+
+            boolean l_started = false;
+            final List<CChunk> l_remaining = new ArrayList<>();
+            for ( int i = 0; i < l_futures.size(); i++ )
+            {
+                final CChunk l_task = l_tasks.get( i );
+                l_started |= l_task.isStarted();
+                if ( !l_futures.get( i ).isCancelled() )
+                    continue;
+
+                // the running object of an expired task is not joined, it is detached and quarantined
+                final ISteppable l_object = l_task.expire();
+                final CChunk l_rest = l_task.getRemaining();
+                if ( l_rest != null )
+                    l_remaining.add( l_rest );
+                if ( l_object == null )
+                    continue;
+
+                final CEntry l_entry = m_entries.computeIfAbsent( l_object, j -> new CEntry( l_object, p_layer ) );
+                l_entry.m_chunk = l_task;
+                l_entry.m_parole = 0;
+                l_entry.m_stalls++;
+                CLogger.warn( CCommon.getResourceString( this, "stall", l_object, p_layer, m_budget ) );
+            }
+
+            // if no task is started within the budget, the threads are used by detached objects, so the skipped objects wait for a thread
+            if ( !l_started )
+            {
+                p_executor.invokeAll( l_remaining );
+                break;
+            }
+            l_tasks = l_remaining;
+        }
+
+        // quarantined objects have been started by the filter call, they are waited at most one budget
+        final long l_deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos( m_budget );
+        for ( final CEntry l_entry : m_entries.values() )
+        {
+            final Future<Object> l_task = l_entry.m_task;
+            if ( ( l_task == null ) || ( !p_layer.equals( l_entry.m_layer ) ) )
+                continue;
+
+            try
+            {
+                l_task.get( Math.max( 0, l_deadline - System.nanoTime() ), TimeUnit.NANOSECONDS );
+            }
+            catch ( final ExecutionException l_exception )
+            {
+                CLogger.error( l_exception );
+            }
+            catch ( final TimeoutException l_exception )
+            {
+                l_entry.m_stalls++;
+                CLogger.warn( CCommon.getResourceString( this, "detached", l_entry.m_object, p_layer, m_budget ) );
+            }
+            l_entry.m_task = null;
+        }
+    }
+
+    /**
+     * returns the report of the quarantined objects
+     *
+     * @return list with a map for each object
+     */
+    public final List<Map<String, Object>> getReport()
+    {
+        return m_entries.values().stream().map(
+                i -> CCommon.getMap(
+                        "object", i.m_object.toString(), "layer", i.m_layer.toString(), "stalls", i.m_stalls, "deferred", i.m_deferred,
+                        "lastdeferred", i.m_lastdeferred, "maxtime", i.m_maxtime / 1e6
+                )
+        ).collect( Collectors.toList() );
+    }
+
+    /**
+     * releases all quarantined objects
+     */
+    public final void clear()
+    {
+        m_entries.clear();
+    }
+
+    /**
+     * shuts down the quarantine thread-pool
+     */
+    public final void shutdown()
+    {
+        m_pool.shutdownNow();
+    }
+
+
+    /**
+     * quarantine entry of an object
+     */
+    private final class CEntry
+    {
+        /**
+         * object
+         */
+        private final ISteppable m_object;
+        /**
+         * layer of the object
+         */
+        private final ILayer m_layer;
+        /**
+         * task of the current step, which steps the object on the quarantine, or null
+         */
+        private volatile Future<Object> m_task;
+        /**
+         * chunk, which steps the object at last, a detached object is skipped until the chunk is finished
+         */
+        private volatile CChunk m_chunk;
+        /**
+         * number of budget overruns
+         */
+        private volatile int m_stalls;
+        /**
+         * number of deferred steps
+         */
+        private volatile int m_deferred;
+        /**
+         * last deferred step or -1
+         */
+        private volatile int m_lastdeferred = -1;
+        /**
+         * flag, that the last step on the quarantine has overrun the budget
+         */
+        private volatile boolean m_overrun;
+        /**
+         * number of steps within the budget in series
+         */
+        private volatile int m_parole;
+        /**
+         * maximum step time on the quarantine in nanoseconds
+         */
+        private volatile long m_maxtime;
+
+
+        /**
+         * ctor
+         *
+         * @param p_object object
+         * @param p_layer layer of the object
+         */
+        public CEntry( final ISteppable p_object, final ILayer p_layer )
+        {
+            m_object = p_object;
+            m_layer = p_layer;
+        }
+
+        /**
+         * updates the entry with a step time on the quarantine
+         *
+         * @param p_time step time in nanoseconds
+         */
+        public final void measure( final long p_time )
+        {
+            m_maxtime = Math.max( m_maxtime, p_time );
+            m_overrun = p_time > TimeUnit.MILLISECONDS.toNanos( m_budget );
+            m_parole = m_overrun ? 0 : m_parole + 1;
+        }
+    }
+
+}
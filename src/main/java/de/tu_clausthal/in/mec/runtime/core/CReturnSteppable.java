@@ -66,23 +66,37 @@ public final class CReturnSteppable extends IRunnable<IReturnSteppable>
      * performtemplate method to perform the action on runnable and callable interface
      */
     protected final void perform()
+    {
+        process( m_iteration, m_object, m_layer );
+    }
+
+    /**
+     * runs the step of a return-steppable object with the before / after calls of the layer
+     * and pushes the data to the targets
+     *
+     * @param p_iteration current iteration value
+     * @param p_object return-steppable object
+     * @param p_layer layer of the object or null
+     */
+    @SuppressWarnings( "unchecked" )
+    public static void process( final int p_iteration, final IReturnSteppable p_object, final ILayer p_layer )
     {
         try
         {
 
-            if ( ( m_layer != null ) && ( m_layer instanceof IMultiLayer ) )
-                ( (IMultiLayer) m_layer ).beforeStepObject( m_iteration, m_object );
+            if ( ( p_layer != null ) && ( p_layer instanceof IMultiLayer ) )
+                ( (IMultiLayer) p_layer ).beforeStepObject( p_iteration, p_object );
 
 
-            final Collection<?> l_data = m_object.step( m_iteration, m_layer );
-            final Collection<IReturnSteppableTarget> l_targets = m_object.getTargets();
+            final Collection<?> l_data = p_object.step( p_iteration, p_layer );
+            final Collection<IReturnSteppableTarget> l_targets = p_object.getTargets();
             if ( ( l_data != null ) && ( l_targets != null ) )
                 for ( final IReturnSteppableTarget l_target : l_targets )
                     l_target.push( l_data );
 
 
-            if ( ( m_layer != null ) && ( m_layer instanceof IMultiLayer ) )
-                ( (IMultiLayer) m_layer ).afterStepObject( m_iteration, m_object );
+            if ( ( p_layer != null ) && ( p_layer instanceof IMultiLayer ) )
+                ( (IMultiLayer) p_layer ).afterStepObject( p_iteration, p_object );
 
         }
         catch ( final Exception l_exception )
@@ -63,19 +63,32 @@ public final class CVoidSteppable extends IRunnable<IVoidSteppable>
      * performtemplate method to perform the action on runnable and callable interface
      */
     protected final void perform()
+    {
+        process( m_iteration, m_object, m_layer );
+    }
+
+    /**
+     * runs the step of a void-steppable object with the before / after calls of the layer
+     *
+     * @param p_iteration current iteration value
+     * @param p_object void-steppable object
+     * @param p_layer layer of the object or null
+     */
+    @SuppressWarnings( "unchecked" )
+    public static void process( final int p_iteration, final IVoidSteppable p_object, final ILayer p_layer )
     {
         try
         {
 
-            if ( ( m_layer != null ) && ( m_layer instanceof IMultiLayer ) )
-                ( (IMultiLayer) m_layer ).beforeStepObject( m_iteration, m_object );
+            if ( ( p_layer != null ) && ( p_layer instanceof IMultiLayer ) )
+                ( (IMultiLayer) p_layer ).beforeStepObject( p_iteration, p_object );
 
 
-            m_object.step( m_iteration, m_layer );
+            p_object.step( p_iteration, p_layer );
 
 
-            if ( ( m_layer != null ) && ( m_layer instanceof IMultiLayer ) )
-                ( (IMultiLayer) m_layer ).afterStepObject( m_iteration, m_object );
+            if ( ( p_layer != null ) && ( p_layer instanceof IMultiLayer ) )
+                ( (IMultiLayer) p_layer ).afterStepObject( p_iteration, p_object );
 
         }
         catch ( Exception l_exception )
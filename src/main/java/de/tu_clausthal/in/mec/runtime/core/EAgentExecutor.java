@@ -0,0 +1,85 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.runtime.core;
+
+import de.tu_clausthal.in.mec.CLogger;
+import de.tu_clausthal.in.mec.common.CCommon;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+
+/**
+ * execution backend of the agent layers, agent reasoning cycles can block within
+ * bound Java methods or actions, so they can be run outside of the cell-automaton pool
+ */
+public enum EAgentExecutor
+{
+    /**
+     * agents share the thread-pool of all other objects, default
+     */
+    Shared,
+    /**
+     * agents use an own work-stealing pool, so blocking agents do not starve the other layers
+     */
+    Dedicated,
+    /**
+     * each agent runs on a virtual thread (needs Java 21 or newer, otherwise the dedicated pool is used)
+     */
+    Virtual;
+
+    /**
+     * creates the executor of the agent layers
+     *
+     * @param p_threadfactory factory of the dedicated pool threads
+     * @param p_parallelism number of threads of the dedicated pool
+     * @return executor or null if the shared pool is used
+     * @note virtual threads inherit the inheritable thread-locals of the submitting thread
+     */
+    public final ExecutorService create( final ForkJoinPool.ForkJoinWorkerThreadFactory p_threadfactory, final int p_parallelism )
+    {
+        switch ( this )
+        {
+            case Dedicated:
+                return new ForkJoinPool( Math.max( 1, p_parallelism ), p_threadfactory, null, true );
+
+            case Virtual:
+                // the virtual-thread executor is called via reflection, so the sources can be compiled with a Java 8 target
+                try
+                {
+                    return (ExecutorService) Executors.class.getMethod( "newVirtualThreadPerTaskExecutor" ).invoke( null );
+                }
+                catch ( final ReflectiveOperationException l_exception )
+                {
+                    CLogger.warn( CCommon.getResourceString( EAgentExecutor.class, "virtualnotsupported" ) );
+                    return Dedicated.create( p_threadfactory, p_parallelism );
+                }
+
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.runtime.distributed;
+
+import de.tu_clausthal.in.mec.CLogger;
+import de.tu_clausthal.in.mec.common.CCommon;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * coordinator of a distributed simulation, the coordinator accepts the worker processes on the local
+ * host and runs a global step barrier, on each step the boundary cars and the messages, which are
+ * sent by the workers, are routed to the target workers, the ghost cars of the boundary cells
+ * are sent to all other workers, so the workers see the cars of the neighbouring regions
+ */
+public final class CCoordinator
+{
+    /**
+     * bind port
+     */
+    private final int m_port;
+    /**
+     * number of workers
+     */
+    private final int m_workers;
+    /**
+     * partition
+     */
+    private final EPartition m_partition;
+
+    /**
+     * ctor
+     *
+     * @param p_port bind port
+     * @param p_workers number of workers
+     * @param p_partition partition
+     */
+    public CCoordinator( final int p_port, final int p_workers, final EPartition p_partition )
+    {
+        if ( p_workers < 1 )
+            throw new IllegalArgumentException( CCommon.getResourceString( this, "workernumber" ) );
+
+        m_port = p_port;
+        m_workers = p_workers;
+        m_partition = p_partition == null ? EPartition.Region : p_partition;
+    }
+
+    /**
+     * waits for all workers and runs the simulation steps
+     *
+     * @param p_steps number of steps
+     * @throws IOException is thrown on connection error
+     * @throws ClassNotFoundException is thrown on an unknown frame
+     */
+    public final void run( final int p_steps ) throws IOException, ClassNotFoundException
+    {
+        if ( p_steps < 1 )
+            throw new IllegalArgumentException( CCommon.getResourceString( this, "stepnumber" ) );
+
+        final List<CConnection> l_connections = new ArrayList<>();
+        try (
+                final ServerSocket l_server = new ServerSocket( m_port, m_workers, InetAddress.getLoopbackAddress() );
+        )
+        {
+            CLogger.info( CCommon.getResourceString( this, "wait", m_workers, m_port ) );
+            while ( l_connections.size() < m_workers )
+            {
+                final CConnection l_connection = new CConnection( l_server.accept() );
+                l_connection.send( CFrame.assign( l_connections.size(), m_workers, p_steps, m_partition ) );
+                l_connections.add( l_connection );
+                CLogger.info( CCommon.getResourceString( this, "connected", l_connections.size(), m_workers ) );
+            }
+        }
+
+        try
+        {
+            this.barrier( l_connections, p_steps );
+        }
+        finally
+        {
+            for ( final CConnection l_connection : l_connections )
+                l_connection.close();
+        }
+    }
+
+    /**
+     * runs the global step barrier
+     *
+     * @param p_connections worker connections
+     * @param p_steps number of steps
+     * @throws IOException is thrown on connection error
+     * @throws ClassNotFoundException is thrown on an unknown frame
+     */
+    private void barrier( final List<CConnection> p_connections, final int p_steps ) throws IOException, ClassNotFoundException
+    {
+        List<List<CFrame.CCarState>> l_cars = this.createBuckets();
+        List<List<CFrame.CCarState>> l_ghosts = this.createBuckets();
+        List<List<CFrame.CMessageState>> l_messages = this.createBuckets();
+
+        for ( int l_step = 0; l_step < p_steps; l_step++ )
+        {
+            for ( int i = 0; i < p_connections.size(); i++ )
+                p_connections.get( i ).send( CFrame.step( l_step, l_cars.get( i ), l_ghosts.get( i ), l_messages.get( i ) ) );
+
+            // all workers must finish the step, before the next step is started
+            l_cars = this.createBuckets();
+            l_ghosts = this.createBuckets();
+            l_messages = this.createBuckets();
+            for ( int i = 0; i < p_connections.size(); i++ )
+            {
+                final CFrame l_frame = p_connections.get( i ).receive();
+                if ( ( !CFrame.EType.Done.equals( l_frame.getType() ) ) || ( l_frame.getValue( 0 ) != l_step ) )
+                    throw new IOException( CCommon.getResourceString( this, "protocol", l_frame.getType(), i ) );
+
+                for ( final CFrame.CCarState l_car : l_frame.getCars() )
+                    l_cars.get( l_car.getWorker() ).add( l_car );
+
+                // the adjacency of the regions is not known, so ghost cars are sent to all other workers
+                for ( final CFrame.CCarState l_ghost : l_frame.getGhosts() )
+                    for ( int j = 0; j < m_workers; j++ )
+                        if ( j != l_ghost.getWorker() )
+                            l_ghosts.get( j ).add( l_ghost );
+
+                // receivers of messages are unknown, so messages are sent to all other workers
+                for ( final CFrame.CMessageState l_message : l_frame.getMessages() )
+                    for ( int j = 0; j < m_workers; j++ )
+                        if ( j != l_message.getWorker() )
+                            l_messages.get( j ).add( l_message );
+            }
+        }
+
+        for ( final CConnection l_connection : p_connections )
+            l_connection.send( CFrame.shutdown() );
+        CLogger.info( CCommon.getResourceString( this, "finished", p_steps ) );
+    }
+
+    /**
+     * creates a list for each worker
+     *
+     * @return list of lists
+     */
+    private <T> List<List<T>> createBuckets()
+    {
+        final List<List<T>> l_buckets = new ArrayList<>( m_workers );
+        for ( int i = 0; i < m_workers; i++ )
+            l_buckets.add( new ArrayList<>() );
+        return l_buckets;
+    }
+
+
+    /**
+     * frame connection of a socket
+     */
+    static final class CConnection implements Closeable
+    {
+        /**
+         * socket
+         */
+        private final Socket m_socket;
+        /**
+         * output stream
+         */
+        private final ObjectOutputStream m_output;
+        /**
+         * input stream
+         */
+        private final ObjectInputStream m_input;
+
+        /**
+         * ctor
+         *
+         * @param p_socket socket
+         * @throws IOException is thrown on stream error
+         * @note the output stream is created first, so both sides can read the stream header
+         */
+        public CConnection( final Socket p_socket ) throws IOException
+        {
+            m_socket = p_socket;
+            m_socket.setTcpNoDelay( true );
+            m_output = new ObjectOutputStream( m_socket.getOutputStream() );
+            m_output.flush();
+            m_input = new ObjectInputStream( m_socket.getInputStream() );
+        }
+
+        /**
+         * sends a frame
+         *
+         * @param p_frame frame
+         * @throws IOException is thrown on stream error
+         */
+        public final void send( final CFrame p_frame ) throws IOException
+        {
+            m_output.writeObject( p_frame );
+            // reset the reference cache, because frames are not reused
+            m_output.reset();
+            m_output.flush();
+        }
+
+        /**
+         * receives a frame
+         *
+         * @return frame
+         * @throws IOException is thrown on stream error
+         * @throws ClassNotFoundException is thrown on an unknown frame
+         */
+        public final CFrame receive() throws IOException, ClassNotFoundException
+        {
+            return (CFrame) m_input.readObject();
+        }
+
+        @Override
+        public final void close() throws IOException
+        {
+            m_socket.close();
+        }
+    }
+
+}
@@ -0,0 +1,428 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.runtime.distributed;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * frame of the coordinator / worker protocol
+ */
+final class CFrame implements Serializable
+{
+    /**
+     * serialize version ID *
+     */
+    private static final long serialVersionUID = 1L;
+    /**
+     * frame type
+     */
+    private final EType m_type;
+    /**
+     * frame values, on assign (worker ID, number of workers, number of steps), on step / done (step)
+     */
+    private final int[] m_values;
+    /**
+     * partition on assign frames
+     */
+    private final EPartition m_partition;
+    /**
+     * boundary cars
+     */
+    private final List<CCarState> m_cars;
+    /**
+     * ghost cars of the boundary cells
+     */
+    private final List<CCarState> m_ghosts;
+    /**
+     * messages
+     */
+    private final List<CMessageState> m_messages;
+
+    /**
+     * ctor
+     *
+     * @param p_type frame type
+     * @param p_partition partition
+     * @param p_cars boundary cars
+     * @param p_ghosts ghost cars
+     * @param p_messages messages
+     * @param p_values frame values
+     */
+    private CFrame( final EType p_type, final EPartition p_partition, final List<CCarState> p_cars, final List<CCarState> p_ghosts,
+            final List<CMessageState> p_messages, final int... p_values
+    )
+    {
+        m_type = p_type;
+        m_values = p_values;
+        m_partition = p_partition;
+        m_cars = p_cars;
+        m_ghosts = p_ghosts;
+        m_messages = p_messages;
+    }
+
+    /**
+     * creates an assign frame
+     *
+     * @param p_worker worker ID
+     * @param p_workers number of workers
+     * @param p_steps number of steps
+     * @param p_partition partition
+     * @return frame
+     */
+    public static CFrame assign( final int p_worker, final int p_workers, final int p_steps, final EPartition p_partition )
+    {
+        return new CFrame( EType.Assign, p_partition, new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), p_worker, p_workers, p_steps );
+    }
+
+    /**
+     * creates a step frame
+     *
+     * @param p_step step
+     * @param p_cars incoming cars
+     * @param p_ghosts ghost cars of the other workers
+     * @param p_messages incoming messages
+     * @return frame
+     */
+    public static CFrame step( final int p_step, final List<CCarState> p_cars, final List<CCarState> p_ghosts, final List<CMessageState> p_messages )
+    {
+        return new CFrame( EType.Step, null, p_cars, p_ghosts, p_messages, p_step );
+    }
+
+    /**
+     * creates a done frame
+     *
+     * @param p_step step
+     * @param p_cars outgoing cars
+     * @param p_ghosts cars on the boundary cells of the worker
+     * @param p_messages outgoing messages
+     * @return frame
+     */
+    public static CFrame done( final int p_step, final List<CCarState> p_cars, final List<CCarState> p_ghosts, final List<CMessageState> p_messages )
+    {
+        return new CFrame( EType.Done, null, p_cars, p_ghosts, p_messages, p_step );
+    }
+
+    /**
+     * creates a shutdown frame
+     *
+     * @return frame
+     */
+    public static CFrame shutdown()
+    {
+        return new CFrame( EType.Shutdown, null, new ArrayList<>(), new ArrayList<>(), new ArrayList<>() );
+    }
+
+    /**
+     * returns the frame type
+     *
+     * @return type
+     */
+    public final EType getType()
+    {
+        return m_type;
+    }
+
+    /**
+     * returns a frame value
+     *
+     * @param p_index index
+     * @return value
+     */
+    public final int getValue( final int p_index )
+    {
+        return m_values[p_index];
+    }
+
+    /**
+     * returns the partition
+     *
+     * @return partition
+     */
+    public final EPartition getPartition()
+    {
+        return m_partition;
+    }
+
+    /**
+     * returns the boundary cars
+     *
+     * @return list of cars
+     */
+    public final List<CCarState> getCars()
+    {
+        return m_cars;
+    }
+
+    /**
+     * returns the ghost cars
+     *
+     * @return list of cars
+     */
+    public final List<CCarState> getGhosts()
+    {
+        return m_ghosts;
+    }
+
+    /**
+     * returns the messages
+     *
+     * @return list of messages
+     */
+    public final List<CMessageState> getMessages()
+    {
+        return m_messages;
+    }
+
+
+    /**
+     * frame types
+     */
+    public enum EType
+    {
+        /**
+         * coordinator assigns the worker ID and the partition
+         */
+        Assign,
+        /**
+         * coordinator starts a step and pushs the incoming cars, the ghost cars and messages
+         */
+        Step,
+        /**
+         * worker has finished a step and sends the outgoing cars, its boundary cars and messages
+         */
+        Done,
+        /**
+         * coordinator stops the worker
+         */
+        Shutdown;
+    }
+
+
+    /**
+     * state of a car, which is moved between the workers, edges are stored
+     * with their adjacent node, so the direction is restored on the target
+     */
+    public static final class CCarState implements Serializable
+    {
+        /**
+         * serialize version ID *
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * target worker, on ghost cars the sending worker
+         */
+        private final int m_worker;
+        /**
+         * edge IDs of the route
+         */
+        private final int[] m_edge;
+        /**
+         * number of cells of the route edges
+         */
+        private final int[] m_cell;
+        /**
+         * driving values (route index, speed, max. speed, acceleration, deceleration)
+         */
+        private final int[] m_values;
+        /**
+         * linger probability
+         */
+        private final double m_lingerprobability;
+
+        /**
+         * ctor
+         *
+         * @param p_worker target worker, on ghost cars the sending worker
+         * @param p_edge edge IDs of the route
+         * @param p_cell number of cells of the route edges
+         * @param p_lingerprobability linger probability
+         * @param p_values driving values (route index, speed, max. speed, acceleration, deceleration)
+         */
+        public CCarState( final int p_worker, final int[] p_edge, final int[] p_cell, final double p_lingerprobability,
+                final int... p_values
+        )
+        {
+            m_worker = p_worker;
+            m_edge = p_edge;
+            m_cell = p_cell;
+            m_lingerprobability = p_lingerprobability;
+            m_values = p_values;
+        }
+
+        /**
+         * returns the target worker
+         *
+         * @return worker ID
+         */
+        public final int getWorker()
+        {
+            return m_worker;
+        }
+
+        /**
+         * returns the edge IDs of the route
+         *
+         * @return edge IDs
+         */
+        public final int[] getEdge()
+        {
+            return m_edge;
+        }
+
+        /**
+         * returns the number of cells of the route edges
+         *
+         * @return number of cells
+         */
+        public final int[] getCell()
+        {
+            return m_cell;
+        }
+
+        /**
+         * returns a driving value
+         *
+         * @param p_index index (route index, speed, max. speed, acceleration, deceleration)
+         * @return value
+         */
+        public final int getValue( final int p_index )
+        {
+            return m_values[p_index];
+        }
+
+        /**
+         * returns the linger probability
+         *
+         * @return probability
+         */
+        public final double getLingerProbability()
+        {
+            return m_lingerprobability;
+        }
+    }
+
+
+    /**
+     * state of a message, which receiver is not registered on the sending worker
+     */
+    public static final class CMessageState implements Serializable
+    {
+        /**
+         * serialize version ID *
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * sending worker
+         */
+        private final int m_worker;
+        /**
+         * receiver path
+         */
+        private final String m_receiver;
+        /**
+         * source path
+         */
+        private final String m_source;
+        /**
+         * title
+         */
+        private final String m_title;
+        /**
+         * data
+         */
+        private final Serializable m_data;
+
+        /**
+         * ctor
+         *
+         * @param p_worker sending worker
+         * @param p_receiver receiver path
+         * @param p_source source path
+         * @param p_title title
+         * @param p_data data
+         */
+        public CMessageState( final int p_worker, final String p_receiver, final String p_source, final String p_title, final Serializable p_data )
+        {
+            m_worker = p_worker;
+            m_receiver = p_receiver;
+            m_source = p_source;
+            m_title = p_title;
+            m_data = p_data;
+        }
+
+        /**
+         * returns the sending worker
+         *
+         * @return worker ID
+         */
+        public final int getWorker()
+        {
+            return m_worker;
+        }
+
+        /**
+         * returns the receiver path
+         *
+         * @return path
+         */
+        public final String getReceiver()
+        {
+            return m_receiver;
+        }
+
+        /**
+         * returns the source path
+         *
+         * @return path
+         */
+        public final String getSource()
+        {
+            return m_source;
+        }
+
+        /**
+         * returns the title
+         *
+         * @return title
+         */
+        public final String getTitle()
+        {
+            return m_title;
+        }
+
+        /**
+         * returns the data
+         *
+         * @return data
+         */
+        public final Serializable getData()
+        {
+            return m_data;
+        }
+    }
+}
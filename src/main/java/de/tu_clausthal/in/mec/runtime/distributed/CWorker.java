@@ -0,0 +1,422 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.runtime.distributed;
+
+import de.tu_clausthal.in.mec.CLogger;
+import de.tu_clausthal.in.mec.common.CCommon;
+import de.tu_clausthal.in.mec.common.CPath;
+import de.tu_clausthal.in.mec.object.car.CCarLayer;
+import de.tu_clausthal.in.mec.object.car.CDefaultCar;
+import de.tu_clausthal.in.mec.object.car.ICar;
+import de.tu_clausthal.in.mec.object.car.graph.CRoute;
+import de.tu_clausthal.in.mec.object.waypoint.CCarWayPointLayer;
+import de.tu_clausthal.in.mec.object.waypoint.point.IWayPoint;
+import de.tu_clausthal.in.mec.runtime.CSimulation;
+import de.tu_clausthal.in.mec.runtime.core.IStepBarrier;
+import de.tu_clausthal.in.mec.runtime.message.CMessage;
+import de.tu_clausthal.in.mec.runtime.message.CMessageSystem;
+import de.tu_clausthal.in.mec.runtime.message.IMessage;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+
+/**
+ * worker of a distributed simulation, the worker runs its share of the simulation and
+ * synchronizes each step with the coordinator, the simulation must be loaded before,
+ * on a region partition the cars on the boundary cells are exchanged as ghost cars on
+ * each step, so the cells and the gap checks of the drive model see the cars of the
+ * other workers
+ */
+public final class CWorker implements IStepBarrier, CMessageSystem.IRemoteForward
+{
+    /**
+     * maximum speed of a car, which defines the number of boundary cells at the start of an edge
+     */
+    private static final int c_maximumspeed = 350;
+    /**
+     * port of the coordinator
+     */
+    private final int m_port;
+    /**
+     * messages, which are forwarded to the other workers
+     */
+    private final Queue<CFrame.CMessageState> m_messages = new ConcurrentLinkedQueue<>();
+    /**
+     * immigrated cars, which cell is used, so they are placed on a later step
+     */
+    private final Queue<CDefaultCar> m_immigrants = new LinkedList<>();
+    /**
+     * ghost cars of the other workers, which are placed on the current step
+     */
+    private final List<CDefaultCar> m_ghosts = new ArrayList<>();
+    /**
+     * connection to the coordinator
+     */
+    private CCoordinator.CConnection m_connection;
+    /**
+     * worker ID
+     */
+    private int m_worker;
+    /**
+     * number of workers
+     */
+    private int m_workers;
+    /**
+     * partition
+     */
+    private EPartition m_partition;
+    /**
+     * flag that a step is started and not reported
+     */
+    private boolean m_running;
+    /**
+     * step of the coordinator
+     */
+    private int m_step;
+
+    /**
+     * ctor
+     *
+     * @param p_port port of the coordinator
+     */
+    public CWorker( final int p_port )
+    {
+        m_port = p_port;
+    }
+
+    /**
+     * connects to the coordinator and runs the assigned steps
+     *
+     * @throws IOException is thrown on connection error
+     * @throws ClassNotFoundException is thrown on an unknown frame
+     * @throws InterruptedException is thrown on thread error
+     */
+    public final void run() throws IOException, ClassNotFoundException, InterruptedException
+    {
+        m_connection = new CCoordinator.CConnection( new Socket( InetAddress.getLoopbackAddress(), m_port ) );
+        try
+        {
+            final CFrame l_assign = m_connection.receive();
+            if ( !CFrame.EType.Assign.equals( l_assign.getType() ) )
+                throw new IOException( CCommon.getResourceString( this, "protocol", l_assign.getType() ) );
+
+            m_worker = l_assign.getValue( 0 );
+            m_workers = l_assign.getValue( 1 );
+            m_partition = l_assign.getPartition();
+            this.assign();
+            CLogger.info( CCommon.getResourceString( this, "assigned", m_worker, m_workers, m_partition ) );
+
+            CSimulation.getInstance().setStepBarrier( this );
+            CSimulation.getInstance().getMessageSystem().setRemoteForward( this );
+            CSimulation.getInstance().start( l_assign.getValue( 2 ) );
+
+            // report the last step and wait for the shutdown
+            this.report();
+            final CFrame l_shutdown = m_connection.receive();
+            if ( !CFrame.EType.Shutdown.equals( l_shutdown.getType() ) )
+                throw new IOException( CCommon.getResourceString( this, "protocol", l_shutdown.getType() ) );
+        }
+        finally
+        {
+            this.clearGhosts();
+            m_immigrants.forEach( CDefaultCar::release );
+            m_immigrants.clear();
+            CSimulation.getInstance().setStepBarrier( null );
+            CSimulation.getInstance().getMessageSystem().setRemoteForward( null );
+            m_connection.close();
+        }
+    }
+
+    @Override
+    public final void await( final int p_currentstep ) throws InterruptedException
+    {
+        try
+        {
+            this.report();
+
+            final CFrame l_frame = m_connection.receive();
+            if ( CFrame.EType.Shutdown.equals( l_frame.getType() ) )
+                throw new InterruptedException( CCommon.getResourceString( this, "shutdown" ) );
+            if ( !CFrame.EType.Step.equals( l_frame.getType() ) )
+                throw new IOException( CCommon.getResourceString( this, "protocol", l_frame.getType() ) );
+
+            m_step = l_frame.getValue( 0 );
+            this.clearGhosts();
+            this.immigrate( l_frame.getCars() );
+            l_frame.getGhosts().forEach( this::ghost );
+            l_frame.getMessages().forEach(
+                    i -> CSimulation.getInstance().getMessageSystem().pushRemoteMessage(
+                            CPath.from( i.getReceiver() ), new CMessage<>( CPath.from( i.getSource() ), i.getTitle(), i.getData() )
+                    )
+            );
+            m_running = true;
+        }
+        catch ( final IOException | ClassNotFoundException l_exception )
+        {
+            CLogger.error( l_exception );
+            throw new InterruptedException( l_exception.getMessage() );
+        }
+    }
+
+    @Override
+    public final boolean forward( final CPath p_pathreceiver, final IMessage<?> p_message )
+    {
+        if ( ( p_message.getData() != null ) && ( !( p_message.getData() instanceof Serializable ) ) )
+        {
+            CLogger.warn( CCommon.getResourceString( this, "notserializable", p_message.getTitle(), p_pathreceiver ) );
+            return false;
+        }
+
+        m_messages.add(
+                new CFrame.CMessageState(
+                        m_worker, p_pathreceiver.getPath(), p_message.getSource().getPath(), p_message.getTitle(), (Serializable) p_message.getData()
+                )
+        );
+        return true;
+    }
+
+    /**
+     * removes all objects of the world, which are not owned by this worker
+     */
+    private void assign()
+    {
+        final CCarLayer l_cars = CSimulation.getInstance().getWorld().<CCarLayer>getTyped( "Cars" );
+        final CCarWayPointLayer l_waypoints = CSimulation.getInstance().getWorld().<CCarWayPointLayer>getTyped( "Car WayPoints" );
+        final List<IWayPoint<ICar>> l_remove = new LinkedList<>();
+
+        if ( EPartition.Region.equals( m_partition ) )
+        {
+            if ( !l_cars.isPartitioned() )
+                throw new IllegalStateException( CCommon.getResourceString( this, "notpartitioned" ) );
+
+            final BitSet l_owned = new BitSet();
+            for ( int i = m_worker; i < l_cars.getPartition().getNumberOfRegions(); i += m_workers )
+                l_owned.set( i );
+            l_cars.setOwnedRegions( l_owned );
+
+            for ( final IWayPoint<ICar> l_waypoint : l_waypoints )
+                if ( !l_cars.isOwned( l_cars.getGraph().getClosestEdge( l_waypoint.getPosition() ) ) )
+                    l_remove.add( l_waypoint );
+        }
+        else
+        {
+            int l_index = 0;
+            for ( final IWayPoint<ICar> l_waypoint : l_waypoints )
+                if ( l_index++ % m_workers != m_worker )
+                    l_remove.add( l_waypoint );
+        }
+
+        l_remove.forEach( l_waypoints::remove );
+    }
+
+    /**
+     * sends the emigrated cars, the cars on the boundary cells and the forwarded messages of the last step
+     *
+     * @throws IOException is thrown on connection error
+     */
+    private void report() throws IOException
+    {
+        if ( !m_running )
+            return;
+
+        final List<CFrame.CCarState> l_cars = new ArrayList<>();
+        final CCarLayer l_layer = CSimulation.getInstance().getWorld().<CCarLayer>getTyped( "Cars" );
+        for ( final ICar l_car : l_layer.pollEmigrants( new LinkedList<>() ) )
+        {
+            l_cars.add( this.state( l_layer.getPartition().getRegion( l_car.getEdge() ) % m_workers, (CDefaultCar) l_car ) );
+            l_car.release();
+        }
+
+        final List<CFrame.CMessageState> l_messages = new ArrayList<>();
+        for ( CFrame.CMessageState l_message = m_messages.poll(); l_message != null; l_message = m_messages.poll() )
+            l_messages.add( l_message );
+
+        m_connection.send( CFrame.done( m_step, l_cars, this.boundary( l_layer ), l_messages ) );
+        m_running = false;
+    }
+
+    /**
+     * creates the ghost states of the cars on the boundary cells, a boundary cell is one of the first
+     * cells of an edge, which can be reached by a car of a preceding edge within one step, so the
+     * ghost cars cover the look-ahead of the drive model on all edges, which enter the region
+     *
+     * @param p_layer car layer
+     * @return ghost states
+     */
+    private List<CFrame.CCarState> boundary( final CCarLayer p_layer )
+    {
+        final List<CFrame.CCarState> l_ghosts = new ArrayList<>();
+        if ( !EPartition.Region.equals( m_partition ) )
+            return l_ghosts;
+
+        final int l_cells = p_layer.getUnitConvert().getSpeedToCell( c_maximumspeed );
+        for ( final ICar l_car : p_layer )
+        {
+            if ( ( !CDefaultCar.class.equals( l_car.getClass() ) ) || ( l_car.hasEndReached() ) || ( !( (CDefaultCar) l_car ).isPlaced() ) )
+                continue;
+
+            final CDefaultCar l_default = (CDefaultCar) l_car;
+            if ( l_default.getRoute().getPosition( l_default.getRouteIndex() ) < l_cells )
+                l_ghosts.add( this.state( m_worker, l_default ) );
+        }
+
+        return l_ghosts;
+    }
+
+    /**
+     * creates the state of a car
+     *
+     * @param p_worker worker of the state
+     * @param p_car car
+     * @return car state
+     */
+    private CFrame.CCarState state( final int p_worker, final CDefaultCar p_car )
+    {
+        final CRoute l_route = p_car.getRoute();
+        final int[] l_edge = new int[l_route.getNumberOfEdges()];
+        final int[] l_cell = new int[l_edge.length];
+        for ( int i = 0; i < l_edge.length; i++ )
+        {
+            l_edge[i] = l_route.getEdgeIDOfIndex( i );
+            l_cell[i] = l_route.getOffset( i + 1 ) - l_route.getOffset( i );
+        }
+
+        return new CFrame.CCarState(
+                p_worker, l_edge, l_cell, p_car.getLingerProbability(),
+                p_car.getRouteIndex(), p_car.getCurrentSpeed(), p_car.getMaximumSpeed(), p_car.getAcceleration(), p_car.getDeceleration()
+        );
+    }
+
+    /**
+     * creates the cars of another worker and places them on their current cells, a car,
+     * which cell is used, is queued and placed on a later step
+     *
+     * @param p_states car states
+     */
+    private void immigrate( final List<CFrame.CCarState> p_states )
+    {
+        final CCarLayer l_layer = CSimulation.getInstance().getWorld().<CCarLayer>getTyped( "Cars" );
+        p_states.forEach( i -> m_immigrants.add( this.create( i, false ) ) );
+
+        for ( final Iterator<CDefaultCar> l_iterator = m_immigrants.iterator(); l_iterator.hasNext(); )
+        {
+            final CDefaultCar l_car = l_iterator.next();
+            try
+            {
+                l_car.place();
+                l_iterator.remove();
+                l_layer.add( l_car );
+            }
+            catch ( final IllegalAccessException l_exception )
+            {
+            }
+        }
+
+        if ( !m_immigrants.isEmpty() )
+            CLogger.warn( CCommon.getResourceString( this, "immigrantwaiting", m_immigrants.size(), m_step ) );
+    }
+
+    /**
+     * places a ghost car of another worker, the ghost car is not added to the layer,
+     * so it is not stepped and only uses its cell until the next step
+     *
+     * @param p_state car state
+     */
+    private void ghost( final CFrame.CCarState p_state )
+    {
+        final CDefaultCar l_car = this.create( p_state, true );
+        try
+        {
+            l_car.place();
+            m_ghosts.add( l_car );
+        }
+        catch ( final IllegalAccessException l_exception )
+        {
+            CLogger.warn( CCommon.getResourceString( this, "ghostcell", p_state.getWorker(), m_step ) );
+            l_car.release();
+        }
+    }
+
+    /**
+     * removes the ghost cars of the last step
+     */
+    private void clearGhosts()
+    {
+        m_ghosts.forEach( CDefaultCar::release );
+        m_ghosts.clear();
+    }
+
+    /**
+     * creates a car of a state
+     *
+     * @param p_state car state
+     * @param p_ghost ghost flag, a ghost car is not updated by the drive model
+     * @return car
+     */
+    private CDefaultCar create( final CFrame.CCarState p_state, final boolean p_ghost )
+    {
+        // a car must be created with a positive speed, so a stopped car gets its speed afterwards
+        final CRoute l_route = new CRoute( p_state.getEdge(), p_state.getCell() );
+        final CDefaultCar l_car = p_ghost ? new CGhostCar( l_route, p_state ) : new CDefaultCar(
+                l_route, p_state.getValue( 0 ), Math.max( 1, p_state.getValue( 1 ) ), p_state.getValue( 2 ), p_state.getValue( 3 ),
+                p_state.getValue( 4 ), p_state.getLingerProbability()
+        );
+        l_car.setCurrentSpeed( p_state.getValue( 1 ) );
+        return l_car;
+    }
+
+
+    /**
+     * ghost car of another worker, the values of a derived car are not updated
+     * by the drive model loop of the layer, so the ghost car keeps its state
+     */
+    private static final class CGhostCar extends CDefaultCar
+    {
+        /**
+         * ctor
+         *
+         * @param p_route route
+         * @param p_state car state
+         */
+        CGhostCar( final CRoute p_route, final CFrame.CCarState p_state )
+        {
+            super(
+                    p_route, p_state.getValue( 0 ), Math.max( 1, p_state.getValue( 1 ) ), p_state.getValue( 2 ), p_state.getValue( 3 ),
+                    p_state.getValue( 4 ), p_state.getLingerProbability()
+            );
+        }
+    }
+
+}
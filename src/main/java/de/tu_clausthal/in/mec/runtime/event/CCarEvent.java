@@ -0,0 +1,94 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+package de.tu_clausthal.in.mec.runtime.event;
+
+import de.tu_clausthal.in.mec.object.car.CCarLayer;
+import de.tu_clausthal.in.mec.object.car.CDefaultCar;
+
+
+/**
+ * event of a car, which reaches its next edge, the car drives with the free-flow speed
+ * of the edge and jumps to the first cell of the next edge, a blocked car retries on the
+ * next step, so the queue on an edge entry is kept by the cell occupancy, the first event
+ * of a car is run on its current route index, so a car, which is placed before the engine
+ * starts, keeps its cell and an unplaced car is set on its cell
+ *
+ * @note the speed is the minimum of the maximum car speed and the edge speed, so the
+ * per-step linger and collision rules of the drive model are not applied
+ */
+public final class CCarEvent implements IEvent
+{
+    /**
+     * car layer
+     */
+    private final CCarLayer m_layer;
+    /**
+     * car
+     */
+    private final CDefaultCar m_car;
+    /**
+     * route index, which is reached on the event
+     */
+    private int m_routeindex;
+
+    /**
+     * ctor
+     *
+     * @param p_layer car layer
+     * @param p_car car
+     */
+    public CCarEvent( final CCarLayer p_layer, final CDefaultCar p_car )
+    {
+        m_layer = p_layer;
+        m_car = p_car;
+        m_routeindex = p_car.getRouteIndex();
+    }
+
+    @Override
+    public final void execute( final CEventEngine p_engine, final double p_time ) throws Exception
+    {
+        if ( !m_car.jump( m_routeindex ) )
+        {
+            p_engine.schedule( p_time + 1, this );
+            return;
+        }
+
+        if ( m_car.hasEndReached() )
+        {
+            m_layer.remove( m_car );
+            m_car.release();
+            return;
+        }
+
+        final int l_speed = Math.min( m_car.getMaximumSpeed(), (int) m_layer.getGraph().getEdgeSpeed( m_car.getEdge() ) );
+        m_car.setCurrentSpeed( l_speed );
+
+        // the car drives to the first cell of the next edge or behind the last cell of the route
+        final int l_next = m_car.getNextEdgeIndex();
+        final int l_cells = Math.min( l_next, m_car.getRoute().size() - 1 ) - m_car.getRouteIndex();
+        m_routeindex = l_next;
+        p_engine.schedule( p_time + (double) l_cells / Math.max( 1, m_layer.getUnitConvert().getSpeedToCell( l_speed ) ), this );
+    }
+
+}
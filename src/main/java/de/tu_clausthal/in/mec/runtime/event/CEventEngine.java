@@ -0,0 +1,235 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+package de.tu_clausthal.in.mec.runtime.event;
+
+import de.tu_clausthal.in.mec.CLogger;
+import de.tu_clausthal.in.mec.common.CPath;
+import de.tu_clausthal.in.mec.object.ILayer;
+import de.tu_clausthal.in.mec.object.car.CCarLayer;
+import de.tu_clausthal.in.mec.object.car.CDefaultCar;
+import de.tu_clausthal.in.mec.object.car.ICar;
+import de.tu_clausthal.in.mec.object.waypoint.CCarWayPointLayer;
+import de.tu_clausthal.in.mec.object.waypoint.point.IWayPoint;
+import de.tu_clausthal.in.mec.runtime.message.CMessageSystem;
+import de.tu_clausthal.in.mec.runtime.message.IMessage;
+import de.tu_clausthal.in.mec.runtime.message.IParticipant;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * discrete-event engine as alternative to the fixed time step, cars and waypoints are
+ * moved by timestamped events instead of a step of each object, the main loop runs the
+ * events of a step before the other layers and can advance the clock directly to the
+ * step of the next event
+ *
+ * @note the engine runs within the main loop thread, so the events are executed sequentially
+ */
+public final class CEventEngine
+{
+    /**
+     * event queue
+     */
+    private final CEventQueue m_queue = new CEventQueue();
+    /**
+     * car layer
+     */
+    private final CCarLayer m_cars;
+    /**
+     * waypoint layer
+     */
+    private final CCarWayPointLayer m_waypoints;
+    /**
+     * waypoints, which have got their event
+     */
+    private final Set<IWayPoint<ICar>> m_scheduled = new HashSet<>();
+    /**
+     * step of the last delivery event
+     */
+    private final AtomicInteger m_delivery = new AtomicInteger( -1 );
+    /**
+     * current step
+     */
+    private volatile int m_step;
+    /**
+     * flag that the cars of the layer have got their event
+     */
+    private boolean m_initialized;
+    /**
+     * number of executed events
+     */
+    private long m_events;
+
+
+    /**
+     * ctor
+     *
+     * @param p_cars car layer
+     * @param p_waypoints waypoint layer
+     * @param p_messages message system
+     */
+    public CEventEngine( final CCarLayer p_cars, final CCarWayPointLayer p_waypoints, final CMessageSystem p_messages )
+    {
+        m_cars = p_cars;
+        m_waypoints = p_waypoints;
+
+        // a pushed message is delivered on the next step, so the clock must stop on this step
+        p_messages.addActionListener(
+                new CMessageSystem.IActionListener()
+                {
+                    @Override
+                    public void onPushMessage( final CPath p_pathreceiver, final IMessage<?> p_message )
+                    {
+                        final int l_step = m_step + 1;
+                        if ( m_delivery.getAndSet( l_step ) != l_step )
+                            m_queue.schedule( l_step, new CDeliveryEvent() );
+                    }
+
+                    @Override
+                    public void onRegister( final CPath p_path, final IParticipant p_receiver )
+                    {
+                    }
+
+                    @Override
+                    public void onUnregister( final CPath p_path, final IParticipant p_receiver )
+                    {
+                    }
+                }
+        );
+    }
+
+    /**
+     * checks if a layer is moved by events
+     *
+     * @param p_layer layer
+     * @return event-driven flag
+     */
+    public final boolean isEventDriven( final ILayer p_layer )
+    {
+        return ( p_layer == m_cars ) || ( p_layer == m_waypoints );
+    }
+
+    /**
+     * adds an event
+     *
+     * @param p_time time of the event in steps
+     * @param p_event event
+     */
+    public final void schedule( final double p_time, final IEvent p_event )
+    {
+        m_queue.schedule( p_time, p_event );
+    }
+
+    /**
+     * runs all events of a step, new waypoints and the cars, which exist
+     * on the first call, get their first event on the step
+     *
+     * @param p_step step
+     */
+    public final void process( final int p_step )
+    {
+        m_step = p_step;
+
+        if ( !m_initialized )
+        {
+            for ( final ICar l_car : m_cars )
+                if ( ( l_car instanceof CDefaultCar ) && ( !l_car.hasEndReached() ) )
+                    m_queue.schedule( p_step, new CCarEvent( m_cars, (CDefaultCar) l_car ) );
+            m_initialized = true;
+        }
+
+        for ( final IWayPoint<ICar> l_waypoint : m_waypoints )
+            if ( m_scheduled.add( l_waypoint ) )
+                m_queue.schedule( p_step, new CWayPointEvent( m_waypoints, m_cars, l_waypoint ) );
+
+        for ( CEventQueue.CEntry l_entry = m_queue.poll( p_step + 1 ); l_entry != null; l_entry = m_queue.poll( p_step + 1 ) )
+        {
+            try
+            {
+                l_entry.getEvent().execute( this, l_entry.getTime() );
+            }
+            catch ( final Exception l_exception )
+            {
+                CLogger.error( l_exception );
+            }
+            m_events++;
+        }
+    }
+
+    /**
+     * returns the step of the next event
+     *
+     * @param p_step current step
+     * @return step after the current step or Integer.MAX_VALUE if no event exists
+     */
+    public final int getNextStep( final int p_step )
+    {
+        final double l_time = m_queue.getNextTime();
+        return l_time >= Integer.MAX_VALUE ? Integer.MAX_VALUE : Math.max( p_step + 1, (int) l_time );
+    }
+
+    /**
+     * returns the number of executed events
+     *
+     * @return number of events
+     */
+    public final long getNumberOfEvents()
+    {
+        return m_events;
+    }
+
+    /**
+     * returns the number of scheduled events
+     *
+     * @return number of events
+     */
+    public final int getBacklog()
+    {
+        return m_queue.size();
+    }
+
+    /**
+     * removes all events, so the objects of the layers get their events on the next step
+     */
+    public final void clear()
+    {
+        m_queue.clear();
+        m_scheduled.clear();
+        m_delivery.set( -1 );
+        m_initialized = false;
+    }
+
+    /**
+     * unregisters a removed waypoint
+     *
+     * @param p_waypoint waypoint
+     */
+    final void unschedule( final IWayPoint<ICar> p_waypoint )
+    {
+        m_scheduled.remove( p_waypoint );
+    }
+
+}
@@ -0,0 +1,163 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+package de.tu_clausthal.in.mec.runtime.event;
+
+import de.tu_clausthal.in.mec.common.CCommon;
+
+import java.util.PriorityQueue;
+import java.util.Queue;
+
+
+/**
+ * priority queue of timestamped events, events with the same time are
+ * returned in the order of their scheduling, so the execution is reproducible
+ */
+public final class CEventQueue
+{
+    /**
+     * queue entries
+     */
+    private final Queue<CEntry> m_queue = new PriorityQueue<>();
+    /**
+     * sequence number of the next entry
+     */
+    private long m_sequence;
+
+
+    /**
+     * adds an event
+     *
+     * @param p_time time of the event in steps
+     * @param p_event event
+     */
+    public final synchronized void schedule( final double p_time, final IEvent p_event )
+    {
+        if ( p_event == null )
+            throw new IllegalArgumentException( CCommon.getResourceString( this, "notnull" ) );
+
+        m_queue.add( new CEntry( p_time, m_sequence++, p_event ) );
+    }
+
+    /**
+     * returns the time of the next event
+     *
+     * @return time in steps or Double.POSITIVE_INFINITY if the queue is empty
+     */
+    public final synchronized double getNextTime()
+    {
+        return m_queue.isEmpty() ? Double.POSITIVE_INFINITY : m_queue.peek().m_time;
+    }
+
+    /**
+     * removes the next event, if it is before a time
+     *
+     * @param p_time time limit in steps (exclusive)
+     * @return entry or null if no event is before the time
+     */
+    public final synchronized CEntry poll( final double p_time )
+    {
+        return ( m_queue.isEmpty() ) || ( m_queue.peek().m_time >= p_time ) ? null : m_queue.poll();
+    }
+
+    /**
+     * returns the number of events
+     *
+     * @return number of events
+     */
+    public final synchronized int size()
+    {
+        return m_queue.size();
+    }
+
+    /**
+     * removes all events
+     */
+    public final synchronized void clear()
+    {
+        m_queue.clear();
+        m_sequence = 0;
+    }
+
+
+    /**
+     * queue entry
+     */
+    public static final class CEntry implements Comparable<CEntry>
+    {
+        /**
+         * time in steps
+         */
+        private final double m_time;
+        /**
+         * sequence number
+         */
+        private final long m_sequence;
+        /**
+         * event
+         */
+        private final IEvent m_event;
+
+        /**
+         * ctor
+         *
+         * @param p_time time in steps
+         * @param p_sequence sequence number
+         * @param p_event event
+         */
+        private CEntry( final double p_time, final long p_sequence, final IEvent p_event )
+        {
+            m_time = p_time;
+            m_sequence = p_sequence;
+            m_event = p_event;
+        }
+
+        /**
+         * returns the time
+         *
+         * @return time in steps
+         */
+        public final double getTime()
+        {
+            return m_time;
+        }
+
+        /**
+         * returns the event
+         *
+         * @return event
+         */
+        public final IEvent getEvent()
+        {
+            return m_event;
+        }
+
+        @Override
+        public final int compareTo( final CEntry p_entry )
+        {
+            final int l_compare = Double.compare( m_time, p_entry.m_time );
+            return l_compare != 0 ? l_compare : Long.compare( m_sequence, p_entry.m_sequence );
+        }
+    }
+
+}
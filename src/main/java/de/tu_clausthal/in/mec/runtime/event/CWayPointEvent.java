@@ -0,0 +1,97 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+package de.tu_clausthal.in.mec.runtime.event;
+
+import de.tu_clausthal.in.mec.object.car.CCarLayer;
+import de.tu_clausthal.in.mec.object.car.CDefaultCar;
+import de.tu_clausthal.in.mec.object.car.ICar;
+import de.tu_clausthal.in.mec.object.waypoint.CCarWayPointLayer;
+import de.tu_clausthal.in.mec.object.waypoint.point.IWayPoint;
+import de.tu_clausthal.in.mec.runtime.IReturnSteppableTarget;
+
+import java.util.Collection;
+
+
+/**
+ * event of a waypoint, which spawns cars, the next event is scheduled
+ * on the next step, on which the generator can create cars, the cars
+ * get their first event on the spawn time
+ */
+public final class CWayPointEvent implements IEvent
+{
+    /**
+     * waypoint layer
+     */
+    private final CCarWayPointLayer m_layer;
+    /**
+     * car layer
+     */
+    private final CCarLayer m_cars;
+    /**
+     * waypoint
+     */
+    private final IWayPoint<ICar> m_waypoint;
+
+    /**
+     * ctor
+     *
+     * @param p_layer waypoint layer
+     * @param p_cars car layer
+     * @param p_waypoint waypoint
+     */
+    public CWayPointEvent( final CCarWayPointLayer p_layer, final CCarLayer p_cars, final IWayPoint<ICar> p_waypoint )
+    {
+        m_layer = p_layer;
+        m_cars = p_cars;
+        m_waypoint = p_waypoint;
+    }
+
+    @Override
+    public final void execute( final CEventEngine p_engine, final double p_time ) throws Exception
+    {
+        // a removed waypoint is dropped
+        if ( !m_layer.contains( m_waypoint ) )
+        {
+            p_engine.unschedule( m_waypoint );
+            return;
+        }
+
+        final int l_step = (int) p_time;
+        final Collection<ICar> l_cars = m_waypoint.step( l_step, m_layer );
+        if ( l_cars != null )
+        {
+            for ( final IReturnSteppableTarget<ICar> l_target : m_waypoint.getTargets() )
+                l_target.push( l_cars );
+            for ( final ICar l_car : l_cars )
+                if ( l_car instanceof CDefaultCar )
+                    p_engine.schedule( p_time, new CCarEvent( m_cars, (CDefaultCar) l_car ) );
+        }
+
+        // a waypoint without further objects keeps its registration, so it is not scheduled again
+        final int l_next = m_waypoint.getNextStep( l_step );
+        if ( l_next < Integer.MAX_VALUE )
+            p_engine.schedule( l_next, this );
+    }
+
+}
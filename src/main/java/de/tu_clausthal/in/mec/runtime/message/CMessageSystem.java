@@ -36,7 +36,10 @@ import de.tu_clausthal.in.mec.ui.web.CWebSocket;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Set;
 
 
@@ -61,6 +64,14 @@ public final class CMessageSystem implements IVoidSteppable
      * tree structure of all objects (root-node is equal to this object)
      */
     private final CTreeNode<Pair<Set<IParticipant>, Set<IMessage>>> m_root = new CTreeNode( this.toString() );
+    /**
+     * messages, which are pushed but not received
+     */
+    private final List<Pair<CPath, IMessage<?>>> m_pending = new LinkedList<>();
+    /**
+     * forwarding of messages, which receivers are not registered locally
+     */
+    private volatile IRemoteForward m_remote;
 
     /**
      * adds a listener
@@ -85,6 +96,9 @@ public final class CMessageSystem implements IVoidSteppable
 
         if ( !m_root.pathExist( p_receiverpath ) )
         {
+            if ( ( m_remote != null ) && ( m_remote.forward( p_receiverpath, p_message ) ) )
+                return;
+
             CLogger.error( CCommon.getResourceString( this, "messagefail", p_message.getData(), p_receiverpath ) );
             return;
         }
@@ -117,11 +131,50 @@ public final class CMessageSystem implements IVoidSteppable
                 this.incrementMessageFlow( p_receiverpath, l_subreceiver.getReceiverPath() );
         }
 
+        m_pending.add( new ImmutablePair<>( p_receiverpath, p_message ) );
+
         // call listener with receiver and message
         for ( final IActionListener l_item : m_listener )
             l_item.onPushMessage( p_receiverpath, p_message );
     }
 
+    /**
+     * returns the messages, which are pushed but not received
+     *
+     * @return list with receiver path and message
+     */
+    public final synchronized List<Pair<CPath, IMessage<?>>> getPendingMessages()
+    {
+        return new ArrayList<>( m_pending );
+    }
+
+    /**
+     * pushs a message of another process to the queue, the message
+     * is dropped if the receiver is not registered locally
+     *
+     * @param p_receiverpath receiver
+     * @param p_message message
+     * @return boolean if the message is pushed
+     */
+    public final synchronized boolean pushRemoteMessage( final CPath p_receiverpath, final IMessage<?> p_message )
+    {
+        if ( ( p_receiverpath == null ) || ( p_receiverpath.isEmpty() ) || ( !m_root.pathExist( p_receiverpath ) ) )
+            return false;
+
+        this.pushMessage( p_receiverpath, p_message );
+        return true;
+    }
+
+    /**
+     * sets the forwarding of messages, which receivers are not registered locally
+     *
+     * @param p_remote forwarding object or null for removing
+     */
+    public final void setRemoteForward( final IRemoteForward p_remote )
+    {
+        m_remote = p_remote;
+    }
+
     /**
      * register a new participant
      *
@@ -151,6 +204,10 @@ public final class CMessageSystem implements IVoidSteppable
     public final void release()
     {
         m_messageflow.clear();
+        synchronized ( this )
+        {
+            m_pending.clear();
+        }
     }
 
     /**
@@ -166,6 +223,11 @@ public final class CMessageSystem implements IVoidSteppable
     @Override
     public final void step( final int p_currentstep, final ILayer p_layer ) throws Exception
     {
+        synchronized ( this )
+        {
+            m_pending.clear();
+        }
+
         for ( final Pair<Set<IParticipant>, Set<IMessage>> l_item : m_root.getTreeData( false ) )
         {
             // data element within the tree can be used null values, so this items will be skipped
@@ -257,4 +319,21 @@ public final class CMessageSystem implements IVoidSteppable
         void onUnregister( final CPath p_path, final IParticipant p_receiver );
 
     }
+
+    /**
+     * interface to forward messages to other processes
+     */
+    public interface IRemoteForward
+    {
+
+        /**
+         * is called if the receiver of a message is not registered locally
+         *
+         * @param p_pathreceiver receiver path
+         * @param p_message message
+         * @return boolean if the message is forwarded
+         */
+        boolean forward( final CPath p_pathreceiver, final IMessage<?> p_message );
+
+    }
 }
@@ -0,0 +1,276 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.runtime.sweep;
+
+import de.tu_clausthal.in.mec.CLogger;
+import de.tu_clausthal.in.mec.common.CCommon;
+import de.tu_clausthal.in.mec.object.car.CCarLayer;
+import de.tu_clausthal.in.mec.object.car.ICar;
+import de.tu_clausthal.in.mec.object.car.graph.CEdge;
+import de.tu_clausthal.in.mec.runtime.CSimulation;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+
+/**
+ * parameter sweep, each point of the parameter grid is run as an own simulation
+ * of the scenario, the runs are scheduled on all cores and share the graph storage,
+ * the index of a run is used as run key of the evaluation data, so the database
+ * rows of the runs are distinguished
+ */
+public final class CSweep
+{
+    /**
+     * scenario file
+     */
+    private final File m_scenario;
+    /**
+     * number of steps of each run
+     */
+    private final int m_steps;
+    /**
+     * parameter grid
+     */
+    private final Map<EParameter, List<Object>> m_grid = new LinkedHashMap<>();
+
+
+    /**
+     * ctor
+     *
+     * @param p_scenario scenario file
+     * @param p_steps number of steps of each run
+     * @param p_grid map with parameter names and their values
+     */
+    @SuppressWarnings( "unchecked" )
+    public CSweep( final File p_scenario, final int p_steps, final Map<String, Object> p_grid )
+    {
+        if ( p_steps < 1 )
+            throw new IllegalArgumentException( CCommon.getResourceString( this, "stepnumber" ) );
+
+        m_scenario = p_scenario;
+        m_steps = p_steps;
+        for ( final Map.Entry<String, Object> l_item : p_grid.entrySet() )
+            m_grid.put(
+                    EParameter.valueOf( l_item.getKey() ),
+                    l_item.getValue() instanceof List ? (List<Object>) l_item.getValue() : Collections.singletonList( l_item.getValue() )
+            );
+    }
+
+    /**
+     * returns the parameters of all runs, which is the cartesian product of the grid
+     *
+     * @return list with the parameter values of each run
+     */
+    public final List<Map<EParameter, Object>> getRuns()
+    {
+        List<Map<EParameter, Object>> l_runs = new LinkedList<>();
+        l_runs.add( new LinkedHashMap<>() );
+
+        for ( final Map.Entry<EParameter, List<Object>> l_parameter : m_grid.entrySet() )
+        {
+            final List<Map<EParameter, Object>> l_product = new LinkedList<>();
+            for ( final Map<EParameter, Object> l_run : l_runs )
+                for ( final Object l_value : l_parameter.getValue() )
+                {
+                    final Map<EParameter, Object> l_item = new LinkedHashMap<>( l_run );
+                    l_item.put( l_parameter.getKey(), l_value );
+                    l_product.add( l_item );
+                }
+            l_runs = l_product;
+        }
+
+        return new ArrayList<>( l_runs );
+    }
+
+    /**
+     * runs the sweep and blocks until all runs are finished
+     *
+     * @param p_concurrent number of concurrent runs
+     * @return result set with one entry for each run in index order
+     *
+     * @throws InterruptedException thrown on thread error
+     * @note the cores are split between the concurrent runs, so a
+     * small grid uses more worker threads within each run
+     */
+    public final List<Map<String, Object>> run( final int p_concurrent ) throws InterruptedException
+    {
+        final List<Map<EParameter, Object>> l_runs = this.getRuns();
+        final int l_concurrent = Math.max( 1, Math.min( p_concurrent, l_runs.size() ) );
+        final int l_parallelism = Math.max( 1, Runtime.getRuntime().availableProcessors() / l_concurrent );
+
+        CLogger.info( CCommon.getResourceString( this, "start", l_runs.size(), l_concurrent, l_parallelism ) );
+
+        final ExecutorService l_pool = Executors.newFixedThreadPool( l_concurrent );
+        try
+        {
+            final List<Future<Map<String, Object>>> l_futures = new ArrayList<>();
+            for ( int i = 0; i < l_runs.size(); i++ )
+            {
+                final int l_index = i;
+                l_futures.add( l_pool.submit( () -> this.run( l_index, l_runs.get( l_index ), l_parallelism ) ) );
+            }
+
+            final List<Map<String, Object>> l_result = new ArrayList<>();
+            for ( int i = 0; i < l_futures.size(); i++ )
+                try
+                {
+                    l_result.add( l_futures.get( i ).get() );
+                }
+                catch ( final ExecutionException l_exception )
+                {
+                    CLogger.error( l_exception );
+                    l_result.add( CCommon.getMap( "index", i, "parameter", toNames( l_runs.get( i ) ), "error", l_exception.getCause().toString() ) );
+                }
+            return l_result;
+        }
+        finally
+        {
+            l_pool.shutdownNow();
+        }
+    }
+
+    /**
+     * stores the result set into a Json file
+     *
+     * @param p_file output file
+     * @param p_result result set
+     * @throws IOException thrown on writing error
+     */
+    public static void store( final File p_file, final List<Map<String, Object>> p_result ) throws IOException
+    {
+        FileUtils.writeStringToFile( p_file, CCommon.toJson( CCommon.getMap( "runs", p_result ) ), "UTF-8" );
+    }
+
+    /**
+     * runs a single point of the grid
+     *
+     * @param p_index index of the run
+     * @param p_parameter parameter values
+     * @param p_parallelism number of worker threads of the simulation
+     * @return result of the run
+     *
+     * @throws Exception thrown on loading or simulation error
+     */
+    private Map<String, Object> run( final int p_index, final Map<EParameter, Object> p_parameter, final int p_parallelism ) throws Exception
+    {
+        final CSimulation l_simulation = CSimulation.create( p_parallelism );
+        return l_simulation.call(
+                () -> {
+                    l_simulation.load( m_scenario );
+                    p_parameter.forEach( ( i, j ) -> i.apply( l_simulation, j ) );
+                    l_simulation.setBatch( true );
+                    l_simulation.setRunKey( p_index );
+
+                    final long l_start = System.nanoTime();
+                    l_simulation.start( m_steps );
+                    final double l_time = ( System.nanoTime() - l_start ) * 1e-9;
+
+                    final CCarLayer l_cars = l_simulation.getWorld().<CCarLayer>getTyped( "Cars" );
+                    return CCommon.getMap(
+                            "index", p_index,
+                            "parameter", toNames( p_parameter ),
+                            "steps", m_steps,
+                            "time", l_time,
+                            "stepspersecond", m_steps / l_time,
+                            "cars", l_cars.size(),
+                            "meanspeed", l_cars.stream().mapToInt( ICar::getCurrentSpeed ).average().orElse( 0 ),
+                            "evaluation", evaluate( l_simulation, l_cars )
+                    );
+                }
+        );
+    }
+
+    /**
+     * evaluates the final state of a run with the values of the fundamental diagram
+     * over the occupied edges and the step cost of the layers
+     *
+     * @param p_simulation simulation of the run
+     * @param p_cars car layer
+     * @return map with the evaluation values
+     */
+    private static Map<String, Object> evaluate( final CSimulation p_simulation, final CCarLayer p_cars )
+    {
+        int l_edges = 0;
+        int l_count = 0;
+        double l_density = 0;
+        double l_speedsuminvert = 0;
+        int l_moving = 0;
+
+        for ( final CEdge<ICar, ?> l_edge : p_cars.getGraph().getEdgeCollection() )
+        {
+            final int l_objects = l_edge.getNumberOfObjects();
+            if ( l_objects == 0 )
+                continue;
+
+            l_edges++;
+            l_count += l_objects;
+            l_density += l_objects / l_edge.getDistance();
+            for ( final ICar l_car : l_edge.getCellList() )
+                if ( ( l_car != null ) && ( l_car.getCurrentSpeed() > 0 ) )
+                {
+                    l_speedsuminvert += 1.0 / l_car.getCurrentSpeed();
+                    l_moving++;
+                }
+        }
+
+        return CCommon.getMap(
+                "edges", l_edges,
+                // traffic density = cars / distance (in meter), traffic power = cars / time (in seconds), averaged over the occupied edges
+                "density", l_edges == 0 ? 0 : l_density / l_edges,
+                "power", l_edges == 0 ? 0 : l_count / p_cars.getUnitConvert().getTime() / l_edges,
+                // harmonic mean speed of the moving cars
+                "harmonicmeanspeed", l_moving == 0 ? 0 : l_moving / l_speedsuminvert,
+                "stopped", l_count - l_moving,
+                "layercost", p_simulation.getLayerCost()
+        );
+    }
+
+    /**
+     * converts the parameter map into a map with names
+     *
+     * @param p_parameter parameter values
+     * @return map with parameter names and values
+     */
+    private static Map<String, Object> toNames( final Map<EParameter, Object> p_parameter )
+    {
+        final Map<String, Object> l_names = new HashMap<>();
+        p_parameter.forEach( ( i, j ) -> l_names.put( i.name(), j ) );
+        return l_names;
+    }
+
+}
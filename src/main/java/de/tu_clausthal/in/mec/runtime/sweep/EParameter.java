@@ -0,0 +1,127 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.runtime.sweep;
+
+import de.tu_clausthal.in.mec.common.CCommon;
+import de.tu_clausthal.in.mec.common.CNameHashMap;
+import de.tu_clausthal.in.mec.object.car.CCarLayer;
+import de.tu_clausthal.in.mec.object.car.ICar;
+import de.tu_clausthal.in.mec.object.car.graph.CGraphHopper;
+import de.tu_clausthal.in.mec.object.waypoint.CCarWayPointLayer;
+import de.tu_clausthal.in.mec.object.waypoint.point.IWayPoint;
+import de.tu_clausthal.in.mec.runtime.CSimulation;
+import de.tu_clausthal.in.mec.ui.CWaypointEnvironment;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.function.Function;
+
+
+/**
+ * parameters of a sweep, each parameter is applied to a loaded simulation,
+ * the waypoint parameters change the UI data of all waypoints
+ */
+public enum EParameter
+{
+    /**
+     * driving model of the car layer
+     */
+    DriveModel,
+    /**
+     * linger probability, first momentum of the linger distribution
+     */
+    Linger,
+    /**
+     * factor of the car count of the waypoint generators
+     */
+    GeneratorRate,
+    /**
+     * routing weight of the waypoint factories
+     */
+    Weight;
+
+
+    /**
+     * applies the parameter value to the simulation
+     *
+     * @param p_simulation simulation, which is bound to the calling thread
+     * @param p_value value
+     */
+    @SuppressWarnings( "unchecked" )
+    public final void apply( final CSimulation p_simulation, final Object p_value )
+    {
+        switch ( this )
+        {
+            case DriveModel:
+                p_simulation.getWorld().<CCarLayer>getTyped( "Cars" ).setDriveModel( CCarLayer.EDrivingModel.valueOf( p_value.toString() ) );
+                return;
+
+            case Linger:
+                setWaypoints( p_simulation, "distribution/linger/firstmomentum", i -> ( (Number) p_value ).doubleValue() );
+                return;
+
+            case GeneratorRate:
+                setWaypoints(
+                        p_simulation, "carcount", i -> (int) Math.round( i.<Number>get( "carcount" ).doubleValue() * ( (Number) p_value ).doubleValue() )
+                );
+                return;
+
+            case Weight:
+                setWaypoints( p_simulation, "weight", i -> CGraphHopper.EWeight.valueOf( p_value.toString() ).name() );
+                return;
+
+            default:
+                throw new IllegalStateException( CCommon.getResourceString( this, "unknown", this ) );
+        }
+    }
+
+    /**
+     * sets a value within the UI data of each waypoint and recreates the waypoints
+     *
+     * @param p_simulation simulation
+     * @param p_path path of the value within the UI data
+     * @param p_value function, which creates the value of the UI data
+     * @note waypoints without UI data are not changed
+     */
+    @SuppressWarnings( "unchecked" )
+    private static void setWaypoints( final CSimulation p_simulation, final String p_path, final Function<CNameHashMap, Object> p_value )
+    {
+        final CCarWayPointLayer l_layer = p_simulation.getWorld().<CCarWayPointLayer>getTyped( "Car WayPoints" );
+        for ( final IWayPoint<ICar> l_waypoint : new ArrayList<>( l_layer ) )
+        {
+            final Map<String, Object> l_settings = l_layer.getSettings( l_waypoint );
+            if ( l_settings == null )
+                continue;
+
+            final CNameHashMap l_data = new CNameHashMap( l_settings );
+            l_data.set( p_path, p_value.apply( l_data ) );
+
+            l_layer.remove( l_waypoint );
+            l_waypoint.release();
+            l_layer.add( (IWayPoint<ICar>) CWaypointEnvironment.createWaypoint( l_data, l_waypoint.getPosition() ), l_data );
+        }
+    }
+
+}
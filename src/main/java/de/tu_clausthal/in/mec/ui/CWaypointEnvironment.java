@@ -184,6 +184,10 @@ public class CWaypointEnvironment
      * map with objects, which are created by the UI call
      **/
     private final Map<String, Object> m_currentsettings = new HashMap<>();
+    /**
+     * UI data of the current settings
+     */
+    private Map<String, Object> m_currentdata;
 
 
     /**
@@ -206,13 +210,86 @@ public class CWaypointEnvironment
             throw new IllegalStateException( CCommon.getResourceString( this, "settingsnotexists" ) );
 
         CSimulation.getInstance().getWorld().<CCarWayPointLayer>getTyped( "Car WayPoints" ).add(
-                (IWayPoint) EWaypoint.valueOf( (String) m_currentsettings.get( "waypoint" ) ).get(
-                        p_position,
-                        (IGenerator) m_currentsettings.get( "generator" ),
-                        (IFactory) m_currentsettings.get( "factory" ),
-                        (Double) m_currentsettings.get( "radius" ),
-                        (Color) m_currentsettings.get( "color" ),
-                        (String) m_currentsettings.get( "name" )
+                (IWayPoint) instantiate( m_currentsettings, p_position ), m_currentdata
+        );
+    }
+
+    /**
+     * creates a waypoint of UI data, e.g. on restoring a stored simulation
+     *
+     * @param p_data UI data
+     * @param p_position geoposition of the waypoint
+     * @return waypoint
+     */
+    public static IWayPoint<?> createWaypoint( final Map<String, Object> p_data, final GeoPosition p_position )
+    {
+        final Map<String, Object> l_settings = new HashMap<>();
+        createSettings( p_data, l_settings );
+        return instantiate( l_settings, p_position );
+    }
+
+    /**
+     * creates a waypoint of the settings
+     *
+     * @param p_settings settings
+     * @param p_position geoposition of the waypoint
+     * @return waypoint
+     */
+    private static IWayPoint<?> instantiate( final Map<String, Object> p_settings, final GeoPosition p_position )
+    {
+        return EWaypoint.valueOf( (String) p_settings.get( "waypoint" ) ).get(
+                p_position,
+                (IGenerator) p_settings.get( "generator" ),
+                (IFactory) p_settings.get( "factory" ),
+                (Double) p_settings.get( "radius" ),
+                (Color) p_settings.get( "color" ),
+                (String) p_settings.get( "name" )
+        );
+    }
+
+    /**
+     * creates the settings of the UI data
+     *
+     * @param p_data UI data
+     * @param p_settings settings map, which is filled
+     */
+    private static void createSettings( final Map<String, Object> p_data, final Map<String, Object> p_settings )
+    {
+        final CNameHashMap.CImmutable l_data = new CNameHashMap.CImmutable( p_data );
+
+        // create items from the UI data and set internal properties
+        p_settings.put( "name", l_data.<String>get( "name" ) );
+        p_settings.put( "waypoint", l_data.<String>get( "waypoint" ) );
+        p_settings.put( "radius", l_data.<Number>get( "radius" ).doubleValue() );
+        p_settings.put(
+                "color", new Color(
+                        l_data.<Number>get( "color/red" ).intValue(),
+                        l_data.<Number>get( "color/green" ).intValue(),
+                        l_data.<Number>get( "color/blue" ).intValue()
+                )
+        );
+
+        p_settings.put(
+                "factory",
+                EFactory.valueOf( l_data.<String>get( "factory" ) ).get(
+                        l_data.<Number>get( "speedfactor" ).doubleValue(),
+                        createDistribution( l_data.get( "distribution/maxspeed" ) ),
+                        createDistribution( l_data.get( "distribution/acceleration" ) ),
+                        createDistribution( l_data.get( "distribution/deceleration" ) ),
+                        createDistribution( l_data.get( "distribution/linger" ) ),
+                        CGraphHopper.EWeight.valueOf( l_data.<String>get( "weight" ) ),
+                        l_data.<String>get( "agent/agent" ),
+                        EAgentLanguages.valueOf( l_data.<String>get( "agent/type" ) )
+                )
+        );
+
+        p_settings.put(
+                "generator",
+                EGenerator.valueOf( l_data.<String>getOrDefault( "generator", "" ) ).get(
+
+                        createDistribution( l_data.get( "distribution/generator" ) ),
+                        l_data.<Number>get( "carcount" ).intValue()
+
                 )
         );
     }
@@ -223,7 +300,7 @@ public class CWaypointEnvironment
      * @param p_object map object
      * @return distribution object
      */
-    private AbstractRealDistribution createDistribution( final CNameHashMap.CImmutable p_object )
+    private static AbstractRealDistribution createDistribution( final CNameHashMap.CImmutable p_object )
     {
         return EDistribution.valueOf( p_object.<String>getOrDefault( "distribution", "" ) ).get(
                 p_object.<Number>get( "firstmomentum" ).doubleValue(),
@@ -308,46 +385,10 @@ public class CWaypointEnvironment
      */
     private final void web_static_set( final Map<String, Object> p_data )
     {
-        // create travable map and clear cached settings
+        // clear cached settings and store the UI data, so the waypoints can be restored
         m_currentsettings.clear();
-        final CNameHashMap.CImmutable l_data = new CNameHashMap.CImmutable( p_data );
-
-        // create items from the UI data and set internal properties
-        m_currentsettings.put( "name", l_data.<String>get( "name" ) );
-        m_currentsettings.put( "waypoint", l_data.<String>get( "waypoint" ) );
-        m_currentsettings.put( "radius", l_data.<Number>get( "radius" ).doubleValue() );
-        m_currentsettings.put(
-                "color", new Color(
-                        l_data.<Number>get( "color/red" ).intValue(),
-                        l_data.<Number>get( "color/green" ).intValue(),
-                        l_data.<Number>get( "color/blue" ).intValue()
-                )
-        );
-
-        m_currentsettings.put(
-                "factory",
-                EFactory.valueOf( l_data.<String>get( "factory" ) ).get(
-                        l_data.<Number>get( "speedfactor" ).doubleValue(),
-                        this.createDistribution( l_data.get( "distribution/maxspeed" ) ),
-                        this.createDistribution( l_data.get( "distribution/acceleration" ) ),
-                        this.createDistribution( l_data.get( "distribution/deceleration" ) ),
-                        this.createDistribution( l_data.get( "distribution/linger" ) ),
-                        CGraphHopper.EWeight.valueOf( l_data.<String>get( "weight" ) ),
-                        l_data.<String>get( "agent/agent" ),
-                        EAgentLanguages.valueOf( l_data.<String>get( "agent/type" ) )
-                )
-        );
-
-        m_currentsettings.put(
-                "generator",
-                EGenerator.valueOf( l_data.<String>getOrDefault( "generator", "" ) ).get(
-
-                        this.createDistribution( l_data.get( "distribution/generator" ) ),
-                        l_data.<Number>get( "carcount" ).intValue()
-
-                )
-        );
-
+        m_currentdata = p_data;
+        createSettings( p_data, m_currentsettings );
     }
 
     /**
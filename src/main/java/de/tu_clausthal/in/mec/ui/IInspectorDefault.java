@@ -38,10 +38,10 @@ import java.util.Map;
 public abstract class IInspectorDefault extends IUIListener implements IInspector
 {
     /**
-     * inspect variable *
+     * inspect variable, which is created on the first call *
      */
     @CFieldFilter.CAgent( bind = false )
-    private final Map<String, Object> m_inspect = new HashMap<>();
+    private Map<String, Object> m_inspect;
 
     @Override
     @CMethodFilter.CAgent( bind = false )
@@ -49,6 +49,9 @@ public abstract class IInspectorDefault extends IUIListener implements IInspecto
     {
         // data must be added in the method, because the instantiation of the map is called before the child object is instantiate,
         // so to get the correct data must be read during method call, to avoid calling new strings we check the key first
+        if ( m_inspect == null )
+            m_inspect = new HashMap<>();
+
         if ( !m_inspect.containsKey( CCommon.getResourceString( IInspectorDefault.class, "objectid" ) ) )
             m_inspect.put( CCommon.getResourceString( IInspectorDefault.class, "objectid" ), this.hashCode() );
 
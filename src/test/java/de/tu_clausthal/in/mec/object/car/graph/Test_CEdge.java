@@ -0,0 +1,430 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.object.car.graph;
+
+import com.graphhopper.routing.util.EncodingManager;
+import com.graphhopper.storage.Graph;
+import com.graphhopper.storage.GraphBuilder;
+import com.graphhopper.util.EdgeIteratorState;
+import org.junit.Test;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+
+/**
+ * test for CEdge class
+ */
+public class Test_CEdge
+{
+    /**
+     * cell size
+     */
+    private static final int c_cellsize = 5;
+
+
+    /**
+     * test-case for the scan of the occupied cells over the word boundaries of the bitset
+     *
+     * @throws IllegalAccessException on cell errors
+     */
+    @Test
+    public void testWordBoundary() throws IllegalAccessException
+    {
+        final CEdge<Object, Object> l_edge = new CEdge<>( this.edge( 1000 ), c_cellsize );
+        assertEquals( 200, l_edge.getEdgeCells() );
+        assertEquals( -1, l_edge.getNextObjectPosition( 0 ) );
+
+        for ( final int l_position : new int[]{63, 64, 127, 128, 199} )
+            l_edge.setObject( new Object(), l_position );
+
+        assertEquals( 63, l_edge.getNextObjectPosition( 0 ) );
+        assertEquals( 63, l_edge.getNextObjectPosition( 63 ) );
+        assertEquals( 64, l_edge.getNextObjectPosition( 64 ) );
+        assertEquals( 127, l_edge.getNextObjectPosition( 65 ) );
+        assertEquals( 128, l_edge.getNextObjectPosition( 128 ) );
+        assertEquals( 199, l_edge.getNextObjectPosition( 129 ) );
+        assertEquals( -1, l_edge.getNextObjectPosition( 200 ) );
+
+        // the scan skips the empty words behind the position
+        l_edge.removeObject( l_edge.getObject( 127 ), 127 );
+        l_edge.removeObject( l_edge.getObject( 128 ), 128 );
+        assertEquals( 199, l_edge.getNextObjectPosition( 65 ) );
+        assertEquals( 3, l_edge.getNumberOfObjects() );
+
+        l_edge.removeObject( l_edge.getObject( 199 ), 199 );
+        assertEquals( -1, l_edge.getNextObjectPosition( 65 ) );
+    }
+
+    /**
+     * test-case for a cell, which is vacated and refilled at the same time, the
+     * occupied bit must be set after both calls
+     *
+     * @throws Exception on thread errors
+     */
+    @Test
+    public void testVacateRefill() throws Exception
+    {
+        final CEdge<Object, Object> l_edge = new CEdge<>( this.edge( 1000 ), c_cellsize );
+        final CyclicBarrier l_barrier = new CyclicBarrier( 2 );
+        final Object[] l_objects = {new Object(), new Object()};
+        final int l_position = 64;
+        final int l_iterations = 2000;
+
+        l_edge.setObject( l_objects[0], l_position );
+
+        // each iteration one thread vacates the cell and the other one refills it with the next object
+        final Thread[] l_threads = new Thread[2];
+        for ( int j = 0; j < l_threads.length; j++ )
+        {
+            final boolean l_vacate = j == 0;
+            l_threads[j] = new Thread(
+                    () -> {
+                        try
+                        {
+                            for ( int i = 0; i < l_iterations; i++ )
+                            {
+                                l_barrier.await();
+                                if ( l_vacate )
+                                    l_edge.removeObject( l_objects[i % 2], l_position );
+                                else
+                                    while ( true )
+                                        try
+                                        {
+                                            l_edge.setObject( l_objects[( i + 1 ) % 2], l_position );
+                                            break;
+                                        }
+                                        catch ( final IllegalAccessException l_exception )
+                                        {
+                                            Thread.yield();
+                                        }
+                                l_barrier.await();
+                            }
+                        }
+                        catch ( final Exception l_exception )
+                        {
+                            throw new RuntimeException( l_exception );
+                        }
+                    }
+            );
+            l_threads[j].start();
+        }
+
+        for ( final Thread l_thread : l_threads )
+            l_thread.join();
+
+        assertSame( l_objects[l_iterations % 2], l_edge.getObject( l_position ) );
+        assertEquals( 1, l_edge.getNumberOfObjects() );
+        assertEquals( l_position, l_edge.getNextObjectPosition( 0 ) );
+        assertEquals( -1, l_edge.getNextObjectPosition( l_position + 1 ) );
+
+        l_edge.removeObject( l_objects[l_iterations % 2], l_position );
+        assertNull( l_edge.getObject( l_position ) );
+        assertEquals( -1, l_edge.getNextObjectPosition( 0 ) );
+    }
+
+    /**
+     * test-case for the compare-and-set of an occupied cell
+     *
+     * @throws IllegalAccessException on cell errors
+     */
+    @Test
+    public void testSetObject() throws IllegalAccessException
+    {
+        final CEdge<Object, Object> l_edge = new CEdge<>( this.edge( 100 ), c_cellsize );
+        final Object l_object = new Object();
+
+        l_edge.setObject( l_object, 3 );
+        try
+        {
+            l_edge.setObject( new Object(), 3 );
+            fail( "occupied cell is set" );
+        }
+        catch ( final IllegalAccessException l_exception )
+        {
+        }
+        assertSame( l_object, l_edge.getObject( 3 ) );
+        assertEquals( 1, l_edge.getNumberOfObjects() );
+
+        // removing another object does not clear the cell
+        l_edge.removeObject( new Object(), 3 );
+        assertSame( l_object, l_edge.getObject( 3 ) );
+    }
+
+    /**
+     * test-case for concurrent sets of the same cell, exactly one object wins
+     *
+     * @throws Exception on thread errors
+     */
+    @Test
+    public void testConcurrentSetObject() throws Exception
+    {
+        final CEdge<Object, Object> l_edge = new CEdge<>( this.edge( 100 ), c_cellsize );
+        final Thread[] l_threads = new Thread[8];
+        final Object[] l_objects = new Object[l_threads.length];
+        final CyclicBarrier l_barrier = new CyclicBarrier( l_threads.length );
+        final AtomicInteger l_wins = new AtomicInteger();
+
+        for ( int i = 0; i < l_threads.length; i++ )
+        {
+            final Object l_object = new Object();
+            l_objects[i] = l_object;
+            l_threads[i] = new Thread(
+                    () -> {
+                        try
+                        {
+                            l_barrier.await();
+                            l_edge.setObject( l_object, 7 );
+                            l_wins.incrementAndGet();
+                        }
+                        catch ( final IllegalAccessException l_exception )
+                        {
+                        }
+                        catch ( final Exception l_exception )
+                        {
+                            throw new RuntimeException( l_exception );
+                        }
+                    }
+            );
+            l_threads[i].start();
+        }
+
+        for ( final Thread l_thread : l_threads )
+            l_thread.join();
+
+        assertEquals( 1, l_wins.get() );
+        assertEquals( 1, l_edge.getNumberOfObjects() );
+        assertEquals( 7, l_edge.getNextObjectPosition( 0 ) );
+        assertTrue( l_edge.contains( l_edge.getObject( 7 ), 7 ) );
+    }
+
+    /**
+     * test-case for the move of an object, the target cell is set before the current cell is released
+     *
+     * @throws IllegalAccessException on cell errors
+     */
+    @Test
+    public void testMove() throws IllegalAccessException
+    {
+        final CEdge<Object, Object> l_edge = new CEdge<>( this.edge( 100 ), c_cellsize );
+        final CEdge<Object, Object> l_next = new CEdge<>( this.edge( 100 ), c_cellsize );
+        final Object l_object = new Object();
+        final Object l_blocker = new Object();
+
+        // an object, which is not placed, is set on the cell and no cell is released
+        assertTrue( l_edge.move( l_object, 0, null, 0 ) );
+        assertSame( l_object, l_edge.getObject( 0 ) );
+        assertEquals( 1, l_edge.getNumberOfObjects() );
+
+        assertTrue( l_edge.move( l_object, 4, l_edge, 0 ) );
+        assertNull( l_edge.getObject( 0 ) );
+        assertSame( l_object, l_edge.getObject( 4 ) );
+
+        assertTrue( l_next.move( l_object, 0, l_edge, 4 ) );
+        assertTrue( l_edge.isEmpty() );
+        assertSame( l_object, l_next.getObject( 0 ) );
+
+        // an occupied target keeps the object on its cell
+        l_next.setObject( l_blocker, 2 );
+        assertFalse( l_next.move( l_object, 2, l_next, 0 ) );
+        assertSame( l_object, l_next.getObject( 0 ) );
+        assertSame( l_blocker, l_next.getObject( 2 ) );
+        assertEquals( 2, l_next.getNumberOfObjects() );
+    }
+
+    /**
+     * test-case for the first event of a car, which is placed before the event engine starts, the
+     * event moves the car to its current cell, which must be done, otherwise the event is rescheduled
+     * on each step
+     *
+     * @throws IllegalAccessException on cell errors
+     */
+    @Test
+    public void testMoveCurrentCell() throws IllegalAccessException
+    {
+        final CEdge<Object, Object> l_edge = new CEdge<>( this.edge( 100 ), c_cellsize );
+        final Object l_object = new Object();
+
+        l_edge.setObject( l_object, 0 );
+        for ( int i = 0; i < 3; i++ )
+            assertTrue( l_edge.move( l_object, 0, l_edge, 0 ) );
+        assertSame( l_object, l_edge.getObject( 0 ) );
+        assertEquals( 1, l_edge.getNumberOfObjects() );
+        assertEquals( 0, l_edge.getNextObjectPosition( 0 ) );
+
+        // the next event moves the car away from its cell
+        assertTrue( l_edge.move( l_object, 5, l_edge, 0 ) );
+        assertNull( l_edge.getObject( 0 ) );
+        assertSame( l_object, l_edge.getObject( 5 ) );
+
+        // another object on the cell is not taken over
+        l_edge.setObject( new Object(), 0 );
+        assertFalse( l_edge.move( l_object, 0, l_edge, 0 ) );
+    }
+
+    /**
+     * test-case for the call, which waits for a cleared cell
+     *
+     * @throws IllegalAccessException on cell errors
+     */
+    @Test
+    public void testAwait() throws IllegalAccessException
+    {
+        final CEdge<Object, Object> l_edge = new CEdge<>( this.edge( 100 ), c_cellsize );
+        final Object l_object = new Object();
+        final AtomicInteger l_calls = new AtomicInteger();
+
+        // a call on an empty cell is run directly
+        l_edge.await( 2, l_calls::incrementAndGet );
+        assertEquals( 1, l_calls.get() );
+
+        // a call on an occupied cell is run once if the cell is cleared
+        l_edge.setObject( l_object, 2 );
+        l_edge.await( 2, l_calls::incrementAndGet );
+        l_edge.await( 3, l_calls::incrementAndGet );
+        assertEquals( 2, l_calls.get() );
+
+        assertTrue( l_edge.move( l_object, 4, l_edge, 2 ) );
+        assertEquals( 3, l_calls.get() );
+
+        l_edge.removeObject( l_object, 4 );
+        l_edge.setObject( l_object, 2 );
+        l_edge.removeObject( l_object, 2 );
+        assertEquals( 3, l_calls.get() );
+    }
+
+    /**
+     * test-case for the claim with the lower priority value
+     *
+     * @throws IllegalAccessException on cell errors
+     */
+    @Test
+    public void testClaimPriority() throws IllegalAccessException
+    {
+        final CEdge.CBuffer<Object> l_buffer = new CEdge.CBuffer<>();
+        final CEdge<Object, Object> l_edge = new CEdge<>( this.edge( 100 ), c_cellsize, l_buffer, null );
+        final Object[] l_objects = {new Object(), new Object(), new Object()};
+        final AtomicInteger l_commit = new AtomicInteger( -1 );
+
+        assertTrue( l_edge.claim( l_objects[0], 5, 5, 0, null, 0, () -> l_commit.set( 0 ) ) );
+        assertTrue( l_edge.claim( l_objects[1], 5, 3, 1, null, 0, () -> l_commit.set( 1 ) ) );
+        assertFalse( l_edge.claim( l_objects[2], 5, 4, 2, null, 0, () -> l_commit.set( 2 ) ) );
+
+        // the claims are committed on the swap only
+        assertNull( l_edge.getObject( 5 ) );
+        l_buffer.swap();
+        assertSame( l_objects[1], l_edge.getObject( 5 ) );
+        assertEquals( 1, l_commit.get() );
+        assertEquals( 1, l_edge.getNumberOfObjects() );
+
+        // an occupied cell cannot be claimed
+        assertFalse( l_edge.claim( l_objects[0], 5, 0, 0, null, 0, () -> l_commit.set( 0 ) ) );
+    }
+
+    /**
+     * test-case for claims with equal priority values, the order value decides
+     * independent of the order of the claims
+     *
+     * @throws IllegalAccessException on cell errors
+     */
+    @Test
+    public void testClaimTie() throws IllegalAccessException
+    {
+        final Object l_low = new Object();
+        final Object l_high = new Object();
+
+        for ( final Object[] l_order : new Object[][]{{l_low, l_high}, {l_high, l_low}} )
+        {
+            final CEdge.CBuffer<Object> l_buffer = new CEdge.CBuffer<>();
+            final CEdge<Object, Object> l_edge = new CEdge<>( this.edge( 100 ), c_cellsize, l_buffer, null );
+
+            assertTrue( l_edge.claim( l_order[0], 2, 1, l_order[0] == l_low ? 3 : 7, null, 0, () -> {} ) );
+            assertEquals( l_order[1] == l_low, l_edge.claim( l_order[1], 2, 1, l_order[1] == l_low ? 3 : 7, null, 0, () -> {} ) );
+
+            l_buffer.swap();
+            assertSame( l_low, l_edge.getObject( 2 ) );
+        }
+    }
+
+    /**
+     * test-case for a claim, which moves an object, and a claim of a departed object
+     *
+     * @throws IllegalAccessException on cell errors
+     */
+    @Test
+    public void testClaimMove() throws IllegalAccessException
+    {
+        final CEdge.CBuffer<Object> l_buffer = new CEdge.CBuffer<>();
+        final CEdge<Object, Object> l_edge = new CEdge<>( this.edge( 100 ), c_cellsize, l_buffer, null );
+        final Object l_object = new Object();
+        final Object l_departed = new Object();
+
+        l_edge.setObject( l_object, 1 );
+        assertTrue( l_edge.claim( l_object, 4, 0, 0, l_edge, 1, () -> {} ) );
+        assertSame( l_object, l_edge.getObject( 1 ) );
+
+        // the departure drops the pending claim
+        assertTrue( l_edge.claim( l_departed, 8, 0, 1, null, 0, () -> {} ) );
+        l_edge.removeObject( l_departed );
+
+        l_buffer.swap();
+        assertNull( l_edge.getObject( 1 ) );
+        assertSame( l_object, l_edge.getObject( 4 ) );
+        assertNull( l_edge.getObject( 8 ) );
+        assertEquals( 1, l_edge.getNumberOfObjects() );
+    }
+
+    /**
+     * test-case for a claim on an edge without double-buffering
+     */
+    @Test( expected = IllegalStateException.class )
+    public void testClaimNotBuffered()
+    {
+        new CEdge<Object, Object>( this.edge( 100 ), c_cellsize ).claim( new Object(), 0, 0, 0, null, 0, () -> {} );
+    }
+
+
+    /**
+     * creates an edge of a graph with two nodes
+     *
+     * @param p_distance distance of the edge
+     * @return edge
+     */
+    private EdgeIteratorState edge( final double p_distance )
+    {
+        final Graph l_graph = new GraphBuilder( new EncodingManager( "CAR" ) ).create();
+        l_graph.getNodeAccess().setNode( 0, 51.80, 10.33 );
+        l_graph.getNodeAccess().setNode( 1, 51.81, 10.34 );
+        return l_graph.edge( 0, 1, p_distance, true );
+    }
+
+}
@@ -0,0 +1,227 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.object.car.graph;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+
+/**
+ * test for CRoute class
+ */
+public class Test_CRoute
+{
+
+    /**
+     * checks each cell of a route against a linear search over the edges
+     *
+     * @param p_route route
+     * @param p_edges edge IDs
+     * @param p_cells number of cells of each edge
+     */
+    private static void check( final CRoute p_route, final int[] p_edges, final int[] p_cells )
+    {
+        int l_cell = 0;
+        for ( int i = 0; i < p_edges.length; i++ )
+            for ( int j = 0; j < p_cells[i]; j++ )
+            {
+                assertEquals( p_route.getEdgeID( l_cell ), p_edges[i] );
+                assertEquals( p_route.getPosition( l_cell ), j );
+                l_cell++;
+            }
+
+        assertEquals( p_route.size(), l_cell );
+    }
+
+
+    /**
+     * test-case cell access with the binary search
+     */
+    @Test
+    public void testEdgeIndex()
+    {
+        final int[] l_edges = {10, 20, 30, 40};
+        final int[] l_cells = {3, 1, 4, 2};
+        final CRoute l_route = new CRoute( l_edges, l_cells );
+
+        assertEquals( l_route.size(), 10 );
+        assertEquals( l_route.getNumberOfEdges(), 4 );
+        assertFalse( l_route.isEmpty() );
+        check( l_route, l_edges, l_cells );
+
+        // first and last cell of each edge
+        assertEquals( l_route.getEdgeIndex( 0 ), 0 );
+        assertEquals( l_route.getEdgeIndex( 2 ), 0 );
+        assertEquals( l_route.getEdgeIndex( 3 ), 1 );
+        assertEquals( l_route.getEdgeIndex( 4 ), 2 );
+        assertEquals( l_route.getEdgeIndex( 7 ), 2 );
+        assertEquals( l_route.getEdgeIndex( 8 ), 3 );
+        assertEquals( l_route.getEdgeIndex( 9 ), 3 );
+
+        for ( int i = 0; i <= l_route.getNumberOfEdges(); i++ )
+            assertEquals( l_route.getOffset( i ), new int[]{0, 3, 4, 8, 10}[i] );
+        for ( int i = 0; i < l_route.getNumberOfEdges(); i++ )
+            assertEquals( l_route.getEdgeIDOfIndex( i ), l_edges[i] );
+    }
+
+
+    /**
+     * test-case random routes against a linear search
+     */
+    @Test
+    public void testRandom()
+    {
+        final Random l_random = new Random( 42 );
+        for ( int n = 0; n < 100; n++ )
+        {
+            final int[] l_edges = new int[1 + l_random.nextInt( 50 )];
+            final int[] l_cells = new int[l_edges.length];
+            for ( int i = 0; i < l_edges.length; i++ )
+            {
+                l_edges[i] = l_random.nextInt( 1000 );
+                l_cells[i] = 1 + l_random.nextInt( 20 );
+            }
+
+            check( new CRoute( l_edges, l_cells ), l_edges, l_cells );
+        }
+    }
+
+
+    /**
+     * test-case edges without cells are skipped
+     */
+    @Test
+    public void testEmptyEdge()
+    {
+        final CRoute l_route = new CRoute( new int[]{1, 2, 3, 4}, new int[]{0, 2, 0, 1} );
+
+        assertEquals( l_route.getNumberOfEdges(), 2 );
+        check( l_route, new int[]{2, 4}, new int[]{2, 1} );
+        assertTrue( new CRoute( new int[]{1}, new int[]{0} ).isEmpty() );
+        assertTrue( new CRoute( new int[0], new int[0] ).isEmpty() );
+    }
+
+
+    /**
+     * test-case cells outside of the route
+     */
+    @Test
+    public void testOutOfRange()
+    {
+        final CRoute l_route = new CRoute( new int[]{1, 2}, new int[]{2, 3} );
+        for ( final int l_cell : new int[]{-1, 5, 6} )
+            try
+            {
+                l_route.getEdgeIndex( l_cell );
+                fail( String.valueOf( l_cell ) );
+            }
+            catch ( final IndexOutOfBoundsException l_exception )
+            {
+            }
+    }
+
+
+    /**
+     * test-case different number of edges and cells
+     */
+    @Test( expected = IllegalArgumentException.class )
+    public void testSize()
+    {
+        new CRoute( new int[]{1, 2}, new int[]{1} );
+    }
+
+
+    /**
+     * test-case append and replace
+     */
+    @Test
+    public void testConcat()
+    {
+        final CRoute l_first = new CRoute( new int[]{1, 2, 3}, new int[]{2, 3, 1} );
+        final CRoute l_second = new CRoute( new int[]{7, 8}, new int[]{4, 2} );
+
+        final CRoute l_append = l_first.append( l_second );
+        check( l_append, new int[]{1, 2, 3, 7, 8}, new int[]{2, 3, 1, 4, 2} );
+        assertEquals( l_append, new CRoute( new int[]{1, 2, 3, 7, 8}, new int[]{2, 3, 1, 4, 2} ) );
+
+        // the edge of the cell is kept and the following edges are replaced
+        final CRoute l_replace = l_first.replace( 3, l_second );
+        check( l_replace, new int[]{1, 2, 7, 8}, new int[]{2, 3, 4, 2} );
+        check( l_first.replace( 0, l_second ), new int[]{1, 7, 8}, new int[]{2, 4, 2} );
+        check( l_first.replace( 5, l_second ), new int[]{1, 2, 3, 7, 8}, new int[]{2, 3, 1, 4, 2} );
+
+        // the source routes are not changed
+        check( l_first, new int[]{1, 2, 3}, new int[]{2, 3, 1} );
+        check( l_second, new int[]{7, 8}, new int[]{4, 2} );
+    }
+
+
+    /**
+     * test-case equality of routes
+     */
+    @Test
+    public void testEquals()
+    {
+        final CRoute l_route = new CRoute( new int[]{1, 2}, new int[]{2, 3} );
+
+        assertEquals( l_route, new CRoute( new int[]{1, 2}, new int[]{2, 3} ) );
+        assertEquals( l_route.hashCode(), new CRoute( new int[]{1, 0, 2}, new int[]{2, 0, 3} ).hashCode() );
+        assertFalse( l_route.equals( new CRoute( new int[]{1, 2}, new int[]{3, 2} ) ) );
+        assertFalse( l_route.equals( new CRoute( new int[]{2, 1}, new int[]{2, 3} ) ) );
+        assertFalse( l_route.equals( null ) );
+    }
+
+
+    /**
+     * test-case cursor iterates the cells like the indexed access
+     */
+    @Test
+    public void testCursor()
+    {
+        final CRoute l_route = new CRoute( new int[]{5, 6, 7, 8}, new int[]{1, 4, 2, 3} );
+
+        for ( int l_start = 0; l_start <= l_route.size(); l_start++ )
+        {
+            int l_cell = l_start;
+            for ( final CRoute.CCursor l_cursor = l_route.cursor( l_start ); l_cursor.isValid(); l_cursor.next() )
+            {
+                assertEquals( l_cursor.getCell(), l_cell );
+                assertEquals( l_cursor.getEdgeID(), l_route.getEdgeID( l_cell ) );
+                assertEquals( l_cursor.getPosition(), l_route.getPosition( l_cell ) );
+                l_cell++;
+            }
+            assertEquals( l_cell, l_route.size() );
+        }
+
+        assertFalse( l_route.cursor( l_route.size() ).isValid() );
+    }
+
+}
@@ -0,0 +1,165 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.object.car.graph;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+
+/**
+ * test for CRouteCache class
+ */
+public class Test_CRouteCache
+{
+
+    /**
+     * test-case for a cached route
+     */
+    @Test
+    public void testHit()
+    {
+        final CRouteCache l_cache = new CRouteCache( 4 );
+        final AtomicInteger l_calculation = new AtomicInteger();
+
+        final CRoute l_route = l_cache.get( 1, 2, CGraphHopper.EWeight.Default, 0, () -> this.route( l_calculation ) );
+        assertSame( l_route, l_cache.get( 1, 2, CGraphHopper.EWeight.Default, 0, () -> this.route( l_calculation ) ) );
+        assertEquals( 1, l_calculation.get() );
+        assertEquals( 1, l_cache.getHits() );
+        assertEquals( 1, l_cache.getMisses() );
+        assertEquals( 0.5, l_cache.getHitRatio(), 0 );
+
+        l_cache.get( 2, 1, CGraphHopper.EWeight.Default, 0, () -> this.route( l_calculation ) );
+        l_cache.get( 1, 2, CGraphHopper.EWeight.TrafficJam, 0, () -> this.route( l_calculation ) );
+        assertEquals( 3, l_calculation.get() );
+        assertEquals( 3, l_cache.getMisses() );
+        assertEquals( 3, l_cache.size() );
+    }
+
+    /**
+     * test-case for the eviction of the least recently used entry
+     */
+    @Test
+    public void testEviction()
+    {
+        final CRouteCache l_cache = new CRouteCache( 2 );
+        final AtomicInteger l_calculation = new AtomicInteger();
+
+        final CRoute l_first = l_cache.get( 1, 2, CGraphHopper.EWeight.Default, 0, () -> this.route( l_calculation ) );
+        l_cache.get( 2, 3, CGraphHopper.EWeight.Default, 0, () -> this.route( l_calculation ) );
+
+        // access of the first entry, so the second one is the eldest
+        l_cache.get( 1, 2, CGraphHopper.EWeight.Default, 0, () -> this.route( l_calculation ) );
+        l_cache.get( 3, 4, CGraphHopper.EWeight.Default, 0, () -> this.route( l_calculation ) );
+        assertEquals( 2, l_cache.size() );
+        assertEquals( 1, l_cache.getEvictions() );
+
+        assertSame( l_first, l_cache.get( 1, 2, CGraphHopper.EWeight.Default, 0, () -> this.route( l_calculation ) ) );
+        l_cache.get( 2, 3, CGraphHopper.EWeight.Default, 0, () -> this.route( l_calculation ) );
+        assertEquals( 4, l_calculation.get() );
+        assertEquals( 2, l_cache.getEvictions() );
+        assertEquals( 2, l_cache.getHits() );
+    }
+
+    /**
+     * test-case for a disabled cache
+     */
+    @Test
+    public void testDisabled()
+    {
+        final CRouteCache l_cache = new CRouteCache( 0 );
+        final AtomicInteger l_calculation = new AtomicInteger();
+
+        l_cache.get( 1, 2, CGraphHopper.EWeight.Default, 0, () -> this.route( l_calculation ) );
+        l_cache.get( 1, 2, CGraphHopper.EWeight.Default, 0, () -> this.route( l_calculation ) );
+        assertEquals( 0, l_cache.size() );
+        assertEquals( 2, l_calculation.get() );
+        assertEquals( 0, l_cache.getHits() );
+        assertEquals( 0, l_cache.getEvictions() );
+    }
+
+    /**
+     * test-case for the invalidation of an entry with a changed state
+     */
+    @Test
+    public void testState()
+    {
+        final CRouteCache l_cache = new CRouteCache( 4 );
+        final AtomicInteger l_calculation = new AtomicInteger();
+
+        final CRoute l_route = l_cache.get( 1, 2, CGraphHopper.EWeight.TrafficJam, 0, () -> this.route( l_calculation ) );
+        final CRoute l_next = l_cache.get( 1, 2, CGraphHopper.EWeight.TrafficJam, 1, () -> this.route( l_calculation ) );
+        assertNotSame( l_route, l_next );
+        assertEquals( 1, l_cache.getInvalidations() );
+        assertEquals( 2, l_cache.getMisses() );
+        assertEquals( 1, l_cache.size() );
+
+        assertSame( l_next, l_cache.get( 1, 2, CGraphHopper.EWeight.TrafficJam, 1, () -> this.route( l_calculation ) ) );
+        assertEquals( 1, l_cache.getHits() );
+    }
+
+    /**
+     * test-case for the invalidation of a weighting
+     */
+    @Test
+    public void testInvalidate()
+    {
+        final CRouteCache l_cache = new CRouteCache( 4 );
+        final AtomicInteger l_calculation = new AtomicInteger();
+
+        l_cache.get( 1, 2, CGraphHopper.EWeight.Default, 0, () -> this.route( l_calculation ) );
+        l_cache.get( 1, 2, CGraphHopper.EWeight.TrafficJam, 0, () -> this.route( l_calculation ) );
+        l_cache.get( 2, 3, CGraphHopper.EWeight.TrafficJam, 0, () -> this.route( l_calculation ) );
+
+        l_cache.invalidate( CGraphHopper.EWeight.TrafficJam );
+        assertEquals( 1, l_cache.size() );
+        assertEquals( 2, l_cache.getInvalidations() );
+
+        l_cache.get( 1, 2, CGraphHopper.EWeight.TrafficJam, 0, () -> this.route( l_calculation ) );
+        assertEquals( 4, l_calculation.get() );
+
+        l_cache.clear();
+        assertEquals( 0, l_cache.size() );
+        assertEquals( 2, l_cache.getInvalidations() );
+    }
+
+
+    /**
+     * creates a route and counts the calculations
+     *
+     * @param p_calculation counter
+     * @return route
+     */
+    private CRoute route( final AtomicInteger p_calculation )
+    {
+        p_calculation.incrementAndGet();
+        return new CRoute( new int[]{1, 2}, new int[]{3, 4} );
+    }
+
+}
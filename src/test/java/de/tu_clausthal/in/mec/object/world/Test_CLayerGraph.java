@@ -0,0 +1,215 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.object.world;
+
+import de.tu_clausthal.in.mec.object.EResource;
+import de.tu_clausthal.in.mec.object.ILayer;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * test for CLayerGraph class
+ */
+public class Test_CLayerGraph
+{
+
+    /**
+     * test-case independent layers
+     */
+    @Test
+    public void testIndependent()
+    {
+        final CLayerGraph l_graph = new CLayerGraph(
+                Arrays.asList(
+                        new CLayer( EnumSet.of( EResource.Cars ), EnumSet.of( EResource.Cars ) ),
+                        new CLayer( EnumSet.of( EResource.Inconsistency ), EnumSet.of( EResource.Inconsistency ) ),
+                        new CLayer( EnumSet.noneOf( EResource.class ), EnumSet.of( EResource.Database ) )
+                )
+        );
+
+        assertEquals( l_graph.size(), 3 );
+        for ( int i = 0; i < l_graph.size(); i++ )
+            assertEquals( l_graph.getPredecessors( i ).length, 0 );
+    }
+
+
+    /**
+     * test-case read-write, write-read and write-write conflicts, read-read is not a conflict
+     */
+    @Test
+    public void testConflict()
+    {
+        final CLayerGraph l_graph = new CLayerGraph(
+                Arrays.asList(
+                        new CLayer( EnumSet.of( EResource.Messages ), EnumSet.of( EResource.Cars ) ),
+                        new CLayer( EnumSet.of( EResource.Cars ), EnumSet.noneOf( EResource.class ) ),
+                        new CLayer( EnumSet.noneOf( EResource.class ), EnumSet.of( EResource.Cars ) ),
+                        new CLayer( EnumSet.noneOf( EResource.class ), EnumSet.of( EResource.Messages ) ),
+                        new CLayer( EnumSet.of( EResource.Messages ), EnumSet.noneOf( EResource.class ) )
+                )
+        );
+
+        assertArrayEquals( l_graph.getPredecessors( 0 ), new int[0] );
+        // write-read
+        assertArrayEquals( l_graph.getPredecessors( 1 ), new int[]{0} );
+        // write-write and read-write
+        assertArrayEquals( l_graph.getPredecessors( 2 ), new int[]{0, 1} );
+        // read-write
+        assertArrayEquals( l_graph.getPredecessors( 3 ), new int[]{0} );
+        // write-read, but not read-read with the first layer
+        assertArrayEquals( l_graph.getPredecessors( 4 ), new int[]{3} );
+    }
+
+
+    /**
+     * test-case predecessors have a lower index, so the graph is acyclic
+     * and the layer order is kept
+     */
+    @Test
+    public void testOrder()
+    {
+        final CLayer[] l_layer = {
+                new CLayer( EnumSet.allOf( EResource.class ), EnumSet.allOf( EResource.class ) ),
+                new CLayer( EnumSet.of( EResource.Cars ), EnumSet.of( EResource.CarSources, EResource.Cars, EResource.Agents ) ),
+                new CLayer( EnumSet.of( EResource.Agents ), EnumSet.of( EResource.Cars, EResource.Agents ) ),
+                new CLayer( EnumSet.of( EResource.Cars ), EnumSet.of( EResource.Database ) )
+        };
+        final CLayerGraph l_graph = new CLayerGraph( Arrays.asList( l_layer ) );
+
+        for ( int i = 0; i < l_graph.size(); i++ )
+        {
+            assertTrue( l_graph.get( i ) == l_layer[i] );
+            for ( final int l_predecessor : l_graph.getPredecessors( i ) )
+                assertTrue( l_predecessor < i );
+        }
+
+        assertArrayEquals( l_graph.getPredecessors( 1 ), new int[]{0} );
+        assertArrayEquals( l_graph.getPredecessors( 2 ), new int[]{0, 1} );
+        assertArrayEquals( l_graph.getPredecessors( 3 ), new int[]{0, 1, 2} );
+    }
+
+
+    /**
+     * layer with fixed resources
+     */
+    private static final class CLayer implements ILayer
+    {
+        /**
+         * read resources
+         */
+        private final Set<EResource> m_read;
+        /**
+         * write resources
+         */
+        private final Set<EResource> m_write;
+
+        /**
+         * ctor
+         *
+         * @param p_read read resources
+         * @param p_write write resources
+         */
+        public CLayer( final Set<EResource> p_read, final Set<EResource> p_write )
+        {
+            m_read = p_read;
+            m_write = p_write;
+        }
+
+        @Override
+        public final int getCalculationIndex()
+        {
+            return 0;
+        }
+
+        @Override
+        public final Set<EResource> getReadResources()
+        {
+            return m_read;
+        }
+
+        @Override
+        public final Set<EResource> getWriteResources()
+        {
+            return m_write;
+        }
+
+        @Override
+        public final boolean isActive()
+        {
+            return true;
+        }
+
+        @Override
+        public final void setActive( final boolean p_active )
+        {
+        }
+
+        @Override
+        public final int getStepPeriod()
+        {
+            return 1;
+        }
+
+        @Override
+        public final int getStepPhase()
+        {
+            return 0;
+        }
+
+        @Override
+        public final void setStepPeriod( final int p_period, final int p_phase )
+        {
+        }
+
+        @Override
+        public final void onSimulationStart()
+        {
+        }
+
+        @Override
+        public final void onSimulationStop()
+        {
+        }
+
+        @Override
+        public final void onSimulationReset()
+        {
+        }
+
+        @Override
+        public final void release()
+        {
+        }
+    }
+
+}
@@ -0,0 +1,171 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.runtime.benchmark;
+
+import de.tu_clausthal.in.mec.CLogger;
+import de.tu_clausthal.in.mec.runtime.core.EAgentExecutor;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * benchmark of the agent execution backends, each step runs synthetic agents, which
+ * block within their cycle, next to the same number of cell objects on the main pool,
+ * the step and cell latency of each backend is stored within the benchmark summary
+ *
+ * @note can be run with @code java -cp <MecSim Jar> de.tu_clausthal.in.mec.runtime.benchmark.CAgentExecutorBenchmark
+ * [agents] [steps] [blocking microseconds] [output Json file] @endcode
+ */
+public final class CAgentExecutorBenchmark
+{
+    /**
+     * number of steps, which are not measured
+     */
+    private static final int c_warmup = 5;
+    /**
+     * number of arithmetic operations of an object step
+     */
+    private static final int c_work = 2000;
+
+    /**
+     * private ctor
+     */
+    private CAgentExecutorBenchmark()
+    {
+    }
+
+    /**
+     * main
+     *
+     * @param p_args number of agents (default 10000), number of steps (default 50), blocking time of an agent
+     * cycle in microseconds (default 100), output Json file (default agentexecutor.json)
+     * @throws InterruptedException thrown on thread error
+     * @throws ExecutionException thrown on step error
+     */
+    public static void main( final String[] p_args ) throws InterruptedException, ExecutionException
+    {
+        final int l_agents = p_args.length > 0 ? Integer.parseInt( p_args[0] ) : 10000;
+        final int l_steps = p_args.length > 1 ? Integer.parseInt( p_args[1] ) : 50;
+        final long l_blocking = TimeUnit.MICROSECONDS.toNanos( p_args.length > 2 ? Long.parseLong( p_args[2] ) : 100 );
+        CSummary.getInstance().setFilename( p_args.length > 3 ? p_args[3] : "agentexecutor.json" );
+
+        for ( final EAgentExecutor l_executor : EAgentExecutor.values() )
+            run( l_executor, Runtime.getRuntime().availableProcessors(), l_agents, l_steps, l_blocking );
+
+        CSummary.getInstance().store();
+    }
+
+    /**
+     * runs the benchmark of a backend
+     *
+     * @param p_executor backend
+     * @param p_parallelism number of threads
+     * @param p_agents number of agents and cells
+     * @param p_steps number of measured steps
+     * @param p_blocking blocking time of an agent cycle in nanoseconds
+     * @throws InterruptedException thrown on thread error
+     * @throws ExecutionException thrown on step error
+     */
+    private static void run( final EAgentExecutor p_executor, final int p_parallelism, final int p_agents, final int p_steps, final long p_blocking )
+            throws InterruptedException, ExecutionException
+    {
+        final ExecutorService l_pool = Executors.newWorkStealingPool( p_parallelism );
+        final ExecutorService l_created = p_executor.create( ForkJoinPool.defaultForkJoinWorkerThreadFactory, p_parallelism );
+        final ExecutorService l_agentpool = l_created == null ? l_pool : l_created;
+
+        final List<Callable<Object>> l_agenttasks = new ArrayList<>( p_agents );
+        final List<Callable<Object>> l_celltasks = new ArrayList<>( p_agents );
+        for ( int i = 0; i < p_agents; i++ )
+        {
+            final double l_seed = i;
+            l_agenttasks.add(
+                    () -> {
+                        LockSupport.parkNanos( p_blocking );
+                        return work( l_seed );
+                    }
+            );
+            l_celltasks.add( () -> work( l_seed ) );
+        }
+
+        long l_sum = 0;
+        try
+        {
+            for ( int i = -c_warmup; i < p_steps; i++ )
+            {
+                final long l_start = System.nanoTime();
+
+                // agents and cells are run concurrently, so a shared pool shows the delay of the cells
+                final List<Future<Object>> l_agentresult = new ArrayList<>( p_agents );
+                for ( final Callable<Object> l_task : l_agenttasks )
+                    l_agentresult.add( l_agentpool.submit( l_task ) );
+                l_pool.invokeAll( l_celltasks );
+                final long l_cells = System.nanoTime();
+
+                for ( final Future<Object> l_future : l_agentresult )
+                    l_future.get();
+                final long l_end = System.nanoTime();
+
+                if ( i < 0 )
+                    continue;
+
+                CSummary.getInstance().setTime( "agentexecutor." + p_executor.name().toLowerCase() + ".step", l_end - l_start );
+                CSummary.getInstance().setTime( "agentexecutor." + p_executor.name().toLowerCase() + ".cells", l_cells - l_start );
+                l_sum += l_end - l_start;
+            }
+        }
+        finally
+        {
+            l_pool.shutdownNow();
+            l_agentpool.shutdownNow();
+        }
+
+        CLogger.out( MessageFormat.format( "agent executor [{0}] runs [{1}] agents with a mean step time of [{2}] ms", p_executor, p_agents, l_sum * 1e-6 / p_steps ) );
+    }
+
+    /**
+     * arithmetic work of an object step
+     *
+     * @param p_seed start value
+     * @return result value
+     */
+    private static Object work( final double p_seed )
+    {
+        double l_value = p_seed;
+        for ( int i = 0; i < c_work; i++ )
+            l_value = Math.sqrt( l_value + i );
+        return l_value;
+    }
+
+}
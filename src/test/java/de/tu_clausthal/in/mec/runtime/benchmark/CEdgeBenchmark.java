@@ -0,0 +1,317 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.runtime.benchmark;
+
+import com.graphhopper.routing.util.EncodingManager;
+import com.graphhopper.storage.GraphBuilder;
+import com.graphhopper.storage.GraphHopperStorage;
+import com.graphhopper.storage.NodeAccess;
+import de.tu_clausthal.in.mec.CLogger;
+import de.tu_clausthal.in.mec.object.car.graph.CEdge;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * benchmark of the cell occupancy of an edge, the occupancy bits and slot handles of the edge are
+ * compared with the previous object-to-position map on dense edges, a round sets objects on the
+ * cells, searches the predecessor of each object and removes the objects again, the mean times
+ * of the operations are stored within the benchmark summary
+ *
+ * @note can be run with @code java -cp <MecSim Jar> de.tu_clausthal.in.mec.runtime.benchmark.CEdgeBenchmark
+ * [rounds] [density] [output Json file] @endcode
+ */
+public final class CEdgeBenchmark
+{
+    /**
+     * number of rounds, which are not measured
+     */
+    private static final int c_warmup = 20;
+    /**
+     * number of edges
+     */
+    private static final int c_edges = 500;
+    /**
+     * length of an edge in meter
+     */
+    private static final double c_edgelength = 2500;
+    /**
+     * cell size in meter
+     */
+    private static final int c_cellsize = 5;
+
+    /**
+     * private ctor
+     */
+    private CEdgeBenchmark()
+    {
+    }
+
+    /**
+     * main
+     *
+     * @param p_args number of rounds (default 200), ratio of occupied cells (default 0.5), output Json file (default edge.json)
+     */
+    public static void main( final String[] p_args )
+    {
+        final int l_rounds = p_args.length > 0 ? Integer.parseInt( p_args[0] ) : 200;
+        final double l_density = p_args.length > 1 ? Double.parseDouble( p_args[1] ) : 0.5;
+        CSummary.getInstance().setFilename( p_args.length > 2 ? p_args[2] : "edge.json" );
+
+        // the edges are created on an in-memory graph, so the benchmark does not need a map
+        final GraphHopperStorage l_graph = new GraphBuilder( new EncodingManager( "CAR" ) ).create();
+        final NodeAccess l_nodes = l_graph.getNodeAccess();
+        final List<CEdge<Object, Object>> l_edges = new ArrayList<>( c_edges );
+        for ( int i = 0; i < c_edges; i++ )
+        {
+            l_nodes.setNode( 2 * i, 51.8 + i * 1e-3, 10.3 );
+            l_nodes.setNode( 2 * i + 1, 51.8 + i * 1e-3, 10.34 );
+            l_edges.add( new CEdge<>( l_graph.edge( 2 * i, 2 * i + 1, c_edgelength, true ), c_cellsize ) );
+        }
+
+        final List<CMapOccupancy> l_maps = new ArrayList<>( c_edges );
+        for ( final CEdge<Object, Object> l_edge : l_edges )
+            l_maps.add( new CMapOccupancy( l_edge.getEdgeCells() ) );
+
+        // each edge gets the same occupied cells on both structures
+        final Random l_random = new Random( c_edges );
+        final List<int[]> l_positions = new ArrayList<>( c_edges );
+        for ( final CEdge<Object, Object> l_edge : l_edges )
+            l_positions.add(
+                    l_random.ints( 0, l_edge.getEdgeCells() ).distinct().limit( (long) ( l_density * l_edge.getEdgeCells() ) ).sorted().toArray()
+            );
+
+        for ( int i = 0; i < l_rounds + c_warmup; i++ )
+        {
+            runMap( l_maps, l_positions, i >= c_warmup );
+            runEdge( l_edges, l_positions, i >= c_warmup );
+        }
+
+        CSummary.getInstance().store();
+    }
+
+    /**
+     * runs a round on the map-based occupancy
+     *
+     * @param p_maps map occupancy of each edge
+     * @param p_positions occupied cells of each edge
+     * @param p_measure flag to store the times
+     */
+    private static void runMap( final List<CMapOccupancy> p_maps, final List<int[]> p_positions, final boolean p_measure )
+    {
+        final Object[][] l_objects = objects( p_positions );
+
+        long l_start = System.nanoTime();
+        for ( int i = 0; i < p_maps.size(); i++ )
+            for ( int j = 0; j < l_objects[i].length; j++ )
+                p_maps.get( i ).setObject( l_objects[i][j], p_positions.get( i )[j] );
+        final long l_set = System.nanoTime() - l_start;
+
+        int l_found = 0;
+        l_start = System.nanoTime();
+        for ( int i = 0; i < p_maps.size(); i++ )
+            for ( final Object l_object : l_objects[i] )
+                l_found += p_maps.get( i ).getPredecessor( l_object ) >= 0 ? 1 : 0;
+        final long l_predecessor = System.nanoTime() - l_start;
+
+        l_start = System.nanoTime();
+        for ( int i = 0; i < p_maps.size(); i++ )
+            for ( final Object l_object : l_objects[i] )
+                p_maps.get( i ).removeObject( l_object );
+        final long l_remove = System.nanoTime() - l_start;
+
+        if ( p_measure )
+            store( "edge.map", l_objects, l_set, l_predecessor, l_remove, l_found );
+    }
+
+    /**
+     * runs a round on the edges
+     *
+     * @param p_edges edges
+     * @param p_positions occupied cells of each edge
+     * @param p_measure flag to store the times
+     */
+    private static void runEdge( final List<CEdge<Object, Object>> p_edges, final List<int[]> p_positions, final boolean p_measure )
+    {
+        final Object[][] l_objects = objects( p_positions );
+
+        long l_start = System.nanoTime();
+        try
+        {
+            for ( int i = 0; i < p_edges.size(); i++ )
+                for ( int j = 0; j < l_objects[i].length; j++ )
+                    p_edges.get( i ).setObject( l_objects[i][j], p_positions.get( i )[j] );
+        }
+        catch ( final IllegalAccessException l_exception )
+        {
+            CLogger.error( l_exception );
+            return;
+        }
+        final long l_set = System.nanoTime() - l_start;
+
+        // the position of an object is the slot handle, which is known by the car
+        int l_found = 0;
+        l_start = System.nanoTime();
+        for ( int i = 0; i < p_edges.size(); i++ )
+            for ( final int l_position : p_positions.get( i ) )
+                l_found += p_edges.get( i ).getNextObjectPosition( l_position + 1 ) >= 0 ? 1 : 0;
+        final long l_predecessor = System.nanoTime() - l_start;
+
+        l_start = System.nanoTime();
+        for ( int i = 0; i < p_edges.size(); i++ )
+            for ( int j = 0; j < l_objects[i].length; j++ )
+                p_edges.get( i ).removeObject( l_objects[i][j], p_positions.get( i )[j] );
+        final long l_remove = System.nanoTime() - l_start;
+
+        if ( p_measure )
+            store( "edge.occupancy", l_objects, l_set, l_predecessor, l_remove, l_found );
+    }
+
+    /**
+     * creates the objects of a round
+     *
+     * @param p_positions occupied cells of each edge
+     * @return objects of each edge
+     */
+    private static Object[][] objects( final List<int[]> p_positions )
+    {
+        final Object[][] l_objects = new Object[p_positions.size()][];
+        for ( int i = 0; i < l_objects.length; i++ )
+        {
+            l_objects[i] = new Object[p_positions.get( i ).length];
+            for ( int j = 0; j < l_objects[i].length; j++ )
+                l_objects[i][j] = new Object();
+        }
+        return l_objects;
+    }
+
+    /**
+     * stores the mean operation times of a round
+     *
+     * @param p_label label prefix
+     * @param p_objects objects of each edge
+     * @param p_set time of setting the objects
+     * @param p_predecessor time of the predecessor search
+     * @param p_remove time of removing the objects
+     * @param p_found number of found predecessors
+     */
+    private static void store( final String p_label, final Object[][] p_objects, final long p_set, final long p_predecessor, final long p_remove,
+            final int p_found
+    )
+    {
+        int l_count = 0;
+        for ( final Object[] l_objects : p_objects )
+            l_count += l_objects.length;
+
+        CSummary.getInstance().setTime( p_label + ".set", p_set / l_count );
+        CSummary.getInstance().setTime( p_label + ".predecessor", p_predecessor / l_count );
+        CSummary.getInstance().setTime( p_label + ".remove", p_remove / l_count );
+        CLogger.out( MessageFormat.format( "edge [{0}] runs [{1}] objects with [{2}] predecessors and mean times of set [{3}] ns, predecessor [{4}] ns and remove [{5}] ns", p_label, l_count, p_found, p_set / l_count, p_predecessor / l_count, p_remove / l_count ) );
+    }
+
+
+    /**
+     * reference occupancy with an object-to-position map, which has been used by the edge before
+     */
+    private static final class CMapOccupancy
+    {
+        /**
+         * cells
+         */
+        private final Object[] m_cells;
+        /**
+         * map with object-2-position
+         */
+        private final Map<Object, Integer> m_objects = new ConcurrentHashMap<>();
+
+        /**
+         * ctor
+         *
+         * @param p_size number of cells
+         */
+        public CMapOccupancy( final int p_size )
+        {
+            m_cells = new Object[p_size];
+        }
+
+        /**
+         * sets an object, an existing object is moved
+         *
+         * @param p_object object
+         * @param p_position position index
+         */
+        public final void setObject( final Object p_object, final int p_position )
+        {
+            synchronized ( m_cells )
+            {
+                if ( m_objects.containsKey( p_object ) )
+                    m_cells[m_objects.get( p_object )] = null;
+
+                m_cells[p_position] = p_object;
+            }
+            m_objects.put( p_object, p_position );
+        }
+
+        /**
+         * returns the position of the predecessor of an object
+         *
+         * @param p_object object
+         * @return position index or -1
+         */
+        public final int getPredecessor( final Object p_object )
+        {
+            final Integer l_position = m_objects.get( p_object );
+            if ( l_position == null )
+                return -1;
+
+            for ( int i = l_position + 1; i < m_cells.length; i++ )
+                if ( m_cells[i] != null )
+                    return i;
+            return -1;
+        }
+
+        /**
+         * removes an object
+         *
+         * @param p_object object
+         */
+        public final void removeObject( final Object p_object )
+        {
+            if ( !m_objects.containsKey( p_object ) )
+                return;
+
+            synchronized ( m_cells )
+            {
+                m_cells[m_objects.remove( p_object )] = null;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,220 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+package de.tu_clausthal.in.mec.runtime.benchmark;
+
+import de.tu_clausthal.in.mec.CConfiguration;
+import de.tu_clausthal.in.mec.CLogger;
+import de.tu_clausthal.in.mec.common.CCommon;
+import de.tu_clausthal.in.mec.object.car.CCarLayer;
+import de.tu_clausthal.in.mec.object.car.ICar;
+import de.tu_clausthal.in.mec.runtime.CSimulation;
+import de.tu_clausthal.in.mec.runtime.core.IStepBarrier;
+import de.tu_clausthal.in.mec.runtime.event.CEventEngine;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+import org.apache.commons.math3.stat.inference.KolmogorovSmirnovTest;
+
+import java.io.File;
+import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * validation benchmark of the event engine, a stored scenario is run with the fixed time step
+ * and with the event engine, the travel-time distributions of the cars, which reach their end,
+ * are compared with the two-sample Kolmogorov-Smirnov test
+ *
+ * @note can be run with @code java -cp <MecSim Jar> de.tu_clausthal.in.mec.runtime.benchmark.CEventEngineBenchmark
+ * <scenario file> [steps] [output Json file] @endcode
+ */
+public final class CEventEngineBenchmark
+{
+
+    /**
+     * private ctor
+     */
+    private CEventEngineBenchmark()
+    {
+    }
+
+    /**
+     * main
+     *
+     * @param p_args scenario file, number of steps (default 1000), output Json file (default eventengine.json)
+     * @throws Exception thrown on loading or simulation error
+     */
+    public static void main( final String[] p_args ) throws Exception
+    {
+        final File l_scenario = new File( p_args[0] );
+        final int l_steps = p_args.length > 1 ? Integer.parseInt( p_args[1] ) : 1000;
+        final File l_output = new File( p_args.length > 2 ? p_args[2] : "eventengine.json" );
+
+        final Map<String, Object> l_step = run( l_scenario, l_steps, false );
+        final Map<String, Object> l_event = run( l_scenario, l_steps, true );
+
+        final double[] l_steptimes = (double[]) l_step.remove( "traveltimes" );
+        final double[] l_eventtimes = (double[]) l_event.remove( "traveltimes" );
+        final boolean l_comparable = ( l_steptimes.length > 1 ) && ( l_eventtimes.length > 1 );
+        final double l_statistic = l_comparable ? new KolmogorovSmirnovTest().kolmogorovSmirnovStatistic( l_steptimes, l_eventtimes ) : Double.NaN;
+        final double l_pvalue = l_comparable ? new KolmogorovSmirnovTest().kolmogorovSmirnovTest( l_steptimes, l_eventtimes ) : Double.NaN;
+
+        FileUtils.writeStringToFile(
+                l_output,
+                CCommon.toJson( CCommon.getMap( "step", l_step, "event", l_event, "ksstatistic", l_statistic, "kspvalue", l_pvalue ) ),
+                "UTF-8"
+        );
+        CLogger.out( MessageFormat.format( "travel-time distributions of the step and the event engine have a Kolmogorov-Smirnov statistic of [{0}] with p-value [{1}], results are stored in [{2}]", l_statistic, l_pvalue, l_output ) );
+    }
+
+    /**
+     * runs the scenario with one engine
+     *
+     * @param p_scenario scenario file
+     * @param p_steps number of steps
+     * @param p_eventdriven use the event engine
+     * @return result of the run
+     *
+     * @throws Exception thrown on loading or simulation error
+     */
+    private static Map<String, Object> run( final File p_scenario, final int p_steps, final boolean p_eventdriven ) throws Exception
+    {
+        // the engine is created with the simulation, so the configuration is changed only during the creation
+        final boolean l_configuration = CConfiguration.getInstance().get().<Boolean>get( "simulation/scheduler/eventdriven" );
+        final CSimulation l_simulation;
+        try
+        {
+            CConfiguration.getInstance().get().set( "simulation/scheduler/eventdriven", p_eventdriven );
+            l_simulation = CSimulation.create( Runtime.getRuntime().availableProcessors() );
+        }
+        finally
+        {
+            CConfiguration.getInstance().get().set( "simulation/scheduler/eventdriven", l_configuration );
+        }
+
+        return l_simulation.call(
+                () -> {
+                    l_simulation.load( p_scenario );
+                    l_simulation.setBatch( true );
+
+                    final CCarLayer l_cars = l_simulation.getWorld().<CCarLayer>getTyped( "Cars" );
+                    final CTravelTime l_traveltime = new CTravelTime( l_cars );
+                    l_simulation.setStepBarrier( l_traveltime );
+
+                    final long l_start = System.nanoTime();
+                    l_simulation.start( p_steps );
+                    final double l_time = ( System.nanoTime() - l_start ) * 1e-9;
+
+                    final DescriptiveStatistics l_statistic = new DescriptiveStatistics( l_traveltime.getTravelTimes() );
+                    final CEventEngine l_engine = l_simulation.getEventEngine();
+                    return CCommon.getMap(
+                            "time", l_time,
+                            "events", l_engine == null ? 0 : l_engine.getNumberOfEvents(),
+                            "cars", l_statistic.getN(),
+                            "mean", l_statistic.getMean(),
+                            "median", l_statistic.getPercentile( 50 ),
+                            "p90", l_statistic.getPercentile( 90 ),
+                            "traveltimes", l_statistic.getValues()
+                    );
+                }
+        );
+    }
+
+
+    /**
+     * barrier, which records the travel time of the cars, a car is created and
+     * removed on the previous step, because the barrier is passed before the step
+     */
+    private static final class CTravelTime implements IStepBarrier
+    {
+        /**
+         * car layer
+         */
+        private final CCarLayer m_cars;
+        /**
+         * cars with their creation step
+         */
+        private final Map<ICar, Integer> m_created = new IdentityHashMap<>();
+        /**
+         * cars, which exist on the first step and have no creation step
+         */
+        private final Set<ICar> m_loaded = Collections.newSetFromMap( new IdentityHashMap<>() );
+        /**
+         * travel times in steps
+         */
+        private final DescriptiveStatistics m_traveltime = new DescriptiveStatistics();
+        /**
+         * previous step or -1 before the first step
+         */
+        private int m_previous = -1;
+
+        /**
+         * ctor
+         *
+         * @param p_cars car layer
+         */
+        public CTravelTime( final CCarLayer p_cars )
+        {
+            m_cars = p_cars;
+        }
+
+        @Override
+        public final void await( final int p_currentstep )
+        {
+            final Set<ICar> l_current = Collections.newSetFromMap( new IdentityHashMap<>() );
+            l_current.addAll( m_cars );
+
+            if ( m_previous < 0 )
+                m_loaded.addAll( l_current );
+            else
+                for ( final ICar l_car : l_current )
+                    if ( ( !m_loaded.contains( l_car ) ) && ( !m_created.containsKey( l_car ) ) )
+                        m_created.put( l_car, m_previous );
+
+            m_created.entrySet().removeIf(
+                    i -> {
+                        if ( l_current.contains( i.getKey() ) )
+                            return false;
+                        m_traveltime.addValue( m_previous - i.getValue() );
+                        return true;
+                    }
+            );
+            m_loaded.retainAll( l_current );
+            m_previous = p_currentstep;
+        }
+
+        /**
+         * returns the travel times
+         *
+         * @return travel times in steps
+         */
+        public final double[] getTravelTimes()
+        {
+            return m_traveltime.getValues();
+        }
+    }
+
+}
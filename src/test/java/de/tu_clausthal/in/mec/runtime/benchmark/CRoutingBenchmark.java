@@ -0,0 +1,153 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.runtime.benchmark;
+
+import com.graphhopper.storage.NodeAccess;
+import de.tu_clausthal.in.mec.CLogger;
+import de.tu_clausthal.in.mec.object.car.CCarLayer;
+import de.tu_clausthal.in.mec.object.car.graph.CGraphHopper;
+import de.tu_clausthal.in.mec.runtime.CSimulation;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.jxmapviewer.viewer.GeoPosition;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+
+/**
+ * benchmark of the route queries on the configured map, random node pairs are routed with the
+ * default weighting, which uses the contraction hierarchies, and with the forbidden edge weighting
+ * without forbidden edges, which has got the same costs but is routed on the base graph (with
+ * landmarks if they exist), the query times are stored within the benchmark summary
+ *
+ * @note can be run with @code java -cp <MecSim Jar> de.tu_clausthal.in.mec.runtime.benchmark.CRoutingBenchmark
+ * [queries] [output Json file] @endcode, the default map is a state-level map
+ */
+public final class CRoutingBenchmark
+{
+    /**
+     * number of queries, which are not measured
+     */
+    private static final int c_warmup = 50;
+
+    /**
+     * private ctor
+     */
+    private CRoutingBenchmark()
+    {
+    }
+
+    /**
+     * main
+     *
+     * @param p_args number of queries (default 1000), output Json file (default routing.json)
+     * @throws Exception thrown on graph or simulation error
+     */
+    public static void main( final String[] p_args ) throws Exception
+    {
+        final int l_queries = p_args.length > 0 ? Integer.parseInt( p_args[0] ) : 1000;
+        CSummary.getInstance().setFilename( p_args.length > 1 ? p_args[1] : "routing.json" );
+
+        final CSimulation l_simulation = CSimulation.create( 1 );
+        l_simulation.call(
+                () -> {
+                    final CGraphHopper l_graph = l_simulation.getWorld().<CCarLayer>getTyped( "Cars" ).getGraph();
+                    final List<Pair<GeoPosition, GeoPosition>> l_pairs = pairs( l_graph, l_queries + c_warmup );
+
+                    run( l_graph, l_pairs, CGraphHopper.EWeight.Default );
+                    run( l_graph, l_pairs, CGraphHopper.EWeight.ForbiddenEdge );
+                    return null;
+                }
+        );
+
+        CSummary.getInstance().store();
+    }
+
+    /**
+     * creates random node pairs
+     *
+     * @param p_graph graph
+     * @param p_count number of pairs
+     * @return list of geoposition pairs
+     */
+    private static List<Pair<GeoPosition, GeoPosition>> pairs( final CGraphHopper p_graph, final int p_count )
+    {
+        final Random l_random = new Random( p_count );
+        final NodeAccess l_nodes = p_graph.getGraphHopperStorage().getNodeAccess();
+        final int l_size = p_graph.getGraphHopperStorage().getNodes();
+
+        final List<Pair<GeoPosition, GeoPosition>> l_pairs = new ArrayList<>( p_count );
+        for ( int i = 0; i < p_count; i++ )
+        {
+            final int l_start = l_random.nextInt( l_size );
+            final int l_end = l_random.nextInt( l_size );
+            l_pairs.add(
+                    new ImmutablePair<>(
+                            new GeoPosition( l_nodes.getLatitude( l_start ), l_nodes.getLongitude( l_start ) ),
+                            new GeoPosition( l_nodes.getLatitude( l_end ), l_nodes.getLongitude( l_end ) )
+                    )
+            );
+        }
+        return l_pairs;
+    }
+
+    /**
+     * runs the queries of a weighting without the route cache
+     *
+     * @param p_graph graph
+     * @param p_pairs geoposition pairs
+     * @param p_weighting weighting
+     */
+    private static void run( final CGraphHopper p_graph, final List<Pair<GeoPosition, GeoPosition>> p_pairs, final CGraphHopper.EWeight p_weighting )
+    {
+        final boolean l_hierarchies = p_graph.isCHEnabled() && CGraphHopper.EWeight.Default.equals( p_weighting );
+        final String l_label = "routing." + p_weighting.name().toLowerCase() + (
+                l_hierarchies ? ".contractionhierarchies" : p_graph.getLandmarks() == null ? ".flexible" : ".landmarks"
+        );
+
+        long l_sum = 0;
+        int l_found = 0;
+        for ( int i = 0; i < p_pairs.size(); i++ )
+        {
+            final long l_start = System.nanoTime();
+            final boolean l_route = !p_graph.getRoutes( p_pairs.get( i ).getLeft(), p_pairs.get( i ).getRight(), p_weighting, 1 ).isEmpty();
+            final long l_time = System.nanoTime() - l_start;
+
+            if ( i < c_warmup )
+                continue;
+
+            CSummary.getInstance().setTime( l_label, l_time );
+            l_sum += l_time;
+            l_found += l_route ? 1 : 0;
+        }
+
+        final int l_count = p_pairs.size() - c_warmup;
+        CLogger.out( MessageFormat.format( "routing [{0}] runs [{1}] queries with [{2}] routes and a mean query time of [{3}] ms", l_label, l_count, l_found, l_sum * 1e-6 / l_count ) );
+    }
+
+}
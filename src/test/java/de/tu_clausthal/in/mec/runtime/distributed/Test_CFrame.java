@@ -0,0 +1,220 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.runtime.distributed;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * test for CFrame class
+ */
+public class Test_CFrame
+{
+
+    /**
+     * serializes and deserializes a frame
+     *
+     * @param p_frame frame
+     * @return decoded frame
+     */
+    private static CFrame encode( final CFrame p_frame ) throws IOException, ClassNotFoundException
+    {
+        final ByteArrayOutputStream l_buffer = new ByteArrayOutputStream();
+        try (
+                final ObjectOutputStream l_output = new ObjectOutputStream( l_buffer );
+        )
+        {
+            l_output.writeObject( p_frame );
+        }
+
+        try (
+                final ObjectInputStream l_input = new ObjectInputStream( new ByteArrayInputStream( l_buffer.toByteArray() ) );
+        )
+        {
+            return (CFrame) l_input.readObject();
+        }
+    }
+
+
+    /**
+     * test-case assign frame
+     */
+    @Test
+    public void testAssign() throws IOException, ClassNotFoundException
+    {
+        final CFrame l_frame = encode( CFrame.assign( 2, 5, 1000, EPartition.Population ) );
+
+        assertEquals( l_frame.getType(), CFrame.EType.Assign );
+        assertEquals( l_frame.getPartition(), EPartition.Population );
+        assertEquals( l_frame.getValue( 0 ), 2 );
+        assertEquals( l_frame.getValue( 1 ), 5 );
+        assertEquals( l_frame.getValue( 2 ), 1000 );
+        assertTrue( l_frame.getCars().isEmpty() );
+        assertTrue( l_frame.getMessages().isEmpty() );
+    }
+
+
+    /**
+     * test-case shutdown frame
+     */
+    @Test
+    public void testShutdown() throws IOException, ClassNotFoundException
+    {
+        final CFrame l_frame = encode( CFrame.shutdown() );
+
+        assertEquals( l_frame.getType(), CFrame.EType.Shutdown );
+        assertNull( l_frame.getPartition() );
+        assertTrue( l_frame.getCars().isEmpty() );
+        assertTrue( l_frame.getMessages().isEmpty() );
+    }
+
+
+    /**
+     * test-case step frame with boundary cars
+     */
+    @Test
+    public void testStepCars() throws IOException, ClassNotFoundException
+    {
+        final List<CFrame.CCarState> l_cars = new ArrayList<>();
+        l_cars.add( new CFrame.CCarState( 1, new int[]{4, 8, 15}, new int[]{16, 23, 42}, 0.25, 7, 3, 5, 1, 2 ) );
+        l_cars.add( new CFrame.CCarState( 3, new int[]{0}, new int[]{1}, 0, 0, 0, 0, 0, 0 ) );
+
+        final List<CFrame.CCarState> l_ghosts = Collections.singletonList(
+                new CFrame.CCarState( 2, new int[]{5}, new int[]{9}, 0.5, 0, 0, 5, 1, 2 )
+        );
+
+        final CFrame l_frame = encode( CFrame.step( 17, l_cars, l_ghosts, new ArrayList<>() ) );
+
+        assertEquals( l_frame.getType(), CFrame.EType.Step );
+        assertEquals( l_frame.getValue( 0 ), 17 );
+        assertEquals( l_frame.getCars().size(), 2 );
+        assertEquals( l_frame.getGhosts().size(), 1 );
+        assertEquals( l_frame.getGhosts().get( 0 ).getWorker(), 2 );
+        assertEquals( l_frame.getGhosts().get( 0 ).getValue( 1 ), 0 );
+        assertTrue( l_frame.getMessages().isEmpty() );
+
+        final CFrame.CCarState l_car = l_frame.getCars().get( 0 );
+        assertEquals( l_car.getWorker(), 1 );
+        assertArrayEquals( l_car.getEdge(), new int[]{4, 8, 15} );
+        assertArrayEquals( l_car.getCell(), new int[]{16, 23, 42} );
+        assertEquals( l_car.getLingerProbability(), 0.25, 0 );
+        for ( int i = 0; i < 5; i++ )
+            assertEquals( l_car.getValue( i ), new int[]{7, 3, 5, 1, 2}[i] );
+
+        assertEquals( l_frame.getCars().get( 1 ).getWorker(), 3 );
+        assertArrayEquals( l_frame.getCars().get( 1 ).getEdge(), new int[]{0} );
+    }
+
+
+    /**
+     * test-case done frame with messages
+     */
+    @Test
+    public void testDoneMessages() throws IOException, ClassNotFoundException
+    {
+        final List<CFrame.CMessageState> l_messages = new ArrayList<>();
+        l_messages.add( new CFrame.CMessageState( 4, "car/receiver", "car/source", "title", "data" ) );
+        l_messages.add( new CFrame.CMessageState( 0, "agent/receiver", "agent/source", "empty", null ) );
+
+        final CFrame l_frame = encode( CFrame.done( 9, new ArrayList<>(), new ArrayList<>(), l_messages ) );
+
+        assertEquals( l_frame.getType(), CFrame.EType.Done );
+        assertEquals( l_frame.getValue( 0 ), 9 );
+        assertTrue( l_frame.getCars().isEmpty() );
+        assertTrue( l_frame.getGhosts().isEmpty() );
+        assertEquals( l_frame.getMessages().size(), 2 );
+
+        final CFrame.CMessageState l_message = l_frame.getMessages().get( 0 );
+        assertEquals( l_message.getWorker(), 4 );
+        assertEquals( l_message.getReceiver(), "car/receiver" );
+        assertEquals( l_message.getSource(), "car/source" );
+        assertEquals( l_message.getTitle(), "title" );
+        assertEquals( l_message.getData(), "data" );
+        assertNull( l_frame.getMessages().get( 1 ).getData() );
+    }
+
+
+    /**
+     * test-case frames over a connection, the reference cache is reset
+     * after each frame, so equal cars are decoded as distinct objects
+     */
+    @Test
+    public void testConnection() throws Exception
+    {
+        try (
+                final ServerSocket l_server = new ServerSocket( 0 );
+                final Socket l_client = new Socket( l_server.getInetAddress(), l_server.getLocalPort() );
+                final Socket l_accepted = l_server.accept();
+        )
+        {
+            // the ctor blocks until the stream header of the other side is read, so one end is created on its own thread
+            final FutureTask<CCoordinator.CConnection> l_future = new FutureTask<>( () -> new CCoordinator.CConnection( l_accepted ) );
+            new Thread( l_future ).start();
+            final CCoordinator.CConnection l_send = new CCoordinator.CConnection( l_client );
+            final CCoordinator.CConnection l_receive = l_future.get( 10, TimeUnit.SECONDS );
+
+            final List<CFrame.CCarState> l_cars = Collections.singletonList(
+                    new CFrame.CCarState( 1, new int[]{2}, new int[]{3}, 0.5, 0, 1, 2, 3, 4 )
+            );
+
+            l_send.send( CFrame.assign( 0, 1, 2, EPartition.Region ) );
+            l_send.send( CFrame.step( 0, l_cars, new ArrayList<>(), new ArrayList<>() ) );
+            l_send.send( CFrame.step( 1, l_cars, new ArrayList<>(), new ArrayList<>() ) );
+            l_send.send( CFrame.shutdown() );
+
+            final CFrame l_assign = l_receive.receive();
+            assertEquals( l_assign.getType(), CFrame.EType.Assign );
+            assertEquals( l_assign.getPartition(), EPartition.Region );
+
+            final CFrame l_first = l_receive.receive();
+            final CFrame l_second = l_receive.receive();
+            assertEquals( l_first.getValue( 0 ), 0 );
+            assertEquals( l_second.getValue( 0 ), 1 );
+            assertTrue( l_first.getCars().get( 0 ) != l_second.getCars().get( 0 ) );
+            assertEquals( l_second.getCars().get( 0 ).getLingerProbability(), 0.5, 0 );
+
+            assertEquals( l_receive.receive().getType(), CFrame.EType.Shutdown );
+        }
+    }
+
+}
@@ -0,0 +1,171 @@
+/**
+ * @cond LICENSE
+ * ######################################################################################
+ * # GPL License                                                                        #
+ * #                                                                                    #
+ * # This file is part of the micro agent-based traffic simulation MecSim of            #
+ * # Clausthal University of Technology - Mobile and Enterprise Computing               #
+ * # Copyright (c) 2014-15, Philipp Kraus (philipp.kraus@tu-clausthal.de)               #
+ * # This program is free software: you can redistribute it and/or modify               #
+ * # it under the terms of the GNU General Public License as                            #
+ * # published by the Free Software Foundation, either version 3 of the                 #
+ * # License, or (at your option) any later version.                                    #
+ * #                                                                                    #
+ * # This program is distributed in the hope that it will be useful,                    #
+ * # but WITHOUT ANY WARRANTY; without even the implied warranty of                     #
+ * # MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the                      #
+ * # GNU General Public License for more details.                                       #
+ * #                                                                                    #
+ * # You should have received a copy of the GNU General Public License                  #
+ * # along with this program. If not, see http://www.gnu.org/licenses/                  #
+ * ######################################################################################
+ * @endcond
+ */
+
+package de.tu_clausthal.in.mec.runtime.event;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * test for CEventQueue class
+ */
+public class Test_CEventQueue
+{
+
+    /**
+     * creates an event, each call returns a new object
+     *
+     * @return event
+     */
+    private static IEvent event()
+    {
+        return new IEvent()
+        {
+            @Override
+            public final void execute( final CEventEngine p_engine, final double p_time )
+            {
+            }
+        };
+    }
+
+
+    /**
+     * test-case empty queue
+     */
+    @Test
+    public void testEmpty()
+    {
+        final CEventQueue l_queue = new CEventQueue();
+
+        assertEquals( l_queue.size(), 0 );
+        assertTrue( Double.isInfinite( l_queue.getNextTime() ) );
+        assertNull( l_queue.poll( Double.POSITIVE_INFINITY ) );
+    }
+
+
+    /**
+     * test-case events are returned ordered by time
+     */
+    @Test
+    public void testTimeOrder()
+    {
+        final CEventQueue l_queue = new CEventQueue();
+        final double[] l_time = {5.5, 1, 3.25, 0, 2};
+        for ( final double l_item : l_time )
+            l_queue.schedule( l_item, event() );
+
+        assertEquals( l_queue.size(), l_time.length );
+        assertEquals( l_queue.getNextTime(), 0, 0 );
+
+        final List<Double> l_result = new ArrayList<>();
+        for ( CEventQueue.CEntry l_entry = l_queue.poll( Double.POSITIVE_INFINITY ); l_entry != null; l_entry = l_queue.poll( Double.POSITIVE_INFINITY ) )
+            l_result.add( l_entry.getTime() );
+
+        assertEquals( l_result.toString(), "[0.0, 1.0, 2.0, 3.25, 5.5]" );
+        assertEquals( l_queue.size(), 0 );
+    }
+
+
+    /**
+     * test-case events with the same time are returned in the order of their scheduling
+     */
+    @Test
+    public void testSequenceOrder()
+    {
+        final CEventQueue l_queue = new CEventQueue();
+        final List<IEvent> l_events = new ArrayList<>();
+        for ( int i = 0; i < 100; i++ )
+        {
+            final IEvent l_event = event();
+            l_events.add( l_event );
+            l_queue.schedule( i % 2 == 0 ? 1 : 2, l_event );
+        }
+
+        for ( int i = 0; i < l_events.size(); i += 2 )
+            assertTrue( l_queue.poll( 2 ).getEvent() == l_events.get( i ) );
+        assertNull( l_queue.poll( 2 ) );
+
+        for ( int i = 1; i < l_events.size(); i += 2 )
+            assertTrue( l_queue.poll( 3 ).getEvent() == l_events.get( i ) );
+    }
+
+
+    /**
+     * test-case the time limit of the poll call is exclusive
+     */
+    @Test
+    public void testPollLimit()
+    {
+        final CEventQueue l_queue = new CEventQueue();
+        l_queue.schedule( 4, event() );
+        l_queue.schedule( 3.5, event() );
+
+        assertNull( l_queue.poll( 3.5 ) );
+        assertEquals( l_queue.poll( 4 ).getTime(), 3.5, 0 );
+        assertNull( l_queue.poll( 4 ) );
+        assertEquals( l_queue.getNextTime(), 4, 0 );
+        assertEquals( l_queue.size(), 1 );
+    }
+
+
+    /**
+     * test-case clear resets the sequence, so a queue is reproducible after a reset
+     */
+    @Test
+    public void testClear()
+    {
+        final CEventQueue l_queue = new CEventQueue();
+        l_queue.schedule( 1, event() );
+        l_queue.schedule( 1, event() );
+        l_queue.clear();
+
+        assertEquals( l_queue.size(), 0 );
+        assertTrue( Double.isInfinite( l_queue.getNextTime() ) );
+
+        final IEvent l_first = event();
+        final IEvent l_second = event();
+        l_queue.schedule( 1, l_first );
+        l_queue.schedule( 1, l_second );
+        assertTrue( l_queue.poll( 2 ).getEvent() == l_first );
+        assertTrue( l_queue.poll( 2 ).getEvent() == l_second );
+    }
+
+
+    /**
+     * test-case null events are rejected
+     */
+    @Test( expected = IllegalArgumentException.class )
+    public void testNull()
+    {
+        new CEventQueue().schedule( 1, null );
+    }
+
+}